@@ -29,6 +29,11 @@ import java.util.List;
  */
 public abstract class AbstractKeyable implements IKeyable
 {
+    /**
+     * Key manager (scope) the keyable entity is bound to.
+     */
+    private volatile KeyManager keyManager = KeyManager.getInstance();
+
     /**
      * Creates an abstract keyable.
      */
@@ -37,72 +42,93 @@ public abstract class AbstractKeyable implements IKeyable
     }
 
     /**
-     * Registers a keyable entity (and its defined keys) against the key manager.
+     * Registers a keyable entity (and its defined keys) against the default key manager.
      */
     protected final void register()
     {
-        KeyManager.getInstance().register(this);
+        register(KeyManager.getInstance());
+    }
+
+    /**
+     * Registers a keyable entity (and its defined keys) against the given key manager (scope).
+     * <br><br>
+     * The keyable entity is then bound to this scope: its queries are issued against this scope.
+     * @param scope Key manager.
+     */
+    protected final void register(final @NonNull KeyManager scope)
+    {
+        scope.register(this);
+    }
+
+    /**
+     * Binds the keyable entity to the key manager (scope) it has been registered against.
+     * @param scope Key manager.
+     */
+    final void bind(final @NonNull KeyManager scope)
+    {
+        this.keyManager = scope;
+    }
+
+    /**
+     * Binds back the keyable entity to the default key manager once unregistered from the given key manager (scope).
+     * @param scope Key manager.
+     */
+    final void unbind(final @NonNull KeyManager scope)
+    {
+        if (keyManager == scope)
+        {
+            this.keyManager = KeyManager.getInstance();
+        }
+    }
+
+    /**
+     * Returns the key manager (scope) the keyable entity is bound to.
+     * <br><br>
+     * A keyable entity bound to a disposed key manager is (lazily) bound back to the default key manager.
+     * @return Key manager.
+     */
+    public final KeyManager getKeyManager()
+    {
+        KeyManager scope = keyManager;
+
+        return scope.isDisposed() ? KeyManager.getInstance() : scope;
     }
 
     @Override
     public final List<IKeyable> getList(final @NonNull Class<? extends IKeyable> clazz, final @NonNull String name, final @NonNull Object value)
     {
-        return KeyManager.getInstance().get(clazz, name, value);
+        return getKeyManager().get(clazz, name, value);
     }
 
     @Override
     public final List<IKeyable> getList(final @NonNull Class<? extends IKeyable> clazz, final @NonNull IKey key)
     {
-        return KeyManager.getInstance().get(clazz, key);
+        return getKeyManager().get(clazz, key);
     }
 
     @Override
     public final IKeyable get(final @NonNull Class<? extends IKeyable> clazz, final @NonNull String name, final @NonNull Object value)
     {
-        List<? extends IKeyable> keyables;
-
-        keyables = KeyManager.getInstance().get(clazz, name, value);
-
-        return keyables.isEmpty() ? null : keyables.get(0);
+        return getKeyManager().getOne(clazz, name, value);
     }
 
     @Override
     public final IKeyable get(final @NonNull Class<? extends IKeyable> clazz, final @NonNull IKey key)
     {
-        List<IKeyable> keyables = KeyManager.getInstance().get(clazz, key);
-
-        return keyables.isEmpty() ? null : keyables.get(0);
+        return getKeyManager().getOne(clazz, key);
     }
 
     @Override
     public final Key getPrimaryKey()
     {
-        Field[] fields = this.getClass().getDeclaredFields();
-        for (Field field : fields)
+        KeyDescriptor primary = KeyableDescriptor.of(this.getClass()).getPrimaryKey();
+        if (primary != null)
         {
-            PrimaryKey primary = field.getAnnotation(PrimaryKey.class);
-            if (primary != null)
-            {
-                try
-                {
-                    field.setAccessible(true);
-                    Object value = field.get(this);
-                    field.setAccessible(false);
-
-                    return Key.builder()
-                            .keyable(this)
-                            .name(primary.name())
-                            .value(value)
-                            .build();
-                }
-                catch (IllegalAccessException e)
-                {
-                    throw new KeyException(
-                            String.format("Cannot retrieve primary key on keyable: '%s', due to: '%s'",
-                                    this.getClass().getName(),
-                                    e.getMessage()));
-                }
-            }
+            return Key.builder()
+                    .keyable(this)
+                    .name(primary.getName())
+                    .value(primary.getAccessor().get(this))
+                    .build();
         }
 
         throw new KeyException(
@@ -114,43 +140,14 @@ public abstract class AbstractKeyable implements IKeyable
     @Override
     public final IKey getKey(final @NonNull String name)
     {
-        String mode;
-
-        Field[] fields = this.getClass().getDeclaredFields();
-        for (Field field : fields)
+        KeyDescriptor key = KeyableDescriptor.of(this.getClass()).getKey(name);
+        if (key != null)
         {
-            mode = null;
-            if (field.getAnnotation(PrimaryKey.class) != null && field.getAnnotation(PrimaryKey.class).name().equals(name))
-            {
-                mode = PrimaryKey.class.getSimpleName();
-            }
-            else if (field.getAnnotation(AlternateKey.class) != null && field.getAnnotation(AlternateKey.class).name().equals(name))
-            {
-                mode = AlternateKey.class.getSimpleName();
-            }
-
-            if (mode != null)
-            {
-                try
-                {
-                    field.setAccessible(true);
-                    Object value = field.get(this);
-                    field.setAccessible(false);
-
-                    return Key.builder()
-                            .keyable(this)
-                            .name(name)
-                            .value(value)
-                            .build();
-                }
-                catch (IllegalAccessException e)
-                {
-                    throw new KeyException(
-                            String.format("Cannot retrieve alternate key on keyable: '%s', due to: '%s'",
-                                    this.getClass().getName(),
-                                    e.getMessage()));
-                }
-            }
+            return Key.builder()
+                    .keyable(this)
+                    .name(name)
+                    .value(key.getAccessor().get(this))
+                    .build();
         }
 
         return null;
@@ -159,73 +156,23 @@ public abstract class AbstractKeyable implements IKeyable
     @Override
     public final List<Annotation> getAnnotationKeys()
     {
-        List<Annotation> annotations = new ArrayList<>();
-
-        Field[] fields = this.getClass().getDeclaredFields();
-        for (Field field : fields)
-        {
-            PrimaryKey primary = field.getAnnotation(PrimaryKey.class);
-            if (primary != null)
-            {
-                annotations.add(primary);
-            }
-            else
-            {
-                AlternateKey alternate = field.getAnnotation(AlternateKey.class);
-                if (alternate != null)
-                {
-                    annotations.add(alternate);
-                }
-            }
-        }
-
-        return Collections.unmodifiableList(annotations);
+        return KeyableDescriptor.of(this.getClass()).getAnnotations();
     }
 
     @Override
     public final Annotation getAnnotationKey(final @NonNull String name)
     {
-        boolean found;
+        KeyDescriptor key = KeyableDescriptor.of(this.getClass()).getKey(name);
 
-        for (Annotation annotation : getAnnotationKeys())
-        {
-            found = annotation instanceof PrimaryKey ? ((PrimaryKey) annotation).name().equals(name) : ((AlternateKey) annotation).name().equals(name);
-            if (found)
-            {
-                return annotation;
-            }
-        }
-
-        return null;
+        return key != null ? key.getAnnotation() : null;
     }
 
     @Override
     public final Field getAnnotatedField(final @NonNull Annotation annotation)
     {
-        String name = annotation instanceof PrimaryKey ? ((PrimaryKey) annotation).name() : ((AlternateKey) annotation).name();
+        KeyDescriptor key = KeyableDescriptor.of(this.getClass()).getKey(annotation);
 
-        Field[] fields = this.getClass().getDeclaredFields();
-        for (Field field : fields)
-        {
-            PrimaryKey primary = field.getAnnotation(PrimaryKey.class);
-            if (primary != null)
-            {
-                if (primary.name().equals(name))
-                {
-                    return field;
-                }
-            }
-            else
-            {
-                AlternateKey alternate = field.getAnnotation(AlternateKey.class);
-                if (alternate != null && alternate.name().equals(name))
-                {
-                    return field;
-                }
-            }
-        }
-
-        return null;
+        return key != null ? key.getField() : null;
     }
 
     @Override
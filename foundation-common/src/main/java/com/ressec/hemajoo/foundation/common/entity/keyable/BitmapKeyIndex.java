@@ -0,0 +1,239 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Key index holding one bitmap per distinct key value, suited to the keys having few distinct values.
+ * <br><br>
+ * Each indexed keyable entity is given a position in a dense table of keyable entities (the positions freed by the
+ * removed keyable entities being reused), and each key value maps to the bitmap of the positions of its keyable
+ * entities. Each keyable entity costs one slot of the table of keyable entities and one entry of the map of the
+ * positions, and each key value costs one bit per position up to the highest position of its keyable entities: the
+ * index is therefore only compact for a handful of distinct key values.
+ * <br><br>
+ * This index is not thread safe, mutations must be serialized by the key manager (in concurrent mode, the index is
+ * guarded by a read-write lock).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class BitmapKeyIndex implements IKeyIndex
+{
+    /**
+     * Initial capacity of the table of keyable entities.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Bitmap of the positions of the keyable entities, by key value.
+     */
+    private final Map<Object, BitSet> bitmaps = new HashMap<>();
+
+    /**
+     * Position of the indexed keyable entities.
+     */
+    private final Map<IKeyable, Integer> positions = new IdentityHashMap<>();
+
+    /**
+     * Keyable entity by position, null for a free position.
+     */
+    private IKeyable[] entities = new IKeyable[INITIAL_CAPACITY];
+
+    /**
+     * Free positions (below the high water mark).
+     */
+    private int[] free = new int[INITIAL_CAPACITY];
+
+    /**
+     * Number of free positions.
+     */
+    private int freeCount;
+
+    /**
+     * Lowest never used position.
+     */
+    private int highWater;
+
+    /**
+     * Allocates a position to a keyable entity.
+     * @param keyable Keyable entity.
+     * @return Position.
+     */
+    private int allocate(final IKeyable keyable)
+    {
+        int position;
+
+        if (freeCount > 0)
+        {
+            position = free[--freeCount];
+        }
+        else
+        {
+            if (highWater == entities.length)
+            {
+                entities = Arrays.copyOf(entities, entities.length * 2);
+            }
+
+            position = highWater++;
+        }
+
+        entities[position] = keyable;
+        positions.put(keyable, position);
+
+        return position;
+    }
+
+    /**
+     * Releases the position of a keyable entity.
+     * @param position Position.
+     */
+    private void release(final int position)
+    {
+        positions.remove(entities[position]);
+        entities[position] = null;
+
+        if (freeCount == free.length)
+        {
+            free = Arrays.copyOf(free, free.length * 2);
+        }
+
+        free[freeCount++] = position;
+    }
+
+    /**
+     * Returns the keyable entities whose positions are set in a bitmap.
+     * @param bitmap Bitmap.
+     * @return Stream of keyable entities.
+     */
+    private Stream<IKeyable> streamOf(final BitSet bitmap)
+    {
+        IKeyable[] table = entities;
+
+        return bitmap.stream().mapToObj(i -> table[i]);
+    }
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        bitmaps.computeIfAbsent(value, k -> new BitSet()).set(allocate(keyable));
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        if (bitmaps.containsKey(value))
+        {
+            return false;
+        }
+
+        put(value, keyable);
+
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        Integer position = positions.get(keyable);
+        BitSet bitmap = bitmaps.get(value);
+        if (position == null || bitmap == null || !bitmap.get(position))
+        {
+            return false;
+        }
+
+        bitmap.clear(position);
+        if (bitmap.isEmpty())
+        {
+            bitmaps.remove(value);
+        }
+
+        release(position);
+
+        return true;
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        BitSet bitmap = bitmaps.get(value);
+        if (bitmap == null)
+        {
+            return Collections.emptyList();
+        }
+
+        List<IKeyable> list = new ArrayList<>(bitmap.cardinality());
+        for (int i = bitmap.nextSetBit(0); i >= 0; i = bitmap.nextSetBit(i + 1))
+        {
+            list.add(entities[i]);
+        }
+
+        return Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public IKeyable getOne(final Object value)
+    {
+        BitSet bitmap = bitmaps.get(value);
+
+        return bitmap == null ? null : entities[bitmap.nextSetBit(0)];
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        return bitmaps.containsKey(value);
+    }
+
+    @Override
+    public int size()
+    {
+        return positions.size();
+    }
+
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        return bitmaps.entrySet().stream()
+                .filter(entry -> filter.test(entry.getKey()))
+                .flatMap(entry -> streamOf(entry.getValue()));
+    }
+
+    @Override
+    public Stream<IKeyable> stream()
+    {
+        IKeyable[] table = entities;
+
+        return Arrays.stream(table, 0, highWater).filter(Objects::nonNull);
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        List<IKeyable> list = new ArrayList<>(positions.size());
+
+        for (int i = 0; i < highWater; i++)
+        {
+            if (entities[i] != null)
+            {
+                list.add(entities[i]);
+            }
+        }
+
+        return list;
+    }
+}
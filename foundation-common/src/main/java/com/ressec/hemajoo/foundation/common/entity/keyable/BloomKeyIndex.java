@@ -0,0 +1,170 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import com.google.common.hash.PrimitiveSink;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Key index decorator answering the definite misses of the lookups with a Bloom filter, without querying the
+ * decorated key index.
+ * <br><br>
+ * Each indexed key value is added to the Bloom filter. A lookup of a key value the Bloom filter has never seen is
+ * answered from the Bloom filter alone, any other lookup being delegated to the decorated key index. As a Bloom
+ * filter cannot forget a value, the values of the unregistered keyable entities (as the values indexed beyond the
+ * expected number of values) only increase the false positive rate of the Bloom filter, never the correctness of
+ * the lookups.
+ * <br><br>
+ * The Bloom filter is thread safe: in concurrent mode, the definite misses are answered without locking.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class BloomKeyIndex implements IKeyIndex
+{
+    /**
+     * False positive rate of the Bloom filter once the expected number of key values have been indexed.
+     */
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    /**
+     * Funnel of the key values into the Bloom filter (integral values of different types being funneled alike).
+     */
+    private static final Funnel<Object> FUNNEL = (Funnel<Object>) (value, sink) -> funnel(value, sink);
+
+    /**
+     * Decorated key index.
+     */
+    @Getter
+    private final IKeyIndex index;
+
+    /**
+     * Bloom filter of the indexed key values.
+     */
+    private final BloomFilter<Object> filter;
+
+    /**
+     * Creates a new key index decorated with a Bloom filter.
+     * @param index Decorated key index.
+     * @param expectedValues Expected number of distinct key values.
+     */
+    BloomKeyIndex(final @NonNull IKeyIndex index, final int expectedValues)
+    {
+        this.index = index;
+        this.filter = BloomFilter.create(FUNNEL, expectedValues, FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Funnels a key value into a Bloom filter.
+     * @param value Key value.
+     * @param sink Sink.
+     */
+    private static void funnel(final Object value, final PrimitiveSink sink)
+    {
+        if (LongKeyIndex.isIntegral(value))
+        {
+            sink.putLong(((Number) value).longValue());
+        }
+        else if (value instanceof CharSequence)
+        {
+            sink.putUnencodedChars((CharSequence) value);
+        }
+        else
+        {
+            sink.putInt(value.hashCode());
+        }
+    }
+
+    /**
+     * Returns if the given key value may be indexed?
+     * @param value Key value.
+     * @return False if the key value is definitely not indexed, true otherwise.
+     */
+    boolean mightContain(final Object value)
+    {
+        return value != null && filter.mightContain(value);
+    }
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        // The value is known by the filter before it can be found in the index.
+        filter.put(value);
+        index.put(value, keyable);
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        filter.put(value);
+
+        return index.putIfAbsent(value, keyable);
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        return index.remove(value, keyable);
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        return mightContain(value) ? index.get(value) : Collections.emptyList();
+    }
+
+    @Override
+    public IKeyable getOne(final Object value)
+    {
+        return mightContain(value) ? index.getOne(value) : null;
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        return mightContain(value) && index.contains(value);
+    }
+
+    @Override
+    public int size()
+    {
+        return index.size();
+    }
+
+    @Override
+    public void ensureCapacity(final int additional)
+    {
+        index.ensureCapacity(additional);
+    }
+
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        return index.stream(filter);
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        return index.values();
+    }
+}
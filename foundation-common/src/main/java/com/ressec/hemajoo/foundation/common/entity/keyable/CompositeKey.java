@@ -0,0 +1,55 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation used to annotate the fields of a {@link IKeyable} entity participating in a composite key of this entity.
+ * <br><br>
+ * All the fields annotated with the same composite key name form the components of this composite key, in field
+ * declaration order. The uniqueness and the mandatory properties of the composite key are the ones declared on its
+ * first component.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface CompositeKey
+{
+    /**
+     * The name of the composite key (must be unique amongst the keys of a keyable entity).
+     *
+     * @return Composite key name.
+     */
+    String name();
+
+    /**
+     * Are the component values mandatory ?
+     * <br><br>
+     * A keyable entity having a null component value is not indexed under a non mandatory composite key.
+     *
+     * @return True if the component values are mandatory, false otherwise.
+     */
+    boolean mandatory() default true;
+
+    /**
+     * Does the combination of the component values must be unique ?
+     *
+     * @return True if the combination of the component values must be unique, false otherwise.
+     */
+    boolean unique() default true;
+}
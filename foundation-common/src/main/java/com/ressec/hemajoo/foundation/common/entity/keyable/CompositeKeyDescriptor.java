@@ -0,0 +1,243 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Describes a composite key of a keyable entity class, spanning several fields annotated with {@link CompositeKey}.
+ * <br><br>
+ * The composite key value of a keyable entity is never materialized: its hash is computed from the component values
+ * read from the keyable entity, and the keyable entity is compared component by component with the queried
+ * component values. Components of an integral type are hashed and compared as long values, so that they can be
+ * queried with any integral wrapper type.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class CompositeKeyDescriptor
+{
+    /**
+     * Composite key name.
+     */
+    @Getter
+    private final String name;
+
+    /**
+     * Are the component values mandatory?
+     */
+    @Getter
+    private final boolean mandatory;
+
+    /**
+     * Must the combination of the component values be unique?
+     */
+    @Getter
+    private final boolean unique;
+
+    /**
+     * Component fields (in field declaration order).
+     */
+    private final Field[] fields;
+
+    /**
+     * Accessors of the component values.
+     */
+    private final KeyAccessor[] accessors;
+
+    /**
+     * Creates a new composite key descriptor.
+     * @param fields Component fields (in field declaration order).
+     */
+    CompositeKeyDescriptor(final @NonNull List<Field> fields)
+    {
+        CompositeKey first = fields.get(0).getAnnotation(CompositeKey.class);
+
+        this.name = first.name();
+        this.mandatory = first.mandatory();
+        this.unique = first.unique();
+        this.fields = fields.toArray(new Field[0]);
+        this.accessors = new KeyAccessor[this.fields.length];
+
+        for (int i = 0; i < this.fields.length; i++)
+        {
+            // Component fields are not handled by the compile time generated companions.
+            accessors[i] = new KeyAccessor(this.fields[i], null, -1);
+        }
+    }
+
+    /**
+     * Returns the number of components.
+     * @return Number of components.
+     */
+    int getComponentCount()
+    {
+        return fields.length;
+    }
+
+    /**
+     * Returns a component field.
+     * @param component Component index.
+     * @return Component field.
+     */
+    Field getField(final int component)
+    {
+        return fields[component];
+    }
+
+    /**
+     * Returns the value of a component of the composite key of a keyable entity.
+     * @param keyable Keyable entity.
+     * @param component Component index.
+     * @return Component value.
+     */
+    Object get(final @NonNull IKeyable keyable, final int component)
+    {
+        return accessors[component].get(keyable);
+    }
+
+    /**
+     * Returns the component values of the composite key of a keyable entity.
+     * @param keyable Keyable entity.
+     * @return Component values.
+     */
+    Object[] getComponents(final @NonNull IKeyable keyable)
+    {
+        Object[] components = new Object[accessors.length];
+
+        for (int i = 0; i < accessors.length; i++)
+        {
+            components[i] = accessors[i].get(keyable);
+        }
+
+        return components;
+    }
+
+    /**
+     * Returns if one of the component values of the composite key of a keyable entity is null?
+     * @param keyable Keyable entity.
+     * @return True if a component value is null, false otherwise.
+     */
+    boolean hasNullComponent(final @NonNull IKeyable keyable)
+    {
+        for (int i = 0; i < accessors.length; i++)
+        {
+            if (isNull(keyable, i))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the hash of the composite key of a keyable entity.
+     * @param keyable Keyable entity.
+     * @return Composite hash.
+     */
+    int hash(final @NonNull IKeyable keyable)
+    {
+        int hash = 1;
+
+        for (KeyAccessor accessor : accessors)
+        {
+            hash = 31 * hash + (accessor.isIntegral() ? Long.hashCode(accessor.getLong(keyable)) : Objects.hashCode(accessor.get(keyable)));
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns the hash of the given component values (equal to the hash of the keyable entities having these values).
+     * @param components Component values.
+     * @return Composite hash.
+     */
+    int hash(final @NonNull Object[] components)
+    {
+        int hash = 1;
+
+        for (int i = 0; i < accessors.length; i++)
+        {
+            Object component = components[i];
+
+            hash = 31 * hash + (accessors[i].isIntegral() && LongKeyIndex.isIntegral(component) ? Long.hashCode(((Number) component).longValue()) : Objects.hashCode(component));
+        }
+
+        return hash;
+    }
+
+    /**
+     * Returns if the composite key of a keyable entity has the given component values?
+     * @param keyable Keyable entity.
+     * @param components Component values.
+     * @return True if the component values match, false otherwise.
+     */
+    boolean matches(final @NonNull IKeyable keyable, final @NonNull Object[] components)
+    {
+        for (int i = 0; i < accessors.length; i++)
+        {
+            Object component = components[i];
+
+            if (accessors[i].isIntegral())
+            {
+                if (!LongKeyIndex.isIntegral(component) || isNull(keyable, i) || accessors[i].getLong(keyable) != ((Number) component).longValue())
+                {
+                    return false;
+                }
+            }
+            else if (!Objects.equals(component, accessors[i].get(keyable)))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns if two keyable entities have the same composite key value?
+     * @param keyable Keyable entity.
+     * @param other Other keyable entity.
+     * @return True if the component values of both keyable entities are equal, false otherwise.
+     */
+    boolean matches(final @NonNull IKeyable keyable, final @NonNull IKeyable other)
+    {
+        for (KeyAccessor accessor : accessors)
+        {
+            if (!Objects.equals(accessor.get(keyable), accessor.get(other)))
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns if a component value of a keyable entity is null (primitive component values are never null)?
+     * @param keyable Keyable entity.
+     * @param component Component index.
+     * @return True if the component value is null, false otherwise.
+     */
+    private boolean isNull(final @NonNull IKeyable keyable, final int component)
+    {
+        return !fields[component].getType().isPrimitive() && accessors[component].get(keyable) == null;
+    }
+}
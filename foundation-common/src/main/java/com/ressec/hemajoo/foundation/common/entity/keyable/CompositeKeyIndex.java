@@ -0,0 +1,443 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.NonNull;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Key index specialized for the composite keys.
+ * <br><br>
+ * Keyable entities are grouped per distinct composite key value and stored with the precomputed hash of this value
+ * in an open addressing hash table (linear probing, backward shift deletion): a slot holds either a single keyable
+ * entity or a {@link KeyBucket} of the keyable entities sharing the same component values (non unique composite
+ * keys), so that such keyable entities do not lengthen the probe sequences of the other composite key values. No
+ * tuple of component values is allocated per indexed keyable entity nor per query, the component values being
+ * compared with the ones read from the first keyable entity of the slots sharing the same hash. On mutations, the
+ * component values are read from the keyable entity (the given key value is ignored). On queries, the key value is
+ * the array of the component values.
+ * <br><br>
+ * This index is not thread safe, mutations must be serialized by the key manager.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class CompositeKeyIndex implements IKeyIndex
+{
+    /**
+     * Initial capacity of the hash table (must be a power of two).
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Maximum capacity of the hash table.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * Composite key.
+     */
+    private final CompositeKeyDescriptor key;
+
+    /**
+     * Composite hashes.
+     */
+    private int[] hashes;
+
+    /**
+     * Keyable entity (or bucket of keyable entities) per slot, null for an empty slot.
+     */
+    private Object[] slots;
+
+    /**
+     * Number of used slots (distinct composite key values).
+     */
+    private int used;
+
+    /**
+     * Number of indexed keyable entities.
+     */
+    private int count;
+
+    /**
+     * Creates a new empty index.
+     * @param key Composite key.
+     */
+    CompositeKeyIndex(final @NonNull CompositeKeyDescriptor key)
+    {
+        this.key = key;
+        this.hashes = new int[INITIAL_CAPACITY];
+        this.slots = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns the home slot of a composite hash.
+     * @param hash Composite hash.
+     * @param mask Hash table mask.
+     * @return Slot.
+     */
+    private static int home(final int hash, final int mask)
+    {
+        int spread = hash * 0x9E3779B9;
+
+        return (spread ^ (spread >>> 16)) & mask;
+    }
+
+    /**
+     * Returns the (first) keyable entity held by a slot.
+     * @param slot Slot (keyable entity or bucket of keyable entities).
+     * @return Keyable entity.
+     */
+    private static IKeyable first(final Object slot)
+    {
+        return slot instanceof IKeyable ? (IKeyable) slot : ((KeyBucket) slot).first();
+    }
+
+    /**
+     * Returns a stream of the keyable entities held by a slot.
+     * @param slot Slot (keyable entity or bucket of keyable entities).
+     * @return Stream of keyable entities.
+     */
+    private static Stream<IKeyable> streamOf(final Object slot)
+    {
+        return slot instanceof IKeyable ? Stream.of((IKeyable) slot) : ((KeyBucket) slot).stream();
+    }
+
+    /**
+     * Returns the component values of a queried key value.
+     * @param value Key value (array of component values, or the single component value).
+     * @return Component values or null if they do not match the components of the composite key.
+     */
+    private Object[] toComponents(final Object value)
+    {
+        Object[] components = value instanceof Object[] ? (Object[]) value : new Object[] { value };
+
+        return components.length == key.getComponentCount() ? components : null;
+    }
+
+    /**
+     * Returns the slot holding the keyable entities having the given component values.
+     * @param components Component values.
+     * @return Slot or -1 if no keyable entity has these component values.
+     */
+    private int find(final Object[] components)
+    {
+        int hash = key.hash(components);
+        int mask = slots.length - 1;
+
+        for (int i = home(hash, mask); slots[i] != null; i = (i + 1) & mask)
+        {
+            if (hashes[i] == hash && key.matches(first(slots[i]), components))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the slot holding the keyable entities having the same component values than the given keyable entity.
+     * @param hash Composite hash of the keyable entity.
+     * @param keyable Keyable entity.
+     * @return Slot or -1 if no keyable entity has these component values.
+     */
+    private int find(final int hash, final IKeyable keyable)
+    {
+        int mask = slots.length - 1;
+
+        for (int i = home(hash, mask); slots[i] != null; i = (i + 1) & mask)
+        {
+            if (hashes[i] == hash && key.matches(first(slots[i]), keyable))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Resizes the hash table.
+     * @param capacity New capacity (power of two).
+     */
+    private void resize(final int capacity)
+    {
+        int[] oldHashes = hashes;
+        Object[] oldSlots = slots;
+        int mask = capacity - 1;
+
+        hashes = new int[capacity];
+        slots = new Object[capacity];
+
+        for (int j = 0; j < oldSlots.length; j++)
+        {
+            if (oldSlots[j] != null)
+            {
+                int i = home(oldHashes[j], mask);
+                while (slots[i] != null)
+                {
+                    i = (i + 1) & mask;
+                }
+
+                hashes[i] = oldHashes[j];
+                slots[i] = oldSlots[j];
+            }
+        }
+    }
+
+    /**
+     * Empties a slot, shifting back the following entries of the probe sequence.
+     * @param slot Slot.
+     */
+    private void delete(final int slot)
+    {
+        int mask = slots.length - 1;
+        int gap = slot;
+        int i = slot;
+
+        while (true)
+        {
+            i = (i + 1) & mask;
+            if (slots[i] == null)
+            {
+                break;
+            }
+
+            int home = home(hashes[i], mask);
+
+            // The entry stays in place if its home slot is (cyclically) after the gap.
+            boolean stays = gap <= i ? (gap < home && home <= i) : (gap < home || home <= i);
+            if (!stays)
+            {
+                hashes[gap] = hashes[i];
+                slots[gap] = slots[i];
+                gap = i;
+            }
+        }
+
+        slots[gap] = null;
+        hashes[gap] = 0;
+        used--;
+    }
+
+    /**
+     * Stores the first keyable entity of a composite key value in a free slot.
+     * @param hash Composite hash of the keyable entity.
+     * @param keyable Keyable entity.
+     * @throws KeyException Thrown in case the hash table is full.
+     */
+    private void insert(final int hash, final IKeyable keyable)
+    {
+        if ((used + 1) * 4L > slots.length * 3L)
+        {
+            if (slots.length == MAXIMUM_CAPACITY)
+            {
+                throw new KeyException(String.format(
+                        "Cannot index a new value of composite key: '%s'! The key index is full (%d distinct key values)",
+                        key.getName(),
+                        used));
+            }
+
+            resize(slots.length * 2);
+        }
+
+        int mask = slots.length - 1;
+        int i = home(hash, mask);
+
+        while (slots[i] != null)
+        {
+            i = (i + 1) & mask;
+        }
+
+        hashes[i] = hash;
+        slots[i] = keyable;
+        used++;
+    }
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        int hash = key.hash(keyable);
+        int i = find(hash, keyable);
+
+        if (i < 0)
+        {
+            insert(hash, keyable);
+        }
+        else if (slots[i] instanceof IKeyable)
+        {
+            slots[i] = KeyBucket.of((IKeyable) slots[i]).add(keyable);
+        }
+        else
+        {
+            slots[i] = ((KeyBucket) slots[i]).add(keyable);
+        }
+
+        count++;
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        int hash = key.hash(keyable);
+
+        if (find(hash, keyable) >= 0)
+        {
+            return false;
+        }
+
+        insert(hash, keyable);
+        count++;
+
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        int i = find(key.hash(keyable), keyable);
+        if (i < 0)
+        {
+            return false;
+        }
+
+        if (slots[i] instanceof IKeyable)
+        {
+            if (!Objects.equals(slots[i], keyable))
+            {
+                return false;
+            }
+
+            delete(i);
+        }
+        else
+        {
+            KeyBucket bucket = (KeyBucket) slots[i];
+            KeyBucket updated = bucket.remove(keyable);
+
+            if (updated == bucket)
+            {
+                return false;
+            }
+
+            slots[i] = updated.size() == 1 ? updated.first() : updated;
+        }
+
+        count--;
+
+        return true;
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        Object[] components = toComponents(value);
+        int i = components == null ? -1 : find(components);
+
+        if (i < 0)
+        {
+            return Collections.emptyList();
+        }
+
+        return slots[i] instanceof IKeyable ? Collections.singletonList((IKeyable) slots[i]) : ((KeyBucket) slots[i]).asList();
+    }
+
+    @Override
+    public IKeyable getOne(final Object value)
+    {
+        Object[] components = toComponents(value);
+        int i = components == null ? -1 : find(components);
+
+        return i < 0 ? null : first(slots[i]);
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        Object[] components = toComponents(value);
+
+        return components != null && find(components) >= 0;
+    }
+
+    @Override
+    public int size()
+    {
+        return count;
+    }
+
+    @Override
+    public void ensureCapacity(final int additional)
+    {
+        int capacity = slots.length;
+
+        while ((used + (long) additional) * 4 > capacity * 3L && capacity < MAXIMUM_CAPACITY)
+        {
+            capacity = capacity * 2;
+        }
+
+        if (capacity != slots.length)
+        {
+            resize(capacity);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * Composite key values are presented to the predicate as arrays of component values.
+     */
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        Object[] entities = slots;
+
+        return Arrays.stream(entities)
+                .filter(slot -> slot != null && filter.test(key.getComponents(first(slot))))
+                .flatMap(CompositeKeyIndex::streamOf);
+    }
+
+    @Override
+    public Stream<IKeyable> stream()
+    {
+        Object[] entities = slots;
+
+        return Arrays.stream(entities)
+                .filter(Objects::nonNull)
+                .flatMap(CompositeKeyIndex::streamOf);
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        List<IKeyable> list = new ArrayList<>(count);
+
+        for (Object slot : slots)
+        {
+            if (slot instanceof IKeyable)
+            {
+                list.add((IKeyable) slot);
+            }
+            else if (slot != null)
+            {
+                ((KeyBucket) slot).addTo(list);
+            }
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Thread safe key index backed by a concurrent map.
+ * <br><br>
+ * The keyable entities indexed under a key value are stored in an immutable {@link KeyBucket} replaced on each
+ * mutation of this key value (in amortized constant time for an addition), so that readers never block and never
+ * observe a partially updated bucket. Writers of different key values proceed in parallel, writers of the same key
+ * value are serialized by the concurrent map. Integral key values are indexed as longs.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class ConcurrentKeyIndex implements IKeyIndex
+{
+    /**
+     * Keyable entities by key value.
+     */
+    private final ConcurrentMap<Object, KeyBucket> map = new ConcurrentHashMap<>();
+
+    /**
+     * Number of indexed keyable entities.
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        map.compute(LongKeyIndex.toIndexedValue(value), (key, bucket) -> bucket == null ? KeyBucket.of(keyable) : bucket.add(keyable));
+
+        count.incrementAndGet();
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        if (map.putIfAbsent(LongKeyIndex.toIndexedValue(value), KeyBucket.of(keyable)) != null)
+        {
+            return false;
+        }
+
+        count.incrementAndGet();
+
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        boolean[] removed = new boolean[1];
+
+        map.computeIfPresent(LongKeyIndex.toIndexedValue(value), (key, bucket) ->
+        {
+            KeyBucket updated = bucket.remove(keyable);
+            removed[0] = updated != bucket;
+
+            return updated;
+        });
+
+        if (removed[0])
+        {
+            count.decrementAndGet();
+        }
+
+        return removed[0];
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        KeyBucket bucket = map.get(LongKeyIndex.toIndexedValue(value));
+
+        return bucket == null ? Collections.emptyList() : bucket.asList();
+    }
+
+    @Override
+    public IKeyable getOne(final Object value)
+    {
+        KeyBucket bucket = map.get(LongKeyIndex.toIndexedValue(value));
+
+        return bucket == null ? null : bucket.first();
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        return map.containsKey(LongKeyIndex.toIndexedValue(value));
+    }
+
+    @Override
+    public int size()
+    {
+        return count.get();
+    }
+
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        return map.entrySet().stream()
+                .filter(entry -> filter.test(entry.getKey()))
+                .flatMap(entry -> entry.getValue().stream());
+    }
+
+    @Override
+    public Stream<IKeyable> stream()
+    {
+        return map.values().stream().flatMap(KeyBucket::stream);
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        List<IKeyable> list = new ArrayList<>(count.get());
+
+        for (KeyBucket bucket : map.values())
+        {
+            bucket.addTo(list);
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Index of the keyable entities registered by the key manager for one key (of a given keyable class), by key value.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+interface IKeyIndex
+{
+    /**
+     * Indexes a keyable entity under the given key value.
+     * @param value Key value.
+     * @param keyable Keyable entity.
+     */
+    void put(final Object value, final IKeyable keyable);
+
+    /**
+     * Indexes a keyable entity under the given key value only if no other keyable entity is already indexed
+     * under this value.
+     * @param value Key value.
+     * @param keyable Keyable entity.
+     * @return True if the keyable entity has been indexed, false if the key value is already used.
+     */
+    boolean putIfAbsent(final Object value, final IKeyable keyable);
+
+    /**
+     * Removes a keyable entity indexed under the given key value.
+     * @param value Key value.
+     * @param keyable Keyable entity.
+     * @return True if the keyable entity has been removed, false if it was not indexed under this value.
+     */
+    boolean remove(final Object value, final IKeyable keyable);
+
+    /**
+     * Returns the keyable entities indexed under the given key value.
+     * @param value Key value.
+     * @return Read-only list of keyable entities (empty if none).
+     */
+    List<IKeyable> get(final Object value);
+
+    /**
+     * Returns the (first) keyable entity indexed under the given key value.
+     * @param value Key value.
+     * @return Keyable entity or null if none.
+     */
+    default IKeyable getOne(final Object value)
+    {
+        List<IKeyable> list = get(value);
+
+        return list.isEmpty() ? null : list.get(0);
+    }
+
+    /**
+     * Returns if at least one keyable entity is indexed under the given key value?
+     * @param value Key value.
+     * @return True if the key value is used, false otherwise.
+     */
+    boolean contains(final Object value);
+
+    /**
+     * Returns the number of indexed keyable entities.
+     * @return Number of keyable entities.
+     */
+    int size();
+
+    /**
+     * Returns all the indexed keyable entities.
+     * @return List of keyable entities.
+     */
+    List<IKeyable> values();
+
+    /**
+     * Returns a lazy stream of the indexed keyable entities whose key value matches the given predicate.
+     * <br><br>
+     * The stream iterates the index in place (except when stated otherwise by the implementation) and splits along
+     * its internal structure when run in parallel. For a non thread safe index, the stream must not be consumed
+     * while keyable entities are registered or unregistered.
+     * @param filter Predicate on the key value.
+     * @return Stream of keyable entities.
+     */
+    Stream<IKeyable> stream(final Predicate<Object> filter);
+
+    /**
+     * Returns a lazy stream of all the indexed keyable entities.
+     * @return Stream of keyable entities.
+     */
+    default Stream<IKeyable> stream()
+    {
+        return stream(value -> true);
+    }
+
+    /**
+     * Prepares the index to receive the given number of additional key values, so that it does not have to grow
+     * while they are indexed. Indexes not supporting pre-sizing ignore this call.
+     * @param additional Number of additional key values.
+     */
+    default void ensureCapacity(final int additional)
+    {
+        // Empty.
+    }
+}
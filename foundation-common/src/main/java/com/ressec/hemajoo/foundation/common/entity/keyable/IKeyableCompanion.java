@@ -0,0 +1,110 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+/**
+ * Interface implemented by the companion classes generated at compile time by the keyable annotation processor
+ * (see the <b>foundation-processor</b> module) for each keyable class declaring {@link PrimaryKey} and/or
+ * {@link AlternateKey} fields.
+ * <br><br>
+ * A companion is named after its keyable class (nested class names being joined with an underscore) followed by
+ * the {@link #SUFFIX} and is generated in the same package. When present, the key manager uses it to:<br>
+ * - skip the structural checks of the keyable class (already enforced at compile time)<br>
+ * - read and write key fields directly (for key fields that are neither private nor final), without boxing the
+ * values of the integral ones
+ * <br><br>
+ * A companion is only used if its {@link #getFingerprint()} matches the fingerprint of the key fields of the
+ * keyable class loaded at runtime, so that a companion left over by a previous compilation is ignored.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public interface IKeyableCompanion
+{
+    /**
+     * Suffix appended to the keyable class name to obtain the companion class name.
+     */
+    String SUFFIX = "KeyCompanion";
+
+    /**
+     * Returns the keyable class this companion has been generated for.
+     * @return Keyable class.
+     */
+    Class<? extends IKeyable> getKeyableClass();
+
+    /**
+     * Returns the fingerprint of the key fields of the keyable class, at the time the companion was generated.
+     * <br><br>
+     * The fingerprint lists the key fields sorted by key name and separated by a semicolon, each key field being
+     * described by: {@code <field name>:<field type>:@<annotation simple name>(<attribute>=<value>,...)} where all
+     * the attributes of the key annotation (including the defaulted ones) are sorted by name and enumeration values
+     * are given by their constant name.
+     * @return Fingerprint.
+     */
+    String getFingerprint();
+
+    /**
+     * Returns the number of keys declared by the keyable class.
+     * @return Number of keys.
+     */
+    int getKeyCount();
+
+    /**
+     * Returns the index of a key given its name.
+     * @param keyName Key name.
+     * @return Key index or -1 if no key is declared with this name.
+     */
+    int indexOf(final String keyName);
+
+    /**
+     * Returns if the key field at the given index can be directly read and written by this companion?
+     * @param index Key index.
+     * @return True if the key field is directly accessible, false otherwise.
+     */
+    boolean isAccessible(final int index);
+
+    /**
+     * Returns the (boxed) value of the key field at the given index.
+     * @param keyable Keyable entity.
+     * @param index Key index.
+     * @return Key value.
+     */
+    Object get(final IKeyable keyable, final int index);
+
+    /**
+     * Sets the value of the key field at the given index.
+     * @param keyable Keyable entity.
+     * @param index Key index.
+     * @param value Key value.
+     */
+    void set(final IKeyable keyable, final int index, final Object value);
+
+    /**
+     * Returns the value of the integral key field at the given index without boxing it (a null wrapper value is
+     * returned as zero).
+     * @param keyable Keyable entity.
+     * @param index Key index.
+     * @return Key value.
+     */
+    long getLong(final IKeyable keyable, final int index);
+
+    /**
+     * Sets the value of the integral key field at the given index without boxing it (except if the field is a
+     * wrapper), the value being narrowed to the type of the key field.
+     * @param keyable Keyable entity.
+     * @param index Key index.
+     * @param value Key value.
+     */
+    void setLong(final IKeyable keyable, final int index, final long value);
+}
@@ -0,0 +1,40 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+/**
+ * Enumeration of the types of the secondary indexes declared with the {@link Indexed} annotation.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public enum IndexType
+{
+    /**
+     * Hash index, indexed as a non unique key (exact match lookups in constant time).
+     */
+    HASH,
+
+    /**
+     * Sorted index (fields of an integral type only), supporting the range, floor, ceiling, minimum, maximum and top
+     * queries of the sorted keys.
+     */
+    SORTED,
+
+    /**
+     * Bitmap index, holding one bitmap of the indexed keyable entities per distinct value. Suited to the fields
+     * having few distinct values (such as a status or a category).
+     */
+    BITMAP
+}
@@ -0,0 +1,47 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import java.lang.annotation.*;
+
+/**
+ * Annotation used to annotate the (non key) fields of a {@link IKeyable} entity maintained in a secondary index by
+ * the key manager.
+ * <br><br>
+ * A secondary index has no uniqueness nor mandatory semantic: keyable entities having a null value are simply not
+ * indexed. It is queried through the same services as the keys, using its name as key name. Besides the key types,
+ * fields of an enumeration type can be indexed.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Indexed
+{
+    /**
+     * The name of the index (must be unique amongst the keys of a keyable entity), the field name if empty.
+     *
+     * @return Index name.
+     */
+    String name() default "";
+
+    /**
+     * The type of the index.
+     *
+     * @return Index type.
+     */
+    IndexType type() default IndexType.HASH;
+}
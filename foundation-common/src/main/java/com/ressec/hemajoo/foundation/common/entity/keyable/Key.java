@@ -19,8 +19,6 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
 
-import java.lang.reflect.Field;
-
 /**
  * Provides a concrete implementation of a key.
  * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
@@ -94,39 +92,17 @@ public final class Key implements IKey
     @Builder
     public Key(final @NonNull IKeyable keyable, final @NonNull String name, final Object value)
     {
-        Field[] fields = keyable.getClass().getDeclaredFields();
-        for (Field field : fields)
+        KeyDescriptor key = KeyableDescriptor.of(keyable.getClass()).getKey(name);
+        if (key != null)
         {
-            PrimaryKey primary = field.getAnnotation(PrimaryKey.class);
-            if (primary != null)
-            {
-                if (name.equals(primary.name()))
-                {
-                    this.name = primary.name();
-                    this.type = field.getType();
-                    this.isMandatory = true;
-                    this.isUnique = true;
-                    this.isPrimary = true;
-                    this.isAuto = primary.auto();
-                    this.reference = keyable.getClass();
-                    this.value = value;
-                }
-            }
-            else
-            {
-                AlternateKey alternate = field.getAnnotation(AlternateKey.class);
-                if (alternate != null && name.equals(alternate.name()))
-                {
-                    this.name = alternate.name();
-                    this.type = field.getType();
-                    this.isMandatory = alternate.mandatory();
-                    this.isUnique = alternate.unique();
-                    this.isPrimary = false;
-                    this.isAuto = alternate.auto();
-                    this.reference = keyable.getClass();
-                    this.value = value;
-                }
-            }
+            this.name = key.getName();
+            this.type = key.getType();
+            this.isMandatory = key.isMandatory();
+            this.isUnique = key.isUnique();
+            this.isPrimary = key.isPrimary();
+            this.isAuto = key.isAuto();
+            this.reference = keyable.getClass();
+            this.value = value;
         }
     }
 }
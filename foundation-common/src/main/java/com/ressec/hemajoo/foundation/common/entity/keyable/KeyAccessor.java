@@ -0,0 +1,314 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.NonNull;
+import org.apache.commons.lang3.ClassUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Provides a read/write access to the value of a key field.
+ * <br><br>
+ * The accessibility of the key field is granted only once and never toggled again. Its boxed value is read and
+ * written through a plain reflective access. Key fields of an integral type (byte, short, int, long and their
+ * wrappers) are also bound to primitive <b>long</b> getter and setter method handles so that their values can be
+ * read and written without boxing.
+ * <br><br>
+ * When the keyable class has a compile time generated {@link IKeyableCompanion} able to directly access the key
+ * field, the (boxed or primitive) value of the key field is read and written through the companion instead.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class KeyAccessor
+{
+    /**
+     * Method type of the primitive long getter.
+     */
+    private static final MethodType LONG_GETTER_TYPE = MethodType.methodType(long.class, IKeyable.class);
+
+    /**
+     * Method type of the primitive long setter.
+     */
+    private static final MethodType LONG_SETTER_TYPE = MethodType.methodType(void.class, IKeyable.class, long.class);
+
+    /**
+     * Key field.
+     */
+    private final Field field;
+
+    /**
+     * Companion directly accessing the key field, null if none.
+     */
+    private final IKeyableCompanion companion;
+
+    /**
+     * Index of the key in the companion.
+     */
+    private final int companionIndex;
+
+    /**
+     * Primitive handles bound to the key field, null if the key field is not of an integral type.
+     */
+    private final BoundHandles handles;
+
+    /**
+     * Creates a new key accessor for the given key field.
+     * @param field Key field.
+     * @param companion Companion of the keyable class (can be null).
+     * @param companionIndex Index of the key in the companion.
+     * @throws KeyException Thrown in case the key field cannot be accessed.
+     */
+    KeyAccessor(final @NonNull Field field, final IKeyableCompanion companion, final int companionIndex)
+    {
+        this.field = field;
+
+        if (companion != null && companionIndex >= 0 && companion.isAccessible(companionIndex))
+        {
+            this.companion = companion;
+            this.companionIndex = companionIndex;
+        }
+        else
+        {
+            this.companion = null;
+            this.companionIndex = -1;
+        }
+
+        try
+        {
+            field.setAccessible(true);
+
+            if (isIntegralType(field.getType()))
+            {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                MethodHandle get = lookup.unreflectGetter(field);
+                MethodHandle set = lookup.unreflectSetter(field);
+
+                Class<?> primitive = ClassUtils.wrapperToPrimitive(field.getType());
+                if (primitive == null)
+                {
+                    primitive = field.getType();
+                }
+
+                // A null wrapper value is read as zero.
+                MethodHandle longGetter = MethodHandles.explicitCastArguments(get, LONG_GETTER_TYPE);
+
+                // Narrows the long to the field primitive type, then (if needed) boxes it to the wrapper type.
+                MethodHandle longSetter = MethodHandles.explicitCastArguments(
+                        set.asType(MethodType.methodType(void.class, IKeyable.class, primitive)),
+                        LONG_SETTER_TYPE);
+
+                this.handles = new BoundHandles(longGetter, longSetter);
+            }
+            else
+            {
+                this.handles = null;
+            }
+        }
+        catch (IllegalAccessException | SecurityException e)
+        {
+            throw new KeyException(String.format(
+                    "Cannot bind key field: '%s', of type: '%s', declared on keyable entity: '%s', due to: '%s'",
+                    field.getName(),
+                    field.getType().getName(),
+                    field.getDeclaringClass().getName(),
+                    e.getMessage()));
+        }
+    }
+
+    /**
+     * Returns if the given type is an integral type (byte, short, int, long or one of their wrappers)?
+     * @param type Type.
+     * @return True if the type is an integral type, false otherwise.
+     */
+    static boolean isIntegralType(final @NonNull Class<?> type)
+    {
+        return type == Byte.class || type == byte.class ||
+                type == Short.class || type == short.class ||
+                type == Integer.class || type == int.class ||
+                type == Long.class || type == long.class;
+    }
+
+    /**
+     * Returns if the key field is of an integral type and can be accessed through {@link #getLong(IKeyable)}
+     * and {@link #setLong(IKeyable, long)}?
+     * @return True if the key field is of an integral type, false otherwise.
+     */
+    boolean isIntegral()
+    {
+        return handles != null;
+    }
+
+    /**
+     * Returns the (boxed) value of the key field.
+     * @param keyable Keyable entity.
+     * @return Key value.
+     */
+    Object get(final @NonNull IKeyable keyable)
+    {
+        if (companion != null)
+        {
+            return companion.get(keyable, companionIndex);
+        }
+
+        try
+        {
+            return field.get(keyable);
+        }
+        catch (IllegalAccessException | IllegalArgumentException e)
+        {
+            throw newKeyException("read", keyable, e);
+        }
+    }
+
+    /**
+     * Sets the value of the key field.
+     * @param keyable Keyable entity.
+     * @param value Key value.
+     */
+    void set(final @NonNull IKeyable keyable, final Object value)
+    {
+        if (companion != null)
+        {
+            companion.set(keyable, companionIndex, value);
+            return;
+        }
+
+        try
+        {
+            field.set(keyable, value);
+        }
+        catch (IllegalAccessException | IllegalArgumentException e)
+        {
+            throw newKeyException("write", keyable, e);
+        }
+    }
+
+    /**
+     * Returns the value of an integral key field without boxing it (a null wrapper value is returned as zero).
+     * @param keyable Keyable entity.
+     * @return Key value.
+     */
+    long getLong(final @NonNull IKeyable keyable)
+    {
+        try
+        {
+            return companion != null ? companion.getLong(keyable, companionIndex) : handles.getLong(keyable);
+        }
+        catch (Throwable e)
+        {
+            throw newKeyException("read", keyable, e);
+        }
+    }
+
+    /**
+     * Sets the value of an integral key field without boxing it (except if the field is a wrapper).
+     * @param keyable Keyable entity.
+     * @param value Key value.
+     */
+    void setLong(final @NonNull IKeyable keyable, final long value)
+    {
+        try
+        {
+            if (companion != null)
+            {
+                companion.setLong(keyable, companionIndex, value);
+            }
+            else
+            {
+                handles.setLong(keyable, value);
+            }
+        }
+        catch (Throwable e)
+        {
+            throw newKeyException("write", keyable, e);
+        }
+    }
+
+    /**
+     * Creates a key exception raised when the key field cannot be accessed.
+     * @param operation Operation (read or write).
+     * @param keyable Keyable entity.
+     * @param cause Cause.
+     * @return Key exception.
+     */
+    private KeyException newKeyException(final String operation, final IKeyable keyable, final Throwable cause)
+    {
+        if (cause instanceof KeyException)
+        {
+            return (KeyException) cause;
+        }
+
+        return new KeyException(String.format(
+                "Cannot %s key field: '%s', of type: '%s', declared on keyable entity: '%s', due to: '%s'",
+                operation,
+                field.getName(),
+                field.getType().getName(),
+                keyable.getClass().getName(),
+                cause.getMessage()));
+    }
+
+    /**
+     * Holds the primitive method handles of an integral key field.
+     */
+    private static final class BoundHandles
+    {
+        /**
+         * Primitive getter: (IKeyable) -> long.
+         */
+        private final MethodHandle longGetter;
+
+        /**
+         * Primitive setter: (IKeyable, long) -> void.
+         */
+        private final MethodHandle longSetter;
+
+        /**
+         * Creates new bound handles.
+         * @param longGetter Long getter method handle.
+         * @param longSetter Long setter method handle.
+         */
+        private BoundHandles(final MethodHandle longGetter, final MethodHandle longSetter)
+        {
+            this.longGetter = longGetter;
+            this.longSetter = longSetter;
+        }
+
+        /**
+         * Returns the value of the integral key field.
+         * @param keyable Keyable entity.
+         * @return Key value.
+         * @throws Throwable Thrown in case the key field cannot be read.
+         */
+        private long getLong(final IKeyable keyable) throws Throwable
+        {
+            return (long) longGetter.invokeExact(keyable);
+        }
+
+        /**
+         * Sets the value of the integral key field.
+         * @param keyable Keyable entity.
+         * @param value Key value.
+         * @throws Throwable Thrown in case the key field cannot be written.
+         */
+        private void setLong(final IKeyable keyable, final long value) throws Throwable
+        {
+            longSetter.invokeExact(keyable, value);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.NonNull;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Exception thrown to indicate that some keyable entities of a batch could not be registered.
+ * <br><br>
+ * The rejected keyable entities and the reasons of their rejection are reported in the same order: the failure at
+ * a given position is the one of the rejected keyable entity at the same position. The keyable entities of the batch
+ * that are not rejected are registered.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class KeyBatchException extends KeyException
+{
+    /**
+     * Default serialization identifier.
+     */
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Rejected keyable entities.
+     */
+    private final transient List<IKeyable> rejected;
+
+    /**
+     * Failures, one per rejected keyable entity.
+     */
+    private final transient List<KeyException> failures;
+
+    /**
+     * Creates a new exception.
+     * @param message Message of the exception.
+     * @param rejected Rejected keyable entities.
+     * @param failures Failures, one per rejected keyable entity.
+     */
+    public KeyBatchException(final String message, final @NonNull List<IKeyable> rejected, final @NonNull List<KeyException> failures)
+    {
+        super(message);
+
+        this.rejected = Collections.unmodifiableList(rejected);
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * Returns the rejected keyable entities.
+     * @return List of keyable entities.
+     */
+    public final List<IKeyable> getRejected()
+    {
+        return rejected;
+    }
+
+    /**
+     * Returns the failures, one per rejected keyable entity.
+     * @return List of key exceptions.
+     */
+    public final List<KeyException> getFailures()
+    {
+        return failures;
+    }
+}
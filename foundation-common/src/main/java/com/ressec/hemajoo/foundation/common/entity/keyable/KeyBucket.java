@@ -0,0 +1,196 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.NonNull;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Immutable bucket of the keyable entities indexed under a same key value.
+ * <br><br>
+ * A bucket is a snapshot of the first entries of an array whose capacity is doubled when full. Adding a keyable
+ * entity to a bucket having a spare capacity writes it in the next free slot of the shared array and returns a
+ * new (one entry larger) snapshot, so that adding n keyable entities costs an amortized O(1) per entity instead of
+ * copying the whole bucket each time. The entries of a published snapshot are never written again: a slot is
+ * claimed (atomically) by a single snapshot before being written, and removing a keyable entity copies the
+ * remaining ones (except when removing the last one). A bucket can therefore be read, and exposed as a list, without
+ * any lock while it is being replaced by a writer, including when the writer retries the replacement (as the
+ * concurrent maps do when their remapping functions race).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class KeyBucket
+{
+    /**
+     * Entries (shared by the successive snapshots of a bucket).
+     */
+    private final IKeyable[] entries;
+
+    /**
+     * Number of entries of this snapshot.
+     */
+    private final int size;
+
+    /**
+     * Number of claimed slots of the entries, null if the entries are full.
+     */
+    private final AtomicInteger claimed;
+
+    /**
+     * Creates a new bucket snapshot.
+     * @param entries Entries.
+     * @param size Number of entries of the snapshot.
+     * @param claimed Number of claimed slots of the entries.
+     */
+    private KeyBucket(final IKeyable[] entries, final int size, final AtomicInteger claimed)
+    {
+        this.entries = entries;
+        this.size = size;
+        this.claimed = claimed;
+    }
+
+    /**
+     * Creates a new bucket holding a single keyable entity.
+     * @param keyable Keyable entity.
+     * @return Bucket.
+     */
+    static KeyBucket of(final @NonNull IKeyable keyable)
+    {
+        return new KeyBucket(new IKeyable[] { keyable }, 1, null);
+    }
+
+    /**
+     * Returns a bucket holding the keyable entities of this bucket followed by the given one.
+     * @param keyable Keyable entity.
+     * @return Bucket.
+     */
+    KeyBucket add(final @NonNull IKeyable keyable)
+    {
+        if (size < entries.length && claimed != null && claimed.compareAndSet(size, size + 1))
+        {
+            entries[size] = keyable;
+
+            return new KeyBucket(entries, size + 1, claimed);
+        }
+
+        IKeyable[] updated = Arrays.copyOf(entries, Math.max(2, size * 2));
+        updated[size] = keyable;
+
+        return new KeyBucket(updated, size + 1, new AtomicInteger(size + 1));
+    }
+
+    /**
+     * Returns a bucket holding the keyable entities of this bucket except the given one.
+     * @param keyable Keyable entity.
+     * @return This bucket if it does not hold the keyable entity, the updated bucket otherwise (null if empty).
+     */
+    KeyBucket remove(final IKeyable keyable)
+    {
+        int position = indexOf(keyable);
+        if (position < 0)
+        {
+            return this;
+        }
+
+        if (size == 1)
+        {
+            return null;
+        }
+
+        if (position == size - 1)
+        {
+            // The shared slot remains claimed, the next addition will copy the entries.
+            return new KeyBucket(entries, size - 1, null);
+        }
+
+        IKeyable[] updated = new IKeyable[size - 1];
+        System.arraycopy(entries, 0, updated, 0, position);
+        System.arraycopy(entries, position + 1, updated, position, size - position - 1);
+
+        return new KeyBucket(updated, size - 1, null);
+    }
+
+    /**
+     * Returns the position of the given keyable entity in this bucket.
+     * @param keyable Keyable entity.
+     * @return Position or -1 if the bucket does not hold the keyable entity.
+     */
+    int indexOf(final IKeyable keyable)
+    {
+        for (int i = 0; i < size; i++)
+        {
+            if (Objects.equals(entries[i], keyable))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the number of keyable entities of this bucket.
+     * @return Number of keyable entities.
+     */
+    int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the first keyable entity of this bucket.
+     * @return Keyable entity.
+     */
+    IKeyable first()
+    {
+        return entries[0];
+    }
+
+    /**
+     * Returns an unmodifiable list view of the keyable entities of this bucket.
+     * @return List of keyable entities.
+     */
+    List<IKeyable> asList()
+    {
+        List<IKeyable> list = Arrays.asList(entries);
+
+        return Collections.unmodifiableList(size == entries.length ? list : list.subList(0, size));
+    }
+
+    /**
+     * Adds the keyable entities of this bucket to the given collection.
+     * @param collection Collection.
+     */
+    void addTo(final @NonNull Collection<? super IKeyable> collection)
+    {
+        collection.addAll(asList());
+    }
+
+    /**
+     * Returns a stream of the keyable entities of this bucket.
+     * @return Stream of keyable entities.
+     */
+    Stream<IKeyable> stream()
+    {
+        return Arrays.stream(entries, 0, size);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Loads large amounts of keyable entities in parallel into the key manager.
+ * <br><br>
+ * The keyable entities are split into partitions checked in parallel by the tasks of a fork-join pool (validation
+ * of the type, mandatory, auto and value constraints of every key). The checked partitions are then merged into
+ * the key indexes, the uniqueness of the unique keys being enforced at merge time:<br>
+ * - in concurrent mode (or with sharded key indexes), each partition is merged by the task that checked it, in
+ * parallel<br>
+ * - otherwise, the partitions are merged once all of them have been checked, holding the registration lock once
+ * <br><br>
+ * As for {@link KeyManager#registerAll(Collection)}, a keyable entity that cannot be registered does not stop
+ * the load, all failures being reported together once the load is complete.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Log4j2
+@Builder
+public final class KeyBulkLoader
+{
+    /**
+     * Default number of keyable entities under which a partition is not split anymore.
+     */
+    public static final int DEFAULT_THRESHOLD = 4096;
+
+    /**
+     * Fork-join pool executing the load.
+     */
+    @Getter
+    @Builder.Default
+    private final ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * Number of keyable entities under which a partition is not split anymore.
+     */
+    @Getter
+    @Builder.Default
+    private final int threshold = DEFAULT_THRESHOLD;
+
+    /**
+     * Key manager (scope) the keyable entities are loaded into.
+     */
+    @Getter
+    @Builder.Default
+    private final KeyManager manager = KeyManager.getInstance();
+
+    /**
+     * Loads a stream of keyable entities.
+     * @param keyables Keyable entities.
+     * @throws KeyBatchException Thrown in case at least one keyable entity cannot be registered.
+     */
+    public final void load(final @NonNull Stream<? extends IKeyable> keyables)
+    {
+        load(keyables.collect(Collectors.toList()));
+    }
+
+    /**
+     * Loads a collection of keyable entities.
+     * @param keyables Keyable entities.
+     * @throws KeyBatchException Thrown in case at least one keyable entity cannot be registered.
+     */
+    public final void load(final @NonNull Collection<? extends IKeyable> keyables)
+    {
+        boolean concurrent = manager.getConfiguration().isThreadSafe();
+        Map<KeyableDescriptor, List<IKeyable>> batches = new LinkedHashMap<>();
+        List<IKeyable> rejected = new ArrayList<>();
+        List<KeyException> failures = new ArrayList<>();
+
+        // Groups the keyable entities by keyable class.
+        Map<Class<? extends IKeyable>, List<IKeyable>> classes = new LinkedHashMap<>();
+        for (IKeyable keyable : keyables)
+        {
+            classes.computeIfAbsent(keyable.getClass(), k -> new ArrayList<>()).add(keyable);
+        }
+
+        for (List<IKeyable> list : classes.values())
+        {
+            KeyableDescriptor descriptor = KeyableDescriptor.of(list.get(0).getClass());
+            Partition partition = pool.invoke(new PartitionTask(manager, descriptor, list, concurrent));
+
+            rejected.addAll(partition.rejected);
+            failures.addAll(partition.failures);
+
+            if (!partition.accepted.isEmpty())
+            {
+                batches.put(descriptor, partition.accepted);
+            }
+        }
+
+        if (!batches.isEmpty())
+        {
+            manager.registerCheckedBatches(batches, rejected, failures);
+        }
+
+        if (!failures.isEmpty())
+        {
+            String message = String.format(
+                    "Cannot load: %d keyable entities out of: %d!",
+                    failures.size(),
+                    keyables.size());
+
+            log.error(message);
+
+            throw new KeyBatchException(message, rejected, failures);
+        }
+    }
+
+    /**
+     * Result of the processing of a partition of keyable entities.
+     */
+    private static final class Partition
+    {
+        /**
+         * Checked keyable entities remaining to be registered.
+         */
+        private final List<IKeyable> accepted = new ArrayList<>();
+
+        /**
+         * Rejected keyable entities.
+         */
+        private final List<IKeyable> rejected = new ArrayList<>();
+
+        /**
+         * Failures, one per rejected keyable entity.
+         */
+        private final List<KeyException> failures = new ArrayList<>();
+
+        /**
+         * Appends the result of the processing of the following partition.
+         * @param other Result of the following partition.
+         * @return This result.
+         */
+        private Partition merge(final @NonNull Partition other)
+        {
+            accepted.addAll(other.accepted);
+            rejected.addAll(other.rejected);
+            failures.addAll(other.failures);
+
+            return this;
+        }
+    }
+
+    /**
+     * Fork-join task processing a partition of keyable entities of the same keyable class.
+     */
+    private final class PartitionTask extends RecursiveTask<Partition>
+    {
+        /**
+         * Default serialization identifier.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Key manager.
+         */
+        private final transient KeyManager manager;
+
+        /**
+         * Keyable descriptor.
+         */
+        private final transient KeyableDescriptor descriptor;
+
+        /**
+         * Keyable entities of the partition.
+         */
+        private final transient List<IKeyable> keyables;
+
+        /**
+         * Are the checked keyable entities to be registered by the task (thread safe key indexes)?
+         */
+        private final boolean register;
+
+        /**
+         * Creates a new partition task.
+         * @param manager Key manager.
+         * @param descriptor Keyable descriptor.
+         * @param keyables Keyable entities of the partition.
+         * @param register Are the checked keyable entities to be registered by the task?
+         */
+        private PartitionTask(final KeyManager manager, final KeyableDescriptor descriptor, final List<IKeyable> keyables, final boolean register)
+        {
+            this.manager = manager;
+            this.descriptor = descriptor;
+            this.keyables = keyables;
+            this.register = register;
+        }
+
+        @Override
+        protected Partition compute()
+        {
+            if (keyables.size() > Math.max(threshold, 1))
+            {
+                int middle = keyables.size() / 2;
+                PartitionTask left = new PartitionTask(manager, descriptor, keyables.subList(0, middle), register);
+                PartitionTask right = new PartitionTask(manager, descriptor, keyables.subList(middle, keyables.size()), register);
+
+                right.fork();
+
+                return left.compute().merge(right.join());
+            }
+
+            Partition partition = new Partition();
+            List<IKeyable> accepted = manager.checkBatch(descriptor, keyables, partition.rejected, partition.failures);
+
+            if (register)
+            {
+                manager.registerCheckedBatches(Collections.singletonMap(descriptor, accepted), partition.rejected, partition.failures);
+            }
+            else
+            {
+                partition.accepted.addAll(accepted);
+            }
+
+            return partition;
+        }
+    }
+}
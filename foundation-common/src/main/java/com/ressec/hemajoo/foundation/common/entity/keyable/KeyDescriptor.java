@@ -0,0 +1,227 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+
+/**
+ * Describes a key field of a keyable entity class.
+ * <br><br>
+ * A key descriptor is resolved once from the {@link PrimaryKey}, {@link AlternateKey} or {@link Indexed} annotation
+ * declared on a field and is then shared by all the keyable entities of the same class. A field annotated with
+ * {@link Indexed} is described as a non unique and non mandatory key.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class KeyDescriptor
+{
+    /**
+     * Position of the key in the keys of the keyable class (in field declaration order).
+     */
+    @Getter
+    private final int index;
+
+    /**
+     * Field holding the key value.
+     */
+    @Getter
+    private final Field field;
+
+    /**
+     * Accessor used to read and write the key value.
+     */
+    @Getter
+    private final KeyAccessor accessor;
+
+    /**
+     * Key annotation declared on the field.
+     */
+    @Getter
+    private final Annotation annotation;
+
+    /**
+     * Key name.
+     */
+    @Getter
+    private final String name;
+
+    /**
+     * Key type (type of the field).
+     */
+    @Getter
+    private final Class<?> type;
+
+    /**
+     * Is it the primary key?
+     */
+    @Getter
+    private final boolean primary;
+
+    /**
+     * Is the key value mandatory?
+     */
+    @Getter
+    private final boolean mandatory;
+
+    /**
+     * Must the key value be unique?
+     */
+    @Getter
+    private final boolean unique;
+
+    /**
+     * Is the key value generated by the key manager?
+     */
+    @Getter
+    private final boolean auto;
+
+    /**
+     * Number of generated key values reserved at once by a thread.
+     */
+    @Getter
+    private final int blockSize;
+
+    /**
+     * Are the key values kept sorted by the key manager?
+     */
+    @Getter
+    private final boolean sorted;
+
+    /**
+     * Can the key values be searched by prefix?
+     */
+    @Getter
+    private final boolean prefix;
+
+    /**
+     * Normalization applied to the key values.
+     */
+    @Getter
+    private final KeyNormalization normalization;
+
+    /**
+     * Is it a secondary index (declared with {@link Indexed})?
+     */
+    @Getter
+    private final boolean indexed;
+
+    /**
+     * Are the key values indexed in bitmaps?
+     */
+    @Getter
+    private final boolean bitmap;
+
+    /**
+     * Expected number of distinct key values of the Bloom filter fronting the key index (no Bloom filter if 0).
+     */
+    @Getter
+    private final int bloomFilter;
+
+    /**
+     * Creates a new key descriptor.
+     * @param index Position of the key in the keys of the keyable class.
+     * @param field Field holding the key value.
+     * @param annotation Key annotation (either a {@link PrimaryKey}, an {@link AlternateKey} or an {@link Indexed}).
+     * @param companion Compile time generated companion of the keyable class (can be null).
+     */
+    KeyDescriptor(final int index, final @NonNull Field field, final @NonNull Annotation annotation, final IKeyableCompanion companion)
+    {
+        this.index = index;
+        this.field = field;
+        this.annotation = annotation;
+        this.type = field.getType();
+
+        if (annotation instanceof PrimaryKey)
+        {
+            PrimaryKey primaryKey = (PrimaryKey) annotation;
+
+            this.name = primaryKey.name();
+            this.primary = true;
+            this.mandatory = true;
+            this.unique = true;
+            this.auto = primaryKey.auto();
+            this.blockSize = primaryKey.blockSize();
+            this.sorted = primaryKey.sorted();
+            this.prefix = primaryKey.prefix();
+            this.bloomFilter = primaryKey.bloomFilter();
+            this.normalization = primaryKey.normalization();
+            this.indexed = false;
+            this.bitmap = false;
+        }
+        else if (annotation instanceof Indexed)
+        {
+            Indexed indexed = (Indexed) annotation;
+
+            this.name = nameOf(field, annotation);
+            this.primary = false;
+            this.mandatory = false;
+            this.unique = false;
+            this.auto = false;
+            this.blockSize = 1;
+            this.sorted = indexed.type() == IndexType.SORTED;
+            this.prefix = false;
+            this.bloomFilter = 0;
+            this.normalization = KeyNormalization.NONE;
+            this.indexed = true;
+            this.bitmap = indexed.type() == IndexType.BITMAP;
+        }
+        else
+        {
+            AlternateKey alternateKey = (AlternateKey) annotation;
+
+            this.name = alternateKey.name();
+            this.primary = false;
+            this.mandatory = alternateKey.mandatory();
+            this.unique = alternateKey.unique();
+            this.auto = alternateKey.auto();
+            this.blockSize = alternateKey.blockSize();
+            this.sorted = alternateKey.sorted();
+            this.prefix = alternateKey.prefix();
+            this.bloomFilter = alternateKey.bloomFilter();
+            this.normalization = alternateKey.normalization();
+            this.indexed = false;
+            this.bitmap = false;
+        }
+
+        this.accessor = new KeyAccessor(field, companion, companion != null && !indexed ? companion.indexOf(name) : -1);
+    }
+
+    /**
+     * Returns the name of the key declared by a key annotation.
+     * @param field Field holding the key value.
+     * @param annotation Key annotation (either a {@link PrimaryKey}, an {@link AlternateKey} or an {@link Indexed}).
+     * @return Key name.
+     */
+    static String nameOf(final @NonNull Field field, final @NonNull Annotation annotation)
+    {
+        if (annotation instanceof PrimaryKey)
+        {
+            return ((PrimaryKey) annotation).name();
+        }
+
+        if (annotation instanceof AlternateKey)
+        {
+            return ((AlternateKey) annotation).name();
+        }
+
+        String name = ((Indexed) annotation).name();
+
+        return name.isEmpty() ? field.getName() : name;
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the values of a key (of an integral type) having the 'auto' property set to true.
+ * <br><br>
+ * Values are generated in sequence starting at 1 using a lock free atomic counter, without any allocation.
+ * A key exception is raised once the maximum value of the key type (byte, short, int or long) has been reached.
+ * <br><br>
+ * When the block size of the key is greater than 1, each thread reserves a block of values from the shared counter
+ * and hands them out locally until the block is exhausted. Values are then unique but no more contiguous across
+ * threads (the unused values of a block are lost when the generator is reset).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Log4j2
+final class KeyGenerator
+{
+    /**
+     * Key the values are generated for.
+     */
+    @Getter
+    private final KeyDescriptor key;
+
+    /**
+     * Maximum value that can be generated for the key type.
+     */
+    @Getter
+    private final long limit;
+
+    /**
+     * Number of values reserved at once by a thread.
+     */
+    @Getter
+    private final int blockSize;
+
+    /**
+     * Latest generated (or reserved) value (0 if none).
+     */
+    private final AtomicLong latest = new AtomicLong();
+
+    /**
+     * Generation of the generator, incremented on each reset to invalidate the blocks reserved by the threads.
+     */
+    private final AtomicInteger generation = new AtomicInteger();
+
+    /**
+     * Block of values reserved by the current thread (only used when the block size is greater than 1).
+     */
+    private final ThreadLocal<Block> blocks;
+
+    /**
+     * Creates a new key generator.
+     * @param key Key (of an integral type).
+     */
+    KeyGenerator(final @NonNull KeyDescriptor key)
+    {
+        this.key = key;
+        this.limit = getLimit(key.getType());
+        this.blockSize = Math.max(1, key.getBlockSize());
+        this.blocks = blockSize > 1 ? ThreadLocal.withInitial(Block::new) : null;
+    }
+
+    /**
+     * Returns the maximum value of the given integral type.
+     * @param type Integral type.
+     * @return Maximum value.
+     */
+    private static long getLimit(final @NonNull Class<?> type)
+    {
+        if (type == Byte.class || type == byte.class)
+        {
+            return Byte.MAX_VALUE;
+        }
+        else if (type == Short.class || type == short.class)
+        {
+            return Short.MAX_VALUE;
+        }
+        else if (type == Integer.class || type == int.class)
+        {
+            return Integer.MAX_VALUE;
+        }
+
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Generates the next key value.
+     * @param keyable Keyable entity the key value is generated for.
+     * @return Next key value.
+     * @throws KeyException Thrown in case the maximum value of the key type has been reached.
+     */
+    long next(final @NonNull IKeyable keyable)
+    {
+        if (blocks == null)
+        {
+            return nextShared(keyable);
+        }
+
+        Block block = blocks.get();
+        int current = generation.get();
+
+        if (block.generation != current || block.next > block.end)
+        {
+            reserve(keyable, block, current);
+        }
+
+        return block.next++;
+    }
+
+    /**
+     * Generates the next key value from the shared counter.
+     * @param keyable Keyable entity the key value is generated for.
+     * @return Next key value.
+     * @throws KeyException Thrown in case the maximum value of the key type has been reached.
+     */
+    private long nextShared(final @NonNull IKeyable keyable)
+    {
+        while (true)
+        {
+            long current = latest.get();
+            if (current >= limit)
+            {
+                throw newLimitException(keyable);
+            }
+
+            if (latest.compareAndSet(current, current + 1))
+            {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Reserves a new block of values from the shared counter for the current thread.
+     * @param keyable Keyable entity the key value is generated for.
+     * @param block Block of the current thread.
+     * @param current Current generation of the generator.
+     * @throws KeyException Thrown in case the maximum value of the key type has been reached.
+     */
+    private void reserve(final @NonNull IKeyable keyable, final @NonNull Block block, final int current)
+    {
+        while (true)
+        {
+            long reserved = latest.get();
+            if (reserved >= limit)
+            {
+                throw newLimitException(keyable);
+            }
+
+            // The last block may be shorter when reaching the limit of the key type.
+            long end = reserved > limit - blockSize ? limit : reserved + blockSize;
+
+            if (latest.compareAndSet(reserved, end))
+            {
+                block.next = reserved + 1;
+                block.end = end;
+                block.generation = current;
+
+                return;
+            }
+        }
+    }
+
+    /**
+     * Creates the key exception raised when the maximum value of the key type has been reached.
+     * @param keyable Keyable entity the key value is generated for.
+     * @return Key exception.
+     */
+    private KeyException newLimitException(final @NonNull IKeyable keyable)
+    {
+        String message = String.format(
+                "Key name: '%s' with type: '%s' for keyable entity: '%s' has reached its limit: '%d', no more value can be generated!",
+                key.getName(),
+                key.getType().getName(),
+                keyable.getClass().getName(),
+                limit);
+
+        log.error(message);
+
+        return new KeyException(message);
+    }
+
+    /**
+     * Returns the latest generated (or reserved) value (0 if none).
+     * @return Latest generated value.
+     */
+    long getLatest()
+    {
+        return latest.get();
+    }
+
+    /**
+     * Restores the generator, so that the next generated value is greater than the given value.
+     * @param value Latest generated value to restore.
+     */
+    void restore(final long value)
+    {
+        latest.accumulateAndGet(value, Math::max);
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Resets the generator, the next generated value will be 1.
+     */
+    void reset()
+    {
+        latest.set(0);
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Block of values reserved by a thread.
+     */
+    private static final class Block
+    {
+        /**
+         * Next value to hand out.
+         */
+        private long next = 1;
+
+        /**
+         * Last value of the block.
+         */
+        private long end = 0;
+
+        /**
+         * Generation of the generator the block has been reserved for.
+         */
+        private int generation = -1;
+    }
+}
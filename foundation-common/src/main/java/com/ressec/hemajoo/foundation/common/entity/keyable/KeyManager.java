@@ -14,23 +14,25 @@
  */
 package com.ressec.hemajoo.foundation.common.entity.keyable;
 
-import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.Multimap;
 import lombok.NonNull;
 import lombok.Synchronized;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.ClassUtils;
 
-import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A singleton manager responsible to manage keys.
  * <br><br>
  * The key manager has the following responsibilities:<br>
- * - register keyable entities and key fields annotated with the {@link PrimaryKey}
- * and/or {@link AlternateKey} annotations<br>
+ * - register keyable entities and key fields annotated with the {@link PrimaryKey}, {@link AlternateKey}
+ * and/or {@link CompositeKey} annotations<br>
+ * - maintain the secondary indexes of the fields annotated with the {@link Indexed} annotation<br>
  * - provide services to manage the registered keys<br>
  * - provide services to manage the keyable entities<br>
  * - provide service to retrieve keyable entities based on keys
@@ -41,26 +43,41 @@ import java.util.*;
 public final class KeyManager
 {
     /**
-     * Key manager (unique) instance.
+     * Key manager default instance (default scope).
      */
-    private static KeyManager instance = new KeyManager();
+    private static final KeyManager instance = new KeyManager();
+
+    /**
+     * Key type under which the composite keys are indexed.
+     */
+    private static final Class<?> COMPOSITE_KEY_TYPE = Object[].class;
 
     /**
      * Collection of keyable entities grouped by: keyable entity type (keyable class), then by key type (key class)
      * then by key name and then by key value.
      */
-    private Map<Class<? extends IKeyable>, Map<Class<?>, Map<String, Multimap<Object, IKeyable>>>> entities = new HashMap<>();
+    private final Map<Class<? extends IKeyable>, Map<Class<?>, Map<String, IKeyIndex>>> entities = new ConcurrentHashMap<>();
+
+    /**
+     * Generators of the key values for keys (of an integral type) with property 'auto' set to true.
+     * Keyable class, then generators indexed by key position (null for keys not requiring a generator).
+     */
+    private final Map<Class<? extends IKeyable>, KeyGenerator[]> generators = new ConcurrentHashMap<>();
+
+    /**
+     * Key manager configuration.
+     */
+    private volatile KeyManagerConfiguration configuration = KeyManagerConfiguration.DEFAULT;
 
     /**
-     * Collection storing the latest key value for keys with property 'auto' set to true.
-     * Keyable class, then key type, then key name, then value of the latest key.
+     * Cache of the query results (null if the query cache is disabled).
      */
-    private Map<Class<? extends IKeyable>, Map<Class<?>, Map<String, Object>>> values = new HashMap<>();
+    private volatile KeyQueryCache cache = null;
 
     /**
-     * Temporary collection of keys used when registering a keyable entity.
+     * Has the key manager been disposed?
      */
-    private Map<String, Annotation> keys = new HashMap<>();
+    private volatile boolean disposed = false;
 
     /**
      * Avoid creating directly key manager instance!
@@ -71,7 +88,7 @@ public final class KeyManager
     }
 
     /**
-     * Returns the (unique) instance of the key manager.
+     * Returns the default instance of the key manager (default scope).
      * @return {@link KeyManager} instance.
      */
     public static KeyManager getInstance()
@@ -79,6 +96,87 @@ public final class KeyManager
         return instance;
     }
 
+    /**
+     * Creates a new key manager (scope), independent from the default one.
+     * <br><br>
+     * A scope has its own key indexes, key value generators, locks and configuration: keyable entities registered
+     * against a scope are neither visible from nor contending with the other scopes, and the uniqueness of the
+     * unique keys is enforced within the scope only. Dropping a scope and all its keyable entities only requires
+     * to release the scope (see {@link #dispose()}).
+     * @param configuration Key manager configuration.
+     * @return {@link KeyManager} instance.
+     */
+    public static KeyManager create(final @NonNull KeyManagerConfiguration configuration)
+    {
+        KeyManager manager = new KeyManager();
+        manager.configure(configuration);
+
+        return manager;
+    }
+
+    /**
+     * Disposes the key manager: all its keyable entities are unregistered and no keyable entity can be registered
+     * against it anymore.
+     * <br><br>
+     * The indexes are dropped as a whole, without visiting the keyable entities: the keyable entities registered
+     * against the key manager are lazily bound back to the default key manager (see
+     * {@link AbstractKeyable#getKeyManager()}).
+     * @throws KeyManagerException Thrown in case of the default key manager, which cannot be disposed.
+     */
+    @Synchronized
+    public final void dispose()
+    {
+        if (this == instance)
+        {
+            String message = "Cannot dispose the default key manager!";
+
+            log.error(message);
+
+            throw new KeyManagerException(message);
+        }
+
+        disposed = true;
+
+        unregisterAll();
+    }
+
+    /**
+     * Returns if the key manager has been disposed?
+     * @return True if the key manager has been disposed, false otherwise.
+     */
+    public final boolean isDisposed()
+    {
+        return disposed;
+    }
+
+    /**
+     * Binds back a keyable entity to the default key manager once unregistered from this key manager.
+     * @param keyable Keyable entity.
+     */
+    private void unbind(final @NonNull IKeyable keyable)
+    {
+        if (keyable instanceof AbstractKeyable)
+        {
+            ((AbstractKeyable) keyable).unbind(this);
+        }
+    }
+
+    /**
+     * Checks that the key manager has not been disposed.
+     * @throws KeyManagerException Thrown in case the key manager has been disposed.
+     */
+    private void checkNotDisposed()
+    {
+        if (disposed)
+        {
+            String message = "Cannot use a disposed key manager!";
+
+            log.error(message);
+
+            throw new KeyManagerException(message);
+        }
+    }
+
     /**
      * Key manager initialization.
      */
@@ -96,451 +194,639 @@ public final class KeyManager
     }
 
     /**
-     * Registers the given keyable entity and all its keys against the key manager.
-     * @param keyable Keyable entity.
+     * Returns the key manager configuration.
+     * @return Key manager configuration.
      */
-    public final void register(final @NonNull IKeyable keyable)
+    public final KeyManagerConfiguration getConfiguration()
+    {
+        return configuration;
+    }
+
+    /**
+     * Applies a new configuration to the key manager.
+     * @param configuration Key manager configuration.
+     * @throws KeyManagerException Thrown in case some keyable entities are registered against the key manager.
+     */
+    @Synchronized
+    public final void configure(final @NonNull KeyManagerConfiguration configuration)
     {
-        keys.clear();
+        checkNotDisposed();
 
-        // Register all keys of this keyable entity.
-        Field[] fields = keyable.getClass().getDeclaredFields();
-        for (Field field : fields)
+        for (Map<Class<?>, Map<String, IKeyIndex>> types : entities.values())
         {
-            // Check if the field is annotated as a primary key ?
-            PrimaryKey primary = field.getAnnotation(PrimaryKey.class);
-            if (primary != null)
-            {
-                checkKey(primary, field, keyable);
-                addKey(primary, field, keyable);
-            }
-            else
+            for (Map<String, IKeyIndex> names : types.values())
             {
-                // Check if the field is annotated as an alternate key ?
-                AlternateKey alternate = field.getAnnotation(AlternateKey.class);
-                if (alternate != null)
+                for (IKeyIndex index : names.values())
                 {
-                    checkKey(alternate, field, keyable);
-                    addKey(alternate, field, keyable);
+                    if (index.size() > 0)
+                    {
+                        String message = "Cannot configure the key manager while keyable entities are registered!";
+
+                        log.error(message);
+
+                        throw new KeyManagerException(message);
+                    }
                 }
             }
         }
 
-        checkPrimaryKey(keyable);
-        checkForKeyDuplicate(keyable);
+        // Drops the (empty) indexes so that they are re-created according to the new configuration.
+        entities.clear();
+        generators.clear();
 
-        registerKeyable(keyable);
+        this.configuration = configuration;
+
+        // Cached query results would hold the weakly referenced keyable entities strongly.
+        this.cache = configuration.getQueryCacheSize() > 0 && !configuration.isWeakReferences() ? new KeyQueryCache(configuration.getQueryCacheSize()) : null;
     }
 
     /**
-     * Unregisters the given keyable entity (and all its keys).
-     * @param keyable Keyable entity.
+     * Unregisters all keyable entities (and all their keys) of all keyable types.
      */
-    public final void unregister(final @NonNull IKeyable keyable)
+    public final void unregisterAll()
     {
-        Field field;
+        entities.clear();
+        generators.clear();
 
-        for (Annotation annotation : keyable.getAnnotationKeys())
+        KeyQueryCache queries = cache;
+        if (queries != null)
         {
-            field = getKeyField(keyable, annotation);
-            if (field != null)
-            {
-                unregisterKey(keyable, field, annotation);
-            }
+            queries.clear();
         }
     }
 
     /**
-     * Unregisters all keys of given a key type and a given keyable type.
-     * @param keyableClass Keyable class.
-     * @param keyType Key type.
+     * Registers the given keyable entity and all its keys against the key manager.
+     * @param keyable Keyable entity.
      */
-    public final void unregisterKeysByKeyType(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull Class<?> keyType)
+    public final void register(final @NonNull IKeyable keyable)
     {
-        entities.get(keyableClass).remove(keyType);
+        checkNotDisposed();
 
-        try
+        KeyableDescriptor descriptor = KeyableDescriptor.of(keyable.getClass());
+
+        // Structure of keyable classes having a generated companion has already been checked at compile time.
+        if (!descriptor.isVerified())
+        {
+            checkPrimaryKey(descriptor, keyable);
+            checkForKeyDuplicate(descriptor, keyable);
+        }
+
+        // Secondary indexes are not known by the annotation processor.
+        checkForIndexDuplicate(descriptor, keyable);
+
+        for (KeyDescriptor key : descriptor.getKeys())
         {
-            values.get(keyableClass).remove(keyType);
+            checkKey(key, descriptor.isVerified(), keyable);
         }
-        catch (NullPointerException e)
+
+        for (CompositeKeyDescriptor key : descriptor.getCompositeKeys())
         {
-            // Do nothing ... it means no latest value!
+            checkCompositeKey(descriptor, key, keyable);
         }
+
+        registerKeyable(descriptor, keyable);
     }
 
     /**
-     * Unregisters all keys and of all keyables of a given keyable type.
-     * @param keyableClass Keyable type.
+     * Registers a batch of keyable entities (and all their keys) against the key manager.
+     * <br><br>
+     * The structure of each keyable class is checked once per batch, the indexes of the unique keys are sized for
+     * the whole batch and (unless the key indexes are thread safe) the registration lock is acquired once.
+     * A keyable entity that cannot be registered does not stop the batch: all other keyable entities are registered
+     * and all the failures are reported together once the batch has been processed.
+     * @param keyables Keyable entities.
+     * @throws KeyBatchException Thrown in case at least one keyable entity cannot be registered.
      */
-    public final void unregisterKeysByKeyableType(final @NonNull Class<? extends IKeyable> keyableClass)
+    public final void registerAll(final @NonNull Collection<? extends IKeyable> keyables)
     {
-        // Remove the keys.
-        entities.remove(keyableClass);
+        Map<KeyableDescriptor, List<IKeyable>> batches = new LinkedHashMap<>();
+        List<IKeyable> rejected = new ArrayList<>();
+        List<KeyException> failures = new ArrayList<>();
 
-        try
+        // Groups the keyable entities by keyable class.
+        Map<Class<? extends IKeyable>, List<IKeyable>> classes = new LinkedHashMap<>();
+        for (IKeyable keyable : keyables)
+        {
+            classes.computeIfAbsent(keyable.getClass(), k -> new ArrayList<>()).add(keyable);
+        }
+
+        for (List<IKeyable> list : classes.values())
         {
-            values.remove(keyableClass);
+            KeyableDescriptor descriptor = KeyableDescriptor.of(list.get(0).getClass());
+            List<IKeyable> accepted = checkBatch(descriptor, list, rejected, failures);
+            if (!accepted.isEmpty())
+            {
+                batches.put(descriptor, accepted);
+            }
         }
-        catch (NullPointerException e)
+
+        registerCheckedBatches(batches, rejected, failures);
+
+        if (!failures.isEmpty())
         {
-            // Do nothing ... it means no latest value!
+            String message = String.format(
+                    "Cannot register: %d keyable entities out of: %d!",
+                    failures.size(),
+                    keyables.size());
+
+            log.error(message);
+
+            throw new KeyBatchException(message, rejected, failures);
         }
     }
 
     /**
-     * Unregisters a key given its name.<br>
-     * This service will unregister all keys matching the given key name for all keyable entities of the given type.
-     * @param keyableClass Keyable class.
-     * @param keyName Key name.
+     * Checks a batch of keyable entities of the same keyable class before their registration.
+     * @param descriptor Keyable descriptor.
+     * @param keyables Keyable entities.
+     * @param rejected Rejected keyable entities.
+     * @param failures Failures, one per rejected keyable entity.
+     * @return Keyable entities that can be registered.
      */
-    public final void unregisterKeysByName(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
+    final List<IKeyable> checkBatch(final @NonNull KeyableDescriptor descriptor, final @NonNull List<IKeyable> keyables, final @NonNull List<IKeyable> rejected, final @NonNull List<KeyException> failures)
     {
-        Class<?> keyType = getKeyTypeFor(keyableClass, keyName);
-
-        entities.get(keyableClass).get(keyType).remove(keyName);
+        List<IKeyable> accepted = new ArrayList<>(keyables.size());
 
+        // Structure of keyable classes having a generated companion has already been checked at compile time.
         try
         {
-            values.get(keyableClass).get(keyType).remove(keyName);
+            if (!descriptor.isVerified())
+            {
+                checkPrimaryKey(descriptor, keyables.get(0));
+                checkForKeyDuplicate(descriptor, keyables.get(0));
+            }
+
+            // Secondary indexes are not known by the annotation processor.
+            checkForIndexDuplicate(descriptor, keyables.get(0));
+        }
+        catch (KeyException e)
+        {
+            for (IKeyable keyable : keyables)
+            {
+                rejected.add(keyable);
+                failures.add(e);
+            }
+
+            return accepted;
         }
-        catch (NullPointerException e)
+
+        for (IKeyable keyable : keyables)
         {
-            // Do nothing ... it means no latest value!
+            try
+            {
+                for (KeyDescriptor key : descriptor.getKeys())
+                {
+                    checkKey(key, descriptor.isVerified(), keyable);
+                }
+
+                for (CompositeKeyDescriptor key : descriptor.getCompositeKeys())
+                {
+                    checkCompositeKey(descriptor, key, keyable);
+                }
+
+                accepted.add(keyable);
+            }
+            catch (KeyException e)
+            {
+                rejected.add(keyable);
+                failures.add(e);
+            }
         }
+
+        return accepted;
     }
 
     /**
-     * Unregisters a specific key of a given keyable entity.
-     * @param keyable Keyable entity.
-     * @param field Field holding the key value.
-     * @param annotation Annotation of the key.
+     * Registers batches of already checked keyable entities against the key manager.
+     * @param batches Keyable entities by keyable descriptor.
+     * @param rejected Rejected keyable entities.
+     * @param failures Failures, one per rejected keyable entity.
      */
-    private void unregisterKey(final @NonNull IKeyable keyable, final @NonNull Field field, final @NonNull Annotation annotation)
+    final void registerCheckedBatches(final @NonNull Map<KeyableDescriptor, List<IKeyable>> batches, final @NonNull List<IKeyable> rejected, final @NonNull List<KeyException> failures)
     {
-        Object value;
-        String name = annotation instanceof PrimaryKey ? ((PrimaryKey) annotation).name() : ((AlternateKey) annotation).name();
-        Class<?> type = field.getType();
+        checkNotDisposed();
 
-        try
-        {
-            field.setAccessible(true);
-            value = field.get(keyable);
-        }
-        catch (IllegalAccessException e)
+        if (configuration.isThreadSafe())
         {
-            throw new KeyException(String.format(
-                    "Cannot unregister key with name: %s, of type: %s, declared on keyable entity: '%s' due to: '%s'",
-                    name,
-                    field.getType().getName(),
-                    keyable.getClass().getName(),
-                    e.getMessage()));
+            // Concurrent (or sharded) indexes do not require registrations to be serialized.
+            registerBatches(batches, rejected, failures);
         }
-        finally
+        else
         {
-            field.setAccessible(false);
+            registerBatchesSynchronized(batches, rejected, failures);
         }
+    }
 
-        Multimap<Object, IKeyable> map = entities.get(keyable.getClass()).get(type).get(name);
-        if (map != null && map.containsKey(value))
-        {
-            map.remove(value, keyable);
-        }
+    /**
+     * Registers (serially) batches of keyable entities against the key manager.
+     * @param batches Keyable entities by keyable descriptor.
+     * @param rejected Rejected keyable entities.
+     * @param failures Failures, one per rejected keyable entity.
+     */
+    @Synchronized
+    private void registerBatchesSynchronized(final @NonNull Map<KeyableDescriptor, List<IKeyable>> batches, final @NonNull List<IKeyable> rejected, final @NonNull List<KeyException> failures)
+    {
+        registerBatches(batches, rejected, failures);
     }
 
     /**
-     * Returns the field annotated with the given annotation.
-     * @param keyable Keyable.
-     * @param annotation Annotation.
-     * @return Field annotated with the given annotation.
+     * Registers batches of keyable entities against the key manager.
+     * @param batches Keyable entities by keyable descriptor.
+     * @param rejected Rejected keyable entities.
+     * @param failures Failures, one per rejected keyable entity.
      */
-    private Field getKeyField(final @NonNull IKeyable keyable, final @NonNull Annotation annotation)
+    private void registerBatches(final @NonNull Map<KeyableDescriptor, List<IKeyable>> batches, final @NonNull List<IKeyable> rejected, final @NonNull List<KeyException> failures)
     {
-        Field[] fields = keyable.getClass().getDeclaredFields();
-        for (Field field : fields)
+        for (Map.Entry<KeyableDescriptor, List<IKeyable>> batch : batches.entrySet())
         {
-            if (annotation instanceof PrimaryKey)
+            Map<Class<?>, Map<String, IKeyIndex>> types = getCollectionByKeyable(batch.getValue().get(0));
+
+            // Only the number of values of the unique keys is known in advance.
+            for (KeyDescriptor key : batch.getKey().getKeys())
             {
-                PrimaryKey reference = (PrimaryKey) annotation;
-                PrimaryKey primary = field.getAnnotation(PrimaryKey.class);
-                if (primary != null && primary.name().equals(reference.name()))
+                if (key.isUnique())
                 {
-                    return field;
+                    getCollectionByKeyName(getCollectionByKeyType(types, key.getType()), key).ensureCapacity(batch.getValue().size());
                 }
             }
 
-            if (annotation instanceof AlternateKey)
+            for (IKeyable keyable : batch.getValue())
             {
-                AlternateKey reference = (AlternateKey) annotation;
-                AlternateKey alternate = field.getAnnotation(AlternateKey.class);
-                if (alternate != null && alternate.name().equals(reference.name()))
+                try
+                {
+                    registerKeys(batch.getKey(), keyable);
+                }
+                catch (KeyException e)
                 {
-                    return field;
+                    rejected.add(keyable);
+                    failures.add(e);
                 }
             }
         }
-
-        return null;
     }
 
     /**
-     * Registers the keys of a keyable entity against the key manager.
+     * Unregisters the given keyable entity (and all its keys).
      * @param keyable Keyable entity.
      */
-    @Synchronized
-    private void registerKeyable(final @NonNull IKeyable keyable)
+    public final void unregister(final @NonNull IKeyable keyable)
+    {
+        KeyableDescriptor descriptor = KeyableDescriptor.of(keyable.getClass());
+
+        for (KeyDescriptor key : descriptor.getKeys())
+        {
+            unregisterKey(keyable, key);
+        }
+
+        for (CompositeKeyDescriptor key : descriptor.getCompositeKeys())
+        {
+            unregisterCompositeKey(keyable, key);
+        }
+
+        unbind(keyable);
+    }
+
+    /**
+     * Unregisters all keys of given a key type and a given keyable type.
+     * @param keyableClass Keyable class.
+     * @param keyType Key type.
+     */
+    public final void unregisterKeysByKeyType(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull Class<?> keyType)
     {
-        // Register all keys of this keyable entity.
-        Field[] fields = keyable.getClass().getDeclaredFields();
-        for (Field field : fields)
+        Map<Class<?>, Map<String, IKeyIndex>> types = entities.get(keyableClass);
+        if (types != null)
         {
-            PrimaryKey primary = field.getAnnotation(PrimaryKey.class);
-            if (primary != null)
+            Map<String, IKeyIndex> names = types.remove(keyType);
+            if (names != null)
             {
-                registerKey(primary, field, keyable);
+                for (String keyName : names.keySet())
+                {
+                    invalidate(keyableClass, keyName);
+                }
             }
-            else
+        }
+
+        KeyGenerator[] list = generators.get(keyableClass);
+        if (list != null)
+        {
+            for (KeyGenerator generator : list)
             {
-                AlternateKey alternate = field.getAnnotation(AlternateKey.class);
-                if (alternate != null)
+                if (generator != null && generator.getKey().getType() == keyType)
                 {
-                    registerKey(alternate, field, keyable);
+                    generator.reset();
                 }
             }
         }
     }
 
     /**
-     * Checks that the given key can be registered by the key manager.
-     * @param key Key.
-     * @param field Annotated field.
-     * @param keyable Keyable.
+     * Unregisters all keys and of all keyables of a given keyable type.
+     * @param keyableClass Keyable type.
      */
-    private void checkKey(final @NonNull Annotation key, final @NonNull Field field, final @NonNull IKeyable keyable)
+    public final void unregisterKeysByKeyableType(final @NonNull Class<? extends IKeyable> keyableClass)
     {
-        validateTypeOfKey(key, field, keyable);
-        validateMandatoryKey(key, field, keyable);
-        validateAutoKey(key, field, keyable);
-        validateValueOfKey(key, field, keyable);
+        // Remove the keys.
+        entities.remove(keyableClass);
+
+        KeyQueryCache queries = cache;
+        if (queries != null)
+        {
+            queries.invalidate(keyableClass);
+        }
+
+        // Reset the key value generators.
+        generators.remove(keyableClass);
     }
 
     /**
-     * Validates the type of the key.
-     * @param key Key.
-     * @param field Annotated field.
-     * @param keyable Keyable.
+     * Unregisters a key given its name.<br>
+     * This service will unregister all keys matching the given key name for all keyable entities of the given type.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
      */
-    private void validateTypeOfKey(final @NonNull Annotation key, final @NonNull Field field, final @NonNull IKeyable keyable)
+    public final void unregisterKeysByName(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
     {
-        String name = key instanceof PrimaryKey ? ((PrimaryKey) key).name() : ((AlternateKey) key).name();
-
-        if (!isAuthorizedType(field))
-        {
-            String message = String.format("Key with name: '%s', of type: '%s' for keyable: '%s' has an invalid type!",
-                    name,
-                    field.getType().getName(),
-                    keyable.getClass().getName());
+        Class<?> keyType = getKeyTypeFor(keyableClass, keyName);
 
-            log.error(message);
+        entities.get(keyableClass).get(keyType).remove(keyName);
+        invalidate(keyableClass, keyName);
 
-            throw new KeyException(message);
+        KeyGenerator[] list = generators.get(keyableClass);
+        KeyDescriptor key = KeyableDescriptor.of(keyableClass).getKeyOrIndex(keyName);
+        if (list != null && key != null && list[key.getIndex()] != null)
+        {
+            list[key.getIndex()].reset();
         }
     }
 
     /**
-     * Validates the key when it has the 'mandatory' property set to true.
+     * Unregisters a specific key of a given keyable entity.
+     * @param keyable Keyable entity.
      * @param key Key.
-     * @param field Annotated field.
-     * @param keyable Keyable.
      */
-    private void validateMandatoryKey(final @NonNull Annotation key, final @NonNull Field field, final @NonNull IKeyable keyable)
+    private void unregisterKey(final @NonNull IKeyable keyable, final @NonNull KeyDescriptor key)
     {
-        String name = key instanceof PrimaryKey ? ((PrimaryKey) key).name() : ((AlternateKey) key).name();
-        boolean mandatory = key instanceof PrimaryKey || ((AlternateKey) key).mandatory();
-        boolean auto = key instanceof PrimaryKey ? ((PrimaryKey) key).auto() : ((AlternateKey) key).auto();
-
-        Object value = getFieldValue(key, field, keyable);
-
-        if (mandatory && !auto && value == null)
+        IKeyIndex index = getIndex(keyable.getClass(), key.getType(), key.getName());
+        if (index instanceof LongKeyIndex && key.getType().isPrimitive())
         {
-            String message = String.format(
-                    "Cannot initialize mandatory key with name: %s, of type: %s, declared on keyable entity: '%s' because key value is not set!",
-                    name,
-                    field.getType().getName(),
-                    keyable.getClass().getName());
-
-            log.error(message);
+            long value = key.getAccessor().getLong(keyable);
 
-            throw new KeyException(message);
+            ((LongKeyIndex) index).remove(value, keyable);
+            invalidate(keyable, key, value);
+        }
+        else if (index != null)
+        {
+            Object value = key.getAccessor().get(keyable);
+            if (value != null)
+            {
+                index.remove(value, keyable);
+                invalidate(keyable, key, value);
+            }
         }
     }
 
     /**
-     * Validates the key when it has the 'auto' property set to true.
-     * @param key Annotation of the key.
-     * @param field Annotated field.
-     * @param keyable Keyable holding the annotated field.
+     * Invalidates the cached query result of a key value of a keyable entity, once registered or unregistered.
+     * @param keyable Keyable entity.
+     * @param key Key.
+     * @param value Key value.
      */
-    private void validateAutoKey(final @NonNull Annotation key, final @NonNull Field field, final @NonNull IKeyable keyable)
+    private void invalidate(final @NonNull IKeyable keyable, final @NonNull KeyDescriptor key, final @NonNull Object value)
     {
-        if (ClassUtils.isPrimitiveOrWrapper(field.getType()))
+        KeyQueryCache queries = cache;
+        if (queries != null)
         {
-            validateAutoPrimitiveOrWrapperKey(key, field, keyable);
+            queries.invalidate(keyable.getClass(), key.getName(), toCachedValue(key, value));
         }
-        else
+    }
+
+    /**
+     * Invalidates the cached query results of all the values of a key.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     */
+    private void invalidate(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
+    {
+        KeyQueryCache queries = cache;
+        if (queries != null)
         {
-            validateAutoStandardKey(key, field, keyable);
+            queries.invalidate(keyableClass, keyName);
         }
     }
 
     /**
-     * Validates an auto key value when type is primitive or wrapper.
-     * @param key Annotation of the key.
-     * @param field Annotated field.
-     * @param keyable Keyable holding the annotated field.
+     * Returns the value under which the query result of a key value is cached.
+     * <br><br>
+     * Key values matching the same keyable entities share the same cached value: values of normalized keys are
+     * normalized and integral values are converted to longs.
+     * @param key Key.
+     * @param value Key value.
+     * @return Cached value.
      */
-    private void validateAutoPrimitiveOrWrapperKey(final @NonNull Annotation key, final @NonNull Field field, final @NonNull IKeyable keyable)
+    private static Object toCachedValue(final @NonNull KeyDescriptor key, final Object value)
     {
-        final String ILLEGAL_ACCESS_EXCEPTION_MESSAGE = "Cannot initialize key with name: %s, of type: %s, declared on keyable entity: '%s' due to: %s";
-        final String AUTO_KEY_VALUE_PROVIDED_MESSAGE = "Cannot initialize (auto) key with name: %s, of type: %s, declared on keyable entity: '%s' because key value is provided!";
+        Object normalized = key.getNormalization().normalize(value);
 
-        String name = key instanceof PrimaryKey ? ((PrimaryKey) key).name() : ((AlternateKey) key).name();
-        boolean auto = key instanceof PrimaryKey ? ((PrimaryKey) key).auto() : ((AlternateKey) key).auto();
+        return LongKeyIndex.toIndexedValue(normalized);
+    }
 
-        if (auto)
+    /**
+     * Unregisters a specific composite key of a given keyable entity.
+     * @param keyable Keyable entity.
+     * @param key Composite key.
+     */
+    private void unregisterCompositeKey(final @NonNull IKeyable keyable, final @NonNull CompositeKeyDescriptor key)
+    {
+        IKeyIndex index = getIndex(keyable.getClass(), COMPOSITE_KEY_TYPE, key.getName());
+        if (index != null)
         {
-            try
-            {
-                if (field.getType() == Byte.class || field.getType() == byte.class)
-                {
-                    if ((Byte) field.get(keyable) != 0)
-                    {
-                        String message = String.format(
-                                AUTO_KEY_VALUE_PROVIDED_MESSAGE,
-                                name,
-                                field.getType().getName(),
-                                keyable.getClass().getName());
-
-                        log.error(message);
+            // Component values are read from the keyable entity by the index.
+            index.remove(null, keyable);
+        }
+    }
 
-                        throw new KeyException(message);
-                    }
-                }
-                else if (field.getType() == Short.class || field.getType() == short.class)
-                {
-                    if ((Short) field.get(keyable) != 0)
-                    {
-                        String message = String.format(
-                                AUTO_KEY_VALUE_PROVIDED_MESSAGE,
-                                name,
-                                field.getType().getName(),
-                                keyable.getClass().getName());
-
-                        log.error(message);
-
-                        throw new KeyException(message);
-                    }
-                }
-                else if (field.getType() == Integer.class || field.getType() == int.class)
-                {
-                    if ((Integer) field.get(keyable) != 0)
-                    {
-                        String message = String.format(
-                                AUTO_KEY_VALUE_PROVIDED_MESSAGE,
-                                name,
-                                field.getType().getName(),
-                                keyable.getClass().getName());
+    /**
+     * Registers the keys of a keyable entity against the key manager.
+     * @param descriptor Keyable descriptor.
+     * @param keyable Keyable entity.
+     */
+    private void registerKeyable(final @NonNull KeyableDescriptor descriptor, final @NonNull IKeyable keyable)
+    {
+        if (configuration.isThreadSafe())
+        {
+            // Concurrent (or sharded) indexes do not require registrations to be serialized.
+            registerKeys(descriptor, keyable);
+        }
+        else
+        {
+            registerKeysSynchronized(descriptor, keyable);
+        }
+    }
 
-                        log.error(message);
+    /**
+     * Registers (serially) the keys of a keyable entity against the key manager.
+     * @param descriptor Keyable descriptor.
+     * @param keyable Keyable entity.
+     */
+    @Synchronized
+    private void registerKeysSynchronized(final @NonNull KeyableDescriptor descriptor, final @NonNull IKeyable keyable)
+    {
+        registerKeys(descriptor, keyable);
+    }
 
-                        throw new KeyException(message);
-                    }
-                }
-                else if (field.getType() == Long.class || field.getType() == long.class)
-                {
-                    if ((Long) field.get(keyable) != 0)
-                    {
-                        String message = String.format(
-                                AUTO_KEY_VALUE_PROVIDED_MESSAGE,
-                                name,
-                                field.getType().getName(),
-                                keyable.getClass().getName());
+    /**
+     * Registers the keys of a keyable entity against the key manager.
+     * <br><br>
+     * If one of the keys cannot be registered, the keys already registered for this keyable entity are unregistered.
+     * @param descriptor Keyable descriptor.
+     * @param keyable Keyable entity.
+     */
+    private void registerKeys(final @NonNull KeyableDescriptor descriptor, final @NonNull IKeyable keyable)
+    {
+        List<KeyDescriptor> keys = descriptor.getKeys();
+        List<CompositeKeyDescriptor> compositeKeys = descriptor.getCompositeKeys();
+        int registered = 0;
+        int compositeRegistered = 0;
 
-                        log.error(message);
+        try
+        {
+            for (KeyDescriptor key : keys)
+            {
+                registerKey(key, keyable);
+                registered++;
+            }
 
-                        throw new KeyException(message);
-                    }
-                }
+            for (CompositeKeyDescriptor key : compositeKeys)
+            {
+                registerCompositeKey(key, keyable);
+                compositeRegistered++;
             }
-            catch (IllegalAccessException e)
+        }
+        catch (KeyException e)
+        {
+            for (int i = compositeRegistered - 1; i >= 0; i--)
             {
-                String message = String.format(
-                        ILLEGAL_ACCESS_EXCEPTION_MESSAGE,
-                        name,
-                        field.getType().getName(),
-                        keyable.getClass().getName(),
-                        e.getMessage());
-
-                log.error(message);
+                unregisterCompositeKey(keyable, compositeKeys.get(i));
+            }
 
-                throw new KeyException(message);
+            for (int i = registered - 1; i >= 0; i--)
+            {
+                unregisterKey(keyable, keys.get(i));
             }
+
+            throw e;
+        }
+
+        if (keyable instanceof AbstractKeyable)
+        {
+            // Queries issued by the keyable entity target the key manager it is registered against.
+            ((AbstractKeyable) keyable).bind(this);
+        }
+
+        // A concurrent disposal may have cleared the indexes before the keys were registered: the disposed flag
+        // being set before the indexes are cleared, it is seen here if the keys escaped the clearing.
+        if (disposed)
+        {
+            unregister(keyable);
+            checkNotDisposed();
         }
     }
 
     /**
-     * @param key
-     * @param field
-     * @param keyable
+     * Checks that the given key can be registered by the key manager.
+     * @param key Key.
+     * @param verified Has the key declaration already been checked at compile time?
+     * @param keyable Keyable.
+     */
+    private void checkKey(final @NonNull KeyDescriptor key, final boolean verified, final @NonNull IKeyable keyable)
+    {
+        // Secondary indexes are not checked at compile time.
+        if (!verified || key.isIndexed())
+        {
+            validateTypeOfKey(key, keyable);
+        }
+
+        validateMandatoryKey(key, keyable);
+        validateAutoKey(key, keyable);
+        validateWeakKey(key, keyable);
+
+        if (!verified)
+        {
+            validateValueOfKey(key, keyable);
+        }
+    }
+
+    /**
+     * Validates that the key can be indexed by weak references, when the keyable entities are weakly referenced.
+     * @param key Key.
+     * @param keyable Keyable.
      */
-    private void validateAutoStandardKey(final @NonNull Annotation key, final @NonNull Field field, final @NonNull IKeyable keyable)
+    private void validateWeakKey(final @NonNull KeyDescriptor key, final @NonNull IKeyable keyable)
     {
+        if (configuration.isWeakReferences() && (key.isSorted() || key.isPrefix() || key.isBitmap()))
+        {
+            String message = String.format("Key with name: '%s', of type: '%s' for keyable: '%s' cannot be weakly referenced! Sorted, prefix and bitmap keys hold their keyable entities strongly",
+                    key.getName(),
+                    key.getType().getName(),
+                    keyable.getClass().getName());
+
+            log.error(message);
 
+            throw new KeyException(message);
+        }
     }
 
     /**
-     * Validates the value of the key.
+     * Validates the type of the key.
      * @param key Key.
-     * @param field Annotated field.
      * @param keyable Keyable.
      */
-    private void validateValueOfKey(final @NonNull Annotation key, final @NonNull Field field, final @NonNull IKeyable keyable)
+    private void validateTypeOfKey(final @NonNull KeyDescriptor key, final @NonNull IKeyable keyable)
     {
-        String name = key instanceof PrimaryKey ? ((PrimaryKey) key).name() : ((AlternateKey) key).name();
-        boolean auto = key instanceof PrimaryKey ? ((PrimaryKey) key).auto() : ((AlternateKey) key).auto();
+        // Secondary indexes also accept enumerations.
+        if (!isAuthorizedType(key.getType()) && !(key.isIndexed() && key.getType().isEnum()))
+        {
+            String message = String.format("Key with name: '%s', of type: '%s' for keyable: '%s' has an invalid type!",
+                    key.getName(),
+                    key.getType().getName(),
+                    keyable.getClass().getName());
 
-        try
+            log.error(message);
+
+            throw new KeyException(message);
+        }
+
+        if (key.isSorted() && !KeyAccessor.isIntegralType(key.getType()))
         {
-            field.setAccessible(true);
+            String message = String.format("Key with name: '%s', of type: '%s' for keyable: '%s' cannot be sorted! Only keys of an integral type can be sorted",
+                    key.getName(),
+                    key.getType().getName(),
+                    keyable.getClass().getName());
 
-            if (field.getType() == String.class)
-            {
-                if (auto)
-                {
-                    field.setAccessible(false);
-                    String message = String.format(
-                            "Cannot initialize key with name: %s, of type: %s, on keyable entity: '%s'. A key of type String cannot have the 'auto' property set to true!",
-                            name,
-                            field.getType().getName(),
-                            keyable.getClass().getName());
+            log.error(message);
 
-                    log.error(message);
+            throw new KeyException(message);
+        }
 
-                    throw new KeyException(message);
-                }
-            }
+        if (key.isPrefix() && key.getType() != String.class)
+        {
+            String message = String.format("Key with name: '%s', of type: '%s' for keyable: '%s' cannot be searched by prefix! Only keys of type String can be searched by prefix",
+                    key.getName(),
+                    key.getType().getName(),
+                    keyable.getClass().getName());
+
+            log.error(message);
 
-            field.get(keyable);
+            throw new KeyException(message);
         }
-        catch (IllegalAccessException e)
+
+        if (key.getNormalization() != KeyNormalization.NONE && key.getType() != String.class)
         {
-            field.setAccessible(false);
-            String message = String.format(
-                    "Cannot initialize key with name: %s, of type: %s, on keyable entity: '%s', due to: %s",
-                    name,
-                    field.getType().getName(),
-                    keyable.getClass().getName(),
-                    e.getMessage());
+            String message = String.format("Key with name: '%s', of type: '%s' for keyable: '%s' cannot be normalized! Only keys of type String can be normalized",
+                    key.getName(),
+                    key.getType().getName(),
+                    keyable.getClass().getName());
 
             log.error(message);
 
@@ -549,660 +835,1307 @@ public final class KeyManager
     }
 
     /**
-     * Adds a primary key to the collection of defined keys for a keyable entity.
+     * Validates the key when it has the 'mandatory' property set to true.
      * @param key Key.
-     * @param field Field annotated as a primary key.
-     * @param keyable Keyable entity holding the annotated field.
+     * @param keyable Keyable.
      */
-    private void addKey(final @NonNull Annotation key, final @NonNull Field field, final @NonNull IKeyable keyable)
+    private void validateMandatoryKey(final @NonNull KeyDescriptor key, final @NonNull IKeyable keyable)
     {
-        String name = key instanceof PrimaryKey ? ((PrimaryKey) key).name() : ((AlternateKey) key).name();
+        Object value = getFieldValue(key, keyable);
 
-        if (keys.containsKey(name))
+        if (key.isMandatory() && !key.isAuto() && value == null)
         {
             String message = String.format(
-                    "Key with name: '%s' of type: '%s' for keyable entity: '%s' already exist with the same name!",
-                    name,
-                    field.getType().getName(),
+                    "Cannot initialize mandatory key with name: %s, of type: %s, declared on keyable entity: '%s' because key value is not set!",
+                    key.getName(),
+                    key.getType().getName(),
                     keyable.getClass().getName());
 
             log.error(message);
 
             throw new KeyException(message);
         }
+    }
+
+    /**
+     * Validates the key when it has the 'auto' property set to true.
+     * @param key Key.
+     * @param keyable Keyable holding the annotated field.
+     */
+    private void validateAutoKey(final @NonNull KeyDescriptor key, final @NonNull IKeyable keyable)
+    {
+        if (ClassUtils.isPrimitiveOrWrapper(key.getType()))
+        {
+            validateAutoPrimitiveOrWrapperKey(key, keyable);
+        }
         else
         {
-            keys.put(name, key);
+            validateAutoStandardKey(key, keyable);
         }
     }
 
     /**
-     * Registers a key of a keyable entity.
+     * Validates an auto key value when type is primitive or wrapper.
      * @param key Key.
-     * @param field Field annotated as a primary key.
-     * @param keyable Keyable entity holding the annotated field.
+     * @param keyable Keyable holding the annotated field.
      */
-    private void registerKey(final @NonNull Annotation key, final @NonNull Field field, final @NonNull IKeyable keyable)
+    private void validateAutoPrimitiveOrWrapperKey(final @NonNull KeyDescriptor key, final @NonNull IKeyable keyable)
     {
-        Map<Class<?>, Map<String, Multimap<Object, IKeyable>>> map1;
-        Map<String, Multimap<Object, IKeyable>> map2;
-        Multimap<Object, IKeyable> map3;
-
-        String name = key instanceof PrimaryKey ? ((PrimaryKey) key).name() : ((AlternateKey) key).name();
-        boolean unique = key instanceof PrimaryKey || ((AlternateKey) key).unique();
-        boolean auto = key instanceof PrimaryKey ? ((PrimaryKey) key).auto() : ((AlternateKey) key).auto();
-        boolean mandatory = key instanceof PrimaryKey || ((AlternateKey) key).mandatory();
-
-        Object value = getFieldValue(key, field, keyable);
-
-        if (isAutoKeyValueToBeGenerated(key, field, keyable))
+        if (key.isAuto() && key.getAccessor().isIntegral() && key.getAccessor().getLong(keyable) != 0)
         {
-            value = generateNextKeyValue(keyable, field.getType(), name);
-
-            try
-            {
-                field.setAccessible(true);
-                field.set(keyable, value);
-            }
-            catch (IllegalAccessException e)
-            {
-                String message = String.format(
-                        "Cannot register key with name: '%s' of type: '%s' for keyable entity: '%s', due to: '%s'",
-                        name,
-                        field.getType().getName(),
-                        keyable.getClass().getName(),
-                        e.getMessage());
+            String message = String.format(
+                    "Cannot initialize (auto) key with name: %s, of type: %s, declared on keyable entity: '%s' because key value is provided!",
+                    key.getName(),
+                    key.getType().getName(),
+                    keyable.getClass().getName());
 
-                log.error(message);
+            log.error(message);
 
-                throw new KeyException(message);
-            }
-            finally
-            {
-                field.setAccessible(false);
-            }
+            throw new KeyException(message);
         }
+    }
 
-        map1 = getCollectionByKeyable(keyable);
-        map2 = getCollectionByKeyType(map1, field.getType());
-        map3 = getCollectionByKeyName(map2, name);
+    /**
+     * @param key
+     * @param keyable
+     */
+    private void validateAutoStandardKey(final @NonNull KeyDescriptor key, final @NonNull IKeyable keyable)
+    {
+
+    }
 
-        boolean skip = false;
-        if (!mandatory)
+    /**
+     * Validates the value of the key.
+     * @param key Key.
+     * @param keyable Keyable.
+     */
+    private void validateValueOfKey(final @NonNull KeyDescriptor key, final @NonNull IKeyable keyable)
+    {
+        if (key.getType() == String.class && key.isAuto())
         {
-            if (field.getType().isPrimitive())
-            {
-                if (value instanceof Integer && (Integer) value == 0)
-                {
-                    skip = true;
-                }
-                else if (value instanceof Long && (Long) value == 0)
-                {
-                    skip = true;
-                }
-                else if (value instanceof Byte && (Byte) value == 0)
-                {
-                    skip = true;
-                }
-                else if (value instanceof Double && (Double) value == 0.0)
-                {
-                    skip = true;
-                }
-                else if (value instanceof Float && (Float) value == 0.0f)
-                {
-                    skip = true;
-                }
-            }
-            else
-            {
-                if (value == null)
-                {
-                    skip = true;
-                }
-            }
+            String message = String.format(
+                    "Cannot initialize key with name: %s, of type: %s, on keyable entity: '%s'. A key of type String cannot have the 'auto' property set to true!",
+                    key.getName(),
+                    key.getType().getName(),
+                    keyable.getClass().getName());
+
+            log.error(message);
+
+            throw new KeyException(message);
         }
 
-        if (!skip)
+        if (key.getBlockSize() < 1)
         {
-            if (unique)
-            {
-                if (!map3.containsKey(value))
-                {
-                    map3.put(value, keyable);
-                }
-                else
-                {
-                    String message = String.format(
-                            "Cannot register key with name: '%s' with value: '%s', of type: '%s' for keyable entity: '%s', because key value is not unique!",
-                            name,
-                            value,
-                            field.getType().getName(),
-                            keyable.getClass().getName());
+            String message = String.format(
+                    "Cannot initialize key with name: %s, of type: %s, on keyable entity: '%s'. The block size: '%d' must be greater than zero!",
+                    key.getName(),
+                    key.getType().getName(),
+                    keyable.getClass().getName(),
+                    key.getBlockSize());
 
-                    log.error(message);
+            log.error(message);
 
-                    throw new KeyException(message);
-                }
-            }
-            else
-            {
-                map3.put(value, keyable);
-            }
+            throw new KeyException(message);
         }
     }
 
     /**
-     * Checks if the key value needs to be generated ?
-     * @return True if the key value is to be generated, false otherwise.
+     * Registers a key of a keyable entity.
+     * @param key Key.
+     * @param keyable Keyable entity holding the annotated field.
      */
-    private boolean isAutoKeyValueToBeGenerated(final @NonNull Annotation key, final @NonNull Field field, final @NonNull IKeyable keyable)
+    private void registerKey(final @NonNull KeyDescriptor key, final @NonNull IKeyable keyable)
     {
-        boolean auto = key instanceof PrimaryKey ? ((PrimaryKey) key).auto() : ((AlternateKey) key).auto();
+        Map<Class<?>, Map<String, IKeyIndex>> map1;
+        Map<String, IKeyIndex> map2;
+        IKeyIndex map3;
+
+        if (isAutoKeyValueToBeGenerated(key, keyable))
+        {
+            generateNextKeyValue(keyable, key);
+        }
+
+        map1 = getCollectionByKeyable(keyable);
+        map2 = getCollectionByKeyType(map1, key.getType());
+        map3 = getCollectionByKeyName(map2, key);
+
+        if (isKeyValueToBeSkipped(key, keyable))
+        {
+            return;
+        }
 
-        if (auto)
+        if (map3 instanceof LongKeyIndex)
         {
-            Object value = getFieldValue(key, field, keyable);
+            // Integral key values are indexed without being boxed.
+            LongKeyIndex index = (LongKeyIndex) map3;
+            long value = key.getAccessor().getLong(keyable);
 
-            if (field.getType() == Integer.class || field.getType() == int.class)
+            if (!key.isUnique())
             {
-                return value == null || (Integer) value == 0;
+                index.put(value, keyable);
             }
-            else if (field.getType() == Long.class || field.getType() == long.class)
+            else if (!index.putIfAbsent(value, keyable))
             {
-                return value == null || ((Long) value) == 0L;
+                throw newKeyValueNotUniqueException(key, keyable, value);
             }
-            else if (field.getType() == Short.class || field.getType() == short.class)
+
+            invalidate(keyable, key, value);
+        }
+        else
+        {
+            Object value = key.getAccessor().get(keyable);
+
+            if (!key.isUnique())
             {
-                return value == null || ((Short) value) == 0;
+                map3.put(value, keyable);
             }
-            else if (field.getType() == Byte.class || field.getType() == byte.class)
+            else if (!map3.putIfAbsent(value, keyable))
             {
-                return value == null || ((Byte) value) == 0;
+                // Atomically checks and registers the key value.
+                throw newKeyValueNotUniqueException(key, keyable, value);
             }
-            else if (field.getType() == UUID.class)
+
+            if (value != null)
             {
-                return value == null;
+                invalidate(keyable, key, value);
             }
         }
-
-        return false;
     }
 
-    private Object getFieldValue(final @NonNull Annotation key, final @NonNull Field field, final @NonNull IKeyable keyable)
+    /**
+     * Checks that the given composite key can be registered by the key manager.
+     * @param descriptor Keyable descriptor.
+     * @param key Composite key.
+     * @param keyable Keyable.
+     */
+    private void checkCompositeKey(final @NonNull KeyableDescriptor descriptor, final @NonNull CompositeKeyDescriptor key, final @NonNull IKeyable keyable)
     {
-        Object value;
+        if (configuration.isWeakReferences())
+        {
+            String message = String.format(
+                    "Composite key with name: '%s' for keyable entity: '%s' cannot be weakly referenced! Composite keys hold their keyable entities strongly",
+                    key.getName(),
+                    keyable.getClass().getName());
 
-        String name = key instanceof PrimaryKey ? ((PrimaryKey) key).name() : ((AlternateKey) key).name();
+            log.error(message);
 
-        field.setAccessible(true);
+            throw new KeyException(message);
+        }
 
-        try
+        if (descriptor.getKey(key.getName()) != null)
+        {
+            String message = String.format(
+                    "Composite key with name: '%s' for keyable entity: '%s' already exist with the same name!",
+                    key.getName(),
+                    keyable.getClass().getName());
+
+            log.error(message);
+
+            throw new KeyException(message);
+        }
+
+        for (int i = 0; i < key.getComponentCount(); i++)
         {
-            value = field.get(keyable);
+            if (!isAuthorizedType(key.getField(i).getType()))
+            {
+                String message = String.format("Component: '%s' of composite key with name: '%s', of type: '%s' for keyable: '%s' has an invalid type!",
+                        key.getField(i).getName(),
+                        key.getName(),
+                        key.getField(i).getType().getName(),
+                        keyable.getClass().getName());
+
+                log.error(message);
+
+                throw new KeyException(message);
+            }
         }
-        catch (IllegalAccessException e)
+
+        if (key.isMandatory() && key.hasNullComponent(keyable))
         {
             String message = String.format(
-                    "Cannot register key with name: '%s' of type: '%s' for keyable entity: '%s', due to: '%s'",
-                    name,
-                    field.getType().getName(),
-                    keyable.getClass().getName(),
-                    e.getMessage());
+                    "Cannot initialize mandatory composite key with name: %s, declared on keyable entity: '%s' because one of its component values is not set!",
+                    key.getName(),
+                    keyable.getClass().getName());
 
             log.error(message);
 
             throw new KeyException(message);
         }
-
-        return value;
     }
 
     /**
-     * Returns the collection of keyables by keyable type.
-     * @param keyable Keyable entity.
-     * @return Collection of keyable.
+     * Registers a composite key of a keyable entity.
+     * @param key Composite key.
+     * @param keyable Keyable entity holding the annotated fields.
      */
-    private Map<Class<?>, Map<String, Multimap<Object, IKeyable>>> getCollectionByKeyable(final @NonNull IKeyable keyable)
+    private void registerCompositeKey(final @NonNull CompositeKeyDescriptor key, final @NonNull IKeyable keyable)
     {
-        Map<Class<?>, Map<String, Multimap<Object, IKeyable>>> collection;
-
-        collection = entities.computeIfAbsent(keyable.getClass(), k -> new HashMap<>());
+        Map<String, IKeyIndex> names = getCollectionByKeyType(getCollectionByKeyable(keyable), COMPOSITE_KEY_TYPE);
+        IKeyIndex index = names.computeIfAbsent(key.getName(), k -> createIndex(key));
 
-        return collection;
-    }
+        if (key.hasNullComponent(keyable))
+        {
+            // Non mandatory composite key with a missing component value.
+            return;
+        }
+
+        // Component values are read from the keyable entity by the index.
+        if (!key.isUnique())
+        {
+            index.put(null, keyable);
+        }
+        else if (!index.putIfAbsent(null, keyable))
+        {
+            String message = String.format(
+                    "Cannot register composite key with name: '%s' with values: '%s' for keyable entity: '%s', because key value is not unique!",
+                    key.getName(),
+                    Arrays.toString(key.getComponents(keyable)),
+                    keyable.getClass().getName());
+
+            log.error(message);
+
+            throw new KeyException(message);
+        }
+    }
+
+    /**
+     * Creates the key exception raised when a unique key value is already registered.
+     * @param key Key.
+     * @param keyable Keyable entity holding the annotated field.
+     * @param value Key value.
+     * @return Key exception.
+     */
+    private KeyException newKeyValueNotUniqueException(final @NonNull KeyDescriptor key, final @NonNull IKeyable keyable, final Object value)
+    {
+        String message = String.format(
+                "Cannot register key with name: '%s' with value: '%s', of type: '%s' for keyable entity: '%s', because key value is not unique!",
+                key.getName(),
+                value,
+                key.getType().getName(),
+                keyable.getClass().getName());
+
+        log.error(message);
+
+        return new KeyException(message);
+    }
+
+    /**
+     * Checks if the key value must not be registered? This is the case for a non mandatory key with no value
+     * (a null value or a zero value for a key of a primitive type).
+     * @param key Key.
+     * @param keyable Keyable entity holding the annotated field.
+     * @return True if the key value must not be registered, false otherwise.
+     */
+    private boolean isKeyValueToBeSkipped(final @NonNull KeyDescriptor key, final @NonNull IKeyable keyable)
+    {
+        if (key.isMandatory())
+        {
+            return false;
+        }
+
+        if (key.getType().isPrimitive())
+        {
+            // Zero is a regular value of a secondary index.
+            return !key.isIndexed() && key.getAccessor().isIntegral() && key.getAccessor().getLong(keyable) == 0;
+        }
+
+        return key.getAccessor().get(keyable) == null;
+    }
+
+    /**
+     * Checks if the key value needs to be generated ?
+     * @param key Key.
+     * @param keyable Keyable entity holding the annotated field.
+     * @return True if the key value is to be generated, false otherwise.
+     */
+    private boolean isAutoKeyValueToBeGenerated(final @NonNull KeyDescriptor key, final @NonNull IKeyable keyable)
+    {
+        if (key.isAuto())
+        {
+            if (key.getAccessor().isIntegral())
+            {
+                // A null wrapper value is read as zero.
+                return key.getAccessor().getLong(keyable) == 0;
+            }
+            else if (key.getType() == UUID.class)
+            {
+                return key.getAccessor().get(keyable) == null;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns the value of a key.
+     * @param key Key.
+     * @param keyable Keyable entity holding the annotated field.
+     * @return Key value.
+     */
+    private Object getFieldValue(final @NonNull KeyDescriptor key, final @NonNull IKeyable keyable)
+    {
+        return key.getAccessor().get(keyable);
+    }
 
     /**
      * Returns the collection of keyables by keyable type.
-     * @param keyableClass Keyable entity class.
+     * @param keyable Keyable entity.
      * @return Collection of keyable.
      */
-    private Map<Class<?>, Map<String, Multimap<Object, IKeyable>>> getCollectionByKeyableClass(final @NonNull Class<? extends IKeyable> keyableClass)
+    private Map<Class<?>, Map<String, IKeyIndex>> getCollectionByKeyable(final @NonNull IKeyable keyable)
+    {
+        Map<Class<?>, Map<String, IKeyIndex>> collection;
+
+        collection = entities.computeIfAbsent(keyable.getClass(), k -> new ConcurrentHashMap<>());
+
+        return collection;
+    }
+
+    /**
+     * Returns the collection of keyables by key type.
+     * @param map Source map.
+     * @param type Key type.
+     * @return Collection of keyables.
+     */
+    private Map<String, IKeyIndex> getCollectionByKeyType(final @NonNull Map<Class<?>, Map<String, IKeyIndex>> map, final @NonNull Class<?> type)
+    {
+        Map<String, IKeyIndex> collection;
+
+        collection = map.computeIfAbsent(type, k -> new ConcurrentHashMap<>());
+
+        return collection;
+    }
+
+    /**
+     * Returns the collection of keyables by key name.
+     * @param map Source map.
+     * @param key Key.
+     * @return Collection of keyables.
+     */
+    private IKeyIndex getCollectionByKeyName(final @NonNull Map<String, IKeyIndex> map, final @NonNull KeyDescriptor key)
+    {
+        IKeyIndex collection;
+
+        collection = map.computeIfAbsent(key.getName(), k -> createIndex(key));
+
+        return collection;
+    }
+
+    /**
+     * Creates the index of the keyables for the given key, according to the key manager configuration.
+     * @param key Key.
+     * @return Key index.
+     */
+    private IKeyIndex createIndex(final @NonNull KeyDescriptor key)
+    {
+        IKeyIndex index = createValueIndex(key);
+        if (configuration.getExpectedSize() > 0)
+        {
+            index.ensureCapacity(configuration.getExpectedSize());
+        }
+
+        if (key.getBloomFilter() > 0)
+        {
+            index = new BloomKeyIndex(index, key.getBloomFilter());
+        }
+
+        // Values of normalized keys are normalized before reaching the key index (and its Bloom filter).
+        return key.getNormalization() == KeyNormalization.NONE ? index : new NormalizedKeyIndex(index, key.getNormalization());
+    }
+
+    /**
+     * Creates the index of the keyables for the given composite key, according to the key manager configuration.
+     * @param key Composite key.
+     * @return Key index.
+     */
+    private IKeyIndex createIndex(final @NonNull CompositeKeyDescriptor key)
+    {
+        // Composite keys are always indexed on-heap.
+        IKeyIndex index = new CompositeKeyIndex(key);
+        if (configuration.getExpectedSize() > 0)
+        {
+            index.ensureCapacity(configuration.getExpectedSize());
+        }
+
+        return configuration.isThreadSafe() ? new LockedKeyIndex(index) : index;
+    }
+
+    /**
+     * Creates the index of the keyables by key value for the given key, according to the key manager configuration.
+     * @param key Key.
+     * @return Key index.
+     */
+    private IKeyIndex createValueIndex(final @NonNull KeyDescriptor key)
+    {
+        if (key.isSorted())
+        {
+            // Sorted keys are always indexed on-heap, by a sorted index.
+            return new SortedKeyIndex(configuration.isThreadSafe());
+        }
+
+        if (key.isPrefix())
+        {
+            // Keys searched by prefix are always indexed on-heap, by a radix tree.
+            IKeyIndex index = new RadixKeyIndex();
+
+            return configuration.isThreadSafe() ? new LockedKeyIndex(index) : index;
+        }
+
+        if (key.isBitmap())
+        {
+            // Bitmap indexes are always on-heap.
+            IKeyIndex index = new BitmapKeyIndex();
+
+            return configuration.isThreadSafe() ? new LockedKeyIndex(index) : index;
+        }
+
+        if (configuration.isWeakReferences())
+        {
+            return new WeakKeyIndex();
+        }
+
+        if (!configuration.isConcurrent() && configuration.getShards() > 1)
+        {
+            // Each shard is a non thread safe key index guarded by its own lock (lock free indexes being used instead
+            // in concurrent mode).
+            return new ShardedKeyIndex(configuration.getShards(), () -> createHashIndex(key));
+        }
+
+        if (configuration.isOffHeap())
+        {
+            IKeyIndex index = new OffHeapKeyIndex(key);
+
+            return configuration.isThreadSafe() ? new LockedKeyIndex(index) : index;
+        }
+
+        if (configuration.isConcurrent())
+        {
+            return key.isUnique() ? new UniqueKeyIndex(true) : new ConcurrentKeyIndex();
+        }
+
+        return createHashIndex(key);
+    }
+
+    /**
+     * Creates a non thread safe index of the keyables by key value hash for the given key.
+     * @param key Key.
+     * @return Key index.
+     */
+    private IKeyIndex createHashIndex(final @NonNull KeyDescriptor key)
+    {
+        if (configuration.isOffHeap())
+        {
+            return new OffHeapKeyIndex(key);
+        }
+
+        if (key.getAccessor().isIntegral())
+        {
+            // Holds a single keyable entity (not a list) per key value for unique keys too.
+            return new LongKeyIndex();
+        }
+
+        return key.isUnique() ? new UniqueKeyIndex(false) : new MultimapKeyIndex();
+    }
+
+    /**
+     * Returns the index of the keyables for the given key.
+     * @param keyableClass Keyable class.
+     * @param keyType Key type.
+     * @param keyName Key name.
+     * @return Key index or null if no keyable has been registered for this key.
+     */
+    private IKeyIndex getIndex(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull Class<?> keyType, final @NonNull String keyName)
+    {
+        Map<Class<?>, Map<String, IKeyIndex>> types = entities.get(keyableClass);
+        if (types != null)
+        {
+            Map<String, IKeyIndex> names = types.get(keyType);
+            if (names != null)
+            {
+                return names.get(keyName);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Checks for key duplicates.
+     * @param descriptor Keyable descriptor.
+     * @param keyable Keyable entity.
+     */
+    private void checkForKeyDuplicate(final @NonNull KeyableDescriptor descriptor, final @NonNull IKeyable keyable)
+    {
+        KeyDescriptor duplicate = descriptor.getDuplicateKey();
+        if (duplicate != null)
+        {
+            String message = String.format(
+                    "Key with name: '%s' of type: '%s' for keyable entity: '%s' already exist with the same name!",
+                    duplicate.getName(),
+                    duplicate.getType().getName(),
+                    keyable.getClass().getName());
+
+            log.error(message);
+
+            throw new KeyException(message);
+        }
+    }
+
+    /**
+     * Checks one and only one field is annotated with the primary key annotation.
+     * @param descriptor Keyable descriptor.
+     * @param keyable Keyable entity.
+     */
+    private void checkPrimaryKey(final @NonNull KeyableDescriptor descriptor, final @NonNull IKeyable keyable)
+    {
+        if (descriptor.getPrimaryKeyCount() == 0)
+        {
+            String message = String.format(
+                    "Keyable entity: '%s' does not contain a primary key! One of the defined keys must be set as the primary key",
+                    keyable.getClass().getName());
+
+            log.error(message);
+
+            throw new KeyException(message);
+        }
+
+        if (descriptor.getPrimaryKeyCount() > 1)
+        {
+            String message = String.format(
+                    "Keyable entity: '%s' contains multiple fields annotated as primary keys! Only one field can be annotated as the primary key",
+                    keyable.getClass().getName());
+
+            log.error(message);
+
+            throw new KeyException(message);
+        }
+    }
+
+    /**
+     * Checks if the given key name exist for the given keyable class ?
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @return True if the given key name exist for the given keyable class, false otherwise.
+     */
+    public final boolean isKeyExist(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
+    {
+        // Key Class | Key Name | Key Value | Keyable
+        Map<Class<?>, Map<String, IKeyIndex>> keyables = entities.get(keyableClass);
+        if (keyables != null)
+        {
+            for (Map<String, IKeyIndex> names : keyables.values())
+            {
+                if (names.containsKey(keyName))
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Checks if the given key value exist for the given keyable class, key name and key value ?
+     * <br><br>
+     * The key index is resolved through the keyable descriptor and queried once, in constant time. For a key
+     * fronted by a Bloom filter, a key value never registered is reported as absent without querying the key index.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @param keyValue Key value.
+     * @return True if the given key name exist for the given keyable class, false otherwise.
+     */
+    public final boolean isKeyValueExist(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull Object keyValue)
+    {
+        IKeyIndex index = getIndex(keyableClass, keyName);
+
+        return index != null && index.contains(keyValue);
+    }
+
+    /**
+     * Generates the next key value and sets it on the keyable entity.
+     * @param keyable Keyable entity the key refers to.
+     * @param key Key.
+     */
+    private void generateNextKeyValue(final @NonNull IKeyable keyable, final @NonNull KeyDescriptor key)
+    {
+        if (key.getAccessor().isIntegral())
+        {
+            key.getAccessor().setLong(keyable, getKeyGenerator(keyable, key).next(keyable));
+        }
+        else if (key.getType() == UUID.class)
+        {
+            key.getAccessor().set(keyable, UUID.randomUUID());
+        }
+        else
+        {
+            throw new KeyException("Unsupported key type!");
+        }
+    }
+
+    /**
+     * Returns the generator of the values of the given key.
+     * @param keyable Keyable entity the key refers to.
+     * @param key Key (of an integral type).
+     * @return Key generator.
+     */
+    private KeyGenerator getKeyGenerator(final @NonNull IKeyable keyable, final @NonNull KeyDescriptor key)
+    {
+        // Generators are resolved once per keyable class.
+        return generators.computeIfAbsent(keyable.getClass(), k -> createKeyGenerators(KeyableDescriptor.of(k)))[key.getIndex()];
+    }
+
+    /**
+     * Returns the latest value generated for the given key.
+     * @param keyableClass Keyable class.
+     * @param key Key.
+     * @return Latest generated value (0 if none or if the key values are not generated).
+     */
+    final long getLatestKeyValue(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull KeyDescriptor key)
+    {
+        KeyGenerator[] list = generators.get(keyableClass);
+        KeyGenerator generator = list != null ? list[key.getIndex()] : null;
+
+        return generator != null ? generator.getLatest() : 0;
+    }
+
+    /**
+     * Restores the generator of the given key, so that the next generated value is greater than the given value.
+     * @param keyableClass Keyable class.
+     * @param key Key.
+     * @param value Latest generated value to restore.
+     */
+    final void restoreLatestKeyValue(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull KeyDescriptor key, final long value)
+    {
+        KeyGenerator generator = generators.computeIfAbsent(keyableClass, k -> createKeyGenerators(KeyableDescriptor.of(k)))[key.getIndex()];
+        if (generator != null)
+        {
+            generator.restore(value);
+        }
+    }
+
+    /**
+     * Returns all the keyable entities of the given keyable class.
+     * @param keyableClass Keyable class.
+     * @return Keyable entities (empty if none).
+     */
+    final List<IKeyable> getKeyables(final @NonNull Class<? extends IKeyable> keyableClass)
+    {
+        KeyDescriptor primary = KeyableDescriptor.of(keyableClass).getPrimaryKey();
+        IKeyIndex index = primary != null ? getIndex(keyableClass, primary.getType(), primary.getName()) : null;
+
+        return index != null ? index.values() : new ArrayList<>();
+    }
+
+    /**
+     * Creates the key generators of a keyable class.
+     * @param descriptor Keyable descriptor.
+     * @return Key generators indexed by key position (null for keys not requiring a generator).
+     */
+    private KeyGenerator[] createKeyGenerators(final @NonNull KeyableDescriptor descriptor)
+    {
+        KeyGenerator[] list = new KeyGenerator[descriptor.getKeys().size()];
+
+        for (KeyDescriptor key : descriptor.getKeys())
+        {
+            if (key.isAuto() && key.getAccessor().isIntegral())
+            {
+                list[key.getIndex()] = new KeyGenerator(key);
+            }
+        }
+
+        return list;
+    }
+
+    /**
+     * Retrieves the type of a key.
+     * @param keyableClass Keyable entity class.
+     * @param keyName Key name.
+     * @return Type of the key.
+     * @throws KeyManagerException Thrown in case the type of the key cannot be determined.
+     */
+    private Class<?> getKeyTypeFor(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
+    {
+        Map<String, IKeyIndex> names;
+
+        Map<Class<?>, Map<String, IKeyIndex>> types = entities.get(keyableClass);
+        if (types != null)
+        {
+            for (Map.Entry<Class<?>, Map<String, IKeyIndex>> entry : types.entrySet())
+            {
+                names = entry.getValue();
+                if (names != null && names.containsKey(keyName))
+                {
+                    return entry.getKey();
+                }
+            }
+        }
+
+        String message = String.format(
+                "Cannot determine type for key name: '%s' on keyable entity type: '%s'. Are you sure it's a real key?",
+                keyName,
+                keyableClass);
+
+        log.error(message);
+
+        throw new KeyManagerException(message);
+    }
+
+    /**
+     * Returns a list of keyables matching the given key name and value.
+     * <br><br>
+     * The list is either a copy or a read-only view, depending on the configured {@link KeyQueryMode}.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @param keyValue Key value.
+     * @return List of keyables or an empty list if no keyable has been found matching the given criteria.
+     */
+    public final List<IKeyable> get(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull Object keyValue)
+    {
+        Class<?> type = null;
+
+        try
+        {
+            type = getKeyTypeFor(keyableClass, keyName);
+
+            if (type == null)
+            {
+                log.error(String.format("Cannot retrieve type of key name: '%s', for keyable class: '%s'", keyName, keyableClass));
+                return toResult(Collections.emptyList());
+            }
+        }
+        catch (KeyManagerException e)
+        {
+            log.error(e.getMessage());
+            return toResult(Collections.emptyList());
+        }
+
+        IKeyIndex index = getIndex(keyableClass, type, keyName);
+
+        return toResult(index == null ? Collections.emptyList() : query(keyableClass, keyName, index, keyValue));
+    }
+
+    /**
+     * Returns a list of keyables matching the given key.
+     * <br><br>
+     * The list is either a copy or a read-only view, depending on the configured {@link KeyQueryMode}.
+     * @param keyableClass Keyable class.
+     * @param key Key.
+     * @return List of keyables or an empty list if no keyable has been found matching the given criteria.
+     */
+    public final List<IKeyable> get(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull IKey key)
+    {
+        IKeyIndex index = getIndex(keyableClass, key.getType(), key.getName());
+
+        return toResult(index == null ? Collections.emptyList() : query(keyableClass, key.getName(), index, key.getValue()));
+    }
+
+    /**
+     * Checks for secondary index duplicates.
+     * @param descriptor Keyable descriptor.
+     * @param keyable Keyable entity.
+     */
+    private void checkForIndexDuplicate(final @NonNull KeyableDescriptor descriptor, final @NonNull IKeyable keyable)
+    {
+        KeyDescriptor duplicate = descriptor.getDuplicateIndex();
+        if (duplicate != null)
+        {
+            String message = String.format(
+                    "Secondary index with name: '%s' of type: '%s' for keyable entity: '%s' already exist with the same name as a key or another secondary index!",
+                    duplicate.getName(),
+                    duplicate.getType().getName(),
+                    keyable.getClass().getName());
+
+            log.error(message);
+
+            throw new KeyException(message);
+        }
+    }
+
+    /**
+     * Queries a key index through the query cache (if enabled).
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @param index Key index.
+     * @param keyValue Key value.
+     * @return Read-only list of keyables matching the key value.
+     */
+    private List<IKeyable> query(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull IKeyIndex index, final Object keyValue)
+    {
+        KeyQueryCache queries = cache;
+        KeyDescriptor key = queries == null ? null : KeyableDescriptor.of(keyableClass).getKeyOrIndex(keyName);
+        if (key == null)
+        {
+            return index.get(keyValue);
+        }
+
+        Object value = toCachedValue(key, keyValue);
+
+        List<IKeyable> result = queries.get(keyableClass, keyName, value);
+        if (result == null)
+        {
+            // The generation is taken before querying the index, so that a concurrent invalidation prevents caching.
+            long generation = queries.getGeneration();
+            result = queries.put(keyableClass, keyName, value, index.get(keyValue), generation);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns a list of keyables matching the given component values of a composite key.
+     * <br><br>
+     * The list is either a copy or a read-only view, depending on the configured {@link KeyQueryMode}.
+     * @param keyableClass Keyable class.
+     * @param keyName Composite key name.
+     * @param components Component values (in declaration order of the component fields).
+     * @return List of keyables or an empty list if no keyable has been found matching the given criteria.
+     * @throws KeyException Thrown in case the composite key does not exist or has a different number of components.
+     */
+    public final List<IKeyable> get(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull Object... components)
+    {
+        CompositeKeyDescriptor key = KeyableDescriptor.of(keyableClass).getCompositeKey(keyName);
+        if (key == null || key.getComponentCount() != components.length)
+        {
+            String message = String.format(
+                    "Composite key with name: '%s' for keyable entity: '%s' does not exist or does not have: %d components!",
+                    keyName,
+                    keyableClass.getName(),
+                    components.length);
+
+            log.error(message);
+
+            throw new KeyException(message);
+        }
+
+        IKeyIndex index = getIndex(keyableClass, COMPOSITE_KEY_TYPE, keyName);
+
+        return toResult(index == null ? Collections.emptyList() : index.get(components));
+    }
+
+    /**
+     * Returns the keyables matching each of the given values of a key.
+     * <br><br>
+     * The key is resolved once for the whole batch. The lists are either copies or read-only views, depending on
+     * the configured {@link KeyQueryMode}.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @param keyValues Key values.
+     * @return Lists of keyables by key value, in iteration order of the key values (values without any matching
+     * keyable are omitted).
+     */
+    public final Map<Object, List<IKeyable>> getAll(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull Collection<?> keyValues)
+    {
+        return getAll(keyableClass, keyName, keyValues, false);
+    }
+
+    /**
+     * Returns the keyables matching each of the given values of a key, optionally resolving the key values in
+     * parallel (worth it for large batches only).
+     * <br><br>
+     * The key is resolved once for the whole batch. The lists are either copies or read-only views, depending on
+     * the configured {@link KeyQueryMode}. Outside concurrent mode, the key values must not be resolved while
+     * keyables are registered or unregistered.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @param keyValues Key values.
+     * @param parallel Are the key values resolved in parallel?
+     * @return Lists of keyables by key value, in iteration order of the key values (values without any matching
+     * keyable are omitted).
+     */
+    public final Map<Object, List<IKeyable>> getAll(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull Collection<?> keyValues, final boolean parallel)
+    {
+        IKeyIndex index = getIndex(keyableClass, keyName);
+
+        return index == null ? new LinkedHashMap<>() : resolveAll(keyValues, parallel, value ->
+        {
+            List<IKeyable> list = index.get(value);
+
+            return list.isEmpty() ? null : toResult(list);
+        });
+    }
+
+    /**
+     * Returns the keyable matching each of the given values of a key.
+     * <br><br>
+     * The key is resolved once for the whole batch.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @param keyValues Key values.
+     * @return Keyable by key value, in iteration order of the key values (values without any matching keyable are
+     * omitted).
+     */
+    public final Map<Object, IKeyable> getOneAll(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull Collection<?> keyValues)
+    {
+        return getOneAll(keyableClass, keyName, keyValues, false);
+    }
+
+    /**
+     * Returns the keyable matching each of the given values of a key, optionally resolving the key values in
+     * parallel (worth it for large batches only).
+     * <br><br>
+     * The key is resolved once for the whole batch. Outside concurrent mode, the key values must not be resolved
+     * while keyables are registered or unregistered.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @param keyValues Key values.
+     * @param parallel Are the key values resolved in parallel?
+     * @return Keyable by key value, in iteration order of the key values (values without any matching keyable are
+     * omitted).
+     */
+    public final Map<Object, IKeyable> getOneAll(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull Collection<?> keyValues, final boolean parallel)
+    {
+        IKeyIndex index = getIndex(keyableClass, keyName);
+
+        return index == null ? new LinkedHashMap<>() : resolveAll(keyValues, parallel, index::getOne);
+    }
+
+    /**
+     * Resolves a batch of key values.
+     * @param <T> Result type.
+     * @param keyValues Key values.
+     * @param parallel Are the key values resolved in parallel?
+     * @param lookup Lookup of a key value, returning null if nothing matches the key value.
+     * @return Results by key value, in iteration order of the key values (values without any result are omitted).
+     */
+    private static <T> Map<Object, T> resolveAll(final @NonNull Collection<?> keyValues, final boolean parallel, final @NonNull Function<Object, T> lookup)
+    {
+        if (parallel)
+        {
+            return keyValues.parallelStream()
+                    .filter(Objects::nonNull)
+                    .map(value -> new AbstractMap.SimpleImmutableEntry<Object, T>(value, lookup.apply(value)))
+                    .filter(entry -> entry.getValue() != null)
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (first, second) -> first, LinkedHashMap::new));
+        }
+
+        Map<Object, T> results = new LinkedHashMap<>();
+        for (Object value : keyValues)
+        {
+            T result = value == null ? null : lookup.apply(value);
+            if (result != null)
+            {
+                results.putIfAbsent(value, result);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Returns the index of the keyables for the given key (or composite key) name.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @return Key index or null if the key does not exist or if no keyable has been registered for this key.
+     */
+    private IKeyIndex getIndex(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
+    {
+        KeyableDescriptor descriptor = KeyableDescriptor.of(keyableClass);
+
+        KeyDescriptor key = descriptor.getKeyOrIndex(keyName);
+        if (key != null)
+        {
+            return getIndex(keyableClass, key.getType(), keyName);
+        }
+
+        return descriptor.getCompositeKey(keyName) != null ? getIndex(keyableClass, COMPOSITE_KEY_TYPE, keyName) : null;
+    }
+
+    /**
+     * Returns the list of keyable entities to be returned by a query, according to the query mode.
+     * @param keyables Read-only list of keyable entities.
+     * @return List of keyable entities.
+     */
+    private List<IKeyable> toResult(final @NonNull List<IKeyable> keyables)
+    {
+        return configuration.getQueryMode() == KeyQueryMode.VIEW ? keyables : new ArrayList<>(keyables);
+    }
+
+    /**
+     * Returns the keyable matching the given key name and value.
+     * <br><br>
+     * Should be called when querying a unique key: no list is created.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @param keyValue Key value.
+     * @return Keyable (the first one for a non unique key) or null if no keyable has been found matching the given
+     * criteria.
+     */
+    public final IKeyable getOne(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull Object keyValue)
     {
-        Map<Class<?>, Map<String, Multimap<Object, IKeyable>>> collection;
+        KeyDescriptor key = KeyableDescriptor.of(keyableClass).getKeyOrIndex(keyName);
+        if (key == null)
+        {
+            log.error(String.format("Cannot retrieve type of key name: '%s', for keyable class: '%s'", keyName, keyableClass));
+            return null;
+        }
 
-        collection = entities.computeIfAbsent(keyableClass, k -> new HashMap<>());
+        IKeyIndex index = getIndex(keyableClass, key.getType(), keyName);
 
-        return collection;
+        return index == null ? null : index.getOne(keyValue);
     }
 
     /**
-     * Returns the collection of keyables by key type.
-     * @param map Source map.
-     * @param type Key type.
-     * @return Collection of keyables.
+     * Returns the keyable matching the given key.
+     * @param keyableClass Keyable class.
+     * @param key Key.
+     * @return Keyable (the first one for a non unique key) or null if no keyable has been found matching the given
+     * key.
      */
-    private Map<String, Multimap<Object, IKeyable>> getCollectionByKeyType(final @NonNull Map<Class<?>, Map<String, Multimap<Object, IKeyable>>> map, final @NonNull Class<?> type)
+    public final IKeyable getOne(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull IKey key)
     {
-        Map<String, Multimap<Object, IKeyable>> collection;
-
-        collection = map.computeIfAbsent(type, k -> new HashMap<>());
+        IKeyIndex index = getIndex(keyableClass, key.getType(), key.getName());
 
-        return collection;
+        return index == null ? null : index.getOne(key.getValue());
     }
 
     /**
-     * Returns the collection of keyables by key name.
-     * @param map Source map.
-     * @param name Key name.
-     * @return Collection of keyables.
+     * Returns a lazy stream of all the keyables of the given keyable class.
+     * <br><br>
+     * The stream iterates the index of the primary key without copying it and can be run in parallel. Outside
+     * concurrent mode, it must not be consumed while keyables are registered or unregistered.
+     * @param keyableClass Keyable class.
+     * @return Stream of keyables (empty if no keyable is registered).
      */
-    private Multimap<Object, IKeyable> getCollectionByKeyName(final @NonNull Map<String, Multimap<Object, IKeyable>> map, final @NonNull String name)
+    public final Stream<IKeyable> stream(final @NonNull Class<? extends IKeyable> keyableClass)
     {
-        Multimap<Object, IKeyable> collection;
-
-        collection = map.get(name);
-        if (collection == null)
-        {
-            collection = ArrayListMultimap.create();
-            map.put(name, collection);
-        }
+        KeyDescriptor primary = KeyableDescriptor.of(keyableClass).getPrimaryKey();
+        IKeyIndex index = primary == null ? null : getIndex(keyableClass, primary.getType(), primary.getName());
 
-        return collection;
+        return index == null ? Stream.empty() : index.stream();
     }
 
     /**
-     * Checks for key duplicates.
-     * @param keyable Keyable entity.
+     * Returns a lazy stream of the keyables of the given keyable class whose value of the given key matches the
+     * given predicate.
+     * <br><br>
+     * The stream iterates the index of the key without copying it and can be run in parallel. Outside concurrent
+     * mode, it must not be consumed while keyables are registered or unregistered.
+     * @param <V> Key value type (wrapper type for a key of a primitive type).
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @param predicate Predicate on the key value (normalized key value for a normalized key).
+     * @return Stream of keyables (empty if no keyable is registered).
      */
-    private void checkForKeyDuplicate(final @NonNull IKeyable keyable)
+    @SuppressWarnings("unchecked")
+    public final <V> Stream<IKeyable> stream(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull Predicate<? super V> predicate)
     {
-        // Check at least one key is the primary one.
-        boolean found = false;
-        for (Annotation key : keys.values())
+        KeyDescriptor key = KeyableDescriptor.of(keyableClass).getKeyOrIndex(keyName);
+        if (key == null)
         {
-            if (key instanceof PrimaryKey)
-            {
-                found = true;
-                break;
-            }
+            log.error(String.format("Cannot retrieve type of key name: '%s', for keyable class: '%s'", keyName, keyableClass));
+            return Stream.empty();
         }
 
-        if (!found)
+        IKeyIndex index = getIndex(keyableClass, key.getType(), keyName);
+        if (index == null)
         {
-            String message = String.format(
-                    "Keyable entity: '%s' does not contain a primary key! One of the defined keys must be set as the primary key",
-                    keyable.getClass().getName());
-
-            log.error(message);
+            return Stream.empty();
+        }
 
-            throw new KeyException(message);
+        if (key.getAccessor().isIntegral())
+        {
+            // Integral key values may be indexed as longs.
+            return index.stream(value -> predicate.test((V) toKeyType(key, ((Number) value).longValue())));
         }
+
+        return index.stream(value -> predicate.test((V) value));
     }
 
     /**
-     * Checks only one field can be annotated with the primary key annotation.
-     * @param keyable Keyable entity.
+     * Returns the keyables whose value of the given sorted key is within the given (inclusive) bounds.
+     * @param keyableClass Keyable class.
+     * @param keyName Sorted key name.
+     * @param from Lower bound.
+     * @param to Upper bound.
+     * @return List of keyables by ascending key value (empty if none).
+     * @throws KeyException Thrown in case the key is not a sorted key.
      */
-    private void checkPrimaryKey(final @NonNull IKeyable keyable)
+    public final List<IKeyable> range(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final long from, final long to)
     {
-        boolean found = false;
-        for (Annotation key : keys.values())
-        {
-            if (key instanceof PrimaryKey)
-            {
-                if (!found)
-                {
-                    found = true;
-                }
-                else
-                {
-                    String message = String.format(
-                            "Keyable entity: '%s' contains multiple fields annotated as primary keys! Only one field can be annotated as the primary key",
-                            keyable.getClass().getName());
-
-                    log.error(message);
+        SortedKeyIndex index = getSortedIndex(keyableClass, keyName);
 
-                    throw new KeyException(message);
-                }
-            }
-        }
+        return index == null ? new ArrayList<>() : index.range(from, to);
     }
 
     /**
-     * Checks if the given key name exist for the given keyable class ?
+     * Returns the keyable having the greatest value of the given sorted key less than or equal to the given value.
      * @param keyableClass Keyable class.
-     * @param keyName Key name.
-     * @return True if the given key name exist for the given keyable class, false otherwise.
+     * @param keyName Sorted key name.
+     * @param value Key value.
+     * @return Keyable or null if none.
+     * @throws KeyException Thrown in case the key is not a sorted key.
      */
-    public final boolean isKeyExist(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
+    public final IKeyable floor(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final long value)
     {
-        // Key Class | Key Name | Key Value | Keyable
-        Map<Class<?>, Map<String, Multimap<Object, IKeyable>>> keyables = entities.get(keyableClass);
-        if (keyables != null)
-        {
-            for (Class<?> clazz : keyables.keySet())
-            {
-                for (String name : keyables.get(clazz).keySet())
-                {
-                    if (name.equals(keyName))
-                    {
-                        return true;
-                    }
-                }
-            }
-        }
+        SortedKeyIndex index = getSortedIndex(keyableClass, keyName);
 
-        return false;
+        return index == null ? null : index.floor(value);
     }
 
     /**
-     * Checks if the given key value exist for the given keyable class, key name and key value ?
+     * Returns the keyable having the least value of the given sorted key greater than or equal to the given value.
      * @param keyableClass Keyable class.
-     * @param keyName Key name.
-     * @param keyValue Key value.
-     * @return True if the given key name exist for the given keyable class, false otherwise.
+     * @param keyName Sorted key name.
+     * @param value Key value.
+     * @return Keyable or null if none.
+     * @throws KeyException Thrown in case the key is not a sorted key.
      */
-    public final boolean isKeyValueExist(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull Object keyValue)
+    public final IKeyable ceiling(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final long value)
     {
-        // Key Class | Key Name | Key Value | Keyable
-        Map<Class<?>, Map<String, Multimap<Object, IKeyable>>> keyables = entities.get(keyableClass);
-        if (keyables != null)
-        {
-            for (Class<?> clazz : keyables.keySet())
-            {
-                for (String name : keyables.get(clazz).keySet())
-                {
-                    if (name.equals(keyName))
-                    {
-                        for (Object value : keyables.get(clazz).get(name).keySet())
-                        {
-                            if (value == keyValue)
-                            {
-                                return true;
-                            }
-                        }
-                    }
-                }
-            }
-        }
+        SortedKeyIndex index = getSortedIndex(keyableClass, keyName);
 
-        return false;
+        return index == null ? null : index.ceiling(value);
     }
 
     /**
-     * Generates the next key value.
-     * @param keyable Keyable entity the key refers to.
-     * @param type Key type.
-     * @param name Key name.
-     * @return Next generated key value.
+     * Returns the keyable having the least value of the given sorted key.
+     * @param keyableClass Keyable class.
+     * @param keyName Sorted key name.
+     * @return Keyable or null if none.
+     * @throws KeyException Thrown in case the key is not a sorted key.
      */
-    private Object generateNextKeyValue(final @NonNull IKeyable keyable, final @NonNull Class<?> type, final @NonNull String name)
+    public final IKeyable min(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
     {
-        if (type == Byte.class || type == byte.class)
-        {
-            Byte latest = (Byte) getLatestKeyValue(keyable, type, name);
+        SortedKeyIndex index = getSortedIndex(keyableClass, keyName);
 
-            if (latest == null)
-            {
-                latest = 1;
-            }
-            else
-            {
-                if (latest == Byte.MAX_VALUE)
-                {
-                    String message = String.format(
-                            "Key name: '%s' with type: '%s' for keyable entity: '%s' has reached its limit: '%d', no more value can be generated!",
-                            name,
-                            type.getName(),
-                            keyable.getClass().getName(),
-                            Byte.MAX_VALUE);
-
-                    log.error(message);
-
-                    throw new KeyException(message);
-                }
-
-                latest = (byte) (latest + 1);
-            }
-
-            updateLatestKeyValue(keyable, type, name, latest);
-
-            return latest;
-        }
-        else if (type == Short.class || type == short.class)
-        {
-            Short latest = (Short) getLatestKeyValue(keyable, type, name);
-
-            if (latest == null)
-            {
-                latest = 1;
-            }
-            else
-            {
-                if (latest == Short.MAX_VALUE)
-                {
-                    String message = String.format(
-                            "Key name: '%s' with type: '%s' for keyable entity: '%s' has reached its limit: '%d', no more value can be generated!",
-                            name,
-                            type.getName(),
-                            keyable.getClass().getName(),
-                            Short.MAX_VALUE);
+        return index == null ? null : index.min();
+    }
 
-                    log.error(message);
+    /**
+     * Returns the keyable having the greatest value of the given sorted key.
+     * @param keyableClass Keyable class.
+     * @param keyName Sorted key name.
+     * @return Keyable or null if none.
+     * @throws KeyException Thrown in case the key is not a sorted key.
+     */
+    public final IKeyable max(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
+    {
+        SortedKeyIndex index = getSortedIndex(keyableClass, keyName);
 
-                    throw new KeyException(message);
-                }
+        return index == null ? null : index.max();
+    }
 
-                latest = (short) (latest + 1);
-            }
+    /**
+     * Returns the keyables having the greatest values of the given sorted key.
+     * @param keyableClass Keyable class.
+     * @param keyName Sorted key name.
+     * @param limit Maximum number of keyables.
+     * @return List of keyables by descending key value (empty if none).
+     * @throws KeyException Thrown in case the key is not a sorted key.
+     */
+    public final List<IKeyable> top(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final int limit)
+    {
+        SortedKeyIndex index = getSortedIndex(keyableClass, keyName);
 
-            updateLatestKeyValue(keyable, type, name, latest);
+        return index == null ? new ArrayList<>() : index.top(limit);
+    }
 
-            return latest;
-        }
-        else if (type == Integer.class || type == int.class)
+    /**
+     * Returns the keyables whose value of the given key starts with the given prefix.
+     * @param keyableClass Keyable class.
+     * @param keyName Name of a key searched by prefix.
+     * @param prefix Prefix.
+     * @param limit Maximum number of keyables.
+     * @return List of keyables by ascending (lexicographic) key value (empty if none).
+     * @throws KeyException Thrown in case the key cannot be searched by prefix.
+     */
+    public final List<IKeyable> findByPrefix(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull String prefix, final int limit)
+    {
+        KeyDescriptor key = KeyableDescriptor.of(keyableClass).getKeyOrIndex(keyName);
+        if (key == null || !key.isPrefix())
         {
-            Integer latest = (Integer) getLatestKeyValue(keyable, type, name);
-            if (latest == null)
-            {
-                latest = 1;
-            }
-            else
-            {
-                if (latest == Integer.MAX_VALUE)
-                {
-                    String message = String.format(
-                            "Key name: '%s' with type: '%s' for keyable entity: '%s' has reached its limit: '%d', no more value can be generated!",
-                            name,
-                            type.getName(),
-                            keyable.getClass().getName(),
-                            Integer.MAX_VALUE);
-
-                    log.error(message);
-
-                    throw new KeyException(message);
-                }
-
-                latest += 1;
-            }
+            String message = String.format(
+                    "Key with name: '%s' for keyable entity: '%s' cannot be searched by prefix!",
+                    keyName,
+                    keyableClass.getName());
 
-            updateLatestKeyValue(keyable, type, name, latest);
+            log.error(message);
 
-            return latest;
+            throw new KeyException(message);
         }
-        else if (type == Long.class || type == long.class)
-        {
-            Long latest = (Long) getLatestKeyValue(keyable, type, name);
-
-            if (latest == null)
-            {
-                latest = 1L;
-            }
-            else
-            {
-                if (latest == Long.MAX_VALUE)
-                {
-                    String message = String.format(
-                            "Key name: '%s' with type: '%s' for keyable entity: '%s' has reached its limit: '%d', no more value can be generated!",
-                            name,
-                            type.getName(),
-                            keyable.getClass().getName(),
-                            Long.MAX_VALUE);
-
-                    log.error(message);
-
-                    throw new KeyException(message);
-                }
-
-                latest += 1;
-            }
 
-            updateLatestKeyValue(keyable, type, name, latest);
+        IKeyIndex index = getBaseIndex(getIndex(keyableClass, key.getType(), keyName));
+        String value = (String) key.getNormalization().normalize(prefix);
 
-            return latest;
-        }
-        else if (type == UUID.class)
+        if (index instanceof LockedKeyIndex)
         {
-            return UUID.randomUUID();
+            return ((LockedKeyIndex) index).query(radix -> ((RadixKeyIndex) radix).findByPrefix(value, limit));
         }
 
-        throw new KeyException("Unsupported key type!");
+        return index == null ? new ArrayList<>() : ((RadixKeyIndex) index).findByPrefix(value, limit);
     }
 
     /**
-     * Retrieves the latest generated key value.
-     * @param keyable Keyable entity the key refers to.
-     * @param type Key type.
-     * @param name Key name.
-     * @return Next generated key value.
+     * Returns the index of a sorted key.
+     * @param keyableClass Keyable class.
+     * @param keyName Sorted key name.
+     * @return Sorted key index or null if no keyable has been registered for this key.
+     * @throws KeyException Thrown in case the key is not a sorted key.
      */
-    private Object getLatestKeyValue(final @NonNull IKeyable keyable, final @NonNull Class<?> type, final @NonNull String name)
+    private SortedKeyIndex getSortedIndex(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
     {
-        Map<Class<?>, Map<String, Object>> keyTypes = values.get(keyable.getClass());
-        if (keyTypes != null)
+        KeyDescriptor key = KeyableDescriptor.of(keyableClass).getKeyOrIndex(keyName);
+        if (key == null || !key.isSorted())
         {
-            Map<String, Object> keyNames = keyTypes.get(type);
-            if (keyNames != null)
-            {
-                return keyNames.get(name);
-            }
+            String message = String.format(
+                    "Key with name: '%s' for keyable entity: '%s' is not a sorted key!",
+                    keyName,
+                    keyableClass.getName());
+
+            log.error(message);
+
+            throw new KeyException(message);
         }
 
-        return null;
+        return (SortedKeyIndex) getBaseIndex(getIndex(keyableClass, key.getType(), keyName));
     }
 
     /**
-     * Updates the latest generated key value.
-     * @param keyable Keyable entity the key refers to.
-     * @param type Key type.
-     * @param name Key name.
-     * @param value New latest key value.
+     * Returns the key index holding the key values, stripped of the decorators transforming or filtering the key
+     * values (normalization and Bloom filter).
+     * @param index Key index (may be null).
+     * @return Base key index or null if the given key index is null.
      */
-    private void updateLatestKeyValue(final @NonNull IKeyable keyable, final @NonNull Class<?> type, final @NonNull String name, final @NonNull Object value)
+    private static IKeyIndex getBaseIndex(final IKeyIndex index)
     {
-        Map<Class<?>, Map<String, Object>> keyTypes;
-        Map<String, Object> keyNames = null;
-
-        keyTypes = values.get(keyable.getClass());
-        if (keyTypes == null)
+        if (index instanceof NormalizedKeyIndex)
         {
-            keyTypes = new HashMap<>();
+            return getBaseIndex(((NormalizedKeyIndex) index).getIndex());
         }
 
-        keyNames = keyTypes.get(type);
-        if (keyNames == null)
+        if (index instanceof BloomKeyIndex)
         {
-            keyNames = new HashMap<>();
+            return getBaseIndex(((BloomKeyIndex) index).getIndex());
         }
 
-        keyNames.put(name, value);
-        keyTypes.put(type, keyNames);
-        values.put(keyable.getClass(), keyTypes);
+        return index;
     }
 
     /**
-     * Retrieves the type of a key.
-     * @param keyableClass Keyable entity class.
-     * @param keyName Key name.
-     * @return Type of the key.
-     * @throws KeyManagerException Thrown in case the type of the key cannot be determined.
+     * Converts an integral key value to the (wrapper) type of the key.
+     * @param key Key.
+     * @param value Key value.
+     * @return Converted key value.
      */
-    private Class<?> getKeyTypeFor(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
+    private static Object toKeyType(final @NonNull KeyDescriptor key, final long value)
     {
-        Map<String, Multimap<Object, IKeyable>> names;
+        Class<?> type = ClassUtils.primitiveToWrapper(key.getType());
 
-        Map<Class<?>, Map<String, Multimap<Object, IKeyable>>> types = entities.get(keyableClass);
-        if (types != null)
+        if (type == Byte.class)
         {
-            for (Class<?> type : types.keySet())
-            {
-                names = types.get(type);
-                if (names != null && names.containsKey(keyName))
-                {
-                    return type;
-                }
-            }
+            return (byte) value;
         }
-
-        String message = String.format(
-                "Cannot determine type for key name: '%s' on keyable entity type: '%s'. Are you sure it's a real key?",
-                keyName,
-                keyableClass);
-
-        log.error(message);
-
-        throw new KeyManagerException(message);
-    }
-
-    /**
-     * Returns a list of keyables matching the given key name and value.
-     * @param keyableClass Keyable class.
-     * @param keyName Key name.
-     * @param keyValue Key value.
-     * @return List of keyables or an empty list if no keyable has been found matching the given criteria.
-     */
-    public final List<IKeyable> get(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final @NonNull Object keyValue)
-    {
-        Class<?> type = null;
-
-        try
+        else if (type == Short.class)
         {
-            type = getKeyTypeFor(keyableClass, keyName);
-
-            if (type == null)
-            {
-                log.error(String.format("Cannot retrieve type of key name: '%s', for keyable class: '%s'", keyName, keyableClass));
-                return new ArrayList<>();
-            }
+            return (short) value;
         }
-        catch (KeyManagerException e)
+        else if (type == Integer.class)
         {
-            log.error(e.getMessage());
-            return new ArrayList<>();
+            return (int) value;
         }
 
-        return new ArrayList<>(entities.get(keyableClass).get(type).get(keyName).get(keyValue));
-    }
-
-    /**
-     * Returns a list of keyables matching the given key.
-     * @param keyableClass Keyable class.
-     * @param key Key.
-     * @return List of keyables or an empty list if no keyable has been found matching the given criteria.
-     */
-    public final List<IKeyable> get(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull IKey key)
-    {
-        return (List<IKeyable>) entities.get(keyableClass).get(key.getType()).get(key.getName()).get(key.getValue());
+        return value;
     }
 
     /**
@@ -1212,18 +2145,9 @@ public final class KeyManager
      */
     public final int countByKeyableClass(final @NonNull Class<? extends IKeyable> keyableClass)
     {
-        PrimaryKey annotation;
-
-        for (Field field : keyableClass.getDeclaredFields())
-        {
-            annotation = field.getAnnotation(PrimaryKey.class);
-            if (annotation != null)
-            {
-                return getKeyables(keyableClass, field.getType(), annotation.name()).size();
-            }
-        }
+        KeyDescriptor primary = KeyableDescriptor.of(keyableClass).getPrimaryKey();
 
-        return 0;
+        return primary != null ? countKeyables(keyableClass, primary.getType(), primary.getName()) : 0;
     }
 
     /**
@@ -1234,60 +2158,14 @@ public final class KeyManager
      */
     public final int countByKeyName(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
     {
-        Annotation fieldAnnotation;
-        Annotation annotation = getAnnotationForKeyName(keyableClass, keyName);
-
-        if (annotation != null)
-        {
-            for (Field field : keyableClass.getDeclaredFields())
-            {
-                if (annotation instanceof PrimaryKey)
-                {
-                    fieldAnnotation = field.getAnnotation(PrimaryKey.class);
-                    if (fieldAnnotation != null && ((PrimaryKey) fieldAnnotation).name().equals(keyName))
-                    {
-                        return getKeyables(keyableClass, field.getType(), keyName).size();
-                    }
-                }
-                else if (annotation instanceof AlternateKey)
-                {
-                    fieldAnnotation = field.getAnnotation(AlternateKey.class);
-                    if (fieldAnnotation != null && ((AlternateKey) fieldAnnotation).name().equals(keyName))
-                    {
-                        return getKeyables(keyableClass, field.getType(), keyName).size();
-                    }
-                }
-            }
-        }
-
-        return 0;
-    }
-
-    /**
-     * Returns the key annotation for a given keyable class matching the given key name.
-     * @param keyableClass Keyable class to query.
-     * @param keyName Key name.
-     * @return Annotation matching the given key name, null otherwise.
-     */
-    private Annotation getAnnotationForKeyName(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
-    {
-        for (Field field : keyableClass.getDeclaredFields())
+        KeyableDescriptor descriptor = KeyableDescriptor.of(keyableClass);
+        KeyDescriptor key = descriptor.getKeyOrIndex(keyName);
+        if (key == null)
         {
-            for (Annotation annotation : field.getAnnotations())
-            {
-                if (annotation instanceof PrimaryKey && ((PrimaryKey) annotation).name().equals(keyName))
-                {
-                    return annotation;
-                }
-
-                if (annotation instanceof AlternateKey && ((AlternateKey) annotation).name().equals(keyName))
-                {
-                    return annotation;
-                }
-            }
+            return descriptor.getCompositeKey(keyName) != null ? countKeyables(keyableClass, COMPOSITE_KEY_TYPE, keyName) : 0;
         }
 
-        return null;
+        return countKeyables(keyableClass, key.getType(), keyName);
     }
 
 //    /**
@@ -1318,39 +2196,17 @@ public final class KeyManager
 //    }
 
     /**
-     * Returns a list of registered keyables matching the given parameters.
+     * Returns the number of registered keyables matching the given parameters (without listing them).
      * @param keyableClass Keyable class.
      * @param keyType Key type.
      * @param keyName Key name.
-     * @return List of matching keyables or an empty list if no keyable found.
+     * @return Number of matching keyables.
      */
-    private List<? extends IKeyable> getKeyables(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull Class<?> keyType, final @NonNull String keyName)
+    private int countKeyables(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull Class<?> keyType, final @NonNull String keyName)
     {
-        Multimap<Object, IKeyable> map = null;
-
-        if (!entities.isEmpty())
-        {
-            try
-            {
-                map = entities.get(keyableClass).get(keyType).get(keyName);
-            }
-            catch (NullPointerException e)
-            {
-                // Do nothing!
-            }
-        }
-
-        return map == null ? new ArrayList<>() : new ArrayList<>(map.values());
-    }
+        IKeyIndex index = getIndex(keyableClass, keyType, keyName);
 
-    /**
-     * Returns if the given field (annotated with a key annotation) is of an authorized type?
-     * @param field Annotated field.
-     * @return True if the field has an authorized type, false otherwise.
-     */
-    private boolean isAuthorizedType(final @NonNull Field field)
-    {
-        return isAuthorizedType(field.getType());
+        return index == null ? 0 : index.size();
     }
 
     /**
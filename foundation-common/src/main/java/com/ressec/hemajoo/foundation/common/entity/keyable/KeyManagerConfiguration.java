@@ -0,0 +1,125 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Configuration of the key manager.
+ * <br><br>
+ * A configuration can only be applied to the key manager when no keyable entity is registered.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Builder
+public final class KeyManagerConfiguration
+{
+    /**
+     * Default key manager configuration.
+     */
+    public static final KeyManagerConfiguration DEFAULT = KeyManagerConfiguration.builder().build();
+
+    /**
+     * Is the key manager used concurrently by several threads?
+     * <br><br>
+     * In concurrent mode, keys are indexed using lock free structures: queries never block, registrations of
+     * different keyable entities proceed in parallel and the uniqueness of the unique keys is atomically enforced.
+     * Otherwise registrations are serialized and queries must not be issued concurrently with registrations.
+     */
+    @Getter
+    @Builder.Default
+    private final boolean concurrent = false;
+
+    /**
+     * Are the key indexes stored off-heap?
+     * <br><br>
+     * Off-heap key indexes keep only the references to the keyable entities on the heap, the hash tables mapping
+     * the key values to the keyable entities being stored in direct memory. This keeps the garbage collection
+     * times independent of the number of registered keyable entities, at the cost of slower lookups (in concurrent
+     * mode, off-heap indexes are guarded by read-write locks).
+     */
+    @Getter
+    @Builder.Default
+    private final boolean offHeap = false;
+
+    /**
+     * Mode of the lists of keyable entities returned by the queries.
+     * <br><br>
+     * In {@link KeyQueryMode#VIEW} mode, queries return read-only views of the key indexes instead of copies, saving
+     * the copy of all the matching keyable entities on each query.
+     */
+    @Getter
+    @Builder.Default
+    private final KeyQueryMode queryMode = KeyQueryMode.COPY;
+
+    /**
+     * Maximum number of query results kept in the query cache (no query cache if 0).
+     * <br><br>
+     * The query cache answers the repeated lookups of a same key value without querying the key index. A cached
+     * result is invalidated as soon as a keyable entity holding this key value is registered or unregistered, the
+     * least recently used results being evicted once the cache is full. It suits read mostly keys, such as the
+     * non unique keys of reference data.
+     */
+    @Getter
+    @Builder.Default
+    private final int queryCacheSize = 0;
+
+    /**
+     * Expected number of keyable entities registered by keyable class (0 if unknown).
+     * <br><br>
+     * Key indexes are created with the capacity to hold the expected number of keyable entities, saving the
+     * successive resizes of the key indexes while they grow.
+     */
+    @Getter
+    @Builder.Default
+    private final int expectedSize = 0;
+
+    /**
+     * Number of shards of the key indexes when not in concurrent mode (no sharding if 1).
+     * <br><br>
+     * A sharded key index is partitioned by key value hash into shards (rounded up to a power of two), each guarded
+     * by its own read-write lock: registrations are no longer serialized by the key manager, registrations of the key
+     * values owned by different shards proceed in parallel and lookups are routed directly to the shard owning the
+     * key value. Sorted, prefix, bitmap and composite keys are not sharded, their indexes being guarded by their own
+     * read-write lock. In concurrent mode, the key indexes are lock free and are not sharded.
+     */
+    @Getter
+    @Builder.Default
+    private final int shards = 1;
+
+    /**
+     * Are the keyable entities weakly referenced by the key indexes?
+     * <br><br>
+     * Weakly referenced keyable entities no longer referenced elsewhere are garbage collected without having to be
+     * unregistered, their entries being purged incrementally from the key indexes on the next mutations and counts.
+     * Weak references take precedence over the off-heap and sharded key indexes, while sorted, prefix, bitmap and
+     * composite keys (holding their keyable entities strongly) cannot be registered. The query cache is disabled.
+     */
+    @Getter
+    @Builder.Default
+    private final boolean weakReferences = false;
+
+    /**
+     * Are the key indexes thread safe (concurrent mode or sharded key indexes)?
+     * <br><br>
+     * Registrations against thread safe key indexes are not serialized by the key manager.
+     * @return True if the key indexes are thread safe, false otherwise.
+     */
+    public final boolean isThreadSafe()
+    {
+        return concurrent || shards > 1;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Enumeration of the normalizations applied by the key manager to the values of the keys of type String.
+ * <br><br>
+ * The values of a normalized key are normalized when indexed and when queried, so that a query matches the key values
+ * differing only by the characters folded by the normalization. The key values held by the keyable entities are left
+ * unchanged.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public enum KeyNormalization
+{
+    /**
+     * Key values are indexed as is (exact match).
+     */
+    NONE,
+
+    /**
+     * Key values are trimmed and folded to lower case.
+     */
+    CASE_INSENSITIVE,
+
+    /**
+     * Key values are trimmed, folded to lower case and stripped of their diacritical marks (Unicode canonical
+     * decomposition).
+     */
+    ACCENT_INSENSITIVE;
+
+    /**
+     * Diacritical marks remaining once a value has been decomposed.
+     */
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Normalizes a key value.
+     * @param value Key value.
+     * @return Normalized key value (the value itself if it is not a String).
+     */
+    public final Object normalize(final Object value)
+    {
+        if (this == NONE || !(value instanceof String))
+        {
+            return value;
+        }
+
+        String normalized = ((String) value).trim();
+        if (this == ACCENT_INSENSITIVE)
+        {
+            normalized = MARKS.matcher(Normalizer.normalize(normalized, Normalizer.Form.NFD)).replaceAll("");
+        }
+
+        return normalized.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the results of the queries of the key manager, bounded in size.
+ * <br><br>
+ * A query result is cached by bucket: keyable class, key name and key value. Registering or unregistering a key
+ * value only invalidates the bucket of this key value. Cached results are immutable lists.
+ * <br><br>
+ * Reads are lock free: cached results are held by a concurrent map and a read only marks its result as referenced.
+ * Once the cache is full, results are evicted in approximate least recently used order by a clock sweep (a
+ * referenced result is given a second chance), the sweep being serialized between the writers only.
+ * <br><br>
+ * Each invalidation increments the generation of the cache. A query result computed while an invalidation occurred
+ * may be stale, so it is only cached if the generation of the cache did not change since the query started, and it
+ * is withdrawn if an invalidation occurred while it was being cached.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class KeyQueryCache
+{
+    /**
+     * Maximum number of cached query results.
+     */
+    private final int capacity;
+
+    /**
+     * Cached query results.
+     */
+    private final ConcurrentHashMap<Bucket, Result> results = new ConcurrentHashMap<>();
+
+    /**
+     * Generation of the cache, incremented on each invalidation.
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Clock hand of the eviction sweep (guarded by the cache monitor).
+     */
+    private Iterator<Map.Entry<Bucket, Result>> hand;
+
+    /**
+     * Creates a new query cache.
+     * @param capacity Maximum number of cached query results.
+     */
+    KeyQueryCache(final int capacity)
+    {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the current generation of the cache, to be passed to {@link #put} once the query result is computed.
+     * @return Cache generation.
+     */
+    long getGeneration()
+    {
+        return generation.get();
+    }
+
+    /**
+     * Returns a cached query result.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @param value Key value.
+     * @return Cached (immutable) query result or null if not cached.
+     */
+    List<IKeyable> get(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final Object value)
+    {
+        Result result = results.get(new Bucket(keyableClass, keyName, value));
+        if (result == null)
+        {
+            return null;
+        }
+
+        // Avoids writing a shared cache line on each read of a frequently read result.
+        if (!result.referenced)
+        {
+            result.referenced = true;
+        }
+
+        return result.keyables;
+    }
+
+    /**
+     * Caches a query result, unless the cache has been invalidated since the query started.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @param value Key value.
+     * @param result Query result.
+     * @param generation Generation of the cache when the query started.
+     * @return Immutable copy of the query result.
+     */
+    List<IKeyable> put(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final Object value, final @NonNull List<IKeyable> result, final long generation)
+    {
+        List<IKeyable> copy = Collections.unmodifiableList(new ArrayList<>(result));
+
+        if (generation == this.generation.get())
+        {
+            Bucket bucket = new Bucket(keyableClass, keyName, value);
+            Result cached = new Result(copy);
+
+            results.put(bucket, cached);
+
+            // An invalidation may have missed the result while it was being cached.
+            if (generation != this.generation.get())
+            {
+                results.remove(bucket, cached);
+            }
+            else if (results.size() > capacity)
+            {
+                evict();
+            }
+        }
+
+        return copy;
+    }
+
+    /**
+     * Evicts cached query results until the cache is no longer over capacity.
+     */
+    private synchronized void evict()
+    {
+        while (results.size() > capacity)
+        {
+            if (hand == null || !hand.hasNext())
+            {
+                hand = results.entrySet().iterator();
+                if (!hand.hasNext())
+                {
+                    return;
+                }
+            }
+
+            Map.Entry<Bucket, Result> entry = hand.next();
+            if (entry.getValue().referenced)
+            {
+                entry.getValue().referenced = false;
+            }
+            else
+            {
+                results.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Invalidates the cached query result of a key value.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     * @param value Key value.
+     */
+    void invalidate(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName, final Object value)
+    {
+        generation.incrementAndGet();
+        results.remove(new Bucket(keyableClass, keyName, value));
+    }
+
+    /**
+     * Invalidates the cached query results of all the values of a key.
+     * @param keyableClass Keyable class.
+     * @param keyName Key name.
+     */
+    void invalidate(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull String keyName)
+    {
+        generation.incrementAndGet();
+        results.keySet().removeIf(bucket -> bucket.keyableClass == keyableClass && bucket.keyName.equals(keyName));
+    }
+
+    /**
+     * Invalidates the cached query results of all the keys of a keyable class.
+     * @param keyableClass Keyable class.
+     */
+    void invalidate(final @NonNull Class<? extends IKeyable> keyableClass)
+    {
+        generation.incrementAndGet();
+        results.keySet().removeIf(bucket -> bucket.keyableClass == keyableClass);
+    }
+
+    /**
+     * Invalidates all the cached query results.
+     */
+    void clear()
+    {
+        generation.incrementAndGet();
+        results.clear();
+    }
+
+    /**
+     * Returns the number of cached query results.
+     * @return Number of cached query results.
+     */
+    int size()
+    {
+        return results.size();
+    }
+
+    /**
+     * Bucket of a cached query result.
+     */
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static final class Bucket
+    {
+        /**
+         * Keyable class.
+         */
+        private final Class<? extends IKeyable> keyableClass;
+
+        /**
+         * Key name.
+         */
+        private final String keyName;
+
+        /**
+         * Key value.
+         */
+        private final Object value;
+    }
+
+    /**
+     * Cached query result.
+     */
+    @RequiredArgsConstructor
+    private static final class Result
+    {
+        /**
+         * Immutable list of the keyable entities matching the query.
+         */
+        private final List<IKeyable> keyables;
+
+        /**
+         * Has the result been read since the last pass of the eviction sweep?
+         */
+        private volatile boolean referenced;
+    }
+}
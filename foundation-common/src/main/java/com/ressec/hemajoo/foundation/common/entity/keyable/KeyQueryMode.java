@@ -0,0 +1,35 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+/**
+ * Enumeration of the modes of the lists of keyable entities returned by the queries of the key manager.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public enum KeyQueryMode
+{
+    /**
+     * Queries return a (mutable) copy of the matching keyable entities, owned by the caller.
+     */
+    COPY,
+
+    /**
+     * Queries return a read-only view of the matching keyable entities, without copying them. The view is a
+     * snapshot for the indexes replacing their buckets on mutation (integral keys, unique keys, concurrent and
+     * off-heap modes), otherwise a live view reflecting the later registrations and unregistrations.
+     */
+    VIEW
+}
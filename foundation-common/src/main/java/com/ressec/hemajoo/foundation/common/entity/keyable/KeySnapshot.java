@@ -0,0 +1,451 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Saves the keys of the keyable entities of a keyable class to a compact binary snapshot file, and restores them
+ * into the key manager from the memory-mapped snapshot file.
+ * <br><br>
+ * A snapshot holds, for each keyable entity, the values of all its keys (primary, alternate and secondary indexes),
+ * and the latest value generated for each key whose values are generated. On restore, the keyable entities are
+ * rebuilt by a factory from their key values, then registered as a single batch without being checked again (the
+ * key values having been checked when first registered), the generators of the key values resuming after the
+ * latest generated values. The fields which are not keys (including the components of the composite keys) are not
+ * part of the snapshot and must be restored by the factory.
+ * <br><br>
+ * As for {@link KeyManager#registerAll(Collection)}, a keyable entity that cannot be registered does not stop the
+ * restore, all failures being reported together once the restore is complete.
+ * <br><br>
+ * A snapshot file is written to a temporary file atomically moved over the snapshot file once complete, so that a
+ * failed save never leaves a truncated snapshot file behind. Its header records the name and the type of each key,
+ * a snapshot file being only restored into a keyable class declaring the same keys.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Log4j2
+@Builder
+public final class KeySnapshot
+{
+    /**
+     * Magic number of the snapshot files.
+     */
+    private static final int MAGIC = 0x484B534E;
+
+    /**
+     * Version of the snapshot file format.
+     */
+    private static final int VERSION = 2;
+
+    /**
+     * Tag of a null key value.
+     */
+    private static final byte TAG_NULL = 0;
+
+    /**
+     * Tag of a byte key value.
+     */
+    private static final byte TAG_BYTE = 1;
+
+    /**
+     * Tag of a short key value.
+     */
+    private static final byte TAG_SHORT = 2;
+
+    /**
+     * Tag of an integer key value.
+     */
+    private static final byte TAG_INTEGER = 3;
+
+    /**
+     * Tag of a long key value.
+     */
+    private static final byte TAG_LONG = 4;
+
+    /**
+     * Tag of a string key value.
+     */
+    private static final byte TAG_STRING = 5;
+
+    /**
+     * Tag of an UUID key value.
+     */
+    private static final byte TAG_UUID = 6;
+
+    /**
+     * Tag of an enumeration key value (stored by name).
+     */
+    private static final byte TAG_ENUM = 7;
+
+    /**
+     * Key manager (scope) the snapshots are taken from and restored into.
+     */
+    @Getter
+    @Builder.Default
+    private final KeyManager manager = KeyManager.getInstance();
+
+    /**
+     * Saves the keys of the keyable entities of a keyable class to a snapshot file.
+     * @param keyableClass Keyable class.
+     * @param file Snapshot file (created or atomically replaced).
+     * @return Number of saved keyable entities.
+     * @throws KeyException Thrown in case the snapshot file cannot be written.
+     */
+    public final int save(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull Path file)
+    {
+        KeyableDescriptor descriptor = KeyableDescriptor.of(keyableClass);
+        List<KeyDescriptor> keys = descriptor.getKeys();
+        List<IKeyable> keyables = manager.getKeyables(keyableClass);
+        Path temporary = null;
+
+        try
+        {
+            Path directory = file.toAbsolutePath().getParent();
+            temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary))))
+            {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                writeString(output, keyableClass.getName());
+
+                output.writeInt(keys.size());
+                for (KeyDescriptor key : keys)
+                {
+                    writeString(output, key.getName());
+                    writeString(output, key.getType().getName());
+                    output.writeLong(manager.getLatestKeyValue(keyableClass, key));
+                }
+
+                output.writeInt(keyables.size());
+                for (IKeyable keyable : keyables)
+                {
+                    for (KeyDescriptor key : keys)
+                    {
+                        writeValue(output, key, key.getAccessor().get(keyable));
+                    }
+                }
+            }
+
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            temporary = null;
+        }
+        catch (IOException e)
+        {
+            String message = String.format("Cannot save snapshot of keyable entity: '%s' to file: '%s'!", keyableClass.getName(), file);
+
+            log.error(message);
+
+            throw new KeyException(message, e);
+        }
+        finally
+        {
+            deleteTemporary(temporary);
+        }
+
+        return keyables.size();
+    }
+
+    /**
+     * Deletes the temporary file of a failed save.
+     * @param temporary Temporary file (null if none).
+     */
+    private static void deleteTemporary(final Path temporary)
+    {
+        if (temporary != null)
+        {
+            try
+            {
+                Files.deleteIfExists(temporary);
+            }
+            catch (IOException e)
+            {
+                log.warn(String.format("Cannot delete temporary snapshot file: '%s'!", temporary));
+            }
+        }
+    }
+
+    /**
+     * Restores the keyable entities of a keyable class from a snapshot file.
+     * @param keyableClass Keyable class.
+     * @param file Snapshot file.
+     * @param factory Factory creating a (non registered) keyable entity from its key values by key name.
+     * @return Number of restored keyable entities.
+     * @throws KeyException Thrown in case the snapshot file cannot be read or does not match the keyable class.
+     * @throws KeyBatchException Thrown in case at least one keyable entity cannot be registered.
+     */
+    public final int load(final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull Path file, final @NonNull Function<Map<String, Object>, ? extends IKeyable> factory)
+    {
+        KeyableDescriptor descriptor = KeyableDescriptor.of(keyableClass);
+        List<KeyDescriptor> keys = descriptor.getKeys();
+        List<IKeyable> keyables;
+        long[] latest = new long[keys.size()];
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            checkHeader(buffer, keyableClass, keys, latest, file);
+
+            // Each row holds at least the tag of each of its key values.
+            int count = buffer.getInt();
+            if (count < 0 || (long) count * keys.size() > buffer.remaining())
+            {
+                throw new IllegalArgumentException(String.format("Invalid number of rows: %d", count));
+            }
+
+            keyables = new ArrayList<>(count);
+            for (int i = 0; i < count; i++)
+            {
+                Map<String, Object> values = new HashMap<>(keys.size() * 2);
+                for (KeyDescriptor key : keys)
+                {
+                    values.put(key.getName(), readValue(buffer, key));
+                }
+
+                keyables.add(factory.apply(values));
+            }
+        }
+        catch (IOException | BufferUnderflowException | IllegalArgumentException e)
+        {
+            String message = String.format("Cannot load snapshot of keyable entity: '%s' from file: '%s'!", keyableClass.getName(), file);
+
+            log.error(message);
+
+            throw new KeyException(message, e);
+        }
+
+        for (KeyDescriptor key : keys)
+        {
+            if (latest[key.getIndex()] > 0)
+            {
+                manager.restoreLatestKeyValue(keyableClass, key, latest[key.getIndex()]);
+            }
+        }
+
+        List<IKeyable> rejected = new ArrayList<>();
+        List<KeyException> failures = new ArrayList<>();
+
+        if (!keyables.isEmpty())
+        {
+            manager.registerCheckedBatches(Collections.singletonMap(descriptor, keyables), rejected, failures);
+        }
+
+        if (!failures.isEmpty())
+        {
+            String message = String.format(
+                    "Cannot restore: %d keyable entities out of: %d!",
+                    failures.size(),
+                    keyables.size());
+
+            log.error(message);
+
+            throw new KeyBatchException(message, rejected, failures);
+        }
+
+        return keyables.size();
+    }
+
+    /**
+     * Checks the header of a snapshot file against the keyable class, and reads the latest generated key values.
+     * @param buffer Buffer positioned at the start of the snapshot file.
+     * @param keyableClass Keyable class.
+     * @param keys Keys of the keyable class.
+     * @param latest Latest generated key values (by key position).
+     * @param file Snapshot file.
+     * @throws KeyException Thrown in case the snapshot file does not match the keyable class.
+     */
+    private static void checkHeader(final @NonNull ByteBuffer buffer, final @NonNull Class<? extends IKeyable> keyableClass, final @NonNull List<KeyDescriptor> keys, final @NonNull long[] latest, final @NonNull Path file)
+    {
+        boolean matching = buffer.getInt() == MAGIC
+                && buffer.getInt() == VERSION
+                && keyableClass.getName().equals(readString(buffer))
+                && buffer.getInt() == keys.size();
+
+        for (int i = 0; matching && i < keys.size(); i++)
+        {
+            matching = keys.get(i).getName().equals(readString(buffer))
+                    && keys.get(i).getType().getName().equals(readString(buffer));
+            latest[i] = matching ? buffer.getLong() : 0;
+        }
+
+        if (!matching)
+        {
+            String message = String.format("Snapshot file: '%s' does not match the keys of keyable entity: '%s'!", file, keyableClass.getName());
+
+            log.error(message);
+
+            throw new KeyException(message);
+        }
+    }
+
+    /**
+     * Writes a string.
+     * @param output Output stream.
+     * @param value String.
+     * @throws IOException Thrown in case an I/O error occurred.
+     */
+    private static void writeString(final @NonNull DataOutputStream output, final @NonNull String value) throws IOException
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * Reads a string.
+     * @param buffer Buffer.
+     * @return String.
+     * @throws IllegalArgumentException Thrown in case the length of the string exceeds the remaining bytes.
+     */
+    private static String readString(final @NonNull ByteBuffer buffer)
+    {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining())
+        {
+            throw new IllegalArgumentException(String.format("Invalid string length: %d", length));
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a tagged key value.
+     * @param output Output stream.
+     * @param key Key.
+     * @param value Key value (may be null).
+     * @throws IOException Thrown in case an I/O error occurred.
+     * @throws KeyException Thrown in case the type of the key value cannot be saved.
+     */
+    private static void writeValue(final @NonNull DataOutputStream output, final @NonNull KeyDescriptor key, final Object value) throws IOException
+    {
+        if (value == null)
+        {
+            output.writeByte(TAG_NULL);
+        }
+        else if (value instanceof Byte)
+        {
+            output.writeByte(TAG_BYTE);
+            output.writeByte((Byte) value);
+        }
+        else if (value instanceof Short)
+        {
+            output.writeByte(TAG_SHORT);
+            output.writeShort((Short) value);
+        }
+        else if (value instanceof Integer)
+        {
+            output.writeByte(TAG_INTEGER);
+            output.writeInt((Integer) value);
+        }
+        else if (value instanceof Long)
+        {
+            output.writeByte(TAG_LONG);
+            output.writeLong((Long) value);
+        }
+        else if (value instanceof String)
+        {
+            output.writeByte(TAG_STRING);
+            writeString(output, (String) value);
+        }
+        else if (value instanceof UUID)
+        {
+            output.writeByte(TAG_UUID);
+            output.writeLong(((UUID) value).getMostSignificantBits());
+            output.writeLong(((UUID) value).getLeastSignificantBits());
+        }
+        else if (value instanceof Enum)
+        {
+            output.writeByte(TAG_ENUM);
+            writeString(output, ((Enum<?>) value).name());
+        }
+        else
+        {
+            String message = String.format("Key with name: '%s', of type: '%s' cannot be saved to a snapshot!",
+                    key.getName(),
+                    value.getClass().getName());
+
+            log.error(message);
+
+            throw new KeyException(message);
+        }
+    }
+
+    /**
+     * Reads a tagged key value.
+     * @param buffer Buffer.
+     * @param key Key.
+     * @return Key value (may be null).
+     * @throws IllegalArgumentException Thrown in case the tag or the enumeration constant is unknown.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object readValue(final @NonNull ByteBuffer buffer, final @NonNull KeyDescriptor key)
+    {
+        byte tag = buffer.get();
+
+        switch (tag)
+        {
+            case TAG_NULL:
+                return null;
+
+            case TAG_BYTE:
+                return buffer.get();
+
+            case TAG_SHORT:
+                return buffer.getShort();
+
+            case TAG_INTEGER:
+                return buffer.getInt();
+
+            case TAG_LONG:
+                return buffer.getLong();
+
+            case TAG_STRING:
+                return readString(buffer);
+
+            case TAG_UUID:
+                return new UUID(buffer.getLong(), buffer.getLong());
+
+            case TAG_ENUM:
+                return Enum.valueOf((Class<? extends Enum>) key.getType(), readString(buffer));
+
+            default:
+                throw new IllegalArgumentException(String.format("Unknown tag: %d of key: '%s'", tag, key.getName()));
+        }
+    }
+}
@@ -17,7 +17,9 @@ package com.ressec.hemajoo.foundation.common.entity.keyable;
 import com.ressec.hemajoo.foundation.common.annotation.Internal;
 import lombok.NonNull;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Provides a concrete implementation of a keyable entity.
@@ -39,7 +41,8 @@ public class Keyable extends AbstractKeyable
     }
 
     /**
-     * Queries the key manager to retrieve a list of {@link IKeyable} entities matching the given parameters.
+     * Queries the default key manager (default scope) to retrieve a list of {@link IKeyable} entities matching
+     * the given parameters.
      * <br>
      * Should be called when querying a non-unique key.
      * @param clazz Keyable class.
@@ -49,11 +52,28 @@ public class Keyable extends AbstractKeyable
      */
     public static List<IKeyable> query(final @NonNull Class<? extends IKeyable> clazz, final @NonNull String keyName, final @NonNull Object keyValue)
     {
-        return KeyManager.getInstance().get(clazz, keyName, keyValue);
+        return query(KeyManager.getInstance(), clazz, keyName, keyValue);
     }
 
     /**
-     * Queries the key manager to retrieve a list of {@link IKeyable} entities matching the given parameters.
+     * Queries the given key manager (scope) to retrieve a list of {@link IKeyable} entities matching the given
+     * parameters.
+     * <br>
+     * Should be called when querying a non-unique key.
+     * @param scope Key manager.
+     * @param clazz Keyable class.
+     * @param keyName Key name.
+     * @param keyValue Key value.
+     * @return List of found entities or an empty list if no matching entities have been found.
+     */
+    public static List<IKeyable> query(final @NonNull KeyManager scope, final @NonNull Class<? extends IKeyable> clazz, final @NonNull String keyName, final @NonNull Object keyValue)
+    {
+        return scope.get(clazz, keyName, keyValue);
+    }
+
+    /**
+     * Queries the default key manager (default scope) to retrieve a list of {@link IKeyable} entities matching
+     * the given parameters.
      * <br>
      * Should be called when querying a non-unique key.
      * @param clazz Keyable class.
@@ -62,11 +82,58 @@ public class Keyable extends AbstractKeyable
      */
     public static List<IKeyable> query(final @NonNull Class<? extends IKeyable> clazz, final @NonNull IKey key)
     {
-        return KeyManager.getInstance().get(clazz, key);
+        return query(KeyManager.getInstance(), clazz, key);
     }
 
     /**
-     * Queries the key manager to retrieve a {@link IKeyable} entity matching the given parameters.
+     * Queries the given key manager (scope) to retrieve a list of {@link IKeyable} entities matching the given
+     * parameters.
+     * <br>
+     * Should be called when querying a non-unique key.
+     * @param scope Key manager.
+     * @param clazz Keyable class.
+     * @param key Key.
+     * @return List of found entities or an empty list if no matching entities have been found.
+     */
+    public static List<IKeyable> query(final @NonNull KeyManager scope, final @NonNull Class<? extends IKeyable> clazz, final @NonNull IKey key)
+    {
+        return scope.get(clazz, key);
+    }
+
+    /**
+     * Queries the default key manager (default scope) to retrieve the lists of {@link IKeyable} entities
+     * matching each of the given key values.
+     * <br>
+     * Should be called when querying a non-unique key with a batch of key values.
+     * @param clazz Keyable class.
+     * @param keyName Key name.
+     * @param keyValues Key values.
+     * @return Lists of found entities by key value (key values without any matching entity are omitted).
+     */
+    public static Map<Object, List<IKeyable>> queryAll(final @NonNull Class<? extends IKeyable> clazz, final @NonNull String keyName, final @NonNull Collection<?> keyValues)
+    {
+        return queryAll(KeyManager.getInstance(), clazz, keyName, keyValues);
+    }
+
+    /**
+     * Queries the given key manager (scope) to retrieve the lists of {@link IKeyable} entities matching each of
+     * the given key values.
+     * <br>
+     * Should be called when querying a non-unique key with a batch of key values.
+     * @param scope Key manager.
+     * @param clazz Keyable class.
+     * @param keyName Key name.
+     * @param keyValues Key values.
+     * @return Lists of found entities by key value (key values without any matching entity are omitted).
+     */
+    public static Map<Object, List<IKeyable>> queryAll(final @NonNull KeyManager scope, final @NonNull Class<? extends IKeyable> clazz, final @NonNull String keyName, final @NonNull Collection<?> keyValues)
+    {
+        return scope.getAll(clazz, keyName, keyValues);
+    }
+
+    /**
+     * Queries the default key manager (default scope) to retrieve a {@link IKeyable} entity matching the given
+     * parameters.
      * <br>
      * Should be called when querying a unique key.
      * @param clazz Keyable class.
@@ -76,18 +143,27 @@ public class Keyable extends AbstractKeyable
      */
     public static IKeyable retrieve(final @NonNull Class<? extends IKeyable> clazz, final @NonNull String keyName, final @NonNull Object keyValue)
     {
-        List<? extends IKeyable> entities = KeyManager.getInstance().get(clazz, keyName, keyValue);
-
-        if (!entities.isEmpty())
-        {
-            return entities.get(0);
-        }
+        return retrieve(KeyManager.getInstance(), clazz, keyName, keyValue);
+    }
 
-        return null;
+    /**
+     * Queries the given key manager (scope) to retrieve a {@link IKeyable} entity matching the given parameters.
+     * <br>
+     * Should be called when querying a unique key.
+     * @param scope Key manager.
+     * @param clazz Keyable class.
+     * @param keyName Key name.
+     * @param keyValue Key value.
+     * @return Keyable entity or null if no matching entities have been found.
+     */
+    public static IKeyable retrieve(final @NonNull KeyManager scope, final @NonNull Class<? extends IKeyable> clazz, final @NonNull String keyName, final @NonNull Object keyValue)
+    {
+        return scope.getOne(clazz, keyName, keyValue);
     }
 
     /**
-     * Queries the key manager to retrieve a {@link IKeyable} entity matching the given parameters.
+     * Queries the default key manager (default scope) to retrieve a {@link IKeyable} entity matching the given
+     * parameters.
      * <br>
      * Should be called when querying a unique key.
      * @param clazz Keyable class.
@@ -96,6 +172,78 @@ public class Keyable extends AbstractKeyable
      */
     public static IKeyable retrieve(final @NonNull Class<? extends IKeyable> clazz, final @NonNull IKey key)
     {
-        return retrieve(clazz, key.getName(), key.getValue());
+        return retrieve(KeyManager.getInstance(), clazz, key);
+    }
+
+    /**
+     * Queries the given key manager (scope) to retrieve a {@link IKeyable} entity matching the given parameters.
+     * <br>
+     * Should be called when querying a unique key.
+     * @param scope Key manager.
+     * @param clazz Keyable class.
+     * @param key Key.
+     * @return Keyable entity or null if no matching entities have been found.
+     */
+    public static IKeyable retrieve(final @NonNull KeyManager scope, final @NonNull Class<? extends IKeyable> clazz, final @NonNull IKey key)
+    {
+        return retrieve(scope, clazz, key.getName(), key.getValue());
+    }
+
+    /**
+     * Queries the default key manager (default scope) to retrieve the {@link IKeyable} entities matching each of
+     * the given key values.
+     * <br>
+     * Should be called when querying a unique key with a batch of key values.
+     * @param clazz Keyable class.
+     * @param keyName Key name.
+     * @param keyValues Key values.
+     * @return Found entity by key value (key values without any matching entity are omitted).
+     */
+    public static Map<Object, IKeyable> retrieveAll(final @NonNull Class<? extends IKeyable> clazz, final @NonNull String keyName, final @NonNull Collection<?> keyValues)
+    {
+        return retrieveAll(KeyManager.getInstance(), clazz, keyName, keyValues);
+    }
+
+    /**
+     * Queries the given key manager (scope) to retrieve the {@link IKeyable} entities matching each of the given
+     * key values.
+     * <br>
+     * Should be called when querying a unique key with a batch of key values.
+     * @param scope Key manager.
+     * @param clazz Keyable class.
+     * @param keyName Key name.
+     * @param keyValues Key values.
+     * @return Found entity by key value (key values without any matching entity are omitted).
+     */
+    public static Map<Object, IKeyable> retrieveAll(final @NonNull KeyManager scope, final @NonNull Class<? extends IKeyable> clazz, final @NonNull String keyName, final @NonNull Collection<?> keyValues)
+    {
+        return scope.getOneAll(clazz, keyName, keyValues);
+    }
+
+    /**
+     * Checks, against the default key manager (default scope), if a {@link IKeyable} entity matching the given
+     * parameters exist, without retrieving it.
+     * @param clazz Keyable class.
+     * @param keyName Key name.
+     * @param keyValue Key value.
+     * @return True if at least one entity matches, false otherwise.
+     */
+    public static boolean exists(final @NonNull Class<? extends IKeyable> clazz, final @NonNull String keyName, final @NonNull Object keyValue)
+    {
+        return exists(KeyManager.getInstance(), clazz, keyName, keyValue);
+    }
+
+    /**
+     * Checks, against the given key manager (scope), if a {@link IKeyable} entity matching the given parameters
+     * exist, without retrieving it.
+     * @param scope Key manager.
+     * @param clazz Keyable class.
+     * @param keyName Key name.
+     * @param keyValue Key value.
+     * @return True if at least one entity matches, false otherwise.
+     */
+    public static boolean exists(final @NonNull KeyManager scope, final @NonNull Class<? extends IKeyable> clazz, final @NonNull String keyName, final @NonNull Object keyValue)
+    {
+        return scope.isKeyValueExist(clazz, keyName, keyValue);
     }
 }
@@ -0,0 +1,367 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.*;
+
+/**
+ * Describes the keys declared by a keyable entity class.
+ * <br><br>
+ * The fields of a keyable class are scanned only once, the first time the descriptor of the class is requested.
+ * Descriptors are then cached per class and shared by the key manager, the keyable entities and the keys.
+ * <br><br>
+ * A descriptor does not reject a badly structured keyable class (no or multiple primary keys, several keys
+ * with the same name), it only records it so that the key manager can report it when an entity is registered.
+ * <br><br>
+ * When a {@link IKeyableCompanion} has been generated at compile time for the keyable class, the descriptor is
+ * marked as verified (its structure has been checked by the compiler) and key fields are accessed through the
+ * companion whenever possible.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class KeyableDescriptor
+{
+    /**
+     * Cache of keyable descriptors per keyable class.
+     */
+    private static final ClassValue<KeyableDescriptor> DESCRIPTORS = new ClassValue<KeyableDescriptor>()
+    {
+        @Override
+        protected KeyableDescriptor computeValue(final Class<?> type)
+        {
+            return new KeyableDescriptor(type);
+        }
+    };
+
+    /**
+     * Keyable class described by this descriptor.
+     */
+    @Getter
+    private final Class<?> keyableClass;
+
+    /**
+     * Keys declared by the keyable class (in field declaration order), followed by its secondary indexes.
+     */
+    @Getter
+    private final List<KeyDescriptor> keys;
+
+    /**
+     * Key annotations declared by the keyable class (in field declaration order).
+     */
+    @Getter
+    private final List<Annotation> annotations;
+
+    /**
+     * Keys indexed by their name (only the first key declared with a given name is indexed).
+     */
+    private final Map<String, KeyDescriptor> keysByName;
+
+    /**
+     * Secondary indexes indexed by their name (only the first secondary index declared with a given name is indexed).
+     */
+    private final Map<String, KeyDescriptor> indexesByName;
+
+    /**
+     * Composite keys declared by the keyable class (in declaration order of their first component).
+     */
+    @Getter
+    private final List<CompositeKeyDescriptor> compositeKeys;
+
+    /**
+     * Composite keys indexed by their name.
+     */
+    private final Map<String, CompositeKeyDescriptor> compositeKeysByName;
+
+    /**
+     * Primary key (the first one declared if several fields are annotated as primary keys), null if none.
+     */
+    @Getter
+    private final KeyDescriptor primaryKey;
+
+    /**
+     * Number of fields annotated as primary keys.
+     */
+    @Getter
+    private final int primaryKeyCount;
+
+    /**
+     * First key declared with a name already used by another key, null if key names are unique.
+     */
+    @Getter
+    private final KeyDescriptor duplicateKey;
+
+    /**
+     * First secondary index declared with a name already used by a key, a composite key or another secondary index,
+     * null if secondary index names are unique.
+     */
+    @Getter
+    private final KeyDescriptor duplicateIndex;
+
+    /**
+     * Has the structure of the keyable class been verified at compile time?
+     */
+    @Getter
+    private final boolean verified;
+
+    /**
+     * Creates a new descriptor by scanning the fields of the given keyable class.
+     * @param keyableClass Keyable class.
+     */
+    private KeyableDescriptor(final @NonNull Class<?> keyableClass)
+    {
+        List<Field> fields = new ArrayList<>();
+        List<Field> indexedFields = new ArrayList<>();
+        List<KeyDescriptor> list = new ArrayList<>();
+        List<Annotation> annotationList = new ArrayList<>();
+        Map<String, KeyDescriptor> names = new HashMap<>();
+        Map<String, KeyDescriptor> indexNames = new HashMap<>();
+        KeyDescriptor primary = null;
+        KeyDescriptor duplicate = null;
+        KeyDescriptor duplicateIndexed = null;
+        Map<String, List<Field>> components = new LinkedHashMap<>();
+        int count = 0;
+
+        for (Field field : keyableClass.getDeclaredFields())
+        {
+            if (field.isAnnotationPresent(PrimaryKey.class) || field.isAnnotationPresent(AlternateKey.class))
+            {
+                fields.add(field);
+            }
+            else if (field.isAnnotationPresent(Indexed.class))
+            {
+                // Key fields are already indexed.
+                indexedFields.add(field);
+            }
+
+            if (field.isAnnotationPresent(CompositeKey.class))
+            {
+                components.computeIfAbsent(field.getAnnotation(CompositeKey.class).name(), k -> new ArrayList<>()).add(field);
+            }
+        }
+
+        IKeyableCompanion companion = findCompanion(keyableClass, fields);
+
+        for (Field field : fields)
+        {
+            Annotation annotation = field.getAnnotation(PrimaryKey.class);
+            if (annotation == null)
+            {
+                annotation = field.getAnnotation(AlternateKey.class);
+            }
+
+            KeyDescriptor key = new KeyDescriptor(list.size(), field, annotation, companion);
+
+            if (key.isPrimary())
+            {
+                count++;
+                if (primary == null)
+                {
+                    primary = key;
+                }
+            }
+
+            if (names.putIfAbsent(key.getName(), key) != null && duplicate == null)
+            {
+                duplicate = key;
+            }
+
+            list.add(key);
+            annotationList.add(annotation);
+        }
+
+        // Secondary indexes are not keys of the keyable entities (they have no key annotation): they are only looked
+        // up by name by the query services.
+        for (Field field : indexedFields)
+        {
+            KeyDescriptor key = new KeyDescriptor(list.size(), field, field.getAnnotation(Indexed.class), companion);
+
+            boolean used = names.containsKey(key.getName()) || components.containsKey(key.getName());
+            if ((indexNames.putIfAbsent(key.getName(), key) != null || used) && duplicateIndexed == null)
+            {
+                duplicateIndexed = key;
+            }
+
+            list.add(key);
+        }
+
+        this.keyableClass = keyableClass;
+        this.keys = Collections.unmodifiableList(list);
+        this.annotations = Collections.unmodifiableList(annotationList);
+        this.keysByName = names;
+        this.indexesByName = indexNames;
+        this.compositeKeysByName = new LinkedHashMap<>();
+        for (List<Field> componentFields : components.values())
+        {
+            CompositeKeyDescriptor compositeKey = new CompositeKeyDescriptor(componentFields);
+            compositeKeysByName.put(compositeKey.getName(), compositeKey);
+        }
+
+        this.compositeKeys = Collections.unmodifiableList(new ArrayList<>(compositeKeysByName.values()));
+        this.primaryKey = primary;
+        this.primaryKeyCount = count;
+        this.duplicateKey = duplicate;
+        this.duplicateIndex = duplicateIndexed;
+        this.verified = companion != null;
+    }
+
+    /**
+     * Finds the compile time generated companion of the given keyable class.
+     * @param keyableClass Keyable class.
+     * @param fields Key fields declared by the keyable class.
+     * @return Companion or null if none has been generated or if it is out of date.
+     */
+    private static IKeyableCompanion findCompanion(final @NonNull Class<?> keyableClass, final @NonNull List<Field> fields)
+    {
+        String name = keyableClass.getName();
+        String simpleName = name.substring(name.lastIndexOf('.') + 1).replace('$', '_');
+        String packageName = name.lastIndexOf('.') > 0 ? name.substring(0, name.lastIndexOf('.') + 1) : "";
+
+        try
+        {
+            Class<?> companionClass = Class.forName(packageName + simpleName + IKeyableCompanion.SUFFIX, true, keyableClass.getClassLoader());
+            if (!IKeyableCompanion.class.isAssignableFrom(companionClass))
+            {
+                return null;
+            }
+
+            IKeyableCompanion companion = (IKeyableCompanion) companionClass.getDeclaredConstructor().newInstance();
+            if (companion.getKeyableClass() != keyableClass || companion.getKeyCount() != fields.size())
+            {
+                return null;
+            }
+
+            if (!fingerprint(fields).equals(companion.getFingerprint()))
+            {
+                return null;
+            }
+
+            return companion;
+        }
+        catch (ReflectiveOperationException | LinkageError e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the given key fields (see {@link IKeyableCompanion#getFingerprint()}).
+     * @param fields Key fields.
+     * @return Fingerprint.
+     * @throws ReflectiveOperationException Thrown in case an annotation attribute cannot be read.
+     */
+    private static String fingerprint(final @NonNull List<Field> fields) throws ReflectiveOperationException
+    {
+        Map<String, String> descriptions = new TreeMap<>();
+
+        for (Field field : fields)
+        {
+            Annotation annotation = field.getAnnotation(PrimaryKey.class);
+            if (annotation == null)
+            {
+                annotation = field.getAnnotation(AlternateKey.class);
+            }
+
+            Method[] attributes = annotation.annotationType().getDeclaredMethods();
+            Arrays.sort(attributes, Comparator.comparing(Method::getName));
+
+            StringJoiner values = new StringJoiner(",", "(", ")");
+            for (Method attribute : attributes)
+            {
+                Object value = attribute.invoke(annotation);
+                values.add(attribute.getName() + "=" + (value instanceof Enum ? ((Enum<?>) value).name() : String.valueOf(value)));
+            }
+
+            String name = annotation instanceof PrimaryKey ? ((PrimaryKey) annotation).name() : ((AlternateKey) annotation).name();
+            descriptions.put(name, field.getName() + ":" + field.getType().getName() + ":@" + annotation.annotationType().getSimpleName() + values);
+        }
+
+        return String.join(";", descriptions.values());
+    }
+
+    /**
+     * Returns the descriptor of the given keyable class.
+     * @param keyableClass Keyable class.
+     * @return Keyable descriptor.
+     */
+    static KeyableDescriptor of(final @NonNull Class<?> keyableClass)
+    {
+        return DESCRIPTORS.get(keyableClass);
+    }
+
+    /**
+     * Returns the key matching the given name.
+     * @param name Key name.
+     * @return Key descriptor or null if no key is declared with this name.
+     */
+    KeyDescriptor getKey(final @NonNull String name)
+    {
+        return keysByName.get(name);
+    }
+
+    /**
+     * Returns the key or, if none, the secondary index matching the given name.
+     * <br><br>
+     * Secondary indexes are not keys of the keyable entities, this lookup is reserved to the query services.
+     * @param name Key or secondary index name.
+     * @return Key descriptor or null if no key nor secondary index is declared with this name.
+     */
+    KeyDescriptor getKeyOrIndex(final @NonNull String name)
+    {
+        KeyDescriptor key = keysByName.get(name);
+
+        return key != null ? key : indexesByName.get(name);
+    }
+
+    /**
+     * Returns the composite key matching the given name.
+     * @param name Composite key name.
+     * @return Composite key descriptor or null if no composite key is declared with this name.
+     */
+    CompositeKeyDescriptor getCompositeKey(final @NonNull String name)
+    {
+        return compositeKeysByName.get(name);
+    }
+
+    /**
+     * Returns the key declared with the given key annotation.
+     * @param annotation Key annotation.
+     * @return Key descriptor or null if no key is declared with this annotation.
+     */
+    KeyDescriptor getKey(final @NonNull Annotation annotation)
+    {
+        if (annotation instanceof Indexed)
+        {
+            for (KeyDescriptor key : keys)
+            {
+                if (key.getAnnotation() == annotation)
+                {
+                    return key;
+                }
+            }
+
+            return null;
+        }
+
+        String name = annotation instanceof PrimaryKey ? ((PrimaryKey) annotation).name() : ((AlternateKey) annotation).name();
+
+        return keysByName.get(name);
+    }
+}
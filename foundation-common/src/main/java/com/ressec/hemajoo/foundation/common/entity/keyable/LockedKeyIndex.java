@@ -0,0 +1,230 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Key index decorator making a non thread safe key index usable concurrently by several threads.
+ * <br><br>
+ * Queries share a read lock and mutations take the write lock of a read-write lock. The lists returned by the
+ * queries are copies, so that they remain valid once the lock has been released.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class LockedKeyIndex implements IKeyIndex
+{
+    /**
+     * Decorated key index.
+     */
+    private final IKeyIndex index;
+
+    /**
+     * Read lock.
+     */
+    private final Lock read;
+
+    /**
+     * Write lock.
+     */
+    private final Lock write;
+
+    /**
+     * Creates a new locked key index.
+     * @param index Decorated (non thread safe) key index.
+     */
+    LockedKeyIndex(final @NonNull IKeyIndex index)
+    {
+        ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        this.index = index;
+        this.read = lock.readLock();
+        this.write = lock.writeLock();
+    }
+
+    /**
+     * Runs a query against the decorated key index, under the read lock.
+     * @param <T> Query result type.
+     * @param query Query (its result must not be a view of the decorated key index).
+     * @return Query result.
+     */
+    <T> T query(final @NonNull Function<IKeyIndex, T> query)
+    {
+        read.lock();
+        try
+        {
+            return query.apply(index);
+        }
+        finally
+        {
+            read.unlock();
+        }
+    }
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        write.lock();
+        try
+        {
+            index.put(value, keyable);
+        }
+        finally
+        {
+            write.unlock();
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        write.lock();
+        try
+        {
+            return index.putIfAbsent(value, keyable);
+        }
+        finally
+        {
+            write.unlock();
+        }
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        write.lock();
+        try
+        {
+            return index.remove(value, keyable);
+        }
+        finally
+        {
+            write.unlock();
+        }
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        read.lock();
+        try
+        {
+            return new ArrayList<>(index.get(value));
+        }
+        finally
+        {
+            read.unlock();
+        }
+    }
+
+    @Override
+    public IKeyable getOne(final Object value)
+    {
+        read.lock();
+        try
+        {
+            return index.getOne(value);
+        }
+        finally
+        {
+            read.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        read.lock();
+        try
+        {
+            return index.contains(value);
+        }
+        finally
+        {
+            read.unlock();
+        }
+    }
+
+    @Override
+    public int size()
+    {
+        read.lock();
+        try
+        {
+            return index.size();
+        }
+        finally
+        {
+            read.unlock();
+        }
+    }
+
+    @Override
+    public void ensureCapacity(final int additional)
+    {
+        write.lock();
+        try
+        {
+            index.ensureCapacity(additional);
+        }
+        finally
+        {
+            write.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * The stream iterates a snapshot of the matching keyable entities, taken under the read lock.
+     */
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        read.lock();
+        try
+        {
+            return index.stream(filter).collect(Collectors.toList()).stream();
+        }
+        finally
+        {
+            read.unlock();
+        }
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        read.lock();
+        try
+        {
+            return index.values();
+        }
+        finally
+        {
+            read.unlock();
+        }
+    }
+}
@@ -0,0 +1,488 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Key index specialized for the keys of an integral type (byte, short, int, long and their wrappers).
+ * <br><br>
+ * Key values are stored as primitive longs in an open addressing hash table (linear probing, backward shift
+ * deletion), so that no boxed key value, no map entry and no list is allocated per indexed keyable entity. A slot
+ * holds either a single keyable entity or a {@link KeyBucket} (growing by doubling its capacity) when several of
+ * them share the same key value (non unique keys).
+ * <br><br>
+ * This index is not thread safe, mutations must be serialized by the key manager.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class LongKeyIndex implements IKeyIndex
+{
+    /**
+     * Initial capacity of the hash table (must be a power of two).
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Maximum capacity of the hash table.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * Key values.
+     */
+    private long[] keys;
+
+    /**
+     * Keyable entity (or bucket of keyable entities) per slot, null for an empty slot.
+     */
+    private Object[] slots;
+
+    /**
+     * Number of used slots (distinct key values).
+     */
+    private int used;
+
+    /**
+     * Number of indexed keyable entities.
+     */
+    private int count;
+
+    /**
+     * Creates a new empty index.
+     */
+    LongKeyIndex()
+    {
+        keys = new long[INITIAL_CAPACITY];
+        slots = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Returns if the given key value can be stored in this index?
+     * @param value Key value.
+     * @return True if the key value is of an integral type, false otherwise.
+     */
+    static boolean isIntegral(final Object value)
+    {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * Returns the value under which a key value is indexed by the indexes keyed by object: integral key values are
+     * converted to longs so that they match whatever their wrapper type, as they do in this index.
+     * @param value Key value.
+     * @return Indexed value.
+     */
+    static Object toIndexedValue(final Object value)
+    {
+        return isIntegral(value) ? (Object) ((Number) value).longValue() : value;
+    }
+
+    /**
+     * Returns the home slot of a key value.
+     * @param key Key value.
+     * @param mask Hash table mask.
+     * @return Slot.
+     */
+    private static int home(final long key, final int mask)
+    {
+        long hash = key * 0x9E3779B97F4A7C15L;
+
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Returns the slot holding the given key value.
+     * @param key Key value.
+     * @return Slot or -1 if the key value is not indexed.
+     */
+    private int find(final long key)
+    {
+        int mask = slots.length - 1;
+
+        for (int i = home(key, mask); slots[i] != null; i = (i + 1) & mask)
+        {
+            if (keys[i] == key)
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the slot holding the given key value, allocating a new (empty) slot if needed.
+     * @param key Key value.
+     * @return Slot.
+     * @throws KeyException Thrown in case the hash table is full.
+     */
+    private int findOrAllocate(final long key)
+    {
+        int i = find(key);
+
+        return i >= 0 ? i : allocate(key);
+    }
+
+    /**
+     * Allocates a new (empty) slot for the given (not indexed) key value, growing the hash table if needed.
+     * @param key Key value.
+     * @return Slot.
+     * @throws KeyException Thrown in case the hash table is full.
+     */
+    private int allocate(final long key)
+    {
+        if ((used + 1) * 4L > slots.length * 3L)
+        {
+            if (slots.length == MAXIMUM_CAPACITY)
+            {
+                throw new KeyException(String.format(
+                        "Cannot index a new key value! The key index is full (%d distinct key values)",
+                        used));
+            }
+
+            resize(slots.length * 2);
+        }
+
+        int mask = slots.length - 1;
+        int i = home(key, mask);
+
+        while (slots[i] != null)
+        {
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+
+        return i;
+    }
+
+    /**
+     * Resizes the hash table.
+     * @param capacity New capacity (power of two).
+     */
+    private void resize(final int capacity)
+    {
+        long[] oldKeys = keys;
+        Object[] oldSlots = slots;
+        int mask = capacity - 1;
+
+        keys = new long[capacity];
+        slots = new Object[capacity];
+
+        for (int j = 0; j < oldSlots.length; j++)
+        {
+            if (oldSlots[j] != null)
+            {
+                int i = home(oldKeys[j], mask);
+                while (slots[i] != null)
+                {
+                    i = (i + 1) & mask;
+                }
+
+                keys[i] = oldKeys[j];
+                slots[i] = oldSlots[j];
+            }
+        }
+    }
+
+    /**
+     * Empties a slot, shifting back the following entries of the probe sequence.
+     * @param slot Slot.
+     */
+    private void delete(final int slot)
+    {
+        int mask = slots.length - 1;
+        int gap = slot;
+        int i = slot;
+
+        while (true)
+        {
+            i = (i + 1) & mask;
+            if (slots[i] == null)
+            {
+                break;
+            }
+
+            int home = home(keys[i], mask);
+
+            // The entry stays in place if its home slot is (cyclically) after the gap.
+            boolean stays = gap <= i ? (gap < home && home <= i) : (gap < home || home <= i);
+            if (!stays)
+            {
+                keys[gap] = keys[i];
+                slots[gap] = slots[i];
+                gap = i;
+            }
+        }
+
+        slots[gap] = null;
+        keys[gap] = 0;
+        used--;
+    }
+
+    /**
+     * Indexes a keyable entity under the given key value.
+     * @param value Key value.
+     * @param keyable Keyable entity.
+     */
+    void put(final long value, final IKeyable keyable)
+    {
+        int i = findOrAllocate(value);
+
+        if (slots[i] == null)
+        {
+            slots[i] = keyable;
+            used++;
+        }
+        else if (slots[i] instanceof IKeyable)
+        {
+            slots[i] = KeyBucket.of((IKeyable) slots[i]).add(keyable);
+        }
+        else
+        {
+            slots[i] = ((KeyBucket) slots[i]).add(keyable);
+        }
+
+        count++;
+    }
+
+    /**
+     * Indexes a keyable entity under the given key value only if no other keyable entity is already indexed
+     * under this value.
+     * @param value Key value.
+     * @param keyable Keyable entity.
+     * @return True if the keyable entity has been indexed, false if the key value is already used.
+     */
+    boolean putIfAbsent(final long value, final IKeyable keyable)
+    {
+        if (find(value) >= 0)
+        {
+            return false;
+        }
+
+        slots[allocate(value)] = keyable;
+        used++;
+        count++;
+
+        return true;
+    }
+
+    /**
+     * Removes a keyable entity indexed under the given key value.
+     * @param value Key value.
+     * @param keyable Keyable entity.
+     * @return True if the keyable entity has been removed, false if it was not indexed under this value.
+     */
+    boolean remove(final long value, final IKeyable keyable)
+    {
+        int i = find(value);
+        if (i < 0)
+        {
+            return false;
+        }
+
+        if (slots[i] instanceof IKeyable)
+        {
+            if (!Objects.equals(slots[i], keyable))
+            {
+                return false;
+            }
+
+            delete(i);
+        }
+        else
+        {
+            KeyBucket bucket = (KeyBucket) slots[i];
+            KeyBucket updated = bucket.remove(keyable);
+
+            if (updated == bucket)
+            {
+                return false;
+            }
+
+            slots[i] = updated.size() == 1 ? updated.first() : updated;
+        }
+
+        count--;
+
+        return true;
+    }
+
+    /**
+     * Returns the keyable entities indexed under the given key value.
+     * @param value Key value.
+     * @return List of keyable entities (empty if none).
+     */
+    List<IKeyable> get(final long value)
+    {
+        int i = find(value);
+        if (i < 0)
+        {
+            return Collections.emptyList();
+        }
+
+        if (slots[i] instanceof IKeyable)
+        {
+            return Collections.singletonList((IKeyable) slots[i]);
+        }
+
+        return ((KeyBucket) slots[i]).asList();
+    }
+
+    /**
+     * Returns the (first) keyable entity indexed under the given key value.
+     * @param value Key value.
+     * @return Keyable entity or null if none.
+     */
+    IKeyable getOne(final long value)
+    {
+        int i = find(value);
+        if (i < 0)
+        {
+            return null;
+        }
+
+        return slots[i] instanceof IKeyable ? (IKeyable) slots[i] : ((KeyBucket) slots[i]).first();
+    }
+
+    /**
+     * Returns if at least one keyable entity is indexed under the given key value?
+     * @param value Key value.
+     * @return True if the key value is used, false otherwise.
+     */
+    boolean contains(final long value)
+    {
+        return find(value) >= 0;
+    }
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        put(((Number) value).longValue(), keyable);
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        return putIfAbsent(((Number) value).longValue(), keyable);
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        return isIntegral(value) && remove(((Number) value).longValue(), keyable);
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        return isIntegral(value) ? get(((Number) value).longValue()) : Collections.emptyList();
+    }
+
+    @Override
+    public IKeyable getOne(final Object value)
+    {
+        return isIntegral(value) ? getOne(((Number) value).longValue()) : null;
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        return isIntegral(value) && contains(((Number) value).longValue());
+    }
+
+    @Override
+    public int size()
+    {
+        return count;
+    }
+
+    @Override
+    public void ensureCapacity(final int additional)
+    {
+        int capacity = slots.length;
+
+        while ((used + (long) additional) * 4 > capacity * 3L && capacity < MAXIMUM_CAPACITY)
+        {
+            capacity = capacity * 2;
+        }
+
+        if (capacity != slots.length)
+        {
+            resize(capacity);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * Key values are presented to the predicate as longs, whatever the integral type of the key.
+     */
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        long[] values = keys;
+        Object[] entities = slots;
+
+        return IntStream.range(0, entities.length)
+                .filter(i -> entities[i] != null && filter.test(values[i]))
+                .mapToObj(i -> entities[i])
+                .flatMap(LongKeyIndex::streamOf);
+    }
+
+    @Override
+    public Stream<IKeyable> stream()
+    {
+        Object[] entities = slots;
+
+        return Arrays.stream(entities)
+                .filter(Objects::nonNull)
+                .flatMap(LongKeyIndex::streamOf);
+    }
+
+    /**
+     * Returns a stream of the keyable entities held by a slot.
+     * @param slot Slot (keyable entity or bucket of keyable entities).
+     * @return Stream of keyable entities.
+     */
+    private static Stream<IKeyable> streamOf(final Object slot)
+    {
+        return slot instanceof IKeyable ? Stream.of((IKeyable) slot) : ((KeyBucket) slot).stream();
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        List<IKeyable> list = new ArrayList<>(count);
+
+        for (Object slot : slots)
+        {
+            if (slot instanceof IKeyable)
+            {
+                list.add((IKeyable) slot);
+            }
+            else if (slot != null)
+            {
+                ((KeyBucket) slot).addTo(list);
+            }
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Key index backed by a (non thread safe) multimap.
+ * <br><br>
+ * This is the default key index, mutations must be serialized by the key manager.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class MultimapKeyIndex implements IKeyIndex
+{
+    /**
+     * Keyable entities by key value.
+     */
+    private ListMultimap<Object, IKeyable> map = ArrayListMultimap.create();
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        map.put(value, keyable);
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        if (map.containsKey(value))
+        {
+            return false;
+        }
+
+        map.put(value, keyable);
+
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        return map.remove(value, keyable);
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        return Collections.unmodifiableList(map.get(value));
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        return map.containsKey(value);
+    }
+
+    @Override
+    public int size()
+    {
+        return map.size();
+    }
+
+    @Override
+    public void ensureCapacity(final int additional)
+    {
+        // A multimap cannot grow in place, it can only be pre-sized while empty.
+        if (map.isEmpty())
+        {
+            map = ArrayListMultimap.create(additional, 1);
+        }
+    }
+
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        return map.asMap().entrySet().stream()
+                .filter(entry -> filter.test(entry.getKey()))
+                .flatMap(entry -> entry.getValue().stream());
+    }
+
+    @Override
+    public Stream<IKeyable> stream()
+    {
+        return map.values().stream();
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        return new ArrayList<>(map.values());
+    }
+}
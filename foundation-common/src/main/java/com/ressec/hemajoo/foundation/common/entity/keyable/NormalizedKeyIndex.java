@@ -0,0 +1,115 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Key index decorator normalizing the key values before they reach the decorated key index.
+ * <br><br>
+ * The decorated key index only holds normalized key values: the filters of the streams are therefore tested against
+ * the normalized key values.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class NormalizedKeyIndex implements IKeyIndex
+{
+    /**
+     * Decorated key index.
+     */
+    @Getter
+    private final IKeyIndex index;
+
+    /**
+     * Normalization of the key values.
+     */
+    private final KeyNormalization normalization;
+
+    /**
+     * Creates a new normalized key index.
+     * @param index Decorated key index.
+     * @param normalization Normalization of the key values.
+     */
+    NormalizedKeyIndex(final @NonNull IKeyIndex index, final @NonNull KeyNormalization normalization)
+    {
+        this.index = index;
+        this.normalization = normalization;
+    }
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        index.put(normalization.normalize(value), keyable);
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        return index.putIfAbsent(normalization.normalize(value), keyable);
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        return index.remove(normalization.normalize(value), keyable);
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        return index.get(normalization.normalize(value));
+    }
+
+    @Override
+    public IKeyable getOne(final Object value)
+    {
+        return index.getOne(normalization.normalize(value));
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        return index.contains(normalization.normalize(value));
+    }
+
+    @Override
+    public int size()
+    {
+        return index.size();
+    }
+
+    @Override
+    public void ensureCapacity(final int additional)
+    {
+        index.ensureCapacity(additional);
+    }
+
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        return index.stream(filter);
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        return index.values();
+    }
+}
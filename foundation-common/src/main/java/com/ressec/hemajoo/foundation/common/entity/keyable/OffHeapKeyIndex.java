@@ -0,0 +1,573 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Key index storing its hash table off-heap.
+ * <br><br>
+ * The hash table (open addressing, linear probing, backward shift deletion) lives in a direct byte buffer and holds
+ * one entry per distinct key value, mapping the hash of the key value to the slot (in an on-heap array of entity
+ * references) of the last keyable entity indexed under this value. The keyable entities sharing a key value (non
+ * unique keys) are chained through an on-heap array of primitive links, so that they do not lengthen the probe
+ * sequences of the other key values. Key values themselves are not stored: a candidate entry is checked by reading
+ * the key value of its entity through the key accessor. Each distinct key value thus costs 8 off-heap bytes and each
+ * indexed entity one array reference plus one primitive link, and the garbage collector never has to trace the
+ * index structure, whatever the number of indexed entities.
+ * <br><br>
+ * The hash table cannot grow beyond {@link #MAXIMUM_CAPACITY} entries: a {@link KeyException} is raised when a
+ * new key value is indexed while the table is full.
+ * <br><br>
+ * The key value of an indexed entity must not change while it is registered. This index is not thread safe,
+ * mutations must be serialized by the key manager.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class OffHeapKeyIndex implements IKeyIndex
+{
+    /**
+     * Size in bytes of a hash table entry (hash of the key value, then slot of the entity plus one, 0 if empty).
+     */
+    private static final int ENTRY_SIZE = 8;
+
+    /**
+     * Initial capacity (number of entries) of the hash table (must be a power of two).
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Maximum capacity of the hash table (the table must fit in a single direct byte buffer).
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 27;
+
+    /**
+     * Maximum number of indexed keyable entities (maximum length of an array).
+     */
+    private static final int MAXIMUM_ENTITIES = Integer.MAX_VALUE - 8;
+
+    /**
+     * Key the index is built for.
+     */
+    private final KeyDescriptor key;
+
+    /**
+     * Off-heap hash table.
+     */
+    private ByteBuffer table;
+
+    /**
+     * Capacity (number of entries) of the hash table.
+     */
+    private int capacity;
+
+    /**
+     * Indexed keyable entities, by slot.
+     */
+    private IKeyable[] keyables;
+
+    /**
+     * Slot (plus one) of the previous keyable entity indexed under the same key value, by slot (0 if none).
+     */
+    private int[] links;
+
+    /**
+     * Free slots (stack) of the keyable entities array.
+     */
+    private int[] free;
+
+    /**
+     * Number of free slots.
+     */
+    private int freeCount;
+
+    /**
+     * Next never used slot.
+     */
+    private int nextSlot;
+
+    /**
+     * Number of used entries of the hash table (distinct key values).
+     */
+    private int used;
+
+    /**
+     * Number of indexed keyable entities.
+     */
+    private int count;
+
+    /**
+     * Creates a new off-heap key index.
+     * @param key Key the index is built for.
+     */
+    OffHeapKeyIndex(final @NonNull KeyDescriptor key)
+    {
+        this.key = key;
+        this.capacity = INITIAL_CAPACITY;
+        this.table = allocate(INITIAL_CAPACITY);
+        this.keyables = new IKeyable[INITIAL_CAPACITY];
+        this.links = new int[INITIAL_CAPACITY];
+        this.free = new int[16];
+    }
+
+    /**
+     * Allocates an (empty) off-heap hash table.
+     * @param entries Number of entries.
+     * @return Hash table.
+     */
+    private static ByteBuffer allocate(final int entries)
+    {
+        return ByteBuffer.allocateDirect(entries * ENTRY_SIZE).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Returns the hash of a key value (integral values of different types having the same hash).
+     * @param value Key value.
+     * @return Hash.
+     */
+    private static int hash(final Object value)
+    {
+        long hash = value instanceof Number ? ((Number) value).longValue() * 0x9E3779B97F4A7C15L : value.hashCode() * 0x9E3779B97F4A7C15L;
+
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    /**
+     * Returns if the key value of the given keyable entity matches the given key value?
+     * @param keyable Keyable entity.
+     * @param value Key value.
+     * @return True if the key value matches, false otherwise.
+     */
+    private boolean matches(final IKeyable keyable, final Object value)
+    {
+        if (key.getAccessor().isIntegral())
+        {
+            return (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+                    && key.getAccessor().getLong(keyable) == ((Number) value).longValue();
+        }
+
+        return value.equals(key.getNormalization().normalize(key.getAccessor().get(keyable)));
+    }
+
+    /**
+     * Returns the hash stored in an entry.
+     * @param entry Entry.
+     * @return Hash.
+     */
+    private int hashAt(final int entry)
+    {
+        return table.getInt(entry * ENTRY_SIZE);
+    }
+
+    /**
+     * Returns the entity slot (plus one) stored in an entry.
+     * @param entry Entry.
+     * @return Entity slot plus one, 0 if the entry is empty.
+     */
+    private int slotAt(final int entry)
+    {
+        return table.getInt(entry * ENTRY_SIZE + 4);
+    }
+
+    /**
+     * Stores an entry.
+     * @param entry Entry.
+     * @param hash Hash.
+     * @param slot Entity slot plus one (0 for an empty entry).
+     */
+    private void store(final int entry, final int hash, final int slot)
+    {
+        table.putInt(entry * ENTRY_SIZE, hash);
+        table.putInt(entry * ENTRY_SIZE + 4, slot);
+    }
+
+    /**
+     * Finds the entry of the given key value.
+     * @param value Key value.
+     * @return Entry or -1 if no keyable entity is indexed under this key value.
+     */
+    private int find(final Object value)
+    {
+        int hash = hash(value);
+        int mask = capacity - 1;
+
+        for (int i = hash & mask; slotAt(i) != 0; i = (i + 1) & mask)
+        {
+            if (hashAt(i) == hash && matches(keyables[slotAt(i) - 1], value))
+            {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Grows the hash table, if needed, so that it can hold one more key value.
+     * @throws KeyException Thrown in case the hash table is full.
+     */
+    private void ensureRoomForValue()
+    {
+        if ((used + 1) * 4L > capacity * 3L)
+        {
+            if (capacity == MAXIMUM_CAPACITY)
+            {
+                throw new KeyException(String.format(
+                        "Cannot index a new value of key: '%s'! The off-heap key index is full (%d distinct key values)",
+                        key.getName(),
+                        used));
+            }
+
+            resize(capacity * 2);
+        }
+    }
+
+    /**
+     * Resizes the hash table.
+     * @param newCapacity New capacity (power of two).
+     */
+    private void resize(final int newCapacity)
+    {
+        ByteBuffer old = table;
+        int oldCapacity = capacity;
+
+        capacity = newCapacity;
+        table = allocate(capacity);
+
+        int mask = capacity - 1;
+        for (int j = 0; j < oldCapacity; j++)
+        {
+            int slot = old.getInt(j * ENTRY_SIZE + 4);
+            if (slot != 0)
+            {
+                int hash = old.getInt(j * ENTRY_SIZE);
+                int i = hash & mask;
+                while (slotAt(i) != 0)
+                {
+                    i = (i + 1) & mask;
+                }
+
+                store(i, hash, slot);
+            }
+        }
+    }
+
+    /**
+     * Empties an entry, shifting back the following entries of the probe sequence.
+     * @param entry Entry.
+     */
+    private void delete(final int entry)
+    {
+        int mask = capacity - 1;
+        int gap = entry;
+        int i = entry;
+
+        while (true)
+        {
+            i = (i + 1) & mask;
+            if (slotAt(i) == 0)
+            {
+                break;
+            }
+
+            int home = hashAt(i) & mask;
+
+            // The entry stays in place if its home entry is (cyclically) after the gap.
+            boolean stays = gap <= i ? (gap < home && home <= i) : (gap < home || home <= i);
+            if (!stays)
+            {
+                store(gap, hashAt(i), slotAt(i));
+                gap = i;
+            }
+        }
+
+        store(gap, 0, 0);
+    }
+
+    /**
+     * Allocates a slot for a keyable entity.
+     * @param keyable Keyable entity.
+     * @return Slot.
+     */
+    private int allocateSlot(final IKeyable keyable)
+    {
+        int slot;
+
+        if (freeCount > 0)
+        {
+            slot = free[--freeCount];
+        }
+        else
+        {
+            if (nextSlot == keyables.length)
+            {
+                if (nextSlot == MAXIMUM_ENTITIES)
+                {
+                    throw new KeyException(String.format(
+                            "Cannot index a new keyable entity under key: '%s'! The off-heap key index is full (%d keyable entities)",
+                            key.getName(),
+                            count));
+                }
+
+                grow((int) Math.min(keyables.length * 2L, MAXIMUM_ENTITIES));
+            }
+
+            slot = nextSlot++;
+        }
+
+        keyables[slot] = keyable;
+
+        return slot;
+    }
+
+    /**
+     * Grows the keyable entities and links arrays.
+     * @param length New length.
+     */
+    private void grow(final int length)
+    {
+        keyables = Arrays.copyOf(keyables, length);
+        links = Arrays.copyOf(links, length);
+    }
+
+    /**
+     * Releases the slot of a keyable entity.
+     * @param slot Slot.
+     */
+    private void releaseSlot(final int slot)
+    {
+        keyables[slot] = null;
+        links[slot] = 0;
+
+        if (freeCount == free.length)
+        {
+            free = Arrays.copyOf(free, free.length * 2);
+        }
+
+        free[freeCount++] = slot;
+    }
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        int entry = find(value);
+
+        if (entry >= 0)
+        {
+            // Chains the keyable entity to the ones already indexed under this key value.
+            int slot = allocateSlot(keyable);
+            links[slot] = slotAt(entry);
+            store(entry, hashAt(entry), slot + 1);
+        }
+        else
+        {
+            insert(value, keyable);
+        }
+
+        count++;
+    }
+
+    /**
+     * Inserts the entry of a new key value.
+     * @param value Key value.
+     * @param keyable First keyable entity indexed under this key value.
+     */
+    private void insert(final Object value, final IKeyable keyable)
+    {
+        ensureRoomForValue();
+
+        int hash = hash(value);
+        int mask = capacity - 1;
+        int i = hash & mask;
+
+        while (slotAt(i) != 0)
+        {
+            i = (i + 1) & mask;
+        }
+
+        store(i, hash, allocateSlot(keyable) + 1);
+        used++;
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        if (find(value) >= 0)
+        {
+            return false;
+        }
+
+        insert(value, keyable);
+        count++;
+
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        int entry = find(value);
+        if (entry < 0)
+        {
+            return false;
+        }
+
+        int successor = -1;
+        int slot = slotAt(entry) - 1;
+
+        while (slot >= 0 && !Objects.equals(keyables[slot], keyable))
+        {
+            successor = slot;
+            slot = links[slot] - 1;
+        }
+
+        if (slot < 0)
+        {
+            return false;
+        }
+
+        if (successor >= 0)
+        {
+            links[successor] = links[slot];
+        }
+        else if (links[slot] != 0)
+        {
+            store(entry, hashAt(entry), links[slot]);
+        }
+        else
+        {
+            delete(entry);
+            used--;
+        }
+
+        releaseSlot(slot);
+        count--;
+
+        return true;
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        int entry = find(value);
+        if (entry < 0)
+        {
+            return Collections.emptyList();
+        }
+
+        int slot = slotAt(entry) - 1;
+        if (links[slot] == 0)
+        {
+            return Collections.singletonList(keyables[slot]);
+        }
+
+        // Chains link the keyable entities from the last indexed one.
+        List<IKeyable> list = new ArrayList<>();
+        for (; slot >= 0; slot = links[slot] - 1)
+        {
+            list.add(keyables[slot]);
+        }
+
+        Collections.reverse(list);
+
+        return Collections.unmodifiableList(list);
+    }
+
+    @Override
+    public IKeyable getOne(final Object value)
+    {
+        int entry = find(value);
+        if (entry < 0)
+        {
+            return null;
+        }
+
+        int slot = slotAt(entry) - 1;
+        while (links[slot] != 0)
+        {
+            slot = links[slot] - 1;
+        }
+
+        return keyables[slot];
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        return find(value) >= 0;
+    }
+
+    @Override
+    public int size()
+    {
+        return count;
+    }
+
+    @Override
+    public void ensureCapacity(final int additional)
+    {
+        int newCapacity = capacity;
+
+        while ((used + (long) additional) * 4 > newCapacity * 3L && newCapacity < MAXIMUM_CAPACITY)
+        {
+            newCapacity = newCapacity * 2;
+        }
+
+        if (newCapacity != capacity)
+        {
+            resize(newCapacity);
+        }
+
+        long slots = Math.min((long) nextSlot - freeCount + additional, MAXIMUM_ENTITIES);
+        if (slots > keyables.length)
+        {
+            grow((int) slots);
+        }
+    }
+
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        return stream().filter(keyable -> filter.test(key.getNormalization().normalize(key.getAccessor().get(keyable))));
+    }
+
+    @Override
+    public Stream<IKeyable> stream()
+    {
+        return Arrays.stream(keyables, 0, nextSlot).filter(Objects::nonNull);
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        List<IKeyable> list = new ArrayList<>(count);
+
+        for (int slot = 0; slot < nextSlot; slot++)
+        {
+            if (keyables[slot] != null)
+            {
+                list.add(keyables[slot]);
+            }
+        }
+
+        return list;
+    }
+}
@@ -51,6 +51,51 @@ public @interface PrimaryKey
      */
     boolean auto() default false;
 
+    /**
+     * Number of key values reserved at once by a thread when the key value is generated by the key manager.
+     * <br><br>
+     * With a block size greater than 1, each thread hands out the values of its own block without contending
+     * with the other threads, at the cost of gaps in the generated key values.
+     * @return Block size.
+     */
+    int blockSize() default 1;
+
+    /**
+     * Are the key values kept sorted by the key manager (keys of an integral type only)?
+     * <br><br>
+     * A sorted key supports range, floor, ceiling, minimum, maximum and top queries in logarithmic time, at the cost
+     * of exact match lookups also performed in logarithmic time.
+     * @return True if the key values are kept sorted, false otherwise.
+     */
+    boolean sorted() default false;
+
+    /**
+     * Can the key values be searched by prefix (keys of type String only)?
+     * <br><br>
+     * The values of such a key are stored in a radix tree sharing the common prefixes of the key values.
+     * @return True if the key values can be searched by prefix, false otherwise.
+     */
+    boolean prefix() default false;
+
+    /**
+     * Normalization applied to the key values when indexed and queried (keys of type String only).
+     * <br><br>
+     * Queries on a normalized key match the key values differing only by the characters folded by the normalization,
+     * and the uniqueness of the key is enforced on the normalized key values.
+     * @return Key normalization.
+     */
+    KeyNormalization normalization() default KeyNormalization.NONE;
+
+    /**
+     * Expected number of distinct key values of the Bloom filter fronting the key index (no Bloom filter if 0).
+     * <br><br>
+     * Lookups of a key value never registered are answered by the Bloom filter without querying the key index. The
+     * Bloom filter keeps the values of the unregistered keyable entities, so it suits keys queried mostly for absent
+     * values (existence checks before insertion, de-duplication of incoming data).
+     * @return Expected number of distinct key values.
+     */
+    int bloomFilter() default 0;
+
     //public String prefix() default ""; TODO For future implementation
 
     //public String suffix() default ""; TODO For future implementation
@@ -0,0 +1,473 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Key index for the keys of type String, supporting prefix searches.
+ * <br><br>
+ * Key values are stored in a radix tree (compressed trie): the key values sharing a common prefix share the nodes
+ * of this prefix, and the keyable entities whose key value starts with a given prefix are found by walking down the
+ * tree along the prefix, then collecting the sub-tree in lexicographic order of the key values.
+ * <br><br>
+ * This index is not thread safe, mutations must be serialized by the key manager (in concurrent mode, the index is
+ * guarded by a read-write lock).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class RadixKeyIndex implements IKeyIndex
+{
+    /**
+     * Empty children.
+     */
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    /**
+     * Root node (empty label).
+     */
+    private final Node root = new Node("");
+
+    /**
+     * Number of indexed keyable entities.
+     */
+    private int count;
+
+    /**
+     * Node of the radix tree.
+     */
+    private static final class Node
+    {
+        /**
+         * Label of the edge leading to this node.
+         */
+        private String label;
+
+        /**
+         * Child nodes, sorted by the first character of their label.
+         */
+        private Node[] children = NO_CHILDREN;
+
+        /**
+         * Keyable entities whose key value ends at this node, null if none.
+         */
+        private KeyBucket bucket;
+
+        /**
+         * Creates a new node.
+         * @param label Label of the edge leading to this node.
+         */
+        private Node(final String label)
+        {
+            this.label = label;
+        }
+
+        /**
+         * Returns the position of the child whose label starts with the given character.
+         * @param c Character.
+         * @return Position of the child or (-(insertion point) - 1) if there is no such child.
+         */
+        private int indexOf(final char c)
+        {
+            int low = 0;
+            int high = children.length - 1;
+
+            while (low <= high)
+            {
+                int middle = (low + high) >>> 1;
+                char label = children[middle].label.charAt(0);
+
+                if (label < c)
+                {
+                    low = middle + 1;
+                }
+                else if (label > c)
+                {
+                    high = middle - 1;
+                }
+                else
+                {
+                    return middle;
+                }
+            }
+
+            return -(low + 1);
+        }
+
+        /**
+         * Inserts a child.
+         * @param position Insertion point.
+         * @param child Child node.
+         */
+        private void insert(final int position, final Node child)
+        {
+            Node[] updated = new Node[children.length + 1];
+            System.arraycopy(children, 0, updated, 0, position);
+            updated[position] = child;
+            System.arraycopy(children, position, updated, position + 1, children.length - position);
+            children = updated;
+        }
+
+        /**
+         * Removes a child.
+         * @param position Position of the child.
+         */
+        private void delete(final int position)
+        {
+            if (children.length == 1)
+            {
+                children = NO_CHILDREN;
+                return;
+            }
+
+            Node[] updated = new Node[children.length - 1];
+            System.arraycopy(children, 0, updated, 0, position);
+            System.arraycopy(children, position + 1, updated, position, children.length - position - 1);
+            children = updated;
+        }
+
+        /**
+         * Merges this node with its single child when it does not hold any keyable entity.
+         */
+        private void compact()
+        {
+            if (bucket == null && children.length == 1)
+            {
+                Node child = children[0];
+
+                label = label + child.label;
+                children = child.children;
+                bucket = child.bucket;
+            }
+        }
+    }
+
+    /**
+     * Returns the node of the given key value.
+     * @param key Key value.
+     * @return Node or null if no node ends at this key value.
+     */
+    private Node find(final String key)
+    {
+        Node node = root;
+        int i = 0;
+
+        while (i < key.length())
+        {
+            int position = node.indexOf(key.charAt(i));
+            if (position < 0)
+            {
+                return null;
+            }
+
+            node = node.children[position];
+            if (!key.startsWith(node.label, i))
+            {
+                return null;
+            }
+
+            i += node.label.length();
+        }
+
+        return node;
+    }
+
+    /**
+     * Returns the node of the given key value, creating it (and splitting the existing nodes) if needed.
+     * @param key Key value.
+     * @return Node.
+     */
+    private Node findOrCreate(final String key)
+    {
+        Node node = root;
+        int i = 0;
+
+        while (i < key.length())
+        {
+            int position = node.indexOf(key.charAt(i));
+            if (position < 0)
+            {
+                Node leaf = new Node(key.substring(i));
+                node.insert(-position - 1, leaf);
+
+                return leaf;
+            }
+
+            Node child = node.children[position];
+            int common = 0;
+            int max = Math.min(child.label.length(), key.length() - i);
+            while (common < max && child.label.charAt(common) == key.charAt(i + common))
+            {
+                common++;
+            }
+
+            if (common < child.label.length())
+            {
+                // Splits the child: the common part of the labels becomes an intermediate node.
+                Node middle = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                middle.children = new Node[] { child };
+                node.children[position] = middle;
+                child = middle;
+            }
+
+            node = child;
+            i += common;
+        }
+
+        return node;
+    }
+
+    /**
+     * Collects the keyable entities of a sub-tree in lexicographic order of their key values.
+     * @param node Root of the sub-tree.
+     * @param path Key value of the root of the sub-tree (null if the key values are not needed).
+     * @param filter Predicate on the key values (null if none).
+     * @param list List receiving the keyable entities.
+     * @param limit Maximum number of keyable entities of the list.
+     */
+    private static void collect(final Node node, final StringBuilder path, final Predicate<Object> filter, final List<IKeyable> list, final int limit)
+    {
+        if (node.bucket != null && (filter == null || filter.test(path.toString())))
+        {
+            for (IKeyable keyable : node.bucket.asList())
+            {
+                if (list.size() == limit)
+                {
+                    return;
+                }
+
+                list.add(keyable);
+            }
+        }
+
+        for (Node child : node.children)
+        {
+            if (list.size() == limit)
+            {
+                return;
+            }
+
+            int length = 0;
+            if (path != null)
+            {
+                length = path.length();
+                path.append(child.label);
+            }
+
+            collect(child, path, filter, list, limit);
+
+            if (path != null)
+            {
+                path.setLength(length);
+            }
+        }
+    }
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        Node node = findOrCreate((String) value);
+
+        node.bucket = node.bucket == null ? KeyBucket.of(keyable) : node.bucket.add(keyable);
+
+        count++;
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        if (contains(value))
+        {
+            return false;
+        }
+
+        put(value, keyable);
+
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        if (!(value instanceof String))
+        {
+            return false;
+        }
+
+        String key = (String) value;
+        Node parent = null;
+        int position = -1;
+        Node node = root;
+        int i = 0;
+
+        while (i < key.length())
+        {
+            position = node.indexOf(key.charAt(i));
+            if (position < 0 || !key.startsWith(node.children[position].label, i))
+            {
+                return false;
+            }
+
+            parent = node;
+            node = node.children[position];
+            i += node.label.length();
+        }
+
+        KeyBucket updated = node.bucket == null ? null : node.bucket.remove(keyable);
+        if (updated == node.bucket)
+        {
+            return false;
+        }
+
+        node.bucket = updated;
+
+        count--;
+
+        // Removes the nodes not holding keyable entities anymore and merges the chains of nodes.
+        if (parent != null)
+        {
+            if (node.bucket == null && node.children.length == 0)
+            {
+                parent.delete(position);
+
+                if (parent != root)
+                {
+                    parent.compact();
+                }
+            }
+            else
+            {
+                node.compact();
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        Node node = value instanceof String ? find((String) value) : null;
+
+        return node == null || node.bucket == null ? Collections.emptyList() : node.bucket.asList();
+    }
+
+    @Override
+    public IKeyable getOne(final Object value)
+    {
+        Node node = value instanceof String ? find((String) value) : null;
+
+        return node == null || node.bucket == null ? null : node.bucket.first();
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        Node node = value instanceof String ? find((String) value) : null;
+
+        return node != null && node.bucket != null;
+    }
+
+    @Override
+    public int size()
+    {
+        return count;
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        List<IKeyable> list = new ArrayList<>(count);
+
+        collect(root, null, null, list, Integer.MAX_VALUE);
+
+        return list;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * The stream iterates a snapshot of the matching keyable entities, in lexicographic order of their key values.
+     */
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        List<IKeyable> list = new ArrayList<>();
+
+        collect(root, new StringBuilder(), filter, list, Integer.MAX_VALUE);
+
+        return list.stream();
+    }
+
+    @Override
+    public Stream<IKeyable> stream()
+    {
+        return values().stream();
+    }
+
+    /**
+     * Returns the keyable entities whose key value starts with the given prefix, in lexicographic order of their key
+     * values.
+     * @param prefix Prefix.
+     * @param limit Maximum number of keyable entities.
+     * @return List of keyable entities.
+     */
+    List<IKeyable> findByPrefix(final String prefix, final int limit)
+    {
+        List<IKeyable> list = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+
+        while (i < prefix.length())
+        {
+            int position = node.indexOf(prefix.charAt(i));
+            if (position < 0)
+            {
+                return list;
+            }
+
+            node = node.children[position];
+
+            int remaining = prefix.length() - i;
+            if (node.label.length() >= remaining)
+            {
+                // The prefix ends within the label of the node.
+                if (!node.label.startsWith(prefix.substring(i)))
+                {
+                    return list;
+                }
+
+                break;
+            }
+
+            if (!prefix.startsWith(node.label, i))
+            {
+                return list;
+            }
+
+            i += node.label.length();
+        }
+
+        if (limit > 0)
+        {
+            collect(node, null, null, list, limit);
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Key index partitioned into shards by key value hash.
+ * <br><br>
+ * Each shard is an independent key index guarded by its own read-write lock: registrations of key values owned by
+ * different shards proceed in parallel, and lookups are routed directly to the shard owning the key value. The
+ * uniqueness of a key value is enforced by its owning shard only, as all the occurrences of a key value are owned
+ * by the same shard.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class ShardedKeyIndex implements IKeyIndex
+{
+    /**
+     * Shards.
+     */
+    private final IKeyIndex[] shards;
+
+    /**
+     * Mask of the shard position (the number of shards being a power of two).
+     */
+    private final int mask;
+
+    /**
+     * Creates a new sharded key index.
+     * @param count Number of shards (rounded up to a power of two).
+     * @param factory Factory of the (non thread safe) key index of a shard.
+     */
+    ShardedKeyIndex(final int count, final @NonNull Supplier<IKeyIndex> factory)
+    {
+        int size = count <= 1 ? 1 : Integer.highestOneBit(count - 1) << 1;
+
+        this.shards = new IKeyIndex[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++)
+        {
+            shards[i] = new LockedKeyIndex(factory.get());
+        }
+    }
+
+    /**
+     * Returns the shard owning a key value.
+     * <br><br>
+     * Integral key values of different types are owned by the same shard, as they are equal for the integral key
+     * indexes.
+     * @param value Key value.
+     * @return Shard.
+     */
+    private IKeyIndex shardOf(final Object value)
+    {
+        if (value == null)
+        {
+            return shards[0];
+        }
+
+        int hash = LongKeyIndex.isIntegral(value) ? Long.hashCode(((Number) value).longValue()) : value.hashCode();
+
+        return shards[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    /**
+     * Returns the number of shards.
+     * @return Number of shards.
+     */
+    int getShardCount()
+    {
+        return shards.length;
+    }
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        shardOf(value).put(value, keyable);
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        return shardOf(value).putIfAbsent(value, keyable);
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        return shardOf(value).remove(value, keyable);
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        return shardOf(value).get(value);
+    }
+
+    @Override
+    public IKeyable getOne(final Object value)
+    {
+        return shardOf(value).getOne(value);
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        return shardOf(value).contains(value);
+    }
+
+    @Override
+    public int size()
+    {
+        int size = 0;
+        for (IKeyIndex shard : shards)
+        {
+            size += shard.size();
+        }
+
+        return size;
+    }
+
+    @Override
+    public void ensureCapacity(final int additional)
+    {
+        // Key values are evenly spread over the shards.
+        for (IKeyIndex shard : shards)
+        {
+            shard.ensureCapacity(additional / shards.length + 1);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * The stream iterates the snapshots of the matching keyable entities of each shard, taken shard by shard.
+     */
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        return Arrays.stream(shards).flatMap(shard -> shard.stream(filter));
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        List<IKeyable> values = new ArrayList<>();
+        for (IKeyIndex shard : shards)
+        {
+            values.addAll(shard.values());
+        }
+
+        return values;
+    }
+}
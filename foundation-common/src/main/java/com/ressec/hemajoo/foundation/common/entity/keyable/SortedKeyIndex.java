@@ -0,0 +1,246 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Key index keeping the values of a key of an integral type sorted.
+ * <br><br>
+ * Key values are normalized to longs and mapped, in a navigable map, to an immutable {@link KeyBucket} of keyable
+ * entities replaced on each mutation of this key value. As the bucket grows by doubling its capacity, indexing a
+ * keyable entity under an existing key value only costs the logarithmic lookup of this key value. Besides the exact
+ * match lookups, the index supports range, floor, ceiling, minimum, maximum and top queries, all of them in
+ * logarithmic time (plus the number of returned keyable entities). The index is backed by a concurrent skip list
+ * map in concurrent mode, otherwise by a (non thread safe) tree map whose mutations must be serialized by the key
+ * manager.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class SortedKeyIndex implements IKeyIndex
+{
+    /**
+     * Keyable entities by key value.
+     */
+    private final NavigableMap<Long, KeyBucket> map;
+
+    /**
+     * Number of indexed keyable entities.
+     */
+    private final AtomicInteger count = new AtomicInteger();
+
+    /**
+     * Creates a new empty index.
+     * @param concurrent Is the index used concurrently by several threads?
+     */
+    SortedKeyIndex(final boolean concurrent)
+    {
+        this.map = concurrent ? new ConcurrentSkipListMap<>() : new TreeMap<>();
+    }
+
+    /**
+     * Returns the first keyable entity of an entry.
+     * @param entry Entry (can be null).
+     * @return Keyable entity or null if the entry is null.
+     */
+    private static IKeyable first(final Map.Entry<Long, KeyBucket> entry)
+    {
+        return entry == null ? null : entry.getValue().first();
+    }
+
+    /**
+     * Returns the keyable entities of the given buckets.
+     * @param buckets Buckets.
+     * @param limit Maximum number of keyable entities.
+     * @return List of keyable entities.
+     */
+    private static List<IKeyable> flatten(final Collection<KeyBucket> buckets, final int limit)
+    {
+        List<IKeyable> list = new ArrayList<>();
+
+        for (KeyBucket bucket : buckets)
+        {
+            for (IKeyable keyable : bucket.asList())
+            {
+                if (list.size() == limit)
+                {
+                    return list;
+                }
+
+                list.add(keyable);
+            }
+        }
+
+        return list;
+    }
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        map.compute(((Number) value).longValue(), (key, bucket) -> bucket == null ? KeyBucket.of(keyable) : bucket.add(keyable));
+
+        count.incrementAndGet();
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        if (map.putIfAbsent(((Number) value).longValue(), KeyBucket.of(keyable)) != null)
+        {
+            return false;
+        }
+
+        count.incrementAndGet();
+
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        if (!LongKeyIndex.isIntegral(value))
+        {
+            return false;
+        }
+
+        boolean[] removed = new boolean[1];
+
+        map.computeIfPresent(((Number) value).longValue(), (key, bucket) ->
+        {
+            KeyBucket updated = bucket.remove(keyable);
+            removed[0] = updated != bucket;
+
+            return updated;
+        });
+
+        if (removed[0])
+        {
+            count.decrementAndGet();
+        }
+
+        return removed[0];
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        KeyBucket bucket = LongKeyIndex.isIntegral(value) ? map.get(((Number) value).longValue()) : null;
+
+        return bucket == null ? Collections.emptyList() : bucket.asList();
+    }
+
+    @Override
+    public IKeyable getOne(final Object value)
+    {
+        KeyBucket bucket = LongKeyIndex.isIntegral(value) ? map.get(((Number) value).longValue()) : null;
+
+        return bucket == null ? null : bucket.first();
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        return LongKeyIndex.isIntegral(value) && map.containsKey(((Number) value).longValue());
+    }
+
+    @Override
+    public int size()
+    {
+        return count.get();
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        return flatten(map.values(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * Keyable entities are streamed by ascending key value, key values being presented to the predicate as longs,
+     * whatever the integral type of the key.
+     */
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        return map.entrySet().stream()
+                .filter(entry -> filter.test(entry.getKey()))
+                .flatMap(entry -> entry.getValue().stream());
+    }
+
+    /**
+     * Returns the keyable entities whose key value is within the given (inclusive) bounds, by ascending key value.
+     * @param from Lower bound.
+     * @param to Upper bound.
+     * @return List of keyable entities.
+     */
+    List<IKeyable> range(final long from, final long to)
+    {
+        return from > to ? new ArrayList<>() : flatten(map.subMap(from, true, to, true).values(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the keyable entity having the greatest key value less than or equal to the given one.
+     * @param value Key value.
+     * @return Keyable entity or null if none.
+     */
+    IKeyable floor(final long value)
+    {
+        return first(map.floorEntry(value));
+    }
+
+    /**
+     * Returns the keyable entity having the least key value greater than or equal to the given one.
+     * @param value Key value.
+     * @return Keyable entity or null if none.
+     */
+    IKeyable ceiling(final long value)
+    {
+        return first(map.ceilingEntry(value));
+    }
+
+    /**
+     * Returns the keyable entity having the least key value.
+     * @return Keyable entity or null if the index is empty.
+     */
+    IKeyable min()
+    {
+        return first(map.firstEntry());
+    }
+
+    /**
+     * Returns the keyable entity having the greatest key value.
+     * @return Keyable entity or null if the index is empty.
+     */
+    IKeyable max()
+    {
+        return first(map.lastEntry());
+    }
+
+    /**
+     * Returns the keyable entities having the greatest key values, by descending key value.
+     * @param limit Maximum number of keyable entities.
+     * @return List of keyable entities.
+     */
+    List<IKeyable> top(final int limit)
+    {
+        return limit <= 0 ? new ArrayList<>() : flatten(map.descendingMap().values(), limit);
+    }
+}
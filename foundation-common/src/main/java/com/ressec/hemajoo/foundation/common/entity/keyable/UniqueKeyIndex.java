@@ -0,0 +1,128 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Key index specialized for the unique keys (of a non integral type, except in concurrent mode).
+ * <br><br>
+ * As at most one keyable entity is indexed under a key value, key values are directly mapped to the keyable
+ * entities: no list is allocated per indexed keyable entity and the uniqueness of a key value is checked and
+ * enforced by a single map operation. The index is backed by a concurrent map in concurrent mode, otherwise by a
+ * (non thread safe) hash map whose mutations must be serialized by the key manager. Integral key values are indexed
+ * as longs.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class UniqueKeyIndex implements IKeyIndex
+{
+    /**
+     * Is the index used concurrently by several threads?
+     */
+    private final boolean concurrent;
+
+    /**
+     * Keyable entity by key value.
+     */
+    private Map<Object, IKeyable> map;
+
+    /**
+     * Creates a new empty index.
+     * @param concurrent Is the index used concurrently by several threads?
+     */
+    UniqueKeyIndex(final boolean concurrent)
+    {
+        this.concurrent = concurrent;
+        this.map = concurrent ? new ConcurrentHashMap<>() : new HashMap<>();
+    }
+
+    @Override
+    public void put(final Object value, final IKeyable keyable)
+    {
+        map.put(LongKeyIndex.toIndexedValue(value), keyable);
+    }
+
+    @Override
+    public boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        return map.putIfAbsent(LongKeyIndex.toIndexedValue(value), keyable) == null;
+    }
+
+    @Override
+    public boolean remove(final Object value, final IKeyable keyable)
+    {
+        return map.remove(LongKeyIndex.toIndexedValue(value), keyable);
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        IKeyable keyable = map.get(LongKeyIndex.toIndexedValue(value));
+
+        return keyable == null ? Collections.emptyList() : Collections.singletonList(keyable);
+    }
+
+    @Override
+    public IKeyable getOne(final Object value)
+    {
+        return map.get(LongKeyIndex.toIndexedValue(value));
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        return map.containsKey(LongKeyIndex.toIndexedValue(value));
+    }
+
+    @Override
+    public int size()
+    {
+        return map.size();
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        return new ArrayList<>(map.values());
+    }
+
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        return map.entrySet().stream()
+                .filter(entry -> filter.test(entry.getKey()))
+                .map(Map.Entry::getValue);
+    }
+
+    @Override
+    public Stream<IKeyable> stream()
+    {
+        return map.values().stream();
+    }
+
+    @Override
+    public void ensureCapacity(final int additional)
+    {
+        // A hash map cannot be pre-sized once created, it is replaced while empty.
+        if (!concurrent && map.isEmpty())
+        {
+            map = new HashMap<>((int) Math.min(additional * 4L / 3 + 1, Integer.MAX_VALUE));
+        }
+    }
+}
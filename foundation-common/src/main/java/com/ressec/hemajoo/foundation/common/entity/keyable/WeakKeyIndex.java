@@ -0,0 +1,353 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Key index holding weak references to the keyable entities, so that the keyable entities no longer referenced
+ * elsewhere can be garbage collected without being unregistered.
+ * <br><br>
+ * The entries of the garbage collected keyable entities are purged incrementally, by draining the reference queue
+ * of the index on each mutation and each count, so that the counts only include the reachable keyable entities.
+ * Queries skip the entries of the garbage collected keyable entities not purged yet. Integral key values are
+ * indexed as longs.
+ * <br><br>
+ * The index is thread safe: the entries of a key value are held in an immutable {@link Entries} snapshot replaced on
+ * each mutation, so that queries are lock free while mutations and purges are serialized. As the array of entries
+ * shared by the successive snapshots grows by doubling its capacity, adding an entry costs an amortized O(1).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class WeakKeyIndex implements IKeyIndex
+{
+    /**
+     * Entries by key value.
+     */
+    private final Map<Object, Entries> map = new ConcurrentHashMap<>();
+
+    /**
+     * Queue of the entries whose keyable entity has been garbage collected.
+     */
+    private final ReferenceQueue<IKeyable> queue = new ReferenceQueue<>();
+
+    /**
+     * Number of entries (guarded by the index monitor).
+     */
+    private int count = 0;
+
+    /**
+     * Returns the value under which a key value is indexed.
+     * @param value Key value.
+     * @return Indexed value.
+     */
+    private static Object toIndexedValue(final Object value)
+    {
+        return LongKeyIndex.isIntegral(value) ? (Object) ((Number) value).longValue() : value;
+    }
+
+    /**
+     * Returns a snapshot of entries with an additional entry.
+     * @param entries Entries (may be null).
+     * @param entry Entry to append.
+     * @return Entries.
+     */
+    private static Entries append(final Entries entries, final Entry entry)
+    {
+        return entries == null ? new Entries(new Entry[] { entry }, 1) : entries.append(entry);
+    }
+
+    /**
+     * Removes an entry from the entries of its key value (the caller holding the index monitor).
+     * @param indexed Indexed key value.
+     * @param entries Entries of the key value.
+     * @param position Position of the entry to remove.
+     */
+    private void delete(final Object indexed, final Entries entries, final int position)
+    {
+        if (entries.size == 1)
+        {
+            map.remove(indexed);
+        }
+        else
+        {
+            map.put(indexed, entries.remove(position));
+        }
+
+        count--;
+    }
+
+    /**
+     * Purges the entries whose keyable entity has been garbage collected (the caller holding the index monitor).
+     */
+    private void drain()
+    {
+        Entry entry;
+        while ((entry = (Entry) queue.poll()) != null)
+        {
+            Entries entries = map.get(entry.value);
+            if (entries != null)
+            {
+                for (int i = 0; i < entries.size; i++)
+                {
+                    if (entries.entries[i] == entry)
+                    {
+                        delete(entry.value, entries, i);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns if at least one keyable entity of an array of entries is reachable.
+     * @param entries Entries (may be null).
+     * @return True if a keyable entity is reachable, false otherwise.
+     */
+    private static boolean isReachable(final Entries entries)
+    {
+        if (entries != null)
+        {
+            for (int i = 0; i < entries.size; i++)
+            {
+                if (entries.entries[i].get() != null)
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds the reachable keyable entities of an array of entries to a list.
+     * @param entries Entries (may be null).
+     * @param keyables List of keyable entities.
+     */
+    private static void addReferents(final Entries entries, final List<IKeyable> keyables)
+    {
+        if (entries != null)
+        {
+            for (int i = 0; i < entries.size; i++)
+            {
+                IKeyable keyable = entries.entries[i].get();
+                if (keyable != null)
+                {
+                    keyables.add(keyable);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void put(final Object value, final IKeyable keyable)
+    {
+        drain();
+
+        Object indexed = toIndexedValue(value);
+        map.put(indexed, append(map.get(indexed), new Entry(indexed, keyable, queue)));
+        count++;
+    }
+
+    @Override
+    public synchronized boolean putIfAbsent(final Object value, final IKeyable keyable)
+    {
+        drain();
+
+        Object indexed = toIndexedValue(value);
+        Entries entries = map.get(indexed);
+        if (isReachable(entries))
+        {
+            return false;
+        }
+
+        map.put(indexed, append(entries, new Entry(indexed, keyable, queue)));
+        count++;
+
+        return true;
+    }
+
+    @Override
+    public synchronized boolean remove(final Object value, final IKeyable keyable)
+    {
+        drain();
+
+        Object indexed = toIndexedValue(value);
+        Entries entries = map.get(indexed);
+        if (entries != null)
+        {
+            for (int i = 0; i < entries.size; i++)
+            {
+                if (entries.entries[i].get() == keyable)
+                {
+                    delete(indexed, entries, i);
+
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public List<IKeyable> get(final Object value)
+    {
+        Entries entries = map.get(toIndexedValue(value));
+        List<IKeyable> keyables = new ArrayList<>(entries == null ? 0 : entries.size);
+        addReferents(entries, keyables);
+
+        return keyables;
+    }
+
+    @Override
+    public boolean contains(final Object value)
+    {
+        return isReachable(map.get(toIndexedValue(value)));
+    }
+
+    @Override
+    public synchronized int size()
+    {
+        drain();
+
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <br><br>
+     * The stream iterates a snapshot of the matching (reachable) keyable entities.
+     */
+    @Override
+    public Stream<IKeyable> stream(final Predicate<Object> filter)
+    {
+        List<IKeyable> keyables = new ArrayList<>();
+        for (Map.Entry<Object, Entries> entry : map.entrySet())
+        {
+            if (filter.test(entry.getKey()))
+            {
+                addReferents(entry.getValue(), keyables);
+            }
+        }
+
+        return keyables.stream();
+    }
+
+    @Override
+    public List<IKeyable> values()
+    {
+        List<IKeyable> keyables = new ArrayList<>();
+        for (Entries entries : map.values())
+        {
+            addReferents(entries, keyables);
+        }
+
+        return keyables;
+    }
+
+    /**
+     * Weak reference to an indexed keyable entity.
+     */
+    private static final class Entry extends WeakReference<IKeyable>
+    {
+        /**
+         * Indexed key value (to purge the entry once the keyable entity has been garbage collected).
+         */
+        private final Object value;
+
+        /**
+         * Creates a new entry.
+         * @param value Indexed key value.
+         * @param keyable Keyable entity.
+         * @param queue Reference queue of the index.
+         */
+        private Entry(final Object value, final IKeyable keyable, final ReferenceQueue<IKeyable> queue)
+        {
+            super(keyable, queue);
+
+            this.value = value;
+        }
+    }
+
+    /**
+     * Immutable snapshot of the entries of a key value.
+     * <br><br>
+     * A snapshot covers the first entries of an array shared by the successive snapshots of a key value, whose
+     * capacity is doubled when full. Appending an entry to the current snapshot (the index monitor being held)
+     * writes it in the first slot not covered by this snapshot, so that the slots covered by a published snapshot
+     * are never written again. Removing an entry copies the remaining ones to a new array.
+     */
+    private static final class Entries
+    {
+        /**
+         * Entries (shared by the successive snapshots of a key value).
+         */
+        private final Entry[] entries;
+
+        /**
+         * Number of entries of this snapshot.
+         */
+        private final int size;
+
+        /**
+         * Creates a new snapshot of entries.
+         * @param entries Entries.
+         * @param size Number of entries of this snapshot.
+         */
+        private Entries(final Entry[] entries, final int size)
+        {
+            this.entries = entries;
+            this.size = size;
+        }
+
+        /**
+         * Returns a new snapshot with an additional entry.
+         * @param entry Entry to append.
+         * @return Entries.
+         */
+        private Entries append(final Entry entry)
+        {
+            Entry[] array = size == entries.length ? Arrays.copyOf(entries, size * 2) : entries;
+            array[size] = entry;
+
+            return new Entries(array, size + 1);
+        }
+
+        /**
+         * Returns a new snapshot without the entry at the given position.
+         * @param position Position of the entry to remove.
+         * @return Entries.
+         */
+        private Entries remove(final int position)
+        {
+            Entry[] array = new Entry[size - 1];
+            System.arraycopy(entries, 0, array, 0, position);
+            System.arraycopy(entries, position + 1, array, position, size - position - 1);
+
+            return new Entries(array, size - 1);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test case for the read/write access to the key fields through the key accessors.
+ * <br><br>
+ * Declared in the package of the key accessor as it is not part of the public API.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyAccessor
+{
+    /**
+     * Keyable class whose fields are accessed (no key annotation is needed to bind a key accessor).
+     */
+    static class Sample extends Keyable
+    {
+        /**
+         * Code (non integral field).
+         */
+        private String code;
+
+        /**
+         * Rank (primitive integral field).
+         */
+        private int rank;
+
+        /**
+         * Level (primitive integral field narrower than a long).
+         */
+        private byte level;
+
+        /**
+         * Identifier (wrapper integral field).
+         */
+        private Long id;
+    }
+
+    /**
+     * Creates a key accessor for the given field of the {@link Sample} class.
+     * @param name Field name.
+     * @return Key accessor.
+     * @throws NoSuchFieldException Thrown in case the field does not exist.
+     */
+    private KeyAccessor accessor(final String name) throws NoSuchFieldException
+    {
+        return new KeyAccessor(Sample.class.getDeclaredField(name), null, -1);
+    }
+
+    /**
+     * Ensure a non integral field is read and written through its boxed value only.
+     * @throws Exception Thrown in case an error occurred.
+     */
+    @Test
+    public final void expectNonIntegralFieldToBeReadAndWritten() throws Exception
+    {
+        Sample sample = new Sample();
+        KeyAccessor accessor = accessor("code");
+
+        Assert.assertFalse(accessor.isIntegral());
+        Assert.assertNull(accessor.get(sample));
+
+        accessor.set(sample, "EUR");
+        Assert.assertEquals("EUR", sample.code);
+        Assert.assertEquals("EUR", accessor.get(sample));
+    }
+
+    /**
+     * Ensure a primitive integral field is read and written through both its boxed and its primitive value.
+     * @throws Exception Thrown in case an error occurred.
+     */
+    @Test
+    public final void expectPrimitiveFieldToBeReadAndWritten() throws Exception
+    {
+        Sample sample = new Sample();
+        KeyAccessor accessor = accessor("rank");
+
+        Assert.assertTrue(accessor.isIntegral());
+
+        accessor.set(sample, 12);
+        Assert.assertEquals(12, sample.rank);
+        Assert.assertEquals(12, accessor.get(sample));
+        Assert.assertEquals(12L, accessor.getLong(sample));
+
+        accessor.setLong(sample, 42L);
+        Assert.assertEquals(42, sample.rank);
+        Assert.assertEquals(42, accessor.get(sample));
+    }
+
+    /**
+     * Ensure a wrapper integral field is read and written through both its boxed and its primitive value.
+     * @throws Exception Thrown in case an error occurred.
+     */
+    @Test
+    public final void expectWrapperFieldToBeReadAndWritten() throws Exception
+    {
+        Sample sample = new Sample();
+        KeyAccessor accessor = accessor("id");
+
+        Assert.assertTrue(accessor.isIntegral());
+
+        accessor.set(sample, 7L);
+        Assert.assertEquals(Long.valueOf(7L), sample.id);
+        Assert.assertEquals(7L, accessor.getLong(sample));
+
+        accessor.setLong(sample, 1234567890123L);
+        Assert.assertEquals(Long.valueOf(1234567890123L), sample.id);
+        Assert.assertEquals(1234567890123L, accessor.get(sample));
+    }
+
+    /**
+     * Ensure a null wrapper integral field is read as null when boxed and as zero when primitive.
+     * @throws Exception Thrown in case an error occurred.
+     */
+    @Test
+    public final void expectNullWrapperFieldToBeReadAsZero() throws Exception
+    {
+        Sample sample = new Sample();
+        KeyAccessor accessor = accessor("id");
+
+        Assert.assertNull(accessor.get(sample));
+        Assert.assertEquals(0L, accessor.getLong(sample));
+    }
+
+    /**
+     * Ensure a long value written to a narrower integral field is narrowed to the field type.
+     * @throws Exception Thrown in case an error occurred.
+     */
+    @Test
+    public final void expectLongValueToBeNarrowed() throws Exception
+    {
+        Sample sample = new Sample();
+        KeyAccessor accessor = accessor("level");
+
+        accessor.setLong(sample, 300L);
+        Assert.assertEquals((byte) 300, sample.level);
+        Assert.assertEquals((long) (byte) 300, accessor.getLong(sample));
+    }
+
+    /**
+     * Ensure each integral field is bound to its own method handles.
+     * @throws Exception Thrown in case an error occurred.
+     */
+    @Test
+    public final void expectAccessorsNotToShareHandles() throws Exception
+    {
+        Sample sample = new Sample();
+        KeyAccessor rank = accessor("rank");
+        KeyAccessor id = accessor("id");
+
+        rank.setLong(sample, 2L);
+        id.setLong(sample, 3L);
+
+        Assert.assertEquals(2L, rank.getLong(sample));
+        Assert.assertEquals(3L, id.getLong(sample));
+    }
+
+    /**
+     * Ensure a value of a wrong type cannot be written to a key field.
+     * @throws Exception Thrown in case an error occurred.
+     */
+    @Test(expected = KeyException.class)
+    public final void expectWrongValueTypeToFail() throws Exception
+    {
+        accessor("rank").set(new Sample(), "twelve");
+    }
+}
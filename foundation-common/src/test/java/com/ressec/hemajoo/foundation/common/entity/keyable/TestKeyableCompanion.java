@@ -0,0 +1,100 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.model.KeyableWithMultiplePrimaryKey;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.snapshot.model.KeyableCurrency;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test case for the pick up of the compile time generated companions by the keyable descriptors.
+ * <br><br>
+ * Declared in the package of the keyable descriptor as it is not part of the public API.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableCompanion
+{
+    /**
+     * Fingerprint of the key fields of the {@link Current} class.
+     */
+    static final String FINGERPRINT = "code:java.lang.String:@PrimaryKey(auto=false,blockSize=1,bloomFilter=0,name=code,normalization=NONE,prefix=false,sorted=false);"
+            + "rank:int:@AlternateKey(auto=false,blockSize=1,bloomFilter=0,mandatory=true,name=rank,normalization=NONE,prefix=false,sorted=false,unique=false)";
+
+    /**
+     * Keyable class whose companion is up to date (inner classes are not processed, their companion is hand written).
+     */
+    class Current extends Keyable
+    {
+        /**
+         * Code (primary key).
+         */
+        @PrimaryKey(name = "code")
+        private String code;
+
+        /**
+         * Rank (non unique key).
+         */
+        @AlternateKey(name = "rank", unique = false)
+        private int rank;
+    }
+
+    /**
+     * Keyable class whose companion is out of date (its rank key was unique when the companion was generated).
+     */
+    class Stale extends Keyable
+    {
+        /**
+         * Code (primary key).
+         */
+        @PrimaryKey(name = "code")
+        private String code;
+
+        /**
+         * Rank (non unique key).
+         */
+        @AlternateKey(name = "rank", unique = false)
+        private int rank;
+    }
+
+    /**
+     * Ensure the companion generated by the keyable processor is picked up.
+     */
+    @Test
+    public final void expectGeneratedCompanionToBeUsed()
+    {
+        Assert.assertTrue(KeyableDescriptor.of(KeyableCurrency.class).isVerified());
+    }
+
+    /**
+     * Ensure no companion is generated for an invalid keyable class.
+     */
+    @Test
+    public final void expectNoCompanionForInvalidKeyable()
+    {
+        Assert.assertFalse(KeyableDescriptor.of(KeyableWithMultiplePrimaryKey.class).isVerified());
+    }
+
+    /**
+     * Ensure a companion is used only if its fingerprint matches the key fields of the keyable class.
+     */
+    @Test
+    public final void expectStaleCompanionToBeIgnored()
+    {
+        Assert.assertTrue(KeyableDescriptor.of(Current.class).isVerified());
+        Assert.assertFalse(KeyableDescriptor.of(Stale.class).isVerified());
+    }
+}
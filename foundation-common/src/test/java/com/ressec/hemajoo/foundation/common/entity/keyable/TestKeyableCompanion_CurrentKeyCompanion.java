@@ -0,0 +1,85 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+/**
+ * Hand written companion of the {@link TestKeyableCompanion.Current} keyable class.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableCompanion_CurrentKeyCompanion implements IKeyableCompanion
+{
+    @Override
+    public Class<? extends IKeyable> getKeyableClass()
+    {
+        return TestKeyableCompanion.Current.class;
+    }
+
+    @Override
+    public String getFingerprint()
+    {
+        return TestKeyableCompanion.FINGERPRINT;
+    }
+
+    @Override
+    public int getKeyCount()
+    {
+        return 2;
+    }
+
+    @Override
+    public int indexOf(final String keyName)
+    {
+        switch (keyName)
+        {
+            case "code":
+                return 0;
+            case "rank":
+                return 1;
+            default:
+                return -1;
+        }
+    }
+
+    @Override
+    public boolean isAccessible(final int index)
+    {
+        return false;
+    }
+
+    @Override
+    public Object get(final IKeyable keyable, final int index)
+    {
+        throw new IllegalArgumentException("Key field at index: " + index + " is not accessible!");
+    }
+
+    @Override
+    public void set(final IKeyable keyable, final int index, final Object value)
+    {
+        throw new IllegalArgumentException("Key field at index: " + index + " is not accessible!");
+    }
+
+    @Override
+    public long getLong(final IKeyable keyable, final int index)
+    {
+        throw new IllegalArgumentException("Key field at index: " + index + " is not an accessible integral key field!");
+    }
+
+    @Override
+    public void setLong(final IKeyable keyable, final int index, final long value)
+    {
+        throw new IllegalArgumentException("Key field at index: " + index + " is not an accessible integral key field!");
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+/**
+ * Hand written (out of date) companion of the {@link TestKeyableCompanion.Stale} keyable class.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableCompanion_StaleKeyCompanion extends TestKeyableCompanion_CurrentKeyCompanion
+{
+    @Override
+    public Class<? extends IKeyable> getKeyableClass()
+    {
+        return TestKeyableCompanion.Stale.class;
+    }
+
+    @Override
+    public String getFingerprint()
+    {
+        return TestKeyableCompanion.FINGERPRINT.replace("unique=false", "unique=true");
+    }
+}
@@ -15,7 +15,20 @@
 package com.ressec.hemajoo.foundation.common.test.entity.keyable;
 
 import com.ressec.hemajoo.foundation.common.test.entity.keyable.auto.scenario.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.batch.scenario.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.bloom.scenario.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.composite.scenario.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.concurrent.scenario.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.index.scenario.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.indexed.scenario.*;
 import com.ressec.hemajoo.foundation.common.test.entity.keyable.model.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.normalized.scenario.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.prefix.scenario.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.scope.scenario.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.snapshot.scenario.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.sorted.scenario.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.stream.scenario.*;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.weak.scenario.*;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
@@ -37,10 +50,42 @@ import org.junit.runners.Suite;
         TestKeyableWithPrimaryAutoKeyAsPrimitiveShort.class,
         TestKeyableWithPrimaryAutoKeyAsPrimitiveInteger.class,
         TestKeyableWithPrimaryAutoKeyAsPrimitiveLong.class,
+        TestKeyableWithPrimaryAutoKeyAsWrapperLong.class,
+        TestKeyableWithPrimaryAutoKeyAsBlockLong.class,
 
         TestKeyableWithMultiplePrimaryKey.class,
         TestKeyableWithSameAlternateKeyName.class,
         TestKeyableWithPrimaryKeyNameDifferentFromKeyName.class,
+
+        TestKeyManagerConcurrentMode.class,
+        TestKeyManagerShardedMode.class,
+
+        TestKeyableWithIntegralKeys.class,
+        TestKeyableWithUniqueKeys.class,
+        TestKeyManagerViewQueryMode.class,
+        TestKeyManagerOffHeapMode.class,
+        TestKeyManagerQueryCache.class,
+
+        TestKeyManagerBatchRegistration.class,
+        TestKeyBulkLoader.class,
+        TestKeyManagerBatchLookup.class,
+
+        TestKeyManagerStream.class,
+
+        TestKeyableWithSortedKeys.class,
+
+        TestKeyableWithPrefixKeys.class,
+        TestKeyableWithNormalizedKeys.class,
+
+        TestKeyableWithCompositeKeys.class,
+        TestKeyableWithSecondaryIndexes.class,
+
+        TestKeyableWithBloomFilter.class,
+
+        TestKeyManagerScopes.class,
+        TestKeyManagerWeakReferences.class,
+
+        TestKeySnapshot.class,
 })
 public class KeyableTestSuite
 {
@@ -0,0 +1,59 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.auto.model;
+
+import com.ressec.hemajoo.foundation.common.annotation.Internal;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.PrimaryKey;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A keyable entity test class.
+ * <br><br>
+ * This class is used for testing purpose only!
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Internal
+public class KeyableWithPrimaryAutoKeyAsWrapperLong extends Keyable
+{
+    /**
+     * Field defined as a primary key with property 'auto' set to true and of type wrapper long.
+     */
+    @PrimaryKey(name = "wrapperLong", auto = true)
+    @Getter
+    private Long wrapperLong;
+
+    /**
+     * Avoid direct instantiation of entity.
+     */
+    private KeyableWithPrimaryAutoKeyAsWrapperLong()
+    {
+        // Empty.
+    }
+
+    /**
+     * Creates a new test keyable entity.
+     * @param wrapperLong Wrapper long value.
+     */
+    @Builder(toBuilder = true)
+    public KeyableWithPrimaryAutoKeyAsWrapperLong(final Long wrapperLong)
+    {
+        this.wrapperLong = wrapperLong;
+
+        super.register();
+    }
+}
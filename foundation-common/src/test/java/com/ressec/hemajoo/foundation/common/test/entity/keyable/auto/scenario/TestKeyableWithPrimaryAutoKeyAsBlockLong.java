@@ -0,0 +1,107 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.auto.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.auto.model.KeyableWithPrimaryAutoKeyAsBlockLong;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Test case for the {@link KeyableWithPrimaryAutoKeyAsBlockLong} entity.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableWithPrimaryAutoKeyAsBlockLong
+{
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableWithPrimaryAutoKeyAsBlockLong.class);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().shutdown();
+    }
+
+    /**
+     * Ensure the key values generated by a single thread are contiguous, including across blocks.
+     */
+    @Test
+    public void expectSuccessToGenerateContiguousValuesWithinOneThread()
+    {
+        KeyableWithPrimaryAutoKeyAsBlockLong entity = null;
+
+        for (int i = 1; i <= KeyableWithPrimaryAutoKeyAsBlockLong.BLOCK_SIZE * 2 + 1; i++)
+        {
+            entity = KeyableWithPrimaryAutoKeyAsBlockLong.builder()
+                    .build();
+
+            Assert.assertEquals(i, entity.getPrimitiveLong());
+        }
+    }
+
+    /**
+     * Ensure the key values are generated again from 1 once the keys of the keyable type have been unregistered.
+     */
+    @Test
+    public void expectSuccessToRestartValuesAfterUnregistration()
+    {
+        KeyableWithPrimaryAutoKeyAsBlockLong.builder().build();
+        KeyableWithPrimaryAutoKeyAsBlockLong.builder().build();
+
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableWithPrimaryAutoKeyAsBlockLong.class);
+
+        Assert.assertEquals(1, KeyableWithPrimaryAutoKeyAsBlockLong.builder().build().getPrimitiveLong());
+    }
+
+    /**
+     * Ensure the key values generated by several threads (each one using its own block of values) are unique.
+     */
+    @Test
+    public void expectSuccessToGenerateUniqueValuesWithinSeveralThreads() throws Exception
+    {
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+        Thread[] threads = new Thread[4];
+
+        for (int i = 0; i < threads.length; i++)
+        {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < KeyableWithPrimaryAutoKeyAsBlockLong.BLOCK_SIZE * 3; j++)
+                {
+                    values.add(KeyableWithPrimaryAutoKeyAsBlockLong.builder()
+                            .build()
+                            .getPrimitiveLong());
+                }
+            });
+            threads[i].start();
+        }
+
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        Assert.assertEquals(threads.length * KeyableWithPrimaryAutoKeyAsBlockLong.BLOCK_SIZE * 3, values.size());
+        Assert.assertEquals(values.size(), KeyManager.getInstance().countByKeyableClass(KeyableWithPrimaryAutoKeyAsBlockLong.class));
+    }
+}
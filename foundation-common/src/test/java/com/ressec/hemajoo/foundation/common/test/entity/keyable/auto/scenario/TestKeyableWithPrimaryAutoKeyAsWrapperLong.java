@@ -0,0 +1,90 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.auto.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.auto.model.KeyableWithPrimaryAutoKeyAsWrapperLong;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for the {@link KeyableWithPrimaryAutoKeyAsWrapperLong} entity.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableWithPrimaryAutoKeyAsWrapperLong
+{
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableWithPrimaryAutoKeyAsWrapperLong.class);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().shutdown();
+    }
+
+    /**
+     * Ensure the success to create a keyable with an auto primary key of type wrapper long when no value is provided.
+     */
+    @Test
+    public void expectSuccessToCreateKeyableWithPrimaryAutoKeyAsWrapperLongWithNullValue()
+    {
+        KeyableWithPrimaryAutoKeyAsWrapperLong entity = KeyableWithPrimaryAutoKeyAsWrapperLong.builder()
+                .build();
+
+        Assert.assertNotNull(entity);
+        Assert.assertEquals(Long.valueOf(1), entity.getWrapperLong());
+    }
+
+    /**
+     * Ensure the failure to create a keyable with an auto primary key of type wrapper long when the value
+     * is greater than zero.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToCreateKeyableWithPrimaryAutoKeyAsWrapperLongWithValueGreaterThanZero()
+    {
+        KeyableWithPrimaryAutoKeyAsWrapperLong.builder()
+                .wrapperLong(12L)
+                .build();
+    }
+
+    /**
+     * Ensure the success to create and retrieve keyables with an auto primary key of type wrapper long.
+     */
+    @Test
+    public void expectSuccessToRetrieveKeyablesWithPrimaryAutoKeyAsWrapperLong()
+    {
+        KeyableWithPrimaryAutoKeyAsWrapperLong entity = null;
+
+        for (int i = 0; i < 10; i++)
+        {
+            entity = KeyableWithPrimaryAutoKeyAsWrapperLong.builder()
+                    .wrapperLong(0L)
+                    .build();
+        }
+
+        Assert.assertNotNull(entity);
+        Assert.assertEquals(Long.valueOf(10), entity.getWrapperLong());
+        Assert.assertSame(entity, Keyable.retrieve(KeyableWithPrimaryAutoKeyAsWrapperLong.class, "wrapperLong", 10L));
+        Assert.assertEquals(10, KeyManager.getInstance().countByKeyableClass(KeyableWithPrimaryAutoKeyAsWrapperLong.class));
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.batch.model;
+
+import com.ressec.hemajoo.foundation.common.annotation.Internal;
+import com.ressec.hemajoo.foundation.common.entity.keyable.AlternateKey;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.PrimaryKey;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A keyable entity test class whose instances are not registered at creation, but by batches.
+ * <br><br>
+ * This class is used for testing purpose only!
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Internal
+public class KeyableCity extends Keyable
+{
+    /**
+     * City name.
+     */
+    @PrimaryKey(name = "name")
+    @Getter
+    private String name;
+
+    /**
+     * City code.
+     */
+    @AlternateKey(name = "code", unique = true, mandatory = true)
+    @Getter
+    private Integer code;
+
+    /**
+     * Country of the city.
+     */
+    @AlternateKey(name = "country", unique = false, mandatory = false)
+    @Getter
+    private String country;
+
+    /**
+     * Avoid direct instantiation of entity.
+     */
+    private KeyableCity()
+    {
+        // Empty.
+    }
+
+    /**
+     * Creates a new (unregistered) city.
+     * @param name City name.
+     * @param code City code.
+     * @param country Country of the city.
+     */
+    @Builder
+    public KeyableCity(final String name, final Integer code, final String country)
+    {
+        this.name = name;
+        this.code = code;
+        this.country = country;
+    }
+}
@@ -0,0 +1,168 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.batch.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyBatchException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyBulkLoader;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.batch.model.KeyableCity;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Test case for the parallel loading of keyable entities.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyBulkLoader
+{
+    /**
+     * Number of loaded keyable entities.
+     */
+    private static final int ENTITIES = 50000;
+
+    /**
+     * Number of distinct countries.
+     */
+    private static final int COUNTRIES = 10;
+
+    /**
+     * Fork-join pool used by the tests.
+     */
+    private static ForkJoinPool pool;
+
+    /**
+     * Bulk loader.
+     */
+    private KeyBulkLoader loader;
+
+    /**
+     * Creates a list of valid cities.
+     * @param from First city index.
+     * @param to Last city index (exclusive).
+     * @return List of cities.
+     */
+    private static List<KeyableCity> createCities(final int from, final int to)
+    {
+        List<KeyableCity> cities = new ArrayList<>(to - from);
+
+        for (int i = from; i < to; i++)
+        {
+            cities.add(KeyableCity.builder()
+                    .name("City-" + i)
+                    .code(i)
+                    .country("Country-" + i % COUNTRIES)
+                    .build());
+        }
+
+        return cities;
+    }
+
+    @BeforeClass
+    public static void setUpClass()
+    {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterClass
+    public static void tearDownClass()
+    {
+        pool.shutdown();
+    }
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+
+        loader = KeyBulkLoader.builder()
+                .pool(pool)
+                .threshold(1000)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Ensure a collection of keyables can be loaded in parallel.
+     */
+    @Test
+    public void expectSuccessToLoadCollection()
+    {
+        List<KeyableCity> cities = createCities(0, ENTITIES);
+
+        loader.load(cities);
+
+        Assert.assertEquals(ENTITIES, KeyManager.getInstance().countByKeyableClass(KeyableCity.class));
+        Assert.assertSame(cities.get(12345), KeyManager.getInstance().get(KeyableCity.class, "code", 12345).get(0));
+        Assert.assertEquals(ENTITIES / COUNTRIES, KeyManager.getInstance().get(KeyableCity.class, "country", "Country-3").size());
+    }
+
+    /**
+     * Ensure a stream of keyables can be loaded in parallel in concurrent mode.
+     */
+    @Test
+    public void expectSuccessToLoadStreamInConcurrentMode()
+    {
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .concurrent(true)
+                .build());
+
+        loader.load(IntStream.range(0, ENTITIES).mapToObj(i -> KeyableCity.builder()
+                .name("City-" + i)
+                .code(i)
+                .build()));
+
+        Assert.assertEquals(ENTITIES, KeyManager.getInstance().countByKeyName(KeyableCity.class, "code"));
+        Assert.assertTrue(KeyManager.getInstance().isKeyValueExist(KeyableCity.class, "name", "City-" + (ENTITIES - 1)));
+    }
+
+    /**
+     * Ensure duplicates spread over several partitions are detected at merge time.
+     */
+    @Test
+    public void expectFailuresForDuplicatesAcrossPartitions()
+    {
+        List<KeyableCity> cities = createCities(0, ENTITIES);
+        cities.addAll(createCities(0, 10));
+
+        try
+        {
+            loader.load(cities);
+            Assert.fail("A key batch exception was expected!");
+        }
+        catch (KeyBatchException e)
+        {
+            Assert.assertEquals(10, e.getFailures().size());
+        }
+
+        Assert.assertEquals(ENTITIES, KeyManager.getInstance().countByKeyableClass(KeyableCity.class));
+    }
+}
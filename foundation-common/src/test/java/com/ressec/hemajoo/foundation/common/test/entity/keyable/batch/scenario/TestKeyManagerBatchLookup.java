@@ -0,0 +1,137 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.batch.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.IKeyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.batch.model.KeyableCity;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test case for the lookup of keyable entities by batches of key values.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyManagerBatchLookup
+{
+    /**
+     * Number of registered entities.
+     */
+    private static final int ENTITIES = 10000;
+
+    /**
+     * Number of distinct countries.
+     */
+    private static final int COUNTRIES = 10;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableCity.class);
+
+        List<KeyableCity> cities = new ArrayList<>(ENTITIES);
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            cities.add(KeyableCity.builder()
+                    .name("City-" + i)
+                    .code(i)
+                    .country("Country-" + i % COUNTRIES)
+                    .build());
+        }
+
+        KeyManager.getInstance().registerAll(cities);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableCity.class);
+    }
+
+    /**
+     * Ensure a batch of unique key values is resolved, in iteration order of the key values.
+     */
+    @Test
+    public void expectSuccessToRetrieveBatch()
+    {
+        List<Object> codes = new ArrayList<>();
+        for (int i = ENTITIES - 1; i >= 0; i -= 7)
+        {
+            codes.add(i);
+        }
+        codes.add(-1);
+
+        Map<Object, IKeyable> cities = Keyable.retrieveAll(KeyableCity.class, "code", codes);
+
+        Assert.assertEquals(codes.size() - 1, cities.size());
+        Assert.assertFalse(cities.containsKey(-1));
+        Assert.assertEquals(ENTITIES - 1, cities.keySet().iterator().next());
+
+        for (Map.Entry<Object, IKeyable> entry : cities.entrySet())
+        {
+            Assert.assertEquals(entry.getKey(), ((KeyableCity) entry.getValue()).getCode());
+        }
+    }
+
+    /**
+     * Ensure a batch of unique key values is resolved in parallel, in iteration order of the key values.
+     */
+    @Test
+    public void expectSuccessToRetrieveBatchInParallel()
+    {
+        List<Object> names = new ArrayList<>();
+        for (int i = 0; i < ENTITIES; i += 2)
+        {
+            names.add("City-" + i);
+        }
+
+        Map<Object, IKeyable> cities = KeyManager.getInstance().getOneAll(KeyableCity.class, "name", names, true);
+
+        Assert.assertEquals(ENTITIES / 2, cities.size());
+        Assert.assertEquals(names, new ArrayList<>(cities.keySet()));
+    }
+
+    /**
+     * Ensure a batch of non unique key values is resolved.
+     */
+    @Test
+    public void expectSuccessToQueryBatch()
+    {
+        Map<Object, List<IKeyable>> cities = Keyable.queryAll(KeyableCity.class, "country", Arrays.asList("Country-1", "Country-2", "Unknown", "Country-1"));
+
+        Assert.assertEquals(2, cities.size());
+        Assert.assertEquals(ENTITIES / COUNTRIES, cities.get("Country-1").size());
+        Assert.assertEquals(ENTITIES / COUNTRIES, KeyManager.getInstance().getAll(KeyableCity.class, "country", Arrays.asList("Country-2"), true).get("Country-2").size());
+    }
+
+    /**
+     * Ensure a batch of values of an unknown key resolves to an empty map.
+     */
+    @Test
+    public void expectEmptyResultForUnknownKey()
+    {
+        Assert.assertTrue(KeyManager.getInstance().getOneAll(KeyableCity.class, "unknown", Arrays.asList(1, 2)).isEmpty());
+        Assert.assertTrue(KeyManager.getInstance().getAll(KeyableCity.class, "unknown", Arrays.asList(1, 2)).isEmpty());
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.batch.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyBatchException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.batch.model.KeyableCity;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Test case for the registration of keyable entities by batches.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyManagerBatchRegistration
+{
+    /**
+     * Number of keyable entities per batch.
+     */
+    private static final int ENTITIES = 10000;
+
+    /**
+     * Number of distinct countries.
+     */
+    private static final int COUNTRIES = 10;
+
+    /**
+     * Creates a batch of valid cities.
+     * @return List of cities.
+     */
+    private static List<KeyableCity> createCities()
+    {
+        List<KeyableCity> cities = new ArrayList<>(ENTITIES);
+
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            cities.add(KeyableCity.builder()
+                    .name("City-" + i)
+                    .code(i)
+                    .country("Country-" + i % COUNTRIES)
+                    .build());
+        }
+
+        return cities;
+    }
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableCity.class);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableCity.class);
+    }
+
+    /**
+     * Ensure a batch of keyables can be registered.
+     */
+    @Test
+    public void expectSuccessToRegisterBatch()
+    {
+        List<KeyableCity> cities = createCities();
+
+        KeyManager.getInstance().registerAll(cities);
+
+        Assert.assertEquals(ENTITIES, KeyManager.getInstance().countByKeyableClass(KeyableCity.class));
+        Assert.assertSame(cities.get(42), KeyManager.getInstance().get(KeyableCity.class, "code", 42).get(0));
+        Assert.assertSame(cities.get(42), KeyManager.getInstance().get(KeyableCity.class, "name", "City-42").get(0));
+        Assert.assertEquals(ENTITIES / COUNTRIES, KeyManager.getInstance().get(KeyableCity.class, "country", "Country-2").size());
+    }
+
+    /**
+     * Ensure all the failures of a batch are reported together and do not prevent the other keyables from
+     * being registered.
+     */
+    @Test
+    public void expectFailuresToBeReportedTogether()
+    {
+        KeyableCity valid = KeyableCity.builder().name("Paris").code(1).build();
+        KeyableCity duplicateName = KeyableCity.builder().name("Paris").code(2).build();
+        KeyableCity duplicateCode = KeyableCity.builder().name("Lyon").code(1).build();
+        KeyableCity missingCode = KeyableCity.builder().name("Nice").build();
+        KeyableCity other = KeyableCity.builder().name("Lille").code(3).build();
+
+        try
+        {
+            KeyManager.getInstance().registerAll(Arrays.asList(valid, duplicateName, duplicateCode, missingCode, other));
+            Assert.fail("A key batch exception was expected!");
+        }
+        catch (KeyBatchException e)
+        {
+            Assert.assertEquals(3, e.getFailures().size());
+            Assert.assertEquals(3, e.getRejected().size());
+            Assert.assertTrue(e.getRejected().containsAll(Arrays.asList(duplicateName, duplicateCode, missingCode)));
+        }
+
+        Assert.assertEquals(2, KeyManager.getInstance().countByKeyableClass(KeyableCity.class));
+        Assert.assertSame(valid, KeyManager.getInstance().get(KeyableCity.class, "code", 1).get(0));
+        Assert.assertSame(other, KeyManager.getInstance().get(KeyableCity.class, "name", "Lille").get(0));
+
+        // A rejected keyable must not leave any of its keys registered.
+        Assert.assertFalse(KeyManager.getInstance().isKeyValueExist(KeyableCity.class, "name", "Lyon"));
+        Assert.assertFalse(KeyManager.getInstance().isKeyValueExist(KeyableCity.class, "code", 2));
+    }
+
+    /**
+     * Ensure keyables can be registered by several consecutive batches.
+     */
+    @Test
+    public void expectSuccessToRegisterSeveralBatches()
+    {
+        List<KeyableCity> cities = createCities();
+
+        KeyManager.getInstance().registerAll(cities.subList(0, ENTITIES / 2));
+        KeyManager.getInstance().registerAll(cities.subList(ENTITIES / 2, ENTITIES));
+
+        Assert.assertEquals(ENTITIES, KeyManager.getInstance().countByKeyName(KeyableCity.class, "code"));
+        Assert.assertTrue(KeyManager.getInstance().isKeyValueExist(KeyableCity.class, "code", ENTITIES - 1));
+    }
+}
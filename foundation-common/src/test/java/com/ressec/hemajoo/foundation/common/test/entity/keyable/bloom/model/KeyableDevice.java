@@ -0,0 +1,79 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.bloom.model;
+
+import com.ressec.hemajoo.foundation.common.annotation.Internal;
+import com.ressec.hemajoo.foundation.common.entity.keyable.AlternateKey;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyNormalization;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.PrimaryKey;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A keyable entity test class declaring keys fronted by Bloom filters.
+ * <br><br>
+ * This class is used for testing purpose only!
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Internal
+public class KeyableDevice extends Keyable
+{
+    /**
+     * Device serial number (primary key fronted by a Bloom filter).
+     */
+    @PrimaryKey(name = "serial", bloomFilter = 10000)
+    @Getter
+    private String serial;
+
+    /**
+     * Device hardware address (integral unique key fronted by a Bloom filter).
+     */
+    @AlternateKey(name = "address", bloomFilter = 10000)
+    @Getter
+    private long address;
+
+    /**
+     * Device vendor (normalized non unique key fronted by a Bloom filter).
+     */
+    @AlternateKey(name = "vendor", unique = false, mandatory = false, bloomFilter = 100, normalization = KeyNormalization.CASE_INSENSITIVE)
+    @Getter
+    private String vendor;
+
+    /**
+     * Avoid direct instantiation of entity.
+     */
+    private KeyableDevice()
+    {
+        // Empty.
+    }
+
+    /**
+     * Creates a new device.
+     * @param serial Device serial number.
+     * @param address Device hardware address.
+     * @param vendor Device vendor.
+     */
+    @Builder
+    public KeyableDevice(final String serial, final long address, final String vendor)
+    {
+        this.serial = serial;
+        this.address = address;
+        this.vendor = vendor;
+
+        super.register();
+    }
+}
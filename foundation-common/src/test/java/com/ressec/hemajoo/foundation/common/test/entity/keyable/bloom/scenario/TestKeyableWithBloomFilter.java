@@ -0,0 +1,189 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.bloom.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.IKeyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.bloom.model.KeyableDevice;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Test case for the keyable entities declaring keys fronted by Bloom filters.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableWithBloomFilter
+{
+    /**
+     * Number of registered entities.
+     */
+    private static final int ENTITIES = 2000;
+
+    /**
+     * Number of distinct vendors.
+     */
+    private static final int VENDORS = 10;
+
+    /**
+     * Registered entities.
+     */
+    private List<KeyableDevice> entities;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Registers the test devices.
+     */
+    private void registerDevices()
+    {
+        entities = new ArrayList<>();
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            entities.add(KeyableDevice.builder()
+                    .serial("SN-" + i)
+                    .address(i + 1)
+                    .vendor("Vendor-" + i % VENDORS)
+                    .build());
+        }
+    }
+
+    /**
+     * Ensure the registered key values are reported as existing.
+     */
+    @Test
+    public void expectSuccessToCheckExistingKeyValues()
+    {
+        registerDevices();
+
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            Assert.assertTrue(KeyManager.getInstance().isKeyValueExist(KeyableDevice.class, "serial", "SN-" + i));
+            Assert.assertTrue(KeyManager.getInstance().isKeyValueExist(KeyableDevice.class, "address", (long) i + 1));
+            Assert.assertTrue(Keyable.exists(KeyableDevice.class, "address", i + 1));
+        }
+
+        Assert.assertTrue(Keyable.exists(KeyableDevice.class, "vendor", "VENDOR-1"));
+    }
+
+    /**
+     * Ensure the key values never registered are reported as absent and cannot be retrieved.
+     */
+    @Test
+    public void expectFailureToFindUnknownKeyValues()
+    {
+        registerDevices();
+
+        for (int i = ENTITIES; i < ENTITIES * 10; i++)
+        {
+            Assert.assertFalse(KeyManager.getInstance().isKeyValueExist(KeyableDevice.class, "serial", "SN-" + i));
+            Assert.assertFalse(KeyManager.getInstance().isKeyValueExist(KeyableDevice.class, "address", (long) i + 1));
+        }
+
+        Assert.assertNull(KeyManager.getInstance().getOne(KeyableDevice.class, "serial", "Unknown"));
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableDevice.class, "vendor", "Unknown").isEmpty());
+        Assert.assertFalse(Keyable.exists(KeyableDevice.class, "unknown", "SN-1"));
+    }
+
+    /**
+     * Ensure keyables are retrieved through the Bloom filters.
+     */
+    @Test
+    public void expectSuccessToRetrieveKeyables()
+    {
+        registerDevices();
+
+        for (int i = 0; i < ENTITIES; i += 13)
+        {
+            Assert.assertSame(entities.get(i), KeyManager.getInstance().getOne(KeyableDevice.class, "serial", "SN-" + i));
+            Assert.assertSame(entities.get(i), KeyManager.getInstance().getOne(KeyableDevice.class, "address", i + 1));
+        }
+
+        Assert.assertEquals(ENTITIES / VENDORS, KeyManager.getInstance().get(KeyableDevice.class, "vendor", "vendor-3").size());
+    }
+
+    /**
+     * Ensure the key values of the unregistered keyables are reported as absent.
+     */
+    @Test
+    public void expectFailureToFindUnregisteredKeyValues()
+    {
+        registerDevices();
+
+        for (int i = 0; i < ENTITIES; i += 2)
+        {
+            KeyManager.getInstance().unregister(entities.get(i));
+        }
+
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            Assert.assertEquals(i % 2 != 0, KeyManager.getInstance().isKeyValueExist(KeyableDevice.class, "serial", "SN-" + i));
+            Assert.assertEquals(i % 2 != 0, KeyManager.getInstance().isKeyValueExist(KeyableDevice.class, "address", i + 1));
+        }
+    }
+
+    /**
+     * Ensure the keyables of a key fronted by a Bloom filter can be streamed.
+     */
+    @Test
+    public void expectSuccessToStreamKeyables()
+    {
+        registerDevices();
+
+        List<IKeyable> keyables = KeyManager.getInstance()
+                .<Long>stream(KeyableDevice.class, "address", address -> address <= 10)
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(10, keyables.size());
+    }
+
+    /**
+     * Ensure the Bloom filters answer the existence checks in concurrent mode.
+     */
+    @Test
+    public void expectSuccessToCheckKeyValuesInConcurrentMode()
+    {
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .concurrent(true)
+                .build());
+
+        registerDevices();
+
+        for (int i = 0; i < ENTITIES * 2; i++)
+        {
+            Assert.assertEquals(i < ENTITIES, KeyManager.getInstance().isKeyValueExist(KeyableDevice.class, "serial", "SN-" + i));
+            Assert.assertEquals(i < ENTITIES, KeyManager.getInstance().isKeyValueExist(KeyableDevice.class, "address", (long) i + 1));
+        }
+    }
+}
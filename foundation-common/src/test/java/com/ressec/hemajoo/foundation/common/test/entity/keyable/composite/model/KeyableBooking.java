@@ -0,0 +1,105 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.composite.model;
+
+import com.ressec.hemajoo.foundation.common.annotation.Internal;
+import com.ressec.hemajoo.foundation.common.entity.keyable.CompositeKey;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.PrimaryKey;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A keyable entity test class declaring composite keys.
+ * <br><br>
+ * This class is used for testing purpose only!
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Internal
+public class KeyableBooking extends Keyable
+{
+    /**
+     * Booking identifier (primary key).
+     */
+    @PrimaryKey(name = "id")
+    @Getter
+    private long id;
+
+    /**
+     * Flight number (first component of the unique 'seat' composite key).
+     */
+    @CompositeKey(name = "seat")
+    @Getter
+    private String flight;
+
+    /**
+     * Seat row (second component of the unique 'seat' composite key).
+     */
+    @CompositeKey(name = "seat")
+    @Getter
+    private int row;
+
+    /**
+     * Seat letter (third component of the unique 'seat' composite key).
+     */
+    @CompositeKey(name = "seat")
+    @Getter
+    private String letter;
+
+    /**
+     * Passenger last name (first component of the non unique 'passenger' composite key).
+     */
+    @CompositeKey(name = "passenger", unique = false, mandatory = false)
+    @Getter
+    private String lastName;
+
+    /**
+     * Passenger first name (second component of the non unique 'passenger' composite key).
+     */
+    @CompositeKey(name = "passenger")
+    @Getter
+    private String firstName;
+
+    /**
+     * Avoid direct instantiation of entity.
+     */
+    private KeyableBooking()
+    {
+        // Empty.
+    }
+
+    /**
+     * Creates a new booking.
+     * @param id Booking identifier.
+     * @param flight Flight number.
+     * @param row Seat row.
+     * @param letter Seat letter.
+     * @param lastName Passenger last name.
+     * @param firstName Passenger first name.
+     */
+    @Builder
+    public KeyableBooking(final long id, final String flight, final int row, final String letter, final String lastName, final String firstName)
+    {
+        this.id = id;
+        this.flight = flight;
+        this.row = row;
+        this.letter = letter;
+        this.lastName = lastName;
+        this.firstName = firstName;
+
+        super.register();
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.composite.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.IKeyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.composite.model.KeyableBooking;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Test case for the keyable entities declaring composite keys.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableWithCompositeKeys
+{
+    /**
+     * Number of rows per flight.
+     */
+    private static final int ROWS = 30;
+
+    /**
+     * Seat letters.
+     */
+    private static final String[] LETTERS = { "A", "B", "C", "D", "E", "F" };
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Registers the bookings of all the seats of two flights.
+     */
+    private void registerBookings()
+    {
+        long id = 1;
+
+        for (String flight : new String[] { "AF1234", "BA0042" })
+        {
+            for (int row = 1; row <= ROWS; row++)
+            {
+                for (String letter : LETTERS)
+                {
+                    KeyableBooking.builder()
+                            .id(id++)
+                            .flight(flight)
+                            .row(row)
+                            .letter(letter)
+                            .lastName("Name-" + row)
+                            .firstName(row % 2 == 0 ? "Even" : null)
+                            .build();
+                }
+            }
+        }
+    }
+
+    /**
+     * Ensure keyables can be retrieved by the component values of a composite key.
+     */
+    @Test
+    public void expectSuccessToRetrieveByCompositeKey()
+    {
+        registerBookings();
+
+        KeyableBooking booking = (KeyableBooking) KeyManager.getInstance().get(KeyableBooking.class, "seat", "AF1234", 12, "C").get(0);
+
+        Assert.assertEquals("AF1234", booking.getFlight());
+        Assert.assertEquals(12, booking.getRow());
+        Assert.assertEquals("C", booking.getLetter());
+        Assert.assertSame(booking, KeyManager.getInstance().get(KeyableBooking.class, "seat", "AF1234", 12L, "C").get(0));
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableBooking.class, "seat", "AF1234", ROWS + 1, "C").isEmpty());
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableBooking.class, "seat", "AF1234", "12", "C").isEmpty());
+        Assert.assertEquals(2 * ROWS * LETTERS.length, KeyManager.getInstance().countByKeyName(KeyableBooking.class, "seat"));
+    }
+
+    /**
+     * Ensure a non unique composite key indexes several keyables under the same component values and skips the
+     * keyables having a null component value.
+     */
+    @Test
+    public void expectSuccessToRetrieveByNonUniqueCompositeKey()
+    {
+        registerBookings();
+
+        Assert.assertEquals(2 * LETTERS.length, KeyManager.getInstance().get(KeyableBooking.class, "passenger", "Name-2", "Even").size());
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableBooking.class, "passenger", "Name-1", null).isEmpty());
+        Assert.assertEquals(ROWS * LETTERS.length, KeyManager.getInstance().countByKeyName(KeyableBooking.class, "passenger"));
+    }
+
+    /**
+     * Ensure the keyables sharing the component values of a non unique composite key are retrieved in registration
+     * order, including after some of them have been unregistered.
+     */
+    @Test
+    public void expectSuccessToRetrieveNonUniqueCompositeKeyablesInRegistrationOrder()
+    {
+        registerBookings();
+
+        List<IKeyable> keyables = KeyManager.getInstance().get(KeyableBooking.class, "passenger", "Name-2", "Even");
+        long previous = 0;
+
+        for (IKeyable keyable : keyables)
+        {
+            Assert.assertTrue(((KeyableBooking) keyable).getId() > previous);
+            previous = ((KeyableBooking) keyable).getId();
+        }
+
+        KeyManager.getInstance().unregister(keyables.get(0));
+        KeyManager.getInstance().unregister(keyables.get(2));
+
+        List<IKeyable> remaining = KeyManager.getInstance().get(KeyableBooking.class, "passenger", "Name-2", "Even");
+
+        Assert.assertEquals(keyables.size() - 2, remaining.size());
+        Assert.assertSame(keyables.get(1), remaining.get(0));
+        Assert.assertSame(keyables.get(3), remaining.get(1));
+        Assert.assertSame(keyables.get(keyables.size() - 1), remaining.get(remaining.size() - 1));
+    }
+
+    /**
+     * Ensure the composite keys are removed on unregistration.
+     */
+    @Test
+    public void expectSuccessToUnregisterCompositeKeys()
+    {
+        registerBookings();
+
+        KeyManager.getInstance().unregister(KeyManager.getInstance().get(KeyableBooking.class, "seat", "BA0042", 2, "A").get(0));
+
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableBooking.class, "seat", "BA0042", 2, "A").isEmpty());
+        Assert.assertEquals(2 * LETTERS.length - 1, KeyManager.getInstance().get(KeyableBooking.class, "passenger", "Name-2", "Even").size());
+
+        KeyableBooking.builder()
+                .id(0)
+                .flight("BA0042")
+                .row(2)
+                .letter("A")
+                .build();
+
+        Assert.assertEquals(0, ((KeyableBooking) KeyManager.getInstance().get(KeyableBooking.class, "seat", "BA0042", 2, "A").get(0)).getId());
+    }
+
+    /**
+     * Ensure keyables can be retrieved by composite key in concurrent mode.
+     */
+    @Test
+    public void expectSuccessToRetrieveByCompositeKeyInConcurrentMode()
+    {
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .concurrent(true)
+                .build());
+
+        registerBookings();
+
+        Assert.assertEquals(1, KeyManager.getInstance().get(KeyableBooking.class, "seat", "BA0042", ROWS, "F").size());
+        Assert.assertEquals(2 * LETTERS.length, KeyManager.getInstance().get(KeyableBooking.class, "passenger", "Name-4", "Even").size());
+    }
+
+    /**
+     * Ensure a {@link KeyException} is raised when registering already used component values of a unique composite
+     * key, and that none of the keys of the rejected keyable remains registered.
+     */
+    @Test
+    public void expectFailureToRegisterDuplicateCompositeKeyValue()
+    {
+        registerBookings();
+
+        try
+        {
+            KeyableBooking.builder()
+                    .id(-1)
+                    .flight("AF1234")
+                    .row(1)
+                    .letter("A")
+                    .build();
+
+            Assert.fail("Duplicate composite key value has been registered!");
+        }
+        catch (KeyException e)
+        {
+            Assert.assertFalse(KeyManager.getInstance().isKeyValueExist(KeyableBooking.class, "id", -1L));
+            Assert.assertEquals(2 * ROWS * LETTERS.length, KeyManager.getInstance().countByKeyableClass(KeyableBooking.class));
+        }
+    }
+
+    /**
+     * Ensure a {@link KeyException} is raised when registering a keyable having a null component value of a
+     * mandatory composite key.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRegisterMissingMandatoryComponent()
+    {
+        KeyableBooking.builder()
+                .id(1)
+                .flight("AF1234")
+                .row(1)
+                .build();
+    }
+
+    /**
+     * Ensure a {@link KeyException} is raised when querying a composite key with a wrong number of components.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRetrieveWithWrongNumberOfComponents()
+    {
+        KeyManager.getInstance().get(KeyableBooking.class, "seat", "AF1234", 1);
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.concurrent.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.IKeyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerException;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.auto.model.KeyableWithPrimaryAutoKeyAsPrimitiveLong;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.model.KeyableCountryWithPrimaryAndAlternateKey;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.snapshot.model.KeyableCurrency;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test case for the key manager used in concurrent mode.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyManagerConcurrentMode
+{
+    /**
+     * Number of registering threads.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * Number of entities registered by each thread.
+     */
+    private static final int ENTITIES = 500;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .concurrent(true)
+                .build());
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Ensure keyables registered concurrently by several threads are all indexed.
+     */
+    @Test
+    public void expectSuccessToRegisterKeyablesConcurrently() throws Exception
+    {
+        run(thread -> {
+            for (int i = 0; i < ENTITIES; i++)
+            {
+                KeyableCountryWithPrimaryAndAlternateKey.builder()
+                        .name("Country-" + thread + "-" + i)
+                        .iso3("C" + thread + "-" + i)
+                        .build();
+            }
+        });
+
+        Assert.assertEquals(THREADS * ENTITIES, KeyManager.getInstance().countByKeyableClass(KeyableCountryWithPrimaryAndAlternateKey.class));
+        Assert.assertEquals(THREADS * ENTITIES, KeyManager.getInstance().countByKeyName(KeyableCountryWithPrimaryAndAlternateKey.class, "iso3"));
+
+        for (int thread = 0; thread < THREADS; thread++)
+        {
+            Assert.assertTrue(KeyManager.getInstance().isKeyValueExist(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "Country-" + thread + "-0"));
+            Assert.assertEquals(1, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "iso3", "C" + thread + "-0").size());
+        }
+    }
+
+    /**
+     * Ensure keyables sharing the same value of a non unique key, registered and unregistered concurrently by
+     * several threads, are all indexed under this value.
+     */
+    @Test
+    public void expectSuccessToIndexLargeNonUniqueBucketConcurrently() throws Exception
+    {
+        List<List<KeyableCurrency>> currencies = new ArrayList<>();
+        for (int thread = 0; thread < THREADS; thread++)
+        {
+            currencies.add(new CopyOnWriteArrayList<>());
+        }
+
+        run(thread -> {
+            for (int i = 0; i < ENTITIES; i++)
+            {
+                currencies.get(thread).add(KeyableCurrency.builder()
+                        .code("C" + thread + "-" + i)
+                        .numeric(thread * ENTITIES + i + 1)
+                        .region("EU")
+                        .build());
+            }
+        });
+
+        Assert.assertEquals(THREADS * ENTITIES, KeyManager.getInstance().get(KeyableCurrency.class, "region", "EU").size());
+
+        // Each thread unregisters half of its keyables while the bucket is read.
+        run(thread -> {
+            for (int i = 0; i < ENTITIES; i += 2)
+            {
+                KeyManager.getInstance().unregister(currencies.get(thread).get(i));
+                Assert.assertFalse(KeyManager.getInstance().get(KeyableCurrency.class, "region", "EU").contains(null));
+            }
+        });
+
+        List<IKeyable> remaining = KeyManager.getInstance().get(KeyableCurrency.class, "region", "EU");
+        Assert.assertEquals(THREADS * ENTITIES / 2, remaining.size());
+        Assert.assertEquals(THREADS * ENTITIES / 2, KeyManager.getInstance().countByKeyName(KeyableCurrency.class, "region"));
+
+        for (int thread = 0; thread < THREADS; thread++)
+        {
+            Assert.assertFalse(remaining.contains(currencies.get(thread).get(0)));
+            Assert.assertTrue(remaining.contains(currencies.get(thread).get(1)));
+        }
+    }
+
+    /**
+     * Ensure integral key values are matched whatever their wrapper type, as they are in the default mode.
+     */
+    @Test
+    public void expectIntegralKeyValuesToMatchWhateverTheirWrapperType()
+    {
+        KeyableCountryWithPrimaryAndAlternateKey france = KeyableCountryWithPrimaryAndAlternateKey.builder()
+                .name("France")
+                .iso3("FRA")
+                .numeric(250)
+                .byteKey((byte) 7)
+                .integerKey(33)
+                .build();
+
+        // Unique key.
+        Assert.assertSame(france, KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", 250L));
+        Assert.assertSame(france, KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", (short) 250));
+        Assert.assertTrue(KeyManager.getInstance().isKeyValueExist(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", 250L));
+
+        // Non unique keys.
+        Assert.assertEquals(1, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "integerKey", 33L).size());
+        Assert.assertEquals(1, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "byteKey", 7).size());
+        Assert.assertTrue(KeyManager.getInstance().isKeyValueExist(KeyableCountryWithPrimaryAndAlternateKey.class, "integerKey", (byte) 33));
+
+        KeyManager.getInstance().unregister(france);
+
+        Assert.assertNull(KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", 250));
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "integerKey", 33).isEmpty());
+    }
+
+    /**
+     * Ensure the uniqueness of a key value is enforced when several threads concurrently register the same value.
+     */
+    @Test
+    public void expectUniqueKeyValueToBeEnforcedConcurrently() throws Exception
+    {
+        AtomicInteger failures = new AtomicInteger();
+
+        run(thread -> {
+            try
+            {
+                KeyableCountryWithPrimaryAndAlternateKey.builder()
+                        .name("France")
+                        .iso3("FR" + thread)
+                        .build();
+            }
+            catch (KeyException e)
+            {
+                failures.incrementAndGet();
+            }
+        });
+
+        Assert.assertEquals(THREADS - 1, failures.get());
+        Assert.assertEquals(1, KeyManager.getInstance().countByKeyableClass(KeyableCountryWithPrimaryAndAlternateKey.class));
+
+        // Keys of the rejected keyables must have been unregistered.
+        Assert.assertEquals(1, KeyManager.getInstance().countByKeyName(KeyableCountryWithPrimaryAndAlternateKey.class, "iso3"));
+    }
+
+    /**
+     * Ensure the auto key values generated concurrently by several threads are unique and contiguous.
+     */
+    @Test
+    public void expectAutoKeyValuesToBeUniqueWhenGeneratedConcurrently() throws Exception
+    {
+        Set<Long> values = ConcurrentHashMap.newKeySet();
+
+        run(thread -> {
+            for (int i = 0; i < ENTITIES; i++)
+            {
+                values.add(KeyableWithPrimaryAutoKeyAsPrimitiveLong.builder()
+                        .build()
+                        .getPrimitiveLong());
+            }
+        });
+
+        Assert.assertEquals(THREADS * ENTITIES, values.size());
+        Assert.assertEquals(Long.valueOf(THREADS * ENTITIES), values.stream().max(Long::compare).orElse(0L));
+        Assert.assertEquals(THREADS * ENTITIES, KeyManager.getInstance().countByKeyableClass(KeyableWithPrimaryAutoKeyAsPrimitiveLong.class));
+    }
+
+    /**
+     * Ensure a {@link KeyManagerException} is raised when the key manager is configured while keyables are registered.
+     */
+    @Test(expected = KeyManagerException.class)
+    public void expectFailureToConfigureWhenKeyablesAreRegistered()
+    {
+        KeyableCountryWithPrimaryAndAlternateKey.builder()
+                .name("France")
+                .iso3("FRA")
+                .build();
+
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Runs the given task concurrently in several threads.
+     * @param task Task to run (receiving the thread number).
+     * @throws Exception Thrown in case an error occurred while running the task.
+     */
+    private void run(final ThreadTask task) throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try
+        {
+            for (int thread = 0; thread < THREADS; thread++)
+            {
+                final int number = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(number);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures)
+            {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Task run by a thread.
+     */
+    @FunctionalInterface
+    private interface ThreadTask
+    {
+        /**
+         * Runs the task.
+         * @param thread Thread number.
+         */
+        void run(final int thread);
+    }
+}
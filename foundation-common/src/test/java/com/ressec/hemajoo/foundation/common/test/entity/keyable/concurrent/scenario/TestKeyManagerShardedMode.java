@@ -0,0 +1,217 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.concurrent.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.IKeyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.model.KeyableCountryWithPrimaryAndAlternateKey;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Test case for the key manager using sharded key indexes (registrations not being serialized by the key manager).
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyManagerShardedMode
+{
+    /**
+     * Number of registering threads.
+     */
+    private static final int THREADS = 8;
+
+    /**
+     * Number of entities registered by each thread.
+     */
+    private static final int ENTITIES = 500;
+
+    /**
+     * Number of shards.
+     */
+    private static final int SHARDS = 16;
+
+    /**
+     * Number of distinct values of the non unique keys.
+     */
+    private static final int GROUPS = 10;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .shards(SHARDS)
+                .build());
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Registers the test entities of a thread.
+     * @param thread Thread number.
+     */
+    private static void registerEntities(final int thread)
+    {
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            int number = thread * ENTITIES + i;
+
+            KeyableCountryWithPrimaryAndAlternateKey.builder()
+                    .name("Country-" + number)
+                    .iso3("C" + number)
+                    .numeric(number + 1)
+                    .comment("Comment-" + number % GROUPS)
+                    .build();
+        }
+    }
+
+    /**
+     * Ensure keyables registered concurrently by several threads are all indexed in the shards.
+     * @throws Exception Thrown in case an error occurred while running the threads.
+     */
+    @Test
+    public void expectSuccessToRegisterKeyablesConcurrently() throws Exception
+    {
+        run(TestKeyManagerShardedMode::registerEntities);
+
+        Assert.assertEquals(THREADS * ENTITIES, KeyManager.getInstance().countByKeyableClass(KeyableCountryWithPrimaryAndAlternateKey.class));
+        Assert.assertEquals(THREADS * ENTITIES, KeyManager.getInstance().countByKeyName(KeyableCountryWithPrimaryAndAlternateKey.class, "iso3"));
+
+        for (int number = 0; number < THREADS * ENTITIES; number += 17)
+        {
+            Assert.assertTrue(KeyManager.getInstance().isKeyValueExist(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "Country-" + number));
+            Assert.assertNotNull(KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", number + 1));
+            Assert.assertNotNull(KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", (long) number + 1));
+        }
+
+        Assert.assertEquals(THREADS * ENTITIES / GROUPS, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1").size());
+    }
+
+    /**
+     * Ensure the uniqueness of a key value is enforced when several threads concurrently register the same value.
+     * @throws Exception Thrown in case an error occurred while running the threads.
+     */
+    @Test
+    public void expectUniqueKeyValueToBeEnforcedConcurrently() throws Exception
+    {
+        AtomicInteger failures = new AtomicInteger();
+
+        run(thread -> {
+            try
+            {
+                KeyableCountryWithPrimaryAndAlternateKey.builder()
+                        .name("France")
+                        .iso3("FR" + thread)
+                        .build();
+            }
+            catch (KeyException e)
+            {
+                failures.incrementAndGet();
+            }
+        });
+
+        Assert.assertEquals(THREADS - 1, failures.get());
+        Assert.assertEquals(1, KeyManager.getInstance().countByKeyableClass(KeyableCountryWithPrimaryAndAlternateKey.class));
+        Assert.assertEquals(1, KeyManager.getInstance().countByKeyName(KeyableCountryWithPrimaryAndAlternateKey.class, "iso3"));
+    }
+
+    /**
+     * Ensure the keyables of all the shards are streamed and unregistered.
+     * @throws Exception Thrown in case an error occurred while running the threads.
+     */
+    @Test
+    public void expectSuccessToStreamAndUnregisterKeyables() throws Exception
+    {
+        run(TestKeyManagerShardedMode::registerEntities);
+
+        List<IKeyable> keyables = KeyManager.getInstance()
+                .<Integer>stream(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", numeric -> numeric <= 100)
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(100, keyables.size());
+
+        for (IKeyable keyable : keyables)
+        {
+            KeyManager.getInstance().unregister(keyable);
+        }
+
+        Assert.assertEquals(THREADS * ENTITIES - 100, KeyManager.getInstance().countByKeyableClass(KeyableCountryWithPrimaryAndAlternateKey.class));
+        Assert.assertFalse(KeyManager.getInstance().isKeyValueExist(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", 1));
+    }
+
+    /**
+     * Runs the given task concurrently in several threads.
+     * @param task Task to run (receiving the thread number).
+     * @throws Exception Thrown in case an error occurred while running the task.
+     */
+    private void run(final ThreadTask task) throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+
+        try
+        {
+            for (int thread = 0; thread < THREADS; thread++)
+            {
+                final int number = thread;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run(number);
+                    return null;
+                }));
+            }
+
+            start.countDown();
+
+            for (Future<?> future : futures)
+            {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Task run by a thread.
+     */
+    @FunctionalInterface
+    private interface ThreadTask
+    {
+        /**
+         * Runs the task.
+         * @param thread Thread number.
+         */
+        void run(final int thread);
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.index.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.IKeyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.model.KeyableCountryWithPrimaryAndAlternateKey;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Test case for the key manager using off-heap key indexes.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyManagerOffHeapMode
+{
+    /**
+     * Number of registered entities.
+     */
+    private static final int ENTITIES = 5000;
+
+    /**
+     * Number of distinct values of the non unique keys.
+     */
+    private static final int GROUPS = 50;
+
+    /**
+     * Registered entities.
+     */
+    private List<KeyableCountryWithPrimaryAndAlternateKey> entities;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .offHeap(true)
+                .build());
+
+        entities = new ArrayList<>();
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            entities.add(KeyableCountryWithPrimaryAndAlternateKey.builder()
+                    .name("Country-" + i)
+                    .iso3("C" + i)
+                    .numeric(i + 1)
+                    .longKey(i % GROUPS + 1)
+                    .comment("Comment-" + i % GROUPS)
+                    .uuidKey(UUID.nameUUIDFromBytes(Integer.toString(i).getBytes()))
+                    .build());
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Ensure keyables can be retrieved from off-heap key indexes.
+     */
+    @Test
+    public void expectSuccessToRetrieveKeyables()
+    {
+        for (int i = 0; i < ENTITIES; i += 37)
+        {
+            Assert.assertSame(entities.get(i), KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "Country-" + i).get(0));
+            Assert.assertSame(entities.get(i), KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", i + 1).get(0));
+            Assert.assertSame(entities.get(i), KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "uuidKey", UUID.nameUUIDFromBytes(Integer.toString(i).getBytes())).get(0));
+        }
+
+        Assert.assertEquals(ENTITIES / GROUPS, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 1L).size());
+        Assert.assertEquals(ENTITIES / GROUPS, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1").size());
+        Assert.assertEquals(ENTITIES, KeyManager.getInstance().countByKeyableClass(KeyableCountryWithPrimaryAndAlternateKey.class));
+        Assert.assertFalse(KeyManager.getInstance().isKeyValueExist(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "Unknown"));
+    }
+
+    /**
+     * Ensure the remaining keyables can still be retrieved once some keyables have been unregistered.
+     */
+    @Test
+    public void expectSuccessToRetrieveKeyablesAfterUnregistration()
+    {
+        for (int i = 0; i < ENTITIES; i += 2)
+        {
+            KeyManager.getInstance().unregister(entities.get(i));
+        }
+
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            Assert.assertEquals(i % 2 != 0, KeyManager.getInstance().isKeyValueExist(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "Country-" + i));
+        }
+
+        Assert.assertEquals(ENTITIES / 2, KeyManager.getInstance().countByKeyableClass(KeyableCountryWithPrimaryAndAlternateKey.class));
+        Assert.assertEquals(ENTITIES / GROUPS, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1").size());
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-2").isEmpty());
+    }
+
+    /**
+     * Ensure the keyables sharing a value of a non unique key are retrieved in their registration order, including
+     * once some of them have been unregistered.
+     */
+    @Test
+    public void expectSuccessToRetrieveNonUniqueKeyablesInRegistrationOrder()
+    {
+        KeyManager.getInstance().unregister(entities.get(1));
+        KeyManager.getInstance().unregister(entities.get(1 + GROUPS * 10));
+        KeyManager.getInstance().unregister(entities.get(ENTITIES - GROUPS + 1));
+
+        List<IKeyable> expected = new ArrayList<>();
+        for (int i = 1 + GROUPS; i < ENTITIES - GROUPS; i += GROUPS)
+        {
+            if (i != 1 + GROUPS * 10)
+            {
+                expected.add(entities.get(i));
+            }
+        }
+
+        Assert.assertEquals(expected, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1"));
+        Assert.assertEquals(expected, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 2L));
+        Assert.assertSame(entities.get(1 + GROUPS), KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 2L));
+    }
+
+    /**
+     * Ensure a {@link KeyException} is raised when registering an already used value of a unique key.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRegisterDuplicateKeyValue()
+    {
+        KeyableCountryWithPrimaryAndAlternateKey.builder()
+                .name("Country-1")
+                .iso3("DUP")
+                .build();
+    }
+}
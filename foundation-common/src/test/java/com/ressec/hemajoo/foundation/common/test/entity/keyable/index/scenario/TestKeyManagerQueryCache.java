@@ -0,0 +1,240 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.index.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.IKeyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyQueryMode;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.model.KeyableCountryWithPrimaryAndAlternateKey;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test case for the key manager caching the query results.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyManagerQueryCache
+{
+    /**
+     * Number of registered entities.
+     */
+    private static final int ENTITIES = 1000;
+
+    /**
+     * Number of distinct values of the non unique keys.
+     */
+    private static final int GROUPS = 10;
+
+    /**
+     * Number of threads.
+     */
+    private static final int THREADS = 4;
+
+    /**
+     * Registered entities.
+     */
+    private List<KeyableCountryWithPrimaryAndAlternateKey> entities;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .queryMode(KeyQueryMode.VIEW)
+                .queryCacheSize(100)
+                .build());
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Registers the test entities.
+     * @param from Index of the first entity.
+     * @param to Index of the last entity (exclusive).
+     * @return Registered entities.
+     */
+    private static List<KeyableCountryWithPrimaryAndAlternateKey> registerEntities(final int from, final int to)
+    {
+        List<KeyableCountryWithPrimaryAndAlternateKey> list = new ArrayList<>();
+        for (int i = from; i < to; i++)
+        {
+            list.add(KeyableCountryWithPrimaryAndAlternateKey.builder()
+                    .name("Country-" + i)
+                    .iso3("C" + i)
+                    .longKey(i % GROUPS + 1)
+                    .comment("Comment-" + i % GROUPS)
+                    .build());
+        }
+
+        return list;
+    }
+
+    /**
+     * Ensure repeated queries are answered by the query cache with immutable results.
+     */
+    @Test
+    public void expectSuccessToCacheQueryResults()
+    {
+        entities = registerEntities(0, ENTITIES);
+
+        List<IKeyable> first = KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1");
+        List<IKeyable> second = KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1");
+
+        Assert.assertEquals(ENTITIES / GROUPS, first.size());
+        Assert.assertSame(first, second);
+
+        // Integral key values of any type share the same cached result.
+        Assert.assertSame(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 2L),
+                KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 2));
+
+        try
+        {
+            first.clear();
+            Assert.fail("Cached query results must be immutable!");
+        }
+        catch (UnsupportedOperationException e)
+        {
+            // Expected.
+        }
+    }
+
+    /**
+     * Ensure the cached query results are invalidated by the registrations and unregistrations.
+     */
+    @Test
+    public void expectSuccessToInvalidateOnRegistration()
+    {
+        entities = registerEntities(0, ENTITIES);
+
+        List<IKeyable> cached = KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1");
+        List<IKeyable> other = KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-2");
+
+        KeyableCountryWithPrimaryAndAlternateKey country = registerEntities(ENTITIES, ENTITIES + 2).get(1);
+        Assert.assertEquals(ENTITIES / GROUPS + 1, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1").size());
+        Assert.assertEquals(ENTITIES / GROUPS + 1, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 2L).size());
+
+        // Buckets not touched by the registrations remain cached.
+        Assert.assertSame(other, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-2"));
+        Assert.assertNotSame(cached, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1"));
+
+        KeyManager.getInstance().unregister(country);
+        Assert.assertEquals(ENTITIES / GROUPS, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1").size());
+        Assert.assertEquals(ENTITIES / GROUPS, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 2).size());
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "Country-" + (ENTITIES + 1)).isEmpty());
+    }
+
+    /**
+     * Ensure the cached query results are invalidated by the bulk unregistrations.
+     */
+    @Test
+    public void expectSuccessToInvalidateOnBulkUnregistration()
+    {
+        entities = registerEntities(0, ENTITIES);
+
+        Assert.assertFalse(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1").isEmpty());
+        Assert.assertFalse(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 1L).isEmpty());
+        Assert.assertFalse(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "Country-1").isEmpty());
+
+        KeyManager.getInstance().unregisterKeysByName(KeyableCountryWithPrimaryAndAlternateKey.class, "comment");
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1").isEmpty());
+
+        KeyManager.getInstance().unregisterKeysByKeyType(KeyableCountryWithPrimaryAndAlternateKey.class, long.class);
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 1L).isEmpty());
+
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableCountryWithPrimaryAndAlternateKey.class);
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "Country-1").isEmpty());
+    }
+
+    /**
+     * Ensure query results remain correct once the least recently used results have been evicted.
+     */
+    @Test
+    public void expectSuccessToEvictQueryResults()
+    {
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .queryCacheSize(GROUPS / 2)
+                .build());
+
+        entities = registerEntities(0, ENTITIES);
+
+        for (int round = 0; round < 3; round++)
+        {
+            for (int i = 0; i < GROUPS; i++)
+            {
+                Assert.assertEquals(ENTITIES / GROUPS, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-" + i).size());
+            }
+        }
+    }
+
+    /**
+     * Ensure the query results are not cached stale while keyables are concurrently registered.
+     * @throws Exception Thrown in case an error occurred while waiting for the threads.
+     */
+    @Test
+    public void expectSuccessToQueryWhileRegisteringConcurrently() throws Exception
+    {
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .concurrent(true)
+                .queryCacheSize(100)
+                .build());
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS * 2);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++)
+            {
+                final int from = t * (ENTITIES / THREADS);
+                futures.add(executor.submit(() -> registerEntities(from, from + ENTITIES / THREADS)));
+                futures.add(executor.submit(() ->
+                {
+                    for (int i = 0; i < ENTITIES; i++)
+                    {
+                        KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-" + i % GROUPS);
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        for (int i = 0; i < GROUPS; i++)
+        {
+            Assert.assertEquals(ENTITIES / GROUPS, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-" + i).size());
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.index.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.IKeyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyQueryMode;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.model.KeyableCountryWithPrimaryAndAlternateKey;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Test case for the queries of the key manager in view query mode.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyManagerViewQueryMode
+{
+    /**
+     * Number of registered entities.
+     */
+    private static final int ENTITIES = 1000;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .queryMode(KeyQueryMode.VIEW)
+                .build());
+
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            KeyableCountryWithPrimaryAndAlternateKey.builder()
+                    .name("Country-" + i)
+                    .iso3("C" + i)
+                    .comment("Comment-" + i % 2)
+                    .build();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Ensure query results are read-only views.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void expectFailureToModifyQueryResult()
+    {
+        List<IKeyable> list = KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-0");
+
+        Assert.assertEquals(ENTITIES / 2, list.size());
+
+        list.clear();
+    }
+
+    /**
+     * Ensure an empty query result is returned for an unknown key value.
+     */
+    @Test
+    public void expectEmptyResultForUnknownKeyValue()
+    {
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Unknown").isEmpty());
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "unknown", "Comment-0").isEmpty());
+    }
+
+    /**
+     * Ensure counts are maintained along the registrations and unregistrations.
+     */
+    @Test
+    public void expectSuccessToCountKeyables()
+    {
+        Assert.assertEquals(ENTITIES, KeyManager.getInstance().countByKeyableClass(KeyableCountryWithPrimaryAndAlternateKey.class));
+        Assert.assertEquals(ENTITIES, KeyManager.getInstance().countByKeyName(KeyableCountryWithPrimaryAndAlternateKey.class, "comment"));
+
+        KeyManager.getInstance().unregister(KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "Country-0"));
+
+        Assert.assertEquals(ENTITIES - 1, KeyManager.getInstance().countByKeyableClass(KeyableCountryWithPrimaryAndAlternateKey.class));
+        Assert.assertEquals(ENTITIES / 2 - 1, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-0").size());
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.index.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.model.KeyableCountryWithPrimaryAndAlternateKey;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test case for the indexing of keys of an integral type.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableWithIntegralKeys
+{
+    /**
+     * Number of registered entities.
+     */
+    private static final int ENTITIES = 10000;
+
+    /**
+     * Number of distinct values of the non unique long key.
+     */
+    private static final int GROUPS = 100;
+
+    /**
+     * Registered entities.
+     */
+    private List<KeyableCountryWithPrimaryAndAlternateKey> entities;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableCountryWithPrimaryAndAlternateKey.class);
+
+        entities = new ArrayList<>();
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            entities.add(KeyableCountryWithPrimaryAndAlternateKey.builder()
+                    .name("Country-" + i)
+                    .iso3("C" + i)
+                    .numeric(i + 1)
+                    .longKey(i % GROUPS)
+                    .build());
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableCountryWithPrimaryAndAlternateKey.class);
+    }
+
+    /**
+     * Ensure keyables can be retrieved using unique and non unique keys of an integral type.
+     */
+    @Test
+    public void expectSuccessToRetrieveKeyablesUsingIntegralKeys()
+    {
+        for (int i = 0; i < ENTITIES; i += 97)
+        {
+            List<?> list = KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", i + 1);
+            Assert.assertEquals(1, list.size());
+            Assert.assertSame(entities.get(i), list.get(0));
+        }
+
+        // Key 0 of a non mandatory key is not indexed.
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 0L).isEmpty());
+        Assert.assertEquals(ENTITIES / GROUPS, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 1L).size());
+        Assert.assertEquals(ENTITIES - ENTITIES / GROUPS, KeyManager.getInstance().countByKeyName(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey"));
+    }
+
+    /**
+     * Ensure a key value of another integral type (or of a non integral type) can be used to query an integral key.
+     */
+    @Test
+    public void expectSuccessToQueryIntegralKeysUsingOtherTypes()
+    {
+        Assert.assertTrue(KeyManager.getInstance().isKeyValueExist(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", 10L));
+        Assert.assertTrue(KeyManager.getInstance().isKeyValueExist(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", (short) 10));
+        Assert.assertFalse(KeyManager.getInstance().isKeyValueExist(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", "10"));
+        Assert.assertFalse(KeyManager.getInstance().isKeyValueExist(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", ENTITIES + 1));
+    }
+
+    /**
+     * Ensure the remaining keyables can still be retrieved once some keyables have been unregistered.
+     */
+    @Test
+    public void expectSuccessToRetrieveKeyablesAfterUnregistration()
+    {
+        for (int i = 0; i < ENTITIES; i += 2)
+        {
+            KeyManager.getInstance().unregister(entities.get(i));
+        }
+
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            boolean exist = KeyManager.getInstance().isKeyValueExist(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", i + 1);
+            Assert.assertEquals(i % 2 != 0, exist);
+        }
+
+        Assert.assertEquals(ENTITIES / 2, KeyManager.getInstance().countByKeyName(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric"));
+        Assert.assertEquals(ENTITIES / GROUPS, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 1L).size());
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "longKey", 2L).isEmpty());
+    }
+
+    /**
+     * Ensure a {@link KeyException} is raised when registering an already used value of a unique integral key.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRegisterDuplicateIntegralKeyValue()
+    {
+        KeyableCountryWithPrimaryAndAlternateKey.builder()
+                .name("Duplicate")
+                .iso3("DUP")
+                .numeric(1)
+                .build();
+    }
+}
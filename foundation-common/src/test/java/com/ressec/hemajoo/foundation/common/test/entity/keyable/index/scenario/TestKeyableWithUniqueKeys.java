@@ -0,0 +1,121 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.index.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.model.KeyableCountryWithPrimaryAndAlternateKey;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.UUID;
+
+/**
+ * Test case for the indexing of unique keys.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableWithUniqueKeys
+{
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableCountryWithPrimaryAndAlternateKey.class);
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableCountryWithPrimaryAndAlternateKey.class);
+    }
+
+    /**
+     * Ensure a single keyable can be retrieved using its unique keys.
+     */
+    @Test
+    public void expectSuccessToRetrieveSingleKeyable()
+    {
+        UUID uuid = UUID.randomUUID();
+        KeyableCountryWithPrimaryAndAlternateKey country = KeyableCountryWithPrimaryAndAlternateKey.builder()
+                .name("France")
+                .iso3("FRA")
+                .numeric(250)
+                .uuidKey(uuid)
+                .build();
+
+        Assert.assertSame(country, KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "France"));
+        Assert.assertSame(country, KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "iso3", "FRA"));
+        Assert.assertSame(country, KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", 250));
+        Assert.assertSame(country, KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, country.getPrimaryKey()));
+        Assert.assertSame(country, Keyable.retrieve(KeyableCountryWithPrimaryAndAlternateKey.class, "uuidKey", uuid));
+        Assert.assertEquals(1, KeyManager.getInstance().get(KeyableCountryWithPrimaryAndAlternateKey.class, "iso3", "FRA").size());
+
+        Assert.assertNull(KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "iso3", "ITA"));
+        Assert.assertNull(KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "unknown", "FRA"));
+    }
+
+    /**
+     * Ensure a unique key value can be used again once the keyable holding it has been unregistered.
+     */
+    @Test
+    public void expectSuccessToReuseUniqueKeyValueAfterUnregistration()
+    {
+        KeyableCountryWithPrimaryAndAlternateKey first = KeyableCountryWithPrimaryAndAlternateKey.builder()
+                .name("France")
+                .iso3("FRA")
+                .build();
+
+        KeyManager.getInstance().unregister(first);
+        Assert.assertNull(KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "France"));
+
+        KeyableCountryWithPrimaryAndAlternateKey second = KeyableCountryWithPrimaryAndAlternateKey.builder()
+                .name("France")
+                .iso3("FRA")
+                .build();
+
+        Assert.assertSame(second, KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "France"));
+        Assert.assertEquals(1, KeyManager.getInstance().countByKeyableClass(KeyableCountryWithPrimaryAndAlternateKey.class));
+    }
+
+    /**
+     * Ensure a {@link KeyException} is raised when registering an already used value of a unique key, and that the
+     * keyable holding it is left untouched.
+     */
+    @Test
+    public void expectFailureToRegisterDuplicateUniqueKeyValue()
+    {
+        KeyableCountryWithPrimaryAndAlternateKey country = KeyableCountryWithPrimaryAndAlternateKey.builder()
+                .name("France")
+                .iso3("FRA")
+                .build();
+
+        try
+        {
+            KeyableCountryWithPrimaryAndAlternateKey.builder()
+                    .name("Duplicate")
+                    .iso3("FRA")
+                    .build();
+            Assert.fail("A key exception was expected!");
+        }
+        catch (KeyException e)
+        {
+            Assert.assertSame(country, KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "iso3", "FRA"));
+            Assert.assertNull(KeyManager.getInstance().getOne(KeyableCountryWithPrimaryAndAlternateKey.class, "name", "Duplicate"));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.indexed.model;
+
+import com.ressec.hemajoo.foundation.common.annotation.Internal;
+import com.ressec.hemajoo.foundation.common.entity.keyable.IndexType;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Indexed;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.PrimaryKey;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A keyable entity test class declaring secondary indexes.
+ * <br><br>
+ * This class is used for testing purpose only!
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Internal
+public class KeyableOrder extends Keyable
+{
+    /**
+     * Enumeration of the order statuses.
+     */
+    public enum Status
+    {
+        PENDING,
+        SHIPPED,
+        DELIVERED
+    }
+
+    /**
+     * Order identifier (primary key).
+     */
+    @PrimaryKey(name = "id")
+    @Getter
+    private long id;
+
+    /**
+     * Order status (bitmap index).
+     */
+    @Indexed(type = IndexType.BITMAP)
+    @Getter
+    private Status status;
+
+    /**
+     * Order category (hash index).
+     */
+    @Indexed(name = "category")
+    @Getter
+    private String productCategory;
+
+    /**
+     * Ordered quantity (sorted index).
+     */
+    @Indexed(type = IndexType.SORTED)
+    @Getter
+    private int quantity;
+
+    /**
+     * Avoid direct instantiation of entity.
+     */
+    private KeyableOrder()
+    {
+        // Empty.
+    }
+
+    /**
+     * Creates a new order.
+     * @param id Order identifier.
+     * @param status Order status.
+     * @param productCategory Order category.
+     * @param quantity Ordered quantity.
+     */
+    @Builder
+    public KeyableOrder(final long id, final Status status, final String productCategory, final int quantity)
+    {
+        this.id = id;
+        this.status = status;
+        this.productCategory = productCategory;
+        this.quantity = quantity;
+
+        super.register();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.indexed.model;
+
+import com.ressec.hemajoo.foundation.common.annotation.Internal;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Indexed;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.PrimaryKey;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A keyable entity test class declaring a secondary index with the same name as its primary key.
+ * <br><br>
+ * This class is used for testing purpose only!
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Internal
+public class KeyableOrderWithDuplicateIndex extends Keyable
+{
+    /**
+     * Order identifier (primary key).
+     */
+    @PrimaryKey(name = "id")
+    @Getter
+    private long id;
+
+    /**
+     * Order reference (secondary index named as the primary key).
+     */
+    @Indexed(name = "id")
+    @Getter
+    private String reference;
+
+    /**
+     * Avoid direct instantiation of entity.
+     */
+    private KeyableOrderWithDuplicateIndex()
+    {
+        // Empty.
+    }
+
+    /**
+     * Creates a new order.
+     * @param id Order identifier.
+     * @param reference Order reference.
+     */
+    @Builder
+    public KeyableOrderWithDuplicateIndex(final long id, final String reference)
+    {
+        this.id = id;
+        this.reference = reference;
+
+        super.register();
+    }
+}
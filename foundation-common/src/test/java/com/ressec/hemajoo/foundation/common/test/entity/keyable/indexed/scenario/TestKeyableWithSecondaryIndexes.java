@@ -0,0 +1,184 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.indexed.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.IKeyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.indexed.model.KeyableOrder;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.indexed.model.KeyableOrderWithDuplicateIndex;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.stream.Collectors;
+
+/**
+ * Test case for the secondary indexes declared on non key fields.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableWithSecondaryIndexes
+{
+    /**
+     * Number of registered entities.
+     */
+    private static final int ENTITIES = 3000;
+
+    /**
+     * Number of distinct categories.
+     */
+    private static final int CATEGORIES = 10;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Registers the test orders (one order out of ten has no category).
+     */
+    private void registerOrders()
+    {
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            KeyableOrder.builder()
+                    .id(i + 1)
+                    .status(KeyableOrder.Status.values()[i % KeyableOrder.Status.values().length])
+                    .productCategory(i % 10 == 9 ? null : "Category-" + i % CATEGORIES)
+                    .quantity(i % 100)
+                    .build();
+        }
+    }
+
+    /**
+     * Ensure keyables are retrieved through their secondary indexes.
+     */
+    @Test
+    public void expectSuccessToRetrieveBySecondaryIndexes()
+    {
+        registerOrders();
+
+        Assert.assertEquals(ENTITIES / 3, KeyManager.getInstance().get(KeyableOrder.class, "status", KeyableOrder.Status.SHIPPED).size());
+        Assert.assertEquals(ENTITIES / CATEGORIES, KeyManager.getInstance().get(KeyableOrder.class, "category", "Category-1").size());
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableOrder.class, "category", "Category-9").isEmpty());
+        Assert.assertEquals(ENTITIES - ENTITIES / 10, KeyManager.getInstance().countByKeyName(KeyableOrder.class, "category"));
+        Assert.assertEquals(ENTITIES / 100, KeyManager.getInstance().get(KeyableOrder.class, "quantity", 0).size());
+        Assert.assertEquals(2 * ENTITIES / 100, KeyManager.getInstance().range(KeyableOrder.class, "quantity", 98, 150).size());
+
+        for (IKeyable keyable : KeyManager.getInstance().get(KeyableOrder.class, "status", KeyableOrder.Status.PENDING))
+        {
+            Assert.assertEquals(KeyableOrder.Status.PENDING, ((KeyableOrder) keyable).getStatus());
+        }
+    }
+
+    /**
+     * Ensure the secondary indexes are queried by stream.
+     */
+    @Test
+    public void expectSuccessToStreamSecondaryIndexes()
+    {
+        registerOrders();
+
+        Assert.assertEquals(2 * ENTITIES / 3, KeyManager.getInstance()
+                .stream(KeyableOrder.class, "status", (KeyableOrder.Status status) -> status != KeyableOrder.Status.DELIVERED)
+                .collect(Collectors.toList())
+                .size());
+    }
+
+    /**
+     * Ensure the secondary indexes are maintained along unregistrations.
+     */
+    @Test
+    public void expectSuccessToMaintainSecondaryIndexes()
+    {
+        registerOrders();
+
+        for (IKeyable keyable : KeyManager.getInstance().get(KeyableOrder.class, "status", KeyableOrder.Status.SHIPPED))
+        {
+            KeyManager.getInstance().unregister(keyable);
+        }
+
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableOrder.class, "status", KeyableOrder.Status.SHIPPED).isEmpty());
+        Assert.assertEquals(2 * ENTITIES / 3, KeyManager.getInstance().countByKeyName(KeyableOrder.class, "status"));
+
+        KeyableOrder order = KeyableOrder.builder()
+                .id(ENTITIES + 1)
+                .status(KeyableOrder.Status.SHIPPED)
+                .build();
+
+        Assert.assertSame(order, KeyManager.getInstance().getOne(KeyableOrder.class, "status", KeyableOrder.Status.SHIPPED));
+        Assert.assertEquals(1, KeyManager.getInstance().get(KeyableOrder.class, "status", KeyableOrder.Status.SHIPPED).size());
+        Assert.assertEquals(ENTITIES / 3, KeyManager.getInstance().get(KeyableOrder.class, "status", KeyableOrder.Status.PENDING).size());
+    }
+
+    /**
+     * Ensure the secondary indexes are not keys of the keyable entities.
+     */
+    @Test
+    public void expectSecondaryIndexesNotToBeKeys()
+    {
+        KeyableOrder order = KeyableOrder.builder()
+                .id(1)
+                .status(KeyableOrder.Status.PENDING)
+                .build();
+
+        Assert.assertEquals(1, order.getKeyList().size());
+        Assert.assertEquals(1, order.getAnnotationKeys().size());
+        Assert.assertNull(order.getKey("status"));
+        Assert.assertNull(order.getKey("category"));
+        Assert.assertNull(order.getAnnotationKey("quantity"));
+    }
+
+    /**
+     * Ensure a {@link KeyException} is raised when registering a keyable declaring a secondary index with the same name
+     * as one of its keys, even if its structure has been verified at compile time.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRegisterSecondaryIndexNamedAsKey()
+    {
+        KeyableOrderWithDuplicateIndex.builder()
+                .id(1)
+                .reference("REF-1")
+                .build();
+    }
+
+    /**
+     * Ensure keyables are retrieved through their secondary indexes in concurrent and off-heap mode.
+     */
+    @Test
+    public void expectSuccessToRetrieveBySecondaryIndexesInConcurrentMode()
+    {
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .concurrent(true)
+                .offHeap(true)
+                .build());
+
+        registerOrders();
+
+        Assert.assertEquals(ENTITIES / 3, KeyManager.getInstance().get(KeyableOrder.class, "status", KeyableOrder.Status.DELIVERED).size());
+        Assert.assertEquals(ENTITIES / CATEGORIES, KeyManager.getInstance().get(KeyableOrder.class, "category", "Category-2").size());
+    }
+}
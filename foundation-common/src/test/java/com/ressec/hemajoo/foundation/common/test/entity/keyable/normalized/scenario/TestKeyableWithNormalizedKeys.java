@@ -0,0 +1,131 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.normalized.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyNormalization;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.normalized.model.KeyableCustomer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Test case for the keyable entities declaring normalized keys.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableWithNormalizedKeys
+{
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Registers the test customers.
+     */
+    private void registerCustomers()
+    {
+        KeyableCustomer.builder().email("John.Doe@Example.com").city("Besançon").build();
+        KeyableCustomer.builder().email("jane.doe@example.com").city("BESANCON").build();
+        KeyableCustomer.builder().email("Marie@Example.com").city("Évry").build();
+    }
+
+    /**
+     * Ensure the key values are normalized.
+     */
+    @Test
+    public void expectSuccessToNormalizeKeyValues()
+    {
+        Assert.assertEquals("john.doe@example.com", KeyNormalization.CASE_INSENSITIVE.normalize("  John.Doe@Example.COM "));
+        Assert.assertEquals("besancon", KeyNormalization.ACCENT_INSENSITIVE.normalize(" Besançon"));
+        Assert.assertEquals("Évry", KeyNormalization.NONE.normalize("Évry"));
+        Assert.assertEquals(1L, KeyNormalization.CASE_INSENSITIVE.normalize(1L));
+    }
+
+    /**
+     * Ensure keyables are retrieved by a key value differing only by the characters folded by the normalization,
+     * their original key values being preserved.
+     */
+    @Test
+    public void expectSuccessToRetrieveByNormalizedKeyValue()
+    {
+        registerCustomers();
+
+        KeyableCustomer customer = (KeyableCustomer) KeyManager.getInstance().getOne(KeyableCustomer.class, "email", " JOHN.DOE@example.com ");
+
+        Assert.assertNotNull(customer);
+        Assert.assertEquals("John.Doe@Example.com", customer.getEmail());
+        Assert.assertTrue(KeyManager.getInstance().isKeyValueExist(KeyableCustomer.class, "email", "marie@example.com"));
+        Assert.assertEquals(2, KeyManager.getInstance().get(KeyableCustomer.class, "city", "besancon").size());
+        Assert.assertEquals(1, KeyManager.getInstance().get(KeyableCustomer.class, "city", "EVRY").size());
+        Assert.assertEquals(2, KeyManager.getInstance().findByPrefix(KeyableCustomer.class, "city", "Bes", Integer.MAX_VALUE).size());
+        Assert.assertEquals(1, KeyManager.getInstance().findByPrefix(KeyableCustomer.class, "city", "ev", Integer.MAX_VALUE).size());
+    }
+
+    /**
+     * Ensure the normalized key values are removed on unregistration.
+     */
+    @Test
+    public void expectSuccessToUnregisterNormalizedKeyValues()
+    {
+        registerCustomers();
+
+        KeyManager.getInstance().unregister(KeyManager.getInstance().getOne(KeyableCustomer.class, "email", "marie@example.com"));
+
+        Assert.assertFalse(KeyManager.getInstance().isKeyValueExist(KeyableCustomer.class, "email", "Marie@Example.com"));
+        Assert.assertTrue(KeyManager.getInstance().get(KeyableCustomer.class, "city", "Évry").isEmpty());
+        Assert.assertEquals(2, KeyManager.getInstance().countByKeyableClass(KeyableCustomer.class));
+    }
+
+    /**
+     * Ensure normalized keys are also supported by off-heap key indexes.
+     */
+    @Test
+    public void expectSuccessToRetrieveByNormalizedKeyValueOffHeap()
+    {
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .offHeap(true)
+                .build());
+
+        registerCustomers();
+
+        Assert.assertNotNull(KeyManager.getInstance().getOne(KeyableCustomer.class, "email", "MARIE@EXAMPLE.COM"));
+        Assert.assertEquals(2, KeyManager.getInstance().get(KeyableCustomer.class, "city", "Besancon").size());
+    }
+
+    /**
+     * Ensure a {@link KeyException} is raised when registering a key value only differing from an already used value
+     * of a unique key by the characters folded by the normalization.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRegisterDuplicateNormalizedKeyValue()
+    {
+        registerCustomers();
+
+        KeyableCustomer.builder().email("JANE.DOE@EXAMPLE.COM ").build();
+    }
+}
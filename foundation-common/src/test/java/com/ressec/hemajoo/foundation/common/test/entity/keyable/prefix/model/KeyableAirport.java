@@ -0,0 +1,69 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.prefix.model;
+
+import com.ressec.hemajoo.foundation.common.annotation.Internal;
+import com.ressec.hemajoo.foundation.common.entity.keyable.AlternateKey;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.PrimaryKey;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A keyable entity test class declaring keys searched by prefix.
+ * <br><br>
+ * This class is used for testing purpose only!
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Internal
+public class KeyableAirport extends Keyable
+{
+    /**
+     * Airport code (primary key searched by prefix).
+     */
+    @PrimaryKey(name = "code", prefix = true)
+    @Getter
+    private String code;
+
+    /**
+     * Airport city (non unique key searched by prefix).
+     */
+    @AlternateKey(name = "city", unique = false, mandatory = false, prefix = true)
+    @Getter
+    private String city;
+
+    /**
+     * Avoid direct instantiation of entity.
+     */
+    private KeyableAirport()
+    {
+        // Empty.
+    }
+
+    /**
+     * Creates a new airport.
+     * @param code Airport code.
+     * @param city Airport city.
+     */
+    @Builder
+    public KeyableAirport(final String code, final String city)
+    {
+        this.code = code;
+        this.city = city;
+
+        super.register();
+    }
+}
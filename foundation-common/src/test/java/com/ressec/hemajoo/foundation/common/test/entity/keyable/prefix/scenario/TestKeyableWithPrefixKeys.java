@@ -0,0 +1,172 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.prefix.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.IKeyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.prefix.model.KeyableAirport;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Test case for the queries on keys searched by prefix.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableWithPrefixKeys
+{
+    /**
+     * Airport codes and cities.
+     */
+    private static final String[][] AIRPORTS = {
+            { "CDG", "Paris" },
+            { "ORY", "Paris" },
+            { "LHR", "London" },
+            { "LGW", "London" },
+            { "LCY", "London" },
+            { "LAX", "Los Angeles" },
+            { "LAS", "Las Vegas" },
+            { "JFK", "New York" },
+            { "EWR", "Newark" },
+            { "NCE", "Nice" },
+    };
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Registers the test airports.
+     */
+    private void registerAirports()
+    {
+        for (String[] airport : AIRPORTS)
+        {
+            KeyableAirport.builder()
+                    .code(airport[0])
+                    .city(airport[1])
+                    .build();
+        }
+    }
+
+    /**
+     * Ensure keyables are retrieved by prefix, in lexicographic order of their key values.
+     */
+    @Test
+    public void expectSuccessToRetrieveByPrefix()
+    {
+        registerAirports();
+
+        List<IKeyable> list = KeyManager.getInstance().findByPrefix(KeyableAirport.class, "code", "L", Integer.MAX_VALUE);
+
+        Assert.assertEquals(5, list.size());
+        Assert.assertEquals("LAS", ((KeyableAirport) list.get(0)).getCode());
+        Assert.assertEquals("LAX", ((KeyableAirport) list.get(1)).getCode());
+        Assert.assertEquals("LCY", ((KeyableAirport) list.get(2)).getCode());
+        Assert.assertEquals("LGW", ((KeyableAirport) list.get(3)).getCode());
+        Assert.assertEquals("LHR", ((KeyableAirport) list.get(4)).getCode());
+
+        Assert.assertEquals(4, KeyManager.getInstance().findByPrefix(KeyableAirport.class, "city", "Lo", Integer.MAX_VALUE).size());
+        Assert.assertEquals(3, KeyManager.getInstance().findByPrefix(KeyableAirport.class, "city", "N", Integer.MAX_VALUE).size());
+        Assert.assertEquals(2, KeyManager.getInstance().findByPrefix(KeyableAirport.class, "city", "New", Integer.MAX_VALUE).size());
+        Assert.assertEquals(1, KeyManager.getInstance().findByPrefix(KeyableAirport.class, "city", "Newark", Integer.MAX_VALUE).size());
+        Assert.assertEquals(AIRPORTS.length, KeyManager.getInstance().findByPrefix(KeyableAirport.class, "code", "", Integer.MAX_VALUE).size());
+        Assert.assertTrue(KeyManager.getInstance().findByPrefix(KeyableAirport.class, "code", "X", Integer.MAX_VALUE).isEmpty());
+        Assert.assertTrue(KeyManager.getInstance().findByPrefix(KeyableAirport.class, "city", "Newarks", Integer.MAX_VALUE).isEmpty());
+    }
+
+    /**
+     * Ensure the number of keyables retrieved by prefix is limited.
+     */
+    @Test
+    public void expectSuccessToRetrieveByPrefixWithLimit()
+    {
+        registerAirports();
+
+        List<IKeyable> list = KeyManager.getInstance().findByPrefix(KeyableAirport.class, "code", "L", 2);
+
+        Assert.assertEquals(2, list.size());
+        Assert.assertEquals("LAS", ((KeyableAirport) list.get(0)).getCode());
+        Assert.assertEquals("LAX", ((KeyableAirport) list.get(1)).getCode());
+        Assert.assertTrue(KeyManager.getInstance().findByPrefix(KeyableAirport.class, "code", "L", 0).isEmpty());
+    }
+
+    /**
+     * Ensure the radix tree is maintained along unregistrations and still supports exact match lookups.
+     */
+    @Test
+    public void expectSuccessToMaintainRadixTree()
+    {
+        registerAirports();
+
+        KeyManager.getInstance().unregister(KeyManager.getInstance().getOne(KeyableAirport.class, "code", "LAX"));
+        KeyManager.getInstance().unregister(KeyManager.getInstance().getOne(KeyableAirport.class, "code", "NCE"));
+
+        Assert.assertNull(KeyManager.getInstance().getOne(KeyableAirport.class, "code", "LAX"));
+        Assert.assertNotNull(KeyManager.getInstance().getOne(KeyableAirport.class, "code", "LAS"));
+        Assert.assertEquals(2, KeyManager.getInstance().get(KeyableAirport.class, "city", "Paris").size());
+        Assert.assertEquals(4, KeyManager.getInstance().findByPrefix(KeyableAirport.class, "code", "L", Integer.MAX_VALUE).size());
+        Assert.assertEquals(2, KeyManager.getInstance().findByPrefix(KeyableAirport.class, "city", "N", Integer.MAX_VALUE).size());
+        Assert.assertEquals(AIRPORTS.length - 2, KeyManager.getInstance().countByKeyableClass(KeyableAirport.class));
+
+        KeyableAirport.builder()
+                .code("LA")
+                .city("Lagos")
+                .build();
+
+        Assert.assertEquals(2, KeyManager.getInstance().findByPrefix(KeyableAirport.class, "code", "LA", Integer.MAX_VALUE).size());
+        Assert.assertEquals("LA", ((KeyableAirport) KeyManager.getInstance().findByPrefix(KeyableAirport.class, "code", "L", 1).get(0)).getCode());
+    }
+
+    /**
+     * Ensure keyables can be retrieved by prefix in concurrent mode.
+     */
+    @Test
+    public void expectSuccessToRetrieveByPrefixInConcurrentMode()
+    {
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .concurrent(true)
+                .build());
+
+        registerAirports();
+
+        Assert.assertEquals(5, KeyManager.getInstance().findByPrefix(KeyableAirport.class, "code", "L", Integer.MAX_VALUE).size());
+        Assert.assertEquals(2, KeyManager.getInstance().get(KeyableAirport.class, "city", "Paris").size());
+    }
+
+    /**
+     * Ensure a {@link KeyException} is raised when searching by prefix a key that cannot be searched by prefix.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRetrieveByPrefixOfUnknownKey()
+    {
+        KeyManager.getInstance().findByPrefix(KeyableAirport.class, "unknown", "L", Integer.MAX_VALUE);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.scope.model;
+
+import com.ressec.hemajoo.foundation.common.annotation.Internal;
+import com.ressec.hemajoo.foundation.common.entity.keyable.AlternateKey;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.PrimaryKey;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A keyable entity test class registered against a key manager scope.
+ * <br><br>
+ * This class is used for testing purpose only!
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Internal
+public class KeyableSession extends Keyable
+{
+    /**
+     * Session identifier (primary key).
+     */
+    @PrimaryKey(name = "id")
+    @Getter
+    private String id;
+
+    /**
+     * Session user (non unique key).
+     */
+    @AlternateKey(name = "user", unique = false, mandatory = false)
+    @Getter
+    private String user;
+
+    /**
+     * Session sequence number (generated key).
+     */
+    @AlternateKey(name = "sequence", mandatory = false, auto = true)
+    @Getter
+    private long sequence;
+
+    /**
+     * Avoid direct instantiation of entity.
+     */
+    private KeyableSession()
+    {
+        // Empty.
+    }
+
+    /**
+     * Creates a new session.
+     * @param id Session identifier.
+     * @param user Session user.
+     * @param scope Key manager the session is registered against (default key manager if null).
+     */
+    @Builder
+    public KeyableSession(final String id, final String user, final KeyManager scope)
+    {
+        this.id = id;
+        this.user = user;
+
+        super.register(scope != null ? scope : KeyManager.getInstance());
+    }
+}
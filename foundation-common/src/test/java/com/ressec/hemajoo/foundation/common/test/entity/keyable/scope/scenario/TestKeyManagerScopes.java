@@ -0,0 +1,237 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.scope.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.scope.model.KeyableSession;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test case for the keyable entities registered against independent key manager scopes.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyManagerScopes
+{
+    /**
+     * Number of registered entities.
+     */
+    private static final int ENTITIES = 1000;
+
+    /**
+     * Number of threads.
+     */
+    private static final int THREADS = 4;
+
+    /**
+     * Key manager scope.
+     */
+    private KeyManager scope;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+
+        scope = KeyManager.create(KeyManagerConfiguration.builder()
+                .concurrent(true)
+                .expectedSize(ENTITIES)
+                .build());
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+
+        scope.dispose();
+    }
+
+    /**
+     * Ensure keyables registered against a scope are isolated from the default scope.
+     */
+    @Test
+    public void expectSuccessToIsolateScopes()
+    {
+        KeyableSession global = KeyableSession.builder().id("S1").user("john").build();
+        KeyableSession local = KeyableSession.builder().id("S1").user("jane").scope(scope).build();
+
+        Assert.assertSame(KeyManager.getInstance(), global.getKeyManager());
+        Assert.assertSame(scope, local.getKeyManager());
+
+        Assert.assertSame(global, KeyManager.getInstance().getOne(KeyableSession.class, "id", "S1"));
+        Assert.assertSame(local, scope.getOne(KeyableSession.class, "id", "S1"));
+        Assert.assertTrue(scope.get(KeyableSession.class, "user", "john").isEmpty());
+
+        // Queries issued by a keyable are issued against its scope.
+        Assert.assertSame(local, local.get(KeyableSession.class, "user", "jane"));
+        Assert.assertNull(global.get(KeyableSession.class, "user", "jane"));
+
+        // Static queries are issued against the default scope unless a scope is given.
+        Assert.assertSame(global, Keyable.retrieve(KeyableSession.class, "id", "S1"));
+        Assert.assertSame(local, Keyable.retrieve(scope, KeyableSession.class, "id", "S1"));
+        Assert.assertTrue(Keyable.query(KeyableSession.class, "user", "jane").isEmpty());
+        Assert.assertEquals(1, Keyable.query(scope, KeyableSession.class, "user", "jane").size());
+        Assert.assertFalse(Keyable.exists(scope, KeyableSession.class, "user", "john"));
+        Assert.assertEquals(1, Keyable.retrieveAll(scope, KeyableSession.class, "id", Collections.singletonList("S1")).size());
+    }
+
+    /**
+     * Ensure each scope has its own configuration and key value generators.
+     */
+    @Test
+    public void expectSuccessToConfigureScopesIndependently()
+    {
+        Assert.assertTrue(scope.getConfiguration().isConcurrent());
+        Assert.assertFalse(KeyManager.getInstance().getConfiguration().isConcurrent());
+
+        KeyableSession global = KeyableSession.builder().id("S1").build();
+        KeyableSession local = KeyableSession.builder().id("S1").scope(scope).build();
+
+        Assert.assertEquals(global.getSequence(), local.getSequence());
+
+        for (int i = 2; i <= ENTITIES; i++)
+        {
+            KeyableSession.builder().id("S" + i).user("user-" + i % 10).scope(scope).build();
+        }
+
+        Assert.assertEquals(ENTITIES, scope.countByKeyableClass(KeyableSession.class));
+        Assert.assertEquals(1, KeyManager.getInstance().countByKeyableClass(KeyableSession.class));
+    }
+
+    /**
+     * Ensure the uniqueness of the unique keys is enforced within a scope.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRegisterDuplicateKeyValueInScope()
+    {
+        KeyableSession.builder().id("S1").scope(scope).build();
+        KeyableSession.builder().id("S1").scope(scope).build();
+    }
+
+    /**
+     * Ensure a disposed scope drops its keyables and rejects new registrations.
+     */
+    @Test(expected = KeyManagerException.class)
+    public void expectFailureToRegisterInDisposedScope()
+    {
+        KeyableSession.builder().id("S1").scope(scope).build();
+        KeyableSession.builder().id("S1").build();
+
+        scope.dispose();
+
+        Assert.assertTrue(scope.isDisposed());
+        Assert.assertEquals(0, scope.countByKeyableClass(KeyableSession.class));
+        Assert.assertEquals(1, KeyManager.getInstance().countByKeyableClass(KeyableSession.class));
+
+        KeyableSession.builder().id("S2").scope(scope).build();
+    }
+
+    /**
+     * Ensure keyables are bound back to the default scope once unregistered from their scope or once their scope is
+     * disposed.
+     */
+    @Test
+    public void expectSuccessToUnbindOnUnregistrationAndDisposal()
+    {
+        KeyableSession unregistered = KeyableSession.builder().id("S1").scope(scope).build();
+        KeyableSession disposed = KeyableSession.builder().id("S2").scope(scope).build();
+
+        scope.unregister(unregistered);
+
+        Assert.assertSame(KeyManager.getInstance(), unregistered.getKeyManager());
+        Assert.assertSame(scope, disposed.getKeyManager());
+
+        scope.dispose();
+
+        Assert.assertSame(KeyManager.getInstance(), disposed.getKeyManager());
+
+        // Queries of the keyable bound to the disposed scope are issued against the default scope.
+        Assert.assertNull(disposed.get(KeyableSession.class, "id", "S2"));
+    }
+
+    /**
+     * Ensure no keyable registered concurrently with the disposal of its scope remains registered against (nor bound
+     * to) the disposed scope.
+     */
+    @Test
+    public void expectSuccessToDisposeScopeWhileRegistering() throws Exception
+    {
+        List<KeyableSession> sessions = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch started = new CountDownLatch(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++)
+        {
+            int thread = t;
+            futures.add(executor.submit(() ->
+            {
+                started.countDown();
+                try
+                {
+                    for (int i = 0; i < ENTITIES; i++)
+                    {
+                        sessions.add(KeyableSession.builder().id("S" + thread + "-" + i).scope(scope).build());
+                    }
+                }
+                catch (KeyManagerException e)
+                {
+                    // Expected once the scope is disposed.
+                }
+            }));
+        }
+
+        started.await();
+        scope.dispose();
+
+        for (Future<?> future : futures)
+        {
+            future.get();
+        }
+
+        executor.shutdown();
+
+        Assert.assertEquals(0, scope.countByKeyableClass(KeyableSession.class));
+        for (KeyableSession session : sessions)
+        {
+            Assert.assertSame(KeyManager.getInstance(), session.getKeyManager());
+        }
+    }
+
+    /**
+     * Ensure the default scope cannot be disposed.
+     */
+    @Test(expected = KeyManagerException.class)
+    public void expectFailureToDisposeDefaultScope()
+    {
+        KeyManager.getInstance().dispose();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.snapshot.model;
+
+import com.ressec.hemajoo.foundation.common.annotation.Internal;
+import com.ressec.hemajoo.foundation.common.entity.keyable.AlternateKey;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.PrimaryKey;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A keyable entity test class saved to and restored from snapshots.
+ * <br><br>
+ * This class is used for testing purpose only!
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Internal
+public class KeyableCurrency extends Keyable
+{
+    /**
+     * Currency code (primary key).
+     */
+    @PrimaryKey(name = "code")
+    @Getter
+    private String code;
+
+    /**
+     * Currency numeric code (unique key).
+     */
+    @AlternateKey(name = "numeric", mandatory = false)
+    @Getter
+    private int numeric;
+
+    /**
+     * Currency identifier (generated key).
+     */
+    @AlternateKey(name = "id", mandatory = false, auto = true)
+    @Getter
+    private long id;
+
+    /**
+     * Currency region (non unique key).
+     */
+    @AlternateKey(name = "region", unique = false, mandatory = false)
+    @Getter
+    private String region;
+
+    /**
+     * Currency reference (unique key).
+     */
+    @AlternateKey(name = "reference", mandatory = false)
+    @Getter
+    private UUID reference;
+
+    /**
+     * Avoid direct instantiation of entity.
+     */
+    private KeyableCurrency()
+    {
+        // Empty.
+    }
+
+    /**
+     * Creates a new currency.
+     * @param code Currency code.
+     * @param numeric Currency numeric code.
+     * @param region Currency region.
+     * @param reference Currency reference.
+     */
+    @Builder
+    public KeyableCurrency(final String code, final int numeric, final String region, final UUID reference)
+    {
+        this.code = code;
+        this.numeric = numeric;
+        this.region = region;
+        this.reference = reference;
+
+        super.register();
+    }
+
+    /**
+     * Creates a (non registered) currency from its key values, as restored from a snapshot.
+     * @param keys Key values by key name.
+     * @return Currency.
+     */
+    public static KeyableCurrency restore(final @NonNull Map<String, Object> keys)
+    {
+        KeyableCurrency currency = new KeyableCurrency();
+
+        currency.code = (String) keys.get("code");
+        currency.numeric = (Integer) keys.get("numeric");
+        currency.id = (Long) keys.get("id");
+        currency.region = (String) keys.get("region");
+        currency.reference = (UUID) keys.get("reference");
+
+        return currency;
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.snapshot.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyBatchException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeySnapshot;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.scope.model.KeyableSession;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.snapshot.model.KeyableCurrency;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Test case for the snapshots of the keys of the keyable entities.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeySnapshot
+{
+    /**
+     * Number of registered entities.
+     */
+    private static final int ENTITIES = 1000;
+
+    /**
+     * Number of distinct regions.
+     */
+    private static final int REGIONS = 10;
+
+    /**
+     * Snapshot file.
+     */
+    private Path file;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+
+        file = Files.createTempFile("keyable-", ".snapshot");
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Registers the test currencies and saves them to the snapshot file.
+     */
+    private void saveCurrencies()
+    {
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            KeyableCurrency.builder()
+                    .code("CUR-" + i)
+                    .numeric(i + 1)
+                    .region("Region-" + i % REGIONS)
+                    .reference(UUID.nameUUIDFromBytes(Integer.toString(i).getBytes()))
+                    .build();
+        }
+
+        Assert.assertEquals(ENTITIES, KeySnapshot.builder().build().save(KeyableCurrency.class, file));
+
+        KeyManager.getInstance().unregisterAll();
+    }
+
+    /**
+     * Ensure the keyables saved to a snapshot are restored with all their keys.
+     */
+    @Test
+    public void expectSuccessToRestoreSnapshot()
+    {
+        saveCurrencies();
+
+        Assert.assertEquals(ENTITIES, KeySnapshot.builder().build().load(KeyableCurrency.class, file, KeyableCurrency::restore));
+        Assert.assertEquals(ENTITIES, KeyManager.getInstance().countByKeyableClass(KeyableCurrency.class));
+
+        for (int i = 0; i < ENTITIES; i += 7)
+        {
+            KeyableCurrency currency = (KeyableCurrency) KeyManager.getInstance().getOne(KeyableCurrency.class, "code", "CUR-" + i);
+
+            Assert.assertNotNull(currency);
+            Assert.assertEquals(i + 1, currency.getNumeric());
+            Assert.assertSame(currency, KeyManager.getInstance().getOne(KeyableCurrency.class, "numeric", i + 1));
+            Assert.assertSame(currency, KeyManager.getInstance().getOne(KeyableCurrency.class, "id", currency.getId()));
+            Assert.assertSame(currency, KeyManager.getInstance().getOne(KeyableCurrency.class, "reference", UUID.nameUUIDFromBytes(Integer.toString(i).getBytes())));
+        }
+
+        Assert.assertEquals(ENTITIES / REGIONS, KeyManager.getInstance().get(KeyableCurrency.class, "region", "Region-1").size());
+    }
+
+    /**
+     * Ensure the generated key values resume after the latest generated value saved to the snapshot.
+     */
+    @Test
+    public void expectSuccessToResumeGeneratedKeyValues()
+    {
+        saveCurrencies();
+
+        KeySnapshot.builder().build().load(KeyableCurrency.class, file, KeyableCurrency::restore);
+
+        KeyableCurrency currency = KeyableCurrency.builder().code("NEW").numeric(ENTITIES + 1).build();
+
+        Assert.assertEquals(ENTITIES + 1, currency.getId());
+    }
+
+    /**
+     * Ensure a snapshot can be restored into a key manager scope, the restored keyables being bound to the scope.
+     */
+    @Test
+    public void expectSuccessToRestoreSnapshotIntoScope()
+    {
+        saveCurrencies();
+
+        KeyManager scope = KeyManager.create(KeyManagerConfiguration.builder()
+                .concurrent(true)
+                .build());
+        try
+        {
+            KeySnapshot.builder().manager(scope).build().load(KeyableCurrency.class, file, KeyableCurrency::restore);
+
+            KeyableCurrency currency = (KeyableCurrency) scope.getOne(KeyableCurrency.class, "code", "CUR-1");
+
+            Assert.assertNotNull(currency);
+            Assert.assertSame(scope, currency.getKeyManager());
+            Assert.assertEquals(0, KeyManager.getInstance().countByKeyableClass(KeyableCurrency.class));
+            Assert.assertEquals(ENTITIES, scope.countByKeyableClass(KeyableCurrency.class));
+        }
+        finally
+        {
+            scope.dispose();
+        }
+    }
+
+    /**
+     * Ensure restoring keyables already registered reports all the rejected keyables.
+     */
+    @Test(expected = KeyBatchException.class)
+    public void expectFailureToRestoreSnapshotTwice()
+    {
+        saveCurrencies();
+
+        KeySnapshot.builder().build().load(KeyableCurrency.class, file, KeyableCurrency::restore);
+        KeySnapshot.builder().build().load(KeyableCurrency.class, file, KeyableCurrency::restore);
+    }
+
+    /**
+     * Ensure a snapshot cannot be restored for another keyable class.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRestoreSnapshotOfAnotherClass()
+    {
+        saveCurrencies();
+
+        KeySnapshot.builder().build().load(KeyableSession.class, file, keys -> null);
+    }
+
+    /**
+     * Ensure a truncated snapshot cannot be restored.
+     * @throws Exception Thrown in case the snapshot file cannot be truncated.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRestoreTruncatedSnapshot() throws Exception
+    {
+        saveCurrencies();
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+
+        KeySnapshot.builder().build().load(KeyableCurrency.class, file, KeyableCurrency::restore);
+    }
+
+    /**
+     * Ensure saving a snapshot over an existing one leaves no temporary file behind.
+     * @throws Exception Thrown in case the directory of the snapshot file cannot be listed.
+     */
+    @Test
+    public void expectSuccessToReplaceSnapshotAtomically() throws Exception
+    {
+        saveCurrencies();
+        saveCurrencies();
+
+        try (Stream<Path> files = Files.list(file.toAbsolutePath().getParent()))
+        {
+            Assert.assertFalse(files.anyMatch(path -> path.getFileName().toString().startsWith(file.getFileName().toString()) && !path.equals(file)));
+        }
+
+        Assert.assertEquals(ENTITIES, KeySnapshot.builder().build().load(KeyableCurrency.class, file, KeyableCurrency::restore));
+    }
+
+    /**
+     * Ensure a snapshot whose key types do not match the keys of the keyable class cannot be restored.
+     * @throws Exception Thrown in case the snapshot file cannot be rewritten.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRestoreSnapshotOfAnotherKeyType() throws Exception
+    {
+        saveCurrencies();
+
+        // Same length type name, so that the rest of the snapshot remains readable.
+        rewrite(bytes -> replace(bytes, new byte[] { 0, 0, 0, 3, 'i', 'n', 't' }, new byte[] { 0, 0, 0, 3, 'l', 'n', 'g' }));
+
+        KeySnapshot.builder().build().load(KeyableCurrency.class, file, KeyableCurrency::restore);
+    }
+
+    /**
+     * Ensure a snapshot holding a corrupted string length cannot be restored.
+     * @throws Exception Thrown in case the snapshot file cannot be rewritten.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRestoreSnapshotWithCorruptedStringLength() throws Exception
+    {
+        saveCurrencies();
+
+        // Length of the keyable class name, following the magic number and the version.
+        rewrite(bytes -> ByteBuffer.wrap(bytes).putInt(8, Integer.MAX_VALUE));
+
+        KeySnapshot.builder().build().load(KeyableCurrency.class, file, KeyableCurrency::restore);
+    }
+
+    /**
+     * Ensure a snapshot holding a corrupted number of rows cannot be restored.
+     * @throws Exception Thrown in case the snapshot file cannot be rewritten.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRestoreSnapshotWithCorruptedRowCount() throws Exception
+    {
+        saveCurrencies();
+
+        rewrite(bytes -> {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+            // Skips the magic number, the version, the keyable class name and the keys.
+            buffer.position(8);
+            skipString(buffer);
+            for (int keys = buffer.getInt(); keys > 0; keys--)
+            {
+                skipString(buffer);
+                skipString(buffer);
+                buffer.getLong();
+            }
+
+            buffer.putInt(buffer.position(), Integer.MAX_VALUE);
+        });
+
+        KeySnapshot.builder().build().load(KeyableCurrency.class, file, KeyableCurrency::restore);
+    }
+
+    /**
+     * Rewrites the snapshot file.
+     * @param transformation Transformation of the bytes of the snapshot file.
+     * @throws Exception Thrown in case the snapshot file cannot be rewritten.
+     */
+    private void rewrite(final Consumer<byte[]> transformation) throws Exception
+    {
+        byte[] bytes = Files.readAllBytes(file);
+        transformation.accept(bytes);
+        Files.write(file, bytes);
+    }
+
+    /**
+     * Replaces the first occurrence of a sequence of bytes.
+     * @param bytes Bytes.
+     * @param from Replaced sequence.
+     * @param to Replacement sequence (of the same length).
+     */
+    private static void replace(final byte[] bytes, final byte[] from, final byte[] to)
+    {
+        for (int i = 0; i <= bytes.length - from.length; i++)
+        {
+            if (Arrays.equals(Arrays.copyOfRange(bytes, i, i + from.length), from))
+            {
+                System.arraycopy(to, 0, bytes, i, to.length);
+                return;
+            }
+        }
+
+        Assert.fail("Sequence not found in the snapshot file!");
+    }
+
+    /**
+     * Skips a length prefixed string.
+     * @param buffer Buffer.
+     */
+    private static void skipString(final ByteBuffer buffer)
+    {
+        int length = buffer.getInt();
+        buffer.position(buffer.position() + length);
+    }
+}
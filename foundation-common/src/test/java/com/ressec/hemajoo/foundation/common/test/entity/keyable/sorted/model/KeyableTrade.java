@@ -0,0 +1,69 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.sorted.model;
+
+import com.ressec.hemajoo.foundation.common.annotation.Internal;
+import com.ressec.hemajoo.foundation.common.entity.keyable.AlternateKey;
+import com.ressec.hemajoo.foundation.common.entity.keyable.Keyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.PrimaryKey;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * A keyable entity test class declaring sorted keys.
+ * <br><br>
+ * This class is used for testing purpose only!
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Internal
+public class KeyableTrade extends Keyable
+{
+    /**
+     * Trade identifier (sorted primary key).
+     */
+    @PrimaryKey(name = "id", sorted = true)
+    @Getter
+    private long id;
+
+    /**
+     * Trade price (sorted non unique key).
+     */
+    @AlternateKey(name = "price", unique = false, mandatory = false, sorted = true)
+    @Getter
+    private Integer price;
+
+    /**
+     * Avoid direct instantiation of entity.
+     */
+    private KeyableTrade()
+    {
+        // Empty.
+    }
+
+    /**
+     * Creates a new trade.
+     * @param id Trade identifier.
+     * @param price Trade price.
+     */
+    @Builder
+    public KeyableTrade(final long id, final Integer price)
+    {
+        this.id = id;
+        this.price = price;
+
+        super.register();
+    }
+}
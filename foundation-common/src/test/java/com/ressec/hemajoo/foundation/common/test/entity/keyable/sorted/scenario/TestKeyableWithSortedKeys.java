@@ -0,0 +1,135 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.sorted.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.IKeyable;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.sorted.model.KeyableTrade;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Test case for the queries on sorted keys.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableWithSortedKeys
+{
+    /**
+     * Number of registered entities (identifiers from 10 to 10 * ENTITIES, by steps of 10).
+     */
+    private static final int ENTITIES = 1000;
+
+    /**
+     * Number of distinct prices.
+     */
+    private static final int PRICES = 100;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableTrade.class);
+
+        for (int i = 1; i <= ENTITIES; i++)
+        {
+            KeyableTrade.builder()
+                    .id(i * 10L)
+                    .price(i % PRICES + 1)
+                    .build();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterKeysByKeyableType(KeyableTrade.class);
+    }
+
+    /**
+     * Ensure keyables can be retrieved by a range of values of a sorted key.
+     */
+    @Test
+    public void expectSuccessToRetrieveRange()
+    {
+        List<IKeyable> list = KeyManager.getInstance().range(KeyableTrade.class, "id", 95, 150);
+
+        Assert.assertEquals(6, list.size());
+        Assert.assertEquals(100, ((KeyableTrade) list.get(0)).getId());
+        Assert.assertEquals(150, ((KeyableTrade) list.get(5)).getId());
+
+        Assert.assertEquals(3 * ENTITIES / PRICES, KeyManager.getInstance().range(KeyableTrade.class, "price", 1, 3).size());
+        Assert.assertTrue(KeyManager.getInstance().range(KeyableTrade.class, "id", 150, 95).isEmpty());
+    }
+
+    /**
+     * Ensure the floor, ceiling, minimum and maximum of a sorted key can be retrieved.
+     */
+    @Test
+    public void expectSuccessToRetrieveBounds()
+    {
+        Assert.assertEquals(90, ((KeyableTrade) KeyManager.getInstance().floor(KeyableTrade.class, "id", 95)).getId());
+        Assert.assertEquals(100, ((KeyableTrade) KeyManager.getInstance().ceiling(KeyableTrade.class, "id", 95)).getId());
+        Assert.assertEquals(10, ((KeyableTrade) KeyManager.getInstance().min(KeyableTrade.class, "id")).getId());
+        Assert.assertEquals(10L * ENTITIES, ((KeyableTrade) KeyManager.getInstance().max(KeyableTrade.class, "id")).getId());
+        Assert.assertNull(KeyManager.getInstance().floor(KeyableTrade.class, "id", 5));
+        Assert.assertNull(KeyManager.getInstance().ceiling(KeyableTrade.class, "id", 10L * ENTITIES + 1));
+    }
+
+    /**
+     * Ensure the keyables having the greatest values of a sorted key can be retrieved.
+     */
+    @Test
+    public void expectSuccessToRetrieveTop()
+    {
+        List<IKeyable> list = KeyManager.getInstance().top(KeyableTrade.class, "id", 3);
+
+        Assert.assertEquals(3, list.size());
+        Assert.assertEquals(10L * ENTITIES, ((KeyableTrade) list.get(0)).getId());
+        Assert.assertEquals(10L * ENTITIES - 20, ((KeyableTrade) list.get(2)).getId());
+
+        for (IKeyable keyable : KeyManager.getInstance().top(KeyableTrade.class, "price", ENTITIES / PRICES))
+        {
+            Assert.assertEquals(PRICES, (int) ((KeyableTrade) keyable).getPrice());
+        }
+    }
+
+    /**
+     * Ensure the sorted index is maintained along unregistrations and still supports exact match lookups.
+     */
+    @Test
+    public void expectSuccessToMaintainSortedIndex()
+    {
+        KeyManager.getInstance().unregister(KeyManager.getInstance().getOne(KeyableTrade.class, "id", 10L));
+
+        Assert.assertEquals(20, ((KeyableTrade) KeyManager.getInstance().min(KeyableTrade.class, "id")).getId());
+        Assert.assertNull(KeyManager.getInstance().getOne(KeyableTrade.class, "id", 10L));
+        Assert.assertNotNull(KeyManager.getInstance().getOne(KeyableTrade.class, "id", 20));
+        Assert.assertEquals(ENTITIES - 1, KeyManager.getInstance().countByKeyableClass(KeyableTrade.class));
+    }
+
+    /**
+     * Ensure a {@link KeyException} is raised when querying a range of a key that is not sorted.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRetrieveRangeOfUnsortedKey()
+    {
+        KeyManager.getInstance().range(KeyableTrade.class, "unknown", 0, 10);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.stream.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.batch.model.KeyableCity;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.model.KeyableCountryWithPrimaryAndAlternateKey;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Test case for the streaming of the registered keyables.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyManagerStream
+{
+    /**
+     * Number of registered entities.
+     */
+    private static final int ENTITIES = 20000;
+
+    /**
+     * Number of distinct comments.
+     */
+    private static final int GROUPS = 4;
+
+    /**
+     * Registers the test keyables.
+     * @return List of keyables.
+     */
+    private static List<KeyableCountryWithPrimaryAndAlternateKey> register()
+    {
+        List<KeyableCountryWithPrimaryAndAlternateKey> entities = new ArrayList<>(ENTITIES);
+
+        for (int i = 0; i < ENTITIES; i++)
+        {
+            entities.add(KeyableCountryWithPrimaryAndAlternateKey.builder()
+                    .name("Country-" + i)
+                    .iso3("C" + i)
+                    .numeric(i + 1)
+                    .comment("Comment-" + i % GROUPS)
+                    .build());
+        }
+
+        return entities;
+    }
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Ensure all the keyables of a class can be streamed, sequentially and in parallel.
+     */
+    @Test
+    public void expectSuccessToStreamAllKeyables()
+    {
+        List<KeyableCountryWithPrimaryAndAlternateKey> entities = register();
+
+        Assert.assertEquals(ENTITIES, KeyManager.getInstance().stream(KeyableCountryWithPrimaryAndAlternateKey.class).count());
+
+        Set<Object> streamed = KeyManager.getInstance().stream(KeyableCountryWithPrimaryAndAlternateKey.class)
+                .parallel()
+                .collect(Collectors.toSet());
+
+        Assert.assertEquals(ENTITIES, streamed.size());
+        Assert.assertTrue(streamed.containsAll(entities));
+    }
+
+    /**
+     * Ensure keyables can be streamed using a predicate on the values of an integral key and of a string key.
+     */
+    @Test
+    public void expectSuccessToStreamKeyablesMatchingPredicate()
+    {
+        register();
+
+        Assert.assertEquals(100, KeyManager.getInstance().stream(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", (Integer numeric) -> numeric <= 100).count());
+        Assert.assertEquals(ENTITIES / GROUPS, KeyManager.getInstance().stream(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-1"::equals).parallel().count());
+        Assert.assertEquals(0, KeyManager.getInstance().stream(KeyableCountryWithPrimaryAndAlternateKey.class, "unknown", value -> true).count());
+    }
+
+    /**
+     * Ensure keyables can be streamed in concurrent mode.
+     */
+    @Test
+    public void expectSuccessToStreamKeyablesInConcurrentMode()
+    {
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .concurrent(true)
+                .build());
+
+        register();
+
+        Assert.assertEquals(ENTITIES, KeyManager.getInstance().stream(KeyableCountryWithPrimaryAndAlternateKey.class).parallel().count());
+        Assert.assertEquals(ENTITIES / GROUPS, KeyManager.getInstance().stream(KeyableCountryWithPrimaryAndAlternateKey.class, "comment", "Comment-3"::equals).count());
+        Assert.assertEquals(10, KeyManager.getInstance().stream(KeyableCountryWithPrimaryAndAlternateKey.class, "numeric", (Integer numeric) -> numeric > ENTITIES - 10).count());
+    }
+
+    /**
+     * Ensure an empty stream is returned for a keyable class having no registered keyable.
+     */
+    @Test
+    public void expectEmptyStreamForUnregisteredKeyableClass()
+    {
+        Assert.assertEquals(0, KeyManager.getInstance().stream(KeyableCity.class).count());
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.test.entity.keyable.weak.scenario;
+
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyException;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManager;
+import com.ressec.hemajoo.foundation.common.entity.keyable.KeyManagerConfiguration;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.composite.model.KeyableBooking;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.prefix.model.KeyableAirport;
+import com.ressec.hemajoo.foundation.common.test.entity.keyable.scope.model.KeyableSession;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test case for the key manager weakly referencing the keyable entities.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyManagerWeakReferences
+{
+    /**
+     * Number of registered (and no longer referenced) entities.
+     */
+    private static final int ENTITIES = 1000;
+
+    /**
+     * Number of registered entities kept referenced.
+     */
+    private static final int KEPT = 10;
+
+    /**
+     * Maximum number of garbage collections requested before giving up.
+     */
+    private static final int ATTEMPTS = 100;
+
+    /**
+     * Key manager scope weakly referencing its keyables.
+     */
+    private KeyManager scope;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        KeyManager.getInstance().unregisterAll();
+
+        scope = KeyManager.create(KeyManagerConfiguration.builder()
+                .weakReferences(true)
+                .build());
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        scope.dispose();
+
+        KeyManager.getInstance().unregisterAll();
+        KeyManager.getInstance().configure(KeyManagerConfiguration.DEFAULT);
+    }
+
+    /**
+     * Registers sessions no longer referenced once registered.
+     * @param count Number of sessions.
+     */
+    private void registerTransientSessions(final int count)
+    {
+        for (int i = 0; i < count; i++)
+        {
+            KeyableSession.builder().id("T" + i).user("transient").scope(scope).build();
+        }
+    }
+
+    /**
+     * Waits until the number of sessions registered in the scope drops to the given number.
+     * @param expected Expected number of sessions.
+     * @throws InterruptedException Thrown in case the thread has been interrupted.
+     */
+    private void awaitCount(final int expected) throws InterruptedException
+    {
+        for (int attempt = 0; attempt < ATTEMPTS && scope.countByKeyableClass(KeyableSession.class) > expected; attempt++)
+        {
+            System.gc();
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Ensure the unreferenced keyables are garbage collected and purged, the counts only including the reachable ones.
+     * @throws InterruptedException Thrown in case the thread has been interrupted.
+     */
+    @Test
+    public void expectSuccessToPurgeUnreferencedKeyables() throws InterruptedException
+    {
+        List<KeyableSession> kept = new ArrayList<>();
+        for (int i = 0; i < KEPT; i++)
+        {
+            kept.add(KeyableSession.builder().id("K" + i).user("kept").scope(scope).build());
+        }
+
+        registerTransientSessions(ENTITIES);
+        awaitCount(KEPT);
+
+        Assert.assertEquals(KEPT, scope.countByKeyableClass(KeyableSession.class));
+        Assert.assertEquals(KEPT, scope.countByKeyName(KeyableSession.class, "user"));
+        Assert.assertTrue(scope.get(KeyableSession.class, "user", "transient").isEmpty());
+        Assert.assertFalse(scope.isKeyValueExist(KeyableSession.class, "id", "T0"));
+
+        for (KeyableSession session : kept)
+        {
+            Assert.assertSame(session, scope.getOne(KeyableSession.class, "id", session.getId()));
+            Assert.assertSame(session, scope.getOne(KeyableSession.class, "sequence", (int) session.getSequence()));
+        }
+
+        // Key values of the garbage collected keyables can be registered again.
+        Assert.assertNotNull(KeyableSession.builder().id("T0").scope(scope).build());
+    }
+
+    /**
+     * Ensure weakly referenced keyables can still be explicitly unregistered.
+     */
+    @Test
+    public void expectSuccessToUnregisterKeyables()
+    {
+        KeyableSession session = KeyableSession.builder().id("S1").user("john").scope(scope).build();
+        KeyableSession other = KeyableSession.builder().id("S2").user("john").scope(scope).build();
+
+        scope.unregister(session);
+
+        Assert.assertEquals(1, scope.countByKeyableClass(KeyableSession.class));
+        Assert.assertNull(scope.getOne(KeyableSession.class, "id", "S1"));
+        Assert.assertSame(other, scope.getOne(KeyableSession.class, "user", "john"));
+    }
+
+    /**
+     * Ensure the keyables are queried consistently while other keyables are concurrently registered and unregistered.
+     * @throws Exception Thrown in case an error occurred while running the threads.
+     */
+    @Test
+    public void expectSuccessToQueryWhileRegistering() throws Exception
+    {
+        List<KeyableSession> kept = new ArrayList<>();
+        for (int i = 0; i < KEPT; i++)
+        {
+            kept.add(KeyableSession.builder().id("K" + i).user("kept").scope(scope).build());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            Future<?> writer = executor.submit(() ->
+            {
+                for (int i = 0; i < ENTITIES; i++)
+                {
+                    scope.unregister(KeyableSession.builder().id("W" + i).user("kept").scope(scope).build());
+                }
+            });
+
+            Future<?> reader = executor.submit(() ->
+            {
+                while (!writer.isDone())
+                {
+                    Assert.assertTrue(scope.get(KeyableSession.class, "user", "kept").containsAll(kept));
+                    Assert.assertTrue(scope.isKeyValueExist(KeyableSession.class, "id", "K0"));
+                }
+            });
+
+            writer.get(30, TimeUnit.SECONDS);
+            reader.get(30, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(KEPT, scope.get(KeyableSession.class, "user", "kept").size());
+    }
+
+    /**
+     * Ensure the uniqueness of the unique keys is enforced for the reachable keyables.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRegisterDuplicateKeyValue()
+    {
+        KeyableSession session = KeyableSession.builder().id("S1").scope(scope).build();
+
+        Assert.assertNotNull(session);
+
+        KeyableSession.builder().id("S1").scope(scope).build();
+    }
+
+    /**
+     * Ensure keys holding their keyables strongly cannot be registered with weak references.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRegisterPrefixKeyWithWeakReferences()
+    {
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .weakReferences(true)
+                .build());
+
+        KeyableAirport.builder().code("CDG").city("Paris").build();
+    }
+
+    /**
+     * Ensure composite keys cannot be registered with weak references.
+     */
+    @Test(expected = KeyException.class)
+    public void expectFailureToRegisterCompositeKeyWithWeakReferences()
+    {
+        KeyManager.getInstance().configure(KeyManagerConfiguration.builder()
+                .weakReferences(true)
+                .build());
+
+        KeyableBooking.builder().id(1).flight("AF001").row(1).letter("A").lastName("Doe").firstName("John").build();
+    }
+}
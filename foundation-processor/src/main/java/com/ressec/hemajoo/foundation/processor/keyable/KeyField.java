@@ -0,0 +1,258 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.processor.keyable;
+
+import javax.lang.model.element.*;
+import javax.lang.model.util.Elements;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+
+/**
+ * Describes, at compile time, a field annotated as a primary or an alternate key.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+final class KeyField
+{
+    /**
+     * Key field.
+     */
+    private final VariableElement field;
+
+    /**
+     * Key name.
+     */
+    private final String name;
+
+    /**
+     * Is it the primary key?
+     */
+    private final boolean primary;
+
+    /**
+     * Is the key value generated by the key manager?
+     */
+    private final boolean auto;
+
+    /**
+     * Number of generated key values reserved at once by a thread.
+     */
+    private final int blockSize;
+
+    /**
+     * Are the key values kept sorted by the key manager?
+     */
+    private final boolean sorted;
+
+    /**
+     * Can the key values be searched by prefix?
+     */
+    private final boolean prefix;
+
+    /**
+     * Are the key values normalized?
+     */
+    private final boolean normalized;
+
+    /**
+     * Key annotation and all its attribute values, as described in the companion fingerprint.
+     */
+    private final String annotation;
+
+    /**
+     * Creates a new key field.
+     * @param field Key field.
+     * @param name Key name.
+     * @param primary Is it the primary key?
+     * @param auto Is the key value generated?
+     * @param blockSize Number of generated key values reserved at once by a thread.
+     * @param sorted Are the key values kept sorted by the key manager?
+     * @param prefix Can the key values be searched by prefix?
+     * @param normalized Are the key values normalized?
+     * @param annotation Key annotation and all its attribute values.
+     */
+    private KeyField(final VariableElement field, final String name, final boolean primary, final boolean auto, final int blockSize, final boolean sorted, final boolean prefix, final boolean normalized, final String annotation)
+    {
+        this.field = field;
+        this.name = name;
+        this.primary = primary;
+        this.auto = auto;
+        this.blockSize = blockSize;
+        this.sorted = sorted;
+        this.prefix = prefix;
+        this.normalized = normalized;
+        this.annotation = annotation;
+    }
+
+    /**
+     * Creates a key field from the given field.
+     * @param field Field.
+     * @param elements Element utilities.
+     * @return Key field or null if the field is not annotated as a key.
+     */
+    static KeyField of(final VariableElement field, final Elements elements)
+    {
+        for (AnnotationMirror annotation : field.getAnnotationMirrors())
+        {
+            String type = ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+            boolean primary = KeyableProcessor.PRIMARY_KEY.equals(type);
+
+            if (primary || KeyableProcessor.ALTERNATE_KEY.equals(type))
+            {
+                String name = null;
+                boolean auto = false;
+                int blockSize = 1;
+                boolean sorted = false;
+                boolean prefix = false;
+                boolean normalized = false;
+                Map<String, String> values = new TreeMap<>();
+
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : elements.getElementValuesWithDefaults(annotation).entrySet())
+                {
+                    String attribute = entry.getKey().getSimpleName().toString();
+                    Object value = entry.getValue().getValue();
+
+                    // Enumeration constants are provided as variable elements.
+                    values.put(attribute, value instanceof VariableElement ? ((VariableElement) value).getSimpleName().toString() : String.valueOf(value));
+
+                    if ("name".equals(attribute))
+                    {
+                        name = String.valueOf(entry.getValue().getValue());
+                    }
+                    else if ("auto".equals(attribute))
+                    {
+                        auto = Boolean.TRUE.equals(entry.getValue().getValue());
+                    }
+                    else if ("blockSize".equals(attribute))
+                    {
+                        blockSize = ((Number) entry.getValue().getValue()).intValue();
+                    }
+                    else if ("sorted".equals(attribute))
+                    {
+                        sorted = Boolean.TRUE.equals(entry.getValue().getValue());
+                    }
+                    else if ("prefix".equals(attribute))
+                    {
+                        prefix = Boolean.TRUE.equals(entry.getValue().getValue());
+                    }
+                    else if ("normalization".equals(attribute))
+                    {
+                        normalized = !"NONE".equals(values.get(attribute));
+                    }
+                }
+
+                StringJoiner description = new StringJoiner(",", "@" + annotation.getAnnotationType().asElement().getSimpleName() + "(", ")");
+                values.forEach((attribute, value) -> description.add(attribute + "=" + value));
+
+                return new KeyField(field, name, primary, auto, blockSize, sorted, prefix, normalized, description.toString());
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Returns the key field.
+     * @return Key field.
+     */
+    VariableElement getField()
+    {
+        return field;
+    }
+
+    /**
+     * Returns the key name.
+     * @return Key name.
+     */
+    String getName()
+    {
+        return name;
+    }
+
+    /**
+     * Returns if this key is the primary key?
+     * @return True if it is the primary key, false otherwise.
+     */
+    boolean isPrimary()
+    {
+        return primary;
+    }
+
+    /**
+     * Returns if the key value is generated by the key manager?
+     * @return True if the key value is generated, false otherwise.
+     */
+    boolean isAuto()
+    {
+        return auto;
+    }
+
+    /**
+     * Returns the number of generated key values reserved at once by a thread.
+     * @return Block size.
+     */
+    int getBlockSize()
+    {
+        return blockSize;
+    }
+
+    /**
+     * Returns if the key values are kept sorted by the key manager?
+     * @return True if the key values are kept sorted, false otherwise.
+     */
+    boolean isSorted()
+    {
+        return sorted;
+    }
+
+    /**
+     * Returns if the key values can be searched by prefix?
+     * @return True if the key values can be searched by prefix, false otherwise.
+     */
+    boolean isPrefix()
+    {
+        return prefix;
+    }
+
+    /**
+     * Returns if the key values are normalized?
+     * @return True if the key values are normalized, false otherwise.
+     */
+    boolean isNormalized()
+    {
+        return normalized;
+    }
+
+    /**
+     * Returns the key annotation and all its attribute values, as described in the companion fingerprint.
+     * @return Key annotation description.
+     */
+    String getAnnotation()
+    {
+        return annotation;
+    }
+
+    /**
+     * Returns if the key field can be directly read and written by a class of the same package?
+     * @return True if the key field is neither private, final nor static, false otherwise.
+     */
+    boolean isAccessible()
+    {
+        return !field.getModifiers().contains(Modifier.PRIVATE)
+                && !field.getModifiers().contains(Modifier.FINAL)
+                && !field.getModifiers().contains(Modifier.STATIC);
+    }
+}
@@ -0,0 +1,603 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.processor.keyable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+
+/**
+ * Annotation processor checking and generating code for keyable entities at compile time.
+ * <br><br>
+ * For each class declaring fields annotated with the <b>PrimaryKey</b> and/or <b>AlternateKey</b> annotations,
+ * the processor:<br>
+ * - reports (as compilation errors) the structural errors otherwise raised at runtime by the key manager: class
+ * not being a keyable entity, missing or multiple primary keys, key of an unauthorized type, several keys with the
+ * same name, 'auto' key of type String and invalid block size<br>
+ * - generates a companion class (implementing <b>IKeyableCompanion</b>) providing a key name switch table and a
+ * direct access to the key fields that are neither private nor final (without boxing for the integral ones).
+ * <br><br>
+ * The key manager picks up the generated companion at runtime, if present and matching the fingerprint of the key
+ * fields, and otherwise falls back to reflection.
+ * <br><br>
+ * When the <b>keyable.lenient</b> option is set to true (-Akeyable.lenient=true), structural errors are reported
+ * as warnings and no companion is generated for the faulty classes, leaving the key manager raise them at runtime.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@SupportedAnnotationTypes({
+        KeyableProcessor.PRIMARY_KEY,
+        KeyableProcessor.ALTERNATE_KEY
+})
+@SupportedOptions(KeyableProcessor.LENIENT)
+public class KeyableProcessor extends AbstractProcessor
+{
+    /**
+     * Option reporting the structural errors as warnings.
+     */
+    static final String LENIENT = "keyable.lenient";
+
+    /**
+     * Package of the keyable entity types.
+     */
+    private static final String KEYABLE_PACKAGE = "com.ressec.hemajoo.foundation.common.entity.keyable";
+
+    /**
+     * Primary key annotation (qualified name).
+     */
+    static final String PRIMARY_KEY = KEYABLE_PACKAGE + ".PrimaryKey";
+
+    /**
+     * Alternate key annotation (qualified name).
+     */
+    static final String ALTERNATE_KEY = KEYABLE_PACKAGE + ".AlternateKey";
+
+    /**
+     * Keyable interface (qualified name).
+     */
+    private static final String KEYABLE = KEYABLE_PACKAGE + ".IKeyable";
+
+    /**
+     * Keyable companion interface (qualified name).
+     */
+    private static final String COMPANION = KEYABLE_PACKAGE + ".IKeyableCompanion";
+
+    /**
+     * Suffix of the generated companion classes (must match IKeyableCompanion.SUFFIX).
+     */
+    private static final String COMPANION_SUFFIX = "KeyCompanion";
+
+    /**
+     * Authorized key types (qualified names).
+     */
+    private static final Set<String> AUTHORIZED_TYPES = new HashSet<>(Arrays.asList(
+            "byte", "java.lang.Byte",
+            "short", "java.lang.Short",
+            "int", "java.lang.Integer",
+            "long", "java.lang.Long",
+            "java.lang.String",
+            "java.util.UUID"));
+
+    /**
+     * Integral key types (qualified names), the only key types that can be sorted.
+     */
+    private static final Set<String> INTEGRAL_TYPES = new HashSet<>(Arrays.asList(
+            "byte", "java.lang.Byte",
+            "short", "java.lang.Short",
+            "int", "java.lang.Integer",
+            "long", "java.lang.Long"));
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment environment)
+    {
+        Set<TypeElement> keyables = new LinkedHashSet<>();
+
+        for (TypeElement annotation : annotations)
+        {
+            for (Element element : environment.getElementsAnnotatedWith(annotation))
+            {
+                if (element.getKind() == ElementKind.FIELD && element.getEnclosingElement() instanceof TypeElement)
+                {
+                    keyables.add((TypeElement) element.getEnclosingElement());
+                }
+            }
+        }
+
+        for (TypeElement keyable : keyables)
+        {
+            processKeyable(keyable);
+        }
+
+        // Do not claim the annotations, other processors may be interested in them.
+        return false;
+    }
+
+    /**
+     * Checks the keys declared by a keyable class and generates its companion.
+     * @param keyable Keyable class.
+     */
+    private void processKeyable(final TypeElement keyable)
+    {
+        List<KeyField> keys = new ArrayList<>();
+        Map<String, KeyField> names = new HashMap<>();
+        KeyField primary = null;
+        boolean valid = true;
+
+        if (!isKeyable(keyable.asType()))
+        {
+            error(keyable, "Class: '%s' declares key fields but does not implement: '%s'!", keyable.getQualifiedName(), KEYABLE);
+            valid = false;
+        }
+
+        for (Element element : keyable.getEnclosedElements())
+        {
+            if (element.getKind() != ElementKind.FIELD)
+            {
+                continue;
+            }
+
+            KeyField key = KeyField.of((VariableElement) element, processingEnv.getElementUtils());
+            if (key == null)
+            {
+                continue;
+            }
+
+            if (!AUTHORIZED_TYPES.contains(erasure(key.getField().asType())))
+            {
+                error(element, "Key with name: '%s', of type: '%s' for keyable: '%s' has an invalid type!",
+                        key.getName(), key.getField().asType(), keyable.getQualifiedName());
+                valid = false;
+            }
+
+            if (key.isAuto() && "java.lang.String".equals(erasure(key.getField().asType())))
+            {
+                error(element, "Key with name: '%s' for keyable: '%s' is of type String and cannot have the 'auto' property set to true!",
+                        key.getName(), keyable.getQualifiedName());
+                valid = false;
+            }
+
+            if (key.getBlockSize() < 1)
+            {
+                error(element, "Key with name: '%s' for keyable: '%s' has a block size: '%d' that must be greater than zero!",
+                        key.getName(), keyable.getQualifiedName(), key.getBlockSize());
+                valid = false;
+            }
+
+            if (key.isSorted() && !INTEGRAL_TYPES.contains(erasure(key.getField().asType())))
+            {
+                error(element, "Key with name: '%s' for keyable: '%s' cannot be sorted! Only keys of an integral type can be sorted",
+                        key.getName(), keyable.getQualifiedName());
+                valid = false;
+            }
+
+            if (key.isPrefix() && !"java.lang.String".equals(erasure(key.getField().asType())))
+            {
+                error(element, "Key with name: '%s' for keyable: '%s' cannot be searched by prefix! Only keys of type String can be searched by prefix",
+                        key.getName(), keyable.getQualifiedName());
+                valid = false;
+            }
+
+            if (key.isNormalized() && !"java.lang.String".equals(erasure(key.getField().asType())))
+            {
+                error(element, "Key with name: '%s' for keyable: '%s' cannot be normalized! Only keys of type String can be normalized",
+                        key.getName(), keyable.getQualifiedName());
+                valid = false;
+            }
+
+            if (key.isPrimary())
+            {
+                if (primary != null)
+                {
+                    error(element, "Keyable entity: '%s' contains multiple fields annotated as primary keys! Only one field can be annotated as the primary key",
+                            keyable.getQualifiedName());
+                    valid = false;
+                }
+                else
+                {
+                    primary = key;
+                }
+            }
+
+            if (names.putIfAbsent(key.getName(), key) != null)
+            {
+                error(element, "Key with name: '%s' for keyable entity: '%s' already exist with the same name!",
+                        key.getName(), keyable.getQualifiedName());
+                valid = false;
+            }
+
+            keys.add(key);
+        }
+
+        if (primary == null)
+        {
+            error(keyable, "Keyable entity: '%s' does not contain a primary key! One of the defined keys must be set as the primary key",
+                    keyable.getQualifiedName());
+            valid = false;
+        }
+
+        if (valid && isReachable(keyable))
+        {
+            generateCompanion(keyable, keys);
+        }
+    }
+
+    /**
+     * Generates the companion of a keyable class.
+     * @param keyable Keyable class.
+     * @param keys Keys declared by the keyable class.
+     */
+    private void generateCompanion(final TypeElement keyable, final List<KeyField> keys)
+    {
+        String packageName = processingEnv.getElementUtils().getPackageOf(keyable).getQualifiedName().toString();
+        String binaryName = processingEnv.getElementUtils().getBinaryName(keyable).toString();
+        String simpleName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)).replace('$', '_') + COMPANION_SUFFIX;
+        String keyableName = keyable.getQualifiedName().toString();
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+
+        try (PrintWriter writer = new PrintWriter(processingEnv.getFiler().createSourceFile(qualifiedName, keyable).openWriter()))
+        {
+            if (!packageName.isEmpty())
+            {
+                writer.println("package " + packageName + ";");
+                writer.println();
+            }
+
+            writer.println("/**");
+            writer.println(" * Key companion of the {@link " + keyableName + "} keyable entity.");
+            writer.println(" * <br><br>");
+            writer.println(" * This class has been generated by the " + getClass().getName() + ", do not edit!");
+            writer.println(" */");
+            writer.println("@SuppressWarnings(\"all\")");
+            writer.println("public final class " + simpleName + " implements " + COMPANION);
+            writer.println("{");
+
+            writer.println("    @Override");
+            writer.println("    public Class<? extends " + KEYABLE + "> getKeyableClass()");
+            writer.println("    {");
+            writer.println("        return " + keyableName + ".class;");
+            writer.println("    }");
+            writer.println();
+
+            writer.println("    @Override");
+            writer.println("    public String getFingerprint()");
+            writer.println("    {");
+            writer.println("        return \"" + escape(fingerprint(keys)) + "\";");
+            writer.println("    }");
+            writer.println();
+
+            writer.println("    @Override");
+            writer.println("    public int getKeyCount()");
+            writer.println("    {");
+            writer.println("        return " + keys.size() + ";");
+            writer.println("    }");
+            writer.println();
+
+            writer.println("    @Override");
+            writer.println("    public int indexOf(final String keyName)");
+            writer.println("    {");
+            writer.println("        switch (keyName)");
+            writer.println("        {");
+            for (int i = 0; i < keys.size(); i++)
+            {
+                writer.println("            case \"" + escape(keys.get(i).getName()) + "\":");
+                writer.println("                return " + i + ";");
+            }
+            writer.println("            default:");
+            writer.println("                return -1;");
+            writer.println("        }");
+            writer.println("    }");
+            writer.println();
+
+            writer.println("    @Override");
+            writer.println("    public boolean isAccessible(final int index)");
+            writer.println("    {");
+            writer.println("        switch (index)");
+            writer.println("        {");
+            boolean accessible = false;
+            for (int i = 0; i < keys.size(); i++)
+            {
+                if (keys.get(i).isAccessible())
+                {
+                    writer.println("            case " + i + ":");
+                    accessible = true;
+                }
+            }
+            if (accessible)
+            {
+                writer.println("                return true;");
+            }
+            writer.println("            default:");
+            writer.println("                return false;");
+            writer.println("        }");
+            writer.println("    }");
+            writer.println();
+
+            writer.println("    @Override");
+            writer.println("    public Object get(final " + KEYABLE + " keyable, final int index)");
+            writer.println("    {");
+            writer.println("        switch (index)");
+            writer.println("        {");
+            for (int i = 0; i < keys.size(); i++)
+            {
+                if (keys.get(i).isAccessible())
+                {
+                    writer.println("            case " + i + ":");
+                    writer.println("                return ((" + keyableName + ") keyable)." + keys.get(i).getField().getSimpleName() + ";");
+                }
+            }
+            writer.println("            default:");
+            writer.println("                throw new IllegalArgumentException(\"Key field at index: \" + index + \" is not accessible!\");");
+            writer.println("        }");
+            writer.println("    }");
+            writer.println();
+
+            writer.println("    @Override");
+            writer.println("    public void set(final " + KEYABLE + " keyable, final int index, final Object value)");
+            writer.println("    {");
+            writer.println("        switch (index)");
+            writer.println("        {");
+            for (int i = 0; i < keys.size(); i++)
+            {
+                if (keys.get(i).isAccessible())
+                {
+                    writer.println("            case " + i + ":");
+                    writer.println("                ((" + keyableName + ") keyable)." + keys.get(i).getField().getSimpleName() + " = (" + boxed(keys.get(i).getField().asType()) + ") value;");
+                    writer.println("                return;");
+                }
+            }
+            writer.println("            default:");
+            writer.println("                throw new IllegalArgumentException(\"Key field at index: \" + index + \" is not accessible!\");");
+            writer.println("        }");
+            writer.println("    }");
+            writer.println();
+
+            writer.println("    @Override");
+            writer.println("    public long getLong(final " + KEYABLE + " keyable, final int index)");
+            writer.println("    {");
+            writer.println("        switch (index)");
+            writer.println("        {");
+            for (int i = 0; i < keys.size(); i++)
+            {
+                TypeMirror type = keys.get(i).getField().asType();
+                if (keys.get(i).isAccessible() && INTEGRAL_TYPES.contains(erasure(type)))
+                {
+                    String field = "((" + keyableName + ") keyable)." + keys.get(i).getField().getSimpleName();
+
+                    writer.println("            case " + i + ":");
+                    if (type.getKind().isPrimitive())
+                    {
+                        writer.println("                return " + field + ";");
+                    }
+                    else
+                    {
+                        // A null wrapper value is read as zero.
+                        writer.println("            {");
+                        writer.println("                " + erasure(type) + " value = " + field + ";");
+                        writer.println("                return value == null ? 0L : value.longValue();");
+                        writer.println("            }");
+                    }
+                }
+            }
+            writer.println("            default:");
+            writer.println("                throw new IllegalArgumentException(\"Key field at index: \" + index + \" is not an accessible integral key field!\");");
+            writer.println("        }");
+            writer.println("    }");
+            writer.println();
+
+            writer.println("    @Override");
+            writer.println("    public void setLong(final " + KEYABLE + " keyable, final int index, final long value)");
+            writer.println("    {");
+            writer.println("        switch (index)");
+            writer.println("        {");
+            for (int i = 0; i < keys.size(); i++)
+            {
+                TypeMirror type = keys.get(i).getField().asType();
+                if (keys.get(i).isAccessible() && INTEGRAL_TYPES.contains(erasure(type)))
+                {
+                    // Narrows the long to the field primitive type, then (if needed) boxes it to the wrapper type.
+                    writer.println("            case " + i + ":");
+                    writer.println("                ((" + keyableName + ") keyable)." + keys.get(i).getField().getSimpleName() + " = (" + unboxed(type) + ") value;");
+                    writer.println("                return;");
+                }
+            }
+            writer.println("            default:");
+            writer.println("                throw new IllegalArgumentException(\"Key field at index: \" + index + \" is not an accessible integral key field!\");");
+            writer.println("        }");
+            writer.println("    }");
+
+            writer.println("}");
+        }
+        catch (IOException e)
+        {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    String.format("Cannot generate key companion: '%s', due to: '%s'", qualifiedName, e.getMessage()), keyable);
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the given key fields (must match the fingerprint computed at runtime, see
+     * IKeyableCompanion.getFingerprint()).
+     * @param keys Key fields.
+     * @return Fingerprint.
+     */
+    private String fingerprint(final List<KeyField> keys)
+    {
+        Map<String, String> descriptions = new TreeMap<>();
+
+        for (KeyField key : keys)
+        {
+            descriptions.put(key.getName(), key.getField().getSimpleName() + ":" + erasure(key.getField().asType()) + ":" + key.getAnnotation());
+        }
+
+        return String.join(";", descriptions.values());
+    }
+
+    /**
+     * Escapes the given text to be written as a Java string literal.
+     * @param text Text.
+     * @return Escaped text.
+     */
+    private static String escape(final String text)
+    {
+        StringBuilder builder = new StringBuilder(text.length());
+
+        for (char c : text.toCharArray())
+        {
+            if (c == '\\' || c == '"')
+            {
+                builder.append('\\').append(c);
+            }
+            else if (c < ' ')
+            {
+                // Unicode escapes of control characters would be translated before the literal is parsed.
+                builder.append(String.format("\\%03o", (int) c));
+            }
+            else if (c > '~')
+            {
+                builder.append(String.format("\\u%04x", (int) c));
+            }
+            else
+            {
+                builder.append(c);
+            }
+        }
+
+        return builder.toString();
+    }
+
+    /**
+     * Returns if the given type implements (directly or not) the keyable interface?
+     * @param type Type.
+     * @return True if the type is a keyable type, false otherwise.
+     */
+    private boolean isKeyable(final TypeMirror type)
+    {
+        if (type.getKind() != TypeKind.DECLARED)
+        {
+            return false;
+        }
+
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        if (element.getQualifiedName().contentEquals(KEYABLE))
+        {
+            return true;
+        }
+
+        for (TypeMirror parent : processingEnv.getTypeUtils().directSupertypes(type))
+        {
+            if (isKeyable(parent))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Returns if the given keyable class can be referenced from a class of the same package?
+     * @param keyable Keyable class.
+     * @return True if the keyable class can be referenced, false otherwise.
+     */
+    private boolean isReachable(final TypeElement keyable)
+    {
+        Element element = keyable;
+        while (element instanceof TypeElement)
+        {
+            if (element.getModifiers().contains(Modifier.PRIVATE))
+            {
+                return false;
+            }
+
+            if (element.getEnclosingElement() instanceof TypeElement && !element.getModifiers().contains(Modifier.STATIC))
+            {
+                return false;
+            }
+
+            element = element.getEnclosingElement();
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the erased name of the given type.
+     * @param type Type.
+     * @return Erased type name.
+     */
+    private String erasure(final TypeMirror type)
+    {
+        return processingEnv.getTypeUtils().erasure(type).toString();
+    }
+
+    /**
+     * Returns the name of the boxed type of the given type (the type itself if it is not a primitive type).
+     * @param type Type.
+     * @return Boxed type name.
+     */
+    private String boxed(final TypeMirror type)
+    {
+        if (type.getKind().isPrimitive())
+        {
+            return processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString();
+        }
+
+        return erasure(type);
+    }
+
+    /**
+     * Returns the name of the primitive type of the given (primitive or wrapper) type.
+     * @param type Type.
+     * @return Primitive type name.
+     */
+    private String unboxed(final TypeMirror type)
+    {
+        if (type.getKind().isPrimitive())
+        {
+            return type.toString();
+        }
+
+        return processingEnv.getTypeUtils().unboxedType(type).toString();
+    }
+
+    /**
+     * Reports a compilation error (a warning if the processor is lenient).
+     * @param element Element the error refers to.
+     * @param format Message format.
+     * @param arguments Message arguments.
+     */
+    private void error(final Element element, final String format, final Object... arguments)
+    {
+        Diagnostic.Kind kind = Boolean.parseBoolean(processingEnv.getOptions().get(LENIENT)) ? Diagnostic.Kind.WARNING : Diagnostic.Kind.ERROR;
+
+        processingEnv.getMessager().printMessage(kind, String.format(format, arguments), element);
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.processor.test.keyable;
+
+import com.ressec.hemajoo.foundation.processor.keyable.KeyableProcessor;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.tools.*;
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Test case for the {@link KeyableProcessor} annotation processor.
+ * <br><br>
+ * Keyable classes are compiled against stubs of the keyable types (see the <b>stubs</b> test resources) as the
+ * foundation-common module is itself compiled with the processor.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public class TestKeyableProcessor
+{
+    /**
+     * Suffix of the generated companion classes.
+     */
+    private static final String COMPANION_SUFFIX = "KeyCompanion";
+
+    /**
+     * Stubs of the keyable types.
+     */
+    private static final List<String> STUBS = Arrays.asList(
+            "IKeyable", "AbstractKeyable", "KeyNormalization", "PrimaryKey", "AlternateKey", "IKeyableCompanion");
+
+    /**
+     * Source header shared by the compiled keyable classes.
+     */
+    private static final String HEADER = "package test;\n"
+            + "import com.ressec.hemajoo.foundation.common.entity.keyable.*;\n"
+            + "public class Keyable extends AbstractKeyable\n"
+            + "{\n";
+
+    /**
+     * Ensure a companion is generated for a valid keyable class.
+     */
+    @Test
+    public final void expectCompanionToBeGenerated() throws Exception
+    {
+        Result result = compile(HEADER
+                + "    @PrimaryKey(name = \"id\", auto = true) long id;\n"
+                + "    @AlternateKey(name = \"name\") private String name;\n"
+                + "}\n");
+
+        Assert.assertTrue(result.getErrors().toString(), result.getErrors().isEmpty());
+
+        Path companion = result.getOutput().resolve("test/Keyable" + COMPANION_SUFFIX + ".class");
+        Assert.assertTrue(Files.exists(companion));
+    }
+
+    /**
+     * Ensure the generated companion holds the fingerprint of all the attributes of the key fields.
+     */
+    @Test
+    public final void expectCompanionFingerprintToDescribeAllKeyAttributes() throws Exception
+    {
+        Result result = compile(HEADER
+                + "    @PrimaryKey(name = \"id\", auto = true, blockSize = 16) long id;\n"
+                + "    @AlternateKey(name = \"code\", normalization = KeyNormalization.CASE_INSENSITIVE) private String code;\n"
+                + "}\n");
+
+        Assert.assertTrue(result.getErrors().toString(), result.getErrors().isEmpty());
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { result.getOutput().toUri().toURL() }))
+        {
+            Object companion = loader.loadClass("test.Keyable" + COMPANION_SUFFIX).getDeclaredConstructor().newInstance();
+
+            Assert.assertEquals(
+                    "code:java.lang.String:@AlternateKey(auto=false,blockSize=1,bloomFilter=0,mandatory=true,name=code,normalization=CASE_INSENSITIVE,prefix=false,sorted=false,unique=true);"
+                            + "id:long:@PrimaryKey(auto=true,blockSize=16,bloomFilter=0,name=id,normalization=NONE,prefix=false,sorted=false)",
+                    companion.getClass().getMethod("getFingerprint").invoke(companion));
+        }
+    }
+
+    /**
+     * Ensure the generated companion reads and writes the accessible integral key fields without boxing.
+     */
+    @Test
+    public final void expectCompanionToAccessIntegralKeysAsLongs() throws Exception
+    {
+        Result result = compile(HEADER
+                + "    @PrimaryKey(name = \"id\") long id;\n"
+                + "    @AlternateKey(name = \"level\") byte level;\n"
+                + "    @AlternateKey(name = \"rank\") Integer rank;\n"
+                + "    @AlternateKey(name = \"code\") String code;\n"
+                + "}\n");
+
+        Assert.assertTrue(result.getErrors().toString(), result.getErrors().isEmpty());
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { result.getOutput().toUri().toURL() }))
+        {
+            Class<?> keyableType = loader.loadClass("com.ressec.hemajoo.foundation.common.entity.keyable.IKeyable");
+            Object keyable = loader.loadClass("test.Keyable").getDeclaredConstructor().newInstance();
+            Object companion = loader.loadClass("test.Keyable" + COMPANION_SUFFIX).getDeclaredConstructor().newInstance();
+
+            Method indexOf = companion.getClass().getMethod("indexOf", String.class);
+            Method getLong = companion.getClass().getMethod("getLong", keyableType, int.class);
+            Method setLong = companion.getClass().getMethod("setLong", keyableType, int.class, long.class);
+            Method get = companion.getClass().getMethod("get", keyableType, int.class);
+
+            int id = (int) indexOf.invoke(companion, "id");
+            int level = (int) indexOf.invoke(companion, "level");
+            int rank = (int) indexOf.invoke(companion, "rank");
+            int code = (int) indexOf.invoke(companion, "code");
+
+            setLong.invoke(companion, keyable, id, 1234567890123L);
+            Assert.assertEquals(1234567890123L, getLong.invoke(companion, keyable, id));
+
+            // A long value is narrowed to the type of the key field.
+            setLong.invoke(companion, keyable, level, 300L);
+            Assert.assertEquals((byte) 300, get.invoke(companion, keyable, level));
+            Assert.assertEquals((long) (byte) 300, getLong.invoke(companion, keyable, level));
+
+            // A null wrapper value is read as zero.
+            Assert.assertEquals(0L, getLong.invoke(companion, keyable, rank));
+            setLong.invoke(companion, keyable, rank, 42L);
+            Assert.assertEquals(42, get.invoke(companion, keyable, rank));
+
+            try
+            {
+                getLong.invoke(companion, keyable, code);
+                Assert.fail("A non integral key field cannot be read as a long!");
+            }
+            catch (InvocationTargetException e)
+            {
+                Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+            }
+        }
+    }
+
+    /**
+     * Ensure structural errors are only reported as warnings (without generating a companion) by a lenient processor.
+     */
+    @Test
+    public final void expectWarningWithLenientProcessor() throws Exception
+    {
+        Result result = compile(HEADER
+                + "    @PrimaryKey(name = \"id\") private long id;\n"
+                + "    @PrimaryKey(name = \"other\") private long other;\n"
+                + "}\n", "-Akeyable.lenient=true");
+
+        Assert.assertTrue(result.getErrors().toString(), result.getErrors().isEmpty());
+        Assert.assertTrue(result.getWarnings().stream().anyMatch(warning -> warning.contains("multiple fields annotated as primary keys")));
+        Assert.assertFalse(Files.exists(result.getOutput().resolve("test/Keyable" + COMPANION_SUFFIX + ".class")));
+    }
+
+    /**
+     * Ensure a keyable class declaring multiple primary keys is rejected.
+     */
+    @Test
+    public final void expectErrorWithMultiplePrimaryKeys() throws Exception
+    {
+        Result result = compile(HEADER
+                + "    @PrimaryKey(name = \"id\") private long id;\n"
+                + "    @PrimaryKey(name = \"other\") private long other;\n"
+                + "}\n");
+
+        Assert.assertTrue(result.hasError("multiple fields annotated as primary keys"));
+    }
+
+    /**
+     * Ensure a keyable class declaring no primary key is rejected.
+     */
+    @Test
+    public final void expectErrorWithoutPrimaryKey() throws Exception
+    {
+        Result result = compile(HEADER
+                + "    @AlternateKey(name = \"name\") private String name;\n"
+                + "}\n");
+
+        Assert.assertTrue(result.hasError("does not contain a primary key"));
+    }
+
+    /**
+     * Ensure a keyable class declaring several keys with the same name is rejected.
+     */
+    @Test
+    public final void expectErrorWithDuplicateKeyNames() throws Exception
+    {
+        Result result = compile(HEADER
+                + "    @PrimaryKey(name = \"id\") private long id;\n"
+                + "    @AlternateKey(name = \"id\") private String name;\n"
+                + "}\n");
+
+        Assert.assertTrue(result.hasError("already exist with the same name"));
+    }
+
+    /**
+     * Ensure a key of an unauthorized type is rejected.
+     */
+    @Test
+    public final void expectErrorWithUnauthorizedKeyType() throws Exception
+    {
+        Result result = compile(HEADER
+                + "    @PrimaryKey(name = \"id\") private double id;\n"
+                + "}\n");
+
+        Assert.assertTrue(result.hasError("has an invalid type"));
+    }
+
+    /**
+     * Ensure an auto key of type String is rejected.
+     */
+    @Test
+    public final void expectErrorWithAutoStringKey() throws Exception
+    {
+        Result result = compile(HEADER
+                + "    @PrimaryKey(name = \"id\", auto = true) private String id;\n"
+                + "}\n");
+
+        Assert.assertTrue(result.hasError("cannot have the 'auto' property set to true"));
+    }
+
+    /**
+     * Ensure a sorted key of a non integral type is rejected.
+     */
+    @Test
+    public final void expectErrorWithSortedStringKey() throws Exception
+    {
+        Result result = compile(HEADER
+                + "    @PrimaryKey(name = \"id\") private long id;\n"
+                + "    @AlternateKey(name = \"name\", sorted = true) private String name;\n"
+                + "}\n");
+
+        Assert.assertTrue(result.hasError("cannot be sorted"));
+    }
+
+    /**
+     * Ensure a key of a type other than String searched by prefix is rejected.
+     */
+    @Test
+    public final void expectErrorWithPrefixLongKey() throws Exception
+    {
+        Result result = compile(HEADER
+                + "    @PrimaryKey(name = \"id\", prefix = true) private long id;\n"
+                + "}\n");
+
+        Assert.assertTrue(result.hasError("cannot be searched by prefix"));
+    }
+
+    /**
+     * Ensure a normalized key of a type other than String is rejected.
+     */
+    @Test
+    public final void expectErrorWithNormalizedIntegerKey() throws Exception
+    {
+        Result result = compile(HEADER
+                + "    @PrimaryKey(name = \"id\") private long id;\n"
+                + "    @AlternateKey(name = \"code\", normalization = KeyNormalization.CASE_INSENSITIVE) private Integer code;\n"
+                + "}\n");
+
+        Assert.assertTrue(result.hasError("cannot be normalized"));
+    }
+
+    /**
+     * Compiles the given keyable class source with the keyable processor.
+     * @param source Source of the test.Keyable class.
+     * @param arguments Additional compiler arguments.
+     * @return Compilation result.
+     * @throws Exception Thrown in case an error occurred while compiling.
+     */
+    private Result compile(final String source, final String... arguments) throws Exception
+    {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        Path output = Files.createTempDirectory("keyable-processor");
+
+        JavaFileObject file = new SimpleJavaFileObject(URI.create("string:///test/Keyable.java"), JavaFileObject.Kind.SOURCE)
+        {
+            @Override
+            public CharSequence getCharContent(final boolean ignoreEncodingErrors)
+            {
+                return source;
+            }
+        };
+
+        try (StandardJavaFileManager manager = compiler.getStandardFileManager(diagnostics, Locale.ENGLISH, null))
+        {
+            List<JavaFileObject> files = new ArrayList<>();
+            for (JavaFileObject stub : manager.getJavaFileObjectsFromFiles(stubs()))
+            {
+                files.add(stub);
+            }
+            files.add(file);
+
+            List<String> options = new ArrayList<>(Arrays.asList("-d", output.toString(), "-s", output.toString()));
+            options.addAll(Arrays.asList(arguments));
+
+            JavaCompiler.CompilationTask task = compiler.getTask(null, manager, diagnostics, options, null, files);
+            task.setProcessors(Collections.singletonList(new KeyableProcessor()));
+            task.call();
+        }
+
+        return new Result(output, messages(diagnostics, Diagnostic.Kind.ERROR), messages(diagnostics, Diagnostic.Kind.WARNING));
+    }
+
+    /**
+     * Returns the source files of the stubs of the keyable types.
+     * @return Stub source files.
+     * @throws Exception Thrown in case a stub cannot be found.
+     */
+    private List<File> stubs() throws Exception
+    {
+        List<File> files = new ArrayList<>();
+
+        for (String stub : STUBS)
+        {
+            files.add(Paths.get(getClass().getResource("/stubs/com/ressec/hemajoo/foundation/common/entity/keyable/" + stub + ".java").toURI()).toFile());
+        }
+
+        return files;
+    }
+
+    /**
+     * Returns the messages of the diagnostics of the given kind.
+     * @param diagnostics Diagnostics.
+     * @param kind Diagnostic kind.
+     * @return Messages.
+     */
+    private List<String> messages(final DiagnosticCollector<JavaFileObject> diagnostics, final Diagnostic.Kind kind)
+    {
+        return diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == kind)
+                .map(diagnostic -> diagnostic.getMessage(Locale.ENGLISH))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Result of a compilation.
+     */
+    private static final class Result
+    {
+        /**
+         * Output directory.
+         */
+        private final Path output;
+
+        /**
+         * Error messages.
+         */
+        private final List<String> errors;
+
+        /**
+         * Warning messages.
+         */
+        private final List<String> warnings;
+
+        /**
+         * Creates a new compilation result.
+         * @param output Output directory.
+         * @param errors Error messages.
+         * @param warnings Warning messages.
+         */
+        private Result(final Path output, final List<String> errors, final List<String> warnings)
+        {
+            this.output = output;
+            this.errors = errors;
+            this.warnings = warnings;
+        }
+
+        /**
+         * Returns the output directory.
+         * @return Output directory.
+         */
+        private Path getOutput()
+        {
+            return output;
+        }
+
+        /**
+         * Returns the error messages.
+         * @return Error messages.
+         */
+        private List<String> getErrors()
+        {
+            return errors;
+        }
+
+        /**
+         * Returns the warning messages.
+         * @return Warning messages.
+         */
+        private List<String> getWarnings()
+        {
+            return warnings;
+        }
+
+        /**
+         * Returns if an error message contains the given text?
+         * @param text Text.
+         * @return True if an error contains the text, false otherwise.
+         */
+        private boolean hasError(final String text)
+        {
+            return errors.stream().anyMatch(error -> error.contains(text));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+import java.lang.annotation.*;
+
+/**
+ * Stub of the alternate key annotation (foundation-common) used to compile the keyable classes processed by the
+ * tests. Its attributes must match the ones of the actual annotation.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface AlternateKey
+{
+    String name();
+
+    boolean mandatory() default true;
+
+    boolean unique() default true;
+
+    boolean auto() default false;
+
+    int blockSize() default 1;
+
+    boolean sorted() default false;
+
+    boolean prefix() default false;
+
+    KeyNormalization normalization() default KeyNormalization.NONE;
+
+    int bloomFilter() default 0;
+}
@@ -0,0 +1,44 @@
+/*
+ * (C) Copyright Hemajoo Systems Inc.  2019 - All Rights Reserved
+ * -----------------------------------------------------------------------------------------------
+ * All information contained herein is, and remains the property of
+ * Hemajoo Inc. and its suppliers, if any. The intellectual and technical
+ * concepts contained herein are proprietary to Hemajoo Inc. and its
+ * suppliers and may be covered by U.S. and Foreign Patents, patents
+ * in process, and are protected by trade secret or copyright law.
+ *
+ * Dissemination of this information or reproduction of this material
+ * is strictly forbidden unless prior written permission is obtained from
+ * Hemajoo Systems Inc.
+ * -----------------------------------------------------------------------------------------------
+ */
+package com.ressec.hemajoo.foundation.common.entity.keyable;
+
+/**
+ * Stub of the keyable companion interface (foundation-common) used to compile the companions generated by the
+ * tests. Its methods must match the ones of the actual interface.
+ * @author <a href="mailto:christophe.resse@gmail.com">Christophe Resse</a>
+ * @version 1.0.0
+ */
+public interface IKeyableCompanion
+{
+    String SUFFIX = "KeyCompanion";
+
+    Class<? extends IKeyable> getKeyableClass();
+
+    String getFingerprint();
+
+    int getKeyCount();
+
+    int indexOf(final String keyName);
+
+    boolean isAccessible(final int index);
+
+    Object get(final IKeyable keyable, final int index);
+
+    void set(final IKeyable keyable, final int index, final Object value);
+
+    long getLong(final IKeyable keyable, final int index);
+
+    void setLong(final IKeyable keyable, final int index, final long value);
+}